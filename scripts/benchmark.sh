@@ -0,0 +1,24 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks of spring-aot-benchmarks and writes their results as JSON to
+# spring-aot-benchmarks/target/jmh-result-<commit>.json, so that runs on different commits can be compared.
+# $1 is an optional regular expression selecting the benchmarks to run (all of them by default).
+# $2 is an optional sample (e.g. petclinic-jpa), whose classpath the analysis benchmarks then run against
+# instead of the synthetic ones.
+
+set -e
+cd "$(dirname "$0")/.."
+
+BENCHMARKS=${1:-.}
+RESULT=$PWD/spring-aot-benchmarks/target/jmh-result-$(git rev-parse --short HEAD).json
+
+./mvnw -q -DskipTests install -pl spring-aot-benchmarks -am
+
+if ! [ -z "$2" ]; then
+  CLASSPATH_FILE=$PWD/spring-aot-benchmarks/target/$2.classpath
+  (cd samples/$2 && mvn -q -DskipTests package dependency:build-classpath -Dmdep.outputFile=$CLASSPATH_FILE)
+  echo -n "$PWD/samples/$2/target/classes:$(cat $CLASSPATH_FILE)" > $CLASSPATH_FILE
+  BENCHMARKS="$BENCHMARKS -p fixture=sample:$CLASSPATH_FILE"
+fi
+
+./mvnw -pl spring-aot-benchmarks exec:exec -Dbenchmarks="$BENCHMARKS" -Djmh.result=$RESULT
+echo "Results written to $RESULT"
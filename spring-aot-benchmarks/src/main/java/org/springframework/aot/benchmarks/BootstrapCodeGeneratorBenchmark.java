@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.aot.BootstrapCodeGenerator;
+import org.springframework.nativex.AotOptions;
+
+/**
+ * The whole of the AOT generation for a {@link Fixture}, as run by the build plugins: every
+ * contributor, and the writing of the generated sources and native configuration.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BootstrapCodeGeneratorBenchmark {
+
+	@Param({ "synthetic-1000", "synthetic-10000", "synthetic-50000" })
+	String fixture;
+
+	private Fixture classpath;
+
+	private Path output;
+
+	@Setup(Level.Trial)
+	public void createFixture() throws IOException {
+		this.classpath = Fixture.of(this.fixture);
+	}
+
+	@Setup(Level.Iteration)
+	public void createOutput() throws IOException {
+		this.output = Files.createTempDirectory("aot-generate-");
+	}
+
+	@TearDown(Level.Iteration)
+	public void deleteOutput() throws IOException {
+		try (Stream<Path> files = Files.walk(this.output)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFixture() throws IOException {
+		this.classpath.delete();
+	}
+
+	@Benchmark
+	public Path generate() throws IOException {
+		new BootstrapCodeGenerator(new AotOptions()).generate(this.output.resolve("sources"), this.output.resolve("resources"),
+				this.classpath.getClasspath(), null, Collections.emptySet());
+		return this.output;
+	}
+
+}
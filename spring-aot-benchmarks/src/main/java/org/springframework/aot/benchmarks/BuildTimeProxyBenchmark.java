@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.aop.framework.BuildTimeAopProxy;
+import org.springframework.aop.framework.BuildTimeProxyDescriptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.ProxyGenerator;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.nativex.hint.ProxyBits;
+
+/**
+ * Calls through a class proxy generated as at build time, to a method with advice and to one
+ * without. Frozen configurations reuse the advice chain of each method, the others look it up on
+ * every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuildTimeProxyBenchmark {
+
+	@Param({ "true", "false" })
+	boolean frozen;
+
+	private Greeter proxy;
+
+	@Setup
+	public void setup() {
+		ProxyFactory factory = new ProxyFactory(new Greeter());
+		factory.setProxyTargetClass(true);
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(new PassThroughInterceptor());
+		advisor.setMappedName("advised");
+		factory.addAdvisor(advisor);
+		factory.setFrozen(this.frozen);
+		int bits = ProxyBits.IS_STATIC | (this.frozen ? ProxyBits.IS_FROZEN : ProxyBits.NONE);
+		BuildTimeProxyDescriptor descriptor = new BuildTimeProxyDescriptor(Greeter.class.getName(), Collections.emptyList(), bits);
+		ClassLoader classLoader = getClass().getClassLoader();
+		ClassLoader proxyClassLoader = ProxyGenerator.getProxyBytes(descriptor, classLoader)
+				.load(classLoader, ClassLoadingStrategy.Default.WRAPPER).getLoaded().getClassLoader();
+		this.proxy = (Greeter) new BuildTimeAopProxy(factory).getProxy(proxyClassLoader);
+	}
+
+	@Benchmark
+	public String advised() {
+		return this.proxy.advised("world");
+	}
+
+	@Benchmark
+	public String unadvised() {
+		return this.proxy.unadvised("world");
+	}
+
+	public static class Greeter {
+
+		public String advised(String name) {
+			return "Hello " + name;
+		}
+
+		public String unadvised(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+	static class PassThroughInterceptor implements MethodInterceptor {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			return invocation.proceed();
+		}
+
+	}
+
+}
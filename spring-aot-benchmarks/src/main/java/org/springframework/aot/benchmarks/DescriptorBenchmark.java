@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
+import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
+import org.springframework.nativex.hint.Flag;
+
+/**
+ * Building, merging and (un)marshalling reflection descriptors of many classes, as the analysis
+ * does for reflect-config.json. The descriptors merged overlap by half, so both the lookup of
+ * existing classes and the merge of their members are exercised.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DescriptorBenchmark {
+
+	@Param({ "10000", "50000", "100000" })
+	int classes;
+
+	private ReflectionDescriptor first;
+
+	private ReflectionDescriptor second;
+
+	private byte[] json;
+
+	@Setup
+	public void setup() throws IOException {
+		this.first = build(0, this.classes, "first");
+		this.second = build(this.classes / 2, this.classes + this.classes / 2, "second");
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		JsonMarshaller.write(this.first, os);
+		this.json = os.toByteArray();
+	}
+
+	@Benchmark
+	public ReflectionDescriptor build() {
+		return build(0, this.classes, "first");
+	}
+
+	@Benchmark
+	public ReflectionDescriptor merge() {
+		ReflectionDescriptor merged = new ReflectionDescriptor();
+		merged.merge(this.first);
+		merged.merge(this.second);
+		return merged;
+	}
+
+	@Benchmark
+	public byte[] write() throws IOException {
+		ByteArrayOutputStream os = new ByteArrayOutputStream(this.json.length);
+		JsonMarshaller.write(this.first, os);
+		return os.toByteArray();
+	}
+
+	@Benchmark
+	public ReflectionDescriptor read() throws Exception {
+		return JsonMarshaller.read(this.json);
+	}
+
+	private static ReflectionDescriptor build(int from, int to, String variant) {
+		ReflectionDescriptor descriptor = new ReflectionDescriptor();
+		for (int i = from; i < to; i++) {
+			ClassDescriptor classDescriptor = ClassDescriptor.of("bench.app.p" + (i / 100) + ".Type" + i);
+			classDescriptor.setFlag(Flag.allDeclaredConstructors);
+			classDescriptor.addMethodDescriptor(MethodDescriptor.of(new String[] { "getName" }));
+			classDescriptor.addMethodDescriptor(MethodDescriptor.of(new String[] { "setName", "java.lang.String" }));
+			// A method the other descriptor does not have
+			classDescriptor.addMethodDescriptor(MethodDescriptor.of(new String[] { variant, "int" }));
+			classDescriptor.addFieldDescriptor(FieldDescriptor.of("name", false, false));
+			descriptor.add(classDescriptor);
+		}
+		return descriptor;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The classpath of an application to analyse, named by a benchmark parameter:
+ * <ul>
+ * <li>{@code synthetic-<classes>}: a {@link SyntheticClasspath} of that many classes, next to the
+ * Spring jars the benchmarks run with.</li>
+ * <li>{@code sample:<file>}: the classpath listed in the file, as written by
+ * {@code mvn dependency:build-classpath} for one of the samples, see {@code scripts/benchmark.sh}.</li>
+ * </ul>
+ */
+final class Fixture {
+
+	private static final String SYNTHETIC_PREFIX = "synthetic-";
+
+	private static final String SAMPLE_PREFIX = "sample:";
+
+	private final List<String> classpath;
+
+	private final SyntheticClasspath syntheticClasspath;
+
+	private Fixture(List<String> classpath, SyntheticClasspath syntheticClasspath) {
+		this.classpath = classpath;
+		this.syntheticClasspath = syntheticClasspath;
+	}
+
+	static Fixture of(String name) throws IOException {
+		if (name.startsWith(SYNTHETIC_PREFIX)) {
+			SyntheticClasspath syntheticClasspath = SyntheticClasspath.generate(Integer.parseInt(name.substring(SYNTHETIC_PREFIX.length())));
+			List<String> classpath = new ArrayList<>();
+			classpath.add(syntheticClasspath.getJar());
+			for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+				if (entry.endsWith(".jar")) {
+					classpath.add(entry);
+				}
+			}
+			return new Fixture(classpath, syntheticClasspath);
+		}
+		if (name.startsWith(SAMPLE_PREFIX)) {
+			String listed = new String(Files.readAllBytes(Paths.get(name.substring(SAMPLE_PREFIX.length()))), StandardCharsets.UTF_8);
+			List<String> classpath = new ArrayList<>();
+			for (String entry : listed.trim().split("[" + File.pathSeparator + "\\r\\n]+")) {
+				classpath.add(entry);
+			}
+			return new Fixture(classpath, null);
+		}
+		throw new IllegalArgumentException("Unknown fixture " + name + ", expected " + SYNTHETIC_PREFIX + "<classes> or "
+				+ SAMPLE_PREFIX + "<classpath file>");
+	}
+
+	List<String> getClasspath() {
+		return this.classpath;
+	}
+
+	void delete() throws IOException {
+		if (this.syntheticClasspath != null) {
+			this.syntheticClasspath.delete();
+		}
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.aot.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.support.ConfigurationCollector;
+import org.springframework.nativex.support.SpringAnalyzer;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * A full analysis of a {@link Fixture} by the {@link SpringAnalyzer}, each against a new
+ * {@link TypeSystem} so nothing is cached from one iteration to the next.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpringAnalyzerBenchmark {
+
+	@Param({ "synthetic-1000", "synthetic-10000", "synthetic-50000" })
+	String fixture;
+
+	private final AotOptions aotOptions = new AotOptions();
+
+	private Fixture classpath;
+
+	private TypeSystem typeSystem;
+
+	@Setup(Level.Trial)
+	public void createFixture() throws IOException {
+		this.classpath = Fixture.of(this.fixture);
+	}
+
+	@Setup(Level.Iteration)
+	public void createTypeSystem() {
+		this.typeSystem = new TypeSystem(this.classpath.getClasspath(), null, this.aotOptions);
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeTypeSystem() {
+		this.typeSystem.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteFixture() throws IOException {
+		this.classpath.delete();
+	}
+
+	@Benchmark
+	public ConfigurationCollector analyze() {
+		SpringAnalyzer springAnalyzer = new SpringAnalyzer(this.typeSystem, this.aotOptions);
+		springAnalyzer.analyze();
+		return springAnalyzer.getConfigurationCollector();
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * A jar of generated classes shaped like an application: packages of 100 classes, in chains of
+ * up to 10 classes extending each other from a common base class, each implementing one of 20
+ * interfaces. One class in 5 is annotated with a component annotation, itself meta-annotated, and
+ * one in 7 with a configuration annotation meta-annotated with the component one.
+ */
+final class SyntheticClasspath {
+
+	static final String BASE = "bench/api/Base";
+
+	static final String COMPONENT = "bench/api/Component";
+
+	static final String CONFIGURATION = "bench/api/Configuration";
+
+	static final String STEREOTYPE = "bench/api/Stereotype";
+
+	static final String SERVICE = "bench/api/Service";
+
+	static final int SERVICES = 20;
+
+	private static final int PACKAGE_SIZE = 100;
+
+	private static final int CHAIN_LENGTH = 10;
+
+	private final Path jar;
+
+	private final List<String> typeNames;
+
+	private SyntheticClasspath(Path jar, List<String> typeNames) {
+		this.jar = jar;
+		this.typeNames = typeNames;
+	}
+
+	/**
+	 * @param classes the number of application classes, on top of the few API types they share
+	 * @return the classpath, in a new temporary jar
+	 * @throws IOException if the jar cannot be written
+	 */
+	static SyntheticClasspath generate(int classes) throws IOException {
+		Path jar = Files.createTempFile("synthetic-" + classes + "-", ".jar");
+		List<String> typeNames = new ArrayList<>(classes);
+		try (JarOutputStream os = new JarOutputStream(Files.newOutputStream(jar))) {
+			write(os, BASE, generateClass(BASE, "java/lang/Object", new String[0], null));
+			write(os, STEREOTYPE, generateAnnotation(STEREOTYPE, null));
+			write(os, COMPONENT, generateAnnotation(COMPONENT, STEREOTYPE));
+			write(os, CONFIGURATION, generateAnnotation(CONFIGURATION, COMPONENT));
+			for (int i = 0; i < SERVICES; i++) {
+				write(os, SERVICE + i, generateInterface(SERVICE + i));
+			}
+			for (int i = 0; i < classes; i++) {
+				String name = typeName(i);
+				String superName = (i % CHAIN_LENGTH == 0) ? BASE : typeName(i - 1);
+				String annotation = (i % 7 == 0) ? CONFIGURATION : (i % 5 == 0) ? COMPONENT : null;
+				write(os, name, generateClass(name, superName, new String[] { SERVICE + (i % SERVICES) }, annotation));
+				typeNames.add(name);
+			}
+		}
+		return new SyntheticClasspath(jar, typeNames);
+	}
+
+	/**
+	 * @return the path of the jar
+	 */
+	String getJar() {
+		return this.jar.toString();
+	}
+
+	/**
+	 * @return the slashed names of the application classes, in generation order
+	 */
+	List<String> getTypeNames() {
+		return this.typeNames;
+	}
+
+	void delete() throws IOException {
+		Files.deleteIfExists(this.jar);
+	}
+
+	private static String typeName(int index) {
+		return "bench/app/p" + (index / PACKAGE_SIZE) + "/Type" + index;
+	}
+
+	private static void write(JarOutputStream os, String name, byte[] bytes) throws IOException {
+		os.putNextEntry(new JarEntry(name + ".class"));
+		os.write(bytes);
+		os.closeEntry();
+	}
+
+	private static byte[] generateClass(String name, String superName, String[] interfaces, String annotation) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, superName, interfaces);
+		if (annotation != null) {
+			cw.visitAnnotation("L" + annotation + ";", true).visitEnd();
+		}
+		cw.visitField(Opcodes.ACC_PRIVATE, "name", "Ljava/lang/String;", null, null).visitEnd();
+		MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+		MethodVisitor getName = cw.visitMethod(Opcodes.ACC_PUBLIC, "getName", "()Ljava/lang/String;", null, null);
+		getName.visitCode();
+		getName.visitVarInsn(Opcodes.ALOAD, 0);
+		getName.visitFieldInsn(Opcodes.GETFIELD, name, "name", "Ljava/lang/String;");
+		getName.visitInsn(Opcodes.ARETURN);
+		getName.visitMaxs(0, 0);
+		getName.visitEnd();
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static byte[] generateInterface(String name) {
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE, name, null,
+				"java/lang/Object", null);
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+	private static byte[] generateAnnotation(String name, String metaAnnotation) {
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE | Opcodes.ACC_ANNOTATION,
+				name, null, "java/lang/Object", new String[] { "java/lang/annotation/Annotation" });
+		AnnotationVisitor retention = cw.visitAnnotation("Ljava/lang/annotation/Retention;", true);
+		retention.visitEnum("value", "Ljava/lang/annotation/RetentionPolicy;", "RUNTIME");
+		retention.visitEnd();
+		if (metaAnnotation != null) {
+			cw.visitAnnotation("L" + metaAnnotation + ";", true).visitEnd();
+		}
+		cw.visitEnd();
+		return cw.toByteArray();
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Lookups against a {@link TypeSystem} over a synthetic classpath, once it is indexed and scanned.
+ * The lookups cycle through all the classes, so that resolving a type measures the cached path and
+ * finding its bytes measures a read through the classpath index. {@link #findWithoutIndex()} reads
+ * them by walking the jar instead, as lookups did before the classpath was indexed. Hierarchy
+ * checks are made against the last class of each chain, ten classes deep.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeSystemBenchmark {
+
+	private static final String COMPONENT_DESCRIPTOR = "L" + SyntheticClasspath.COMPONENT + ";";
+
+	@Param({ "1000", "10000", "50000" })
+	int classes;
+
+	private SyntheticClasspath classpath;
+
+	private TypeSystem typeSystem;
+
+	private String[] typeNames;
+
+	private Type base;
+
+	// The last class of each chain, the one with the deepest hierarchy
+	private Type[] deepTypes;
+
+	private int nextTypeName;
+
+	private int nextDeepType;
+
+	@Setup
+	public void setup() throws IOException {
+		this.classpath = SyntheticClasspath.generate(this.classes);
+		this.typeSystem = new TypeSystem(Collections.singletonList(this.classpath.getJar()));
+		this.typeSystem.scan();
+		List<String> names = this.classpath.getTypeNames();
+		this.typeNames = names.toArray(new String[0]);
+		this.base = this.typeSystem.resolveSlashed(SyntheticClasspath.BASE);
+		this.deepTypes = new Type[names.size() / 10];
+		for (int i = 0; i < this.deepTypes.length; i++) {
+			this.deepTypes[i] = this.typeSystem.resolveSlashed(names.get(i * 10 + 9));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.typeSystem.close();
+		this.classpath.delete();
+	}
+
+	@Benchmark
+	public Type resolveSlashed() {
+		return this.typeSystem.resolveSlashed(nextTypeName());
+	}
+
+	@Benchmark
+	public byte[] find() {
+		return this.typeSystem.find(nextTypeName());
+	}
+
+	@Benchmark
+	public byte[] findWithoutIndex() throws IOException {
+		String entryName = nextTypeName() + ".class";
+		try (ZipFile zipFile = new ZipFile(this.classpath.getJar())) {
+			Enumeration<? extends ZipEntry> entries = zipFile.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				if (entry.getName().equals(entryName)) {
+					try (InputStream is = zipFile.getInputStream(entry)) {
+						byte[] bytes = new byte[(int) entry.getSize()];
+						int read = 0;
+						while (read < bytes.length) {
+							read += is.read(bytes, read, bytes.length - read);
+						}
+						return bytes;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public List<String> findTypesAnnotated() {
+		return this.typeSystem.findTypesAnnotated(COMPONENT_DESCRIPTOR, true);
+	}
+
+	@Benchmark
+	public List<Type> getSubtypes() {
+		return this.base.getSubtypes();
+	}
+
+	@Benchmark
+	public boolean isAssignableFrom() {
+		return this.base.isAssignableFrom(nextDeepType());
+	}
+
+	@Benchmark
+	public boolean isMetaAnnotatedInHierarchy() {
+		return nextDeepType().isMetaAnnotated(SyntheticClasspath.STEREOTYPE, true);
+	}
+
+	@Benchmark
+	public boolean implementsInterface() {
+		return nextDeepType().implementsInterface(SyntheticClasspath.SERVICE + "0");
+	}
+
+	private String nextTypeName() {
+		String typeName = this.typeNames[this.nextTypeName];
+		this.nextTypeName = (this.nextTypeName + 1) % this.typeNames.length;
+		return typeName;
+	}
+
+	private Type nextDeepType() {
+		Type type = this.deepTypes[this.nextDeepType];
+		this.nextDeepType = (this.nextDeepType + 1) % this.deepTypes.length;
+		return type;
+	}
+
+}
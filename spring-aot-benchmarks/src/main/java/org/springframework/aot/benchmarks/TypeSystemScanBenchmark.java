@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.benchmarks;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Indexing and scanning a synthetic classpath, each with a new {@link TypeSystem} so nothing is
+ * cached from one iteration to the next.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeSystemScanBenchmark {
+
+	@Param({ "1000", "10000", "50000" })
+	int classes;
+
+	private SyntheticClasspath classpath;
+
+	private TypeSystem typeSystem;
+
+	@Setup(Level.Trial)
+	public void generate() throws IOException {
+		this.classpath = SyntheticClasspath.generate(this.classes);
+	}
+
+	@Setup(Level.Iteration)
+	public void createTypeSystem() {
+		this.typeSystem = new TypeSystem(Collections.singletonList(this.classpath.getJar()));
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeTypeSystem() {
+		this.typeSystem.close();
+	}
+
+	@TearDown(Level.Trial)
+	public void delete() throws IOException {
+		this.classpath.delete();
+	}
+
+	@Benchmark
+	public TypeSystem index() {
+		TypeSystem typeSystem = new TypeSystem(Collections.singletonList(this.classpath.getJar()));
+		typeSystem.close();
+		return typeSystem;
+	}
+
+	@Benchmark
+	public TypeSystem scan() {
+		this.typeSystem.scan();
+		return this.typeSystem;
+	}
+
+}
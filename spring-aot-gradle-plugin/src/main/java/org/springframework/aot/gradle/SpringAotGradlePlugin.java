@@ -17,13 +17,10 @@
 package org.springframework.aot.gradle;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 
-import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.file.DuplicatesStrategy;
@@ -42,7 +39,6 @@ import org.springframework.boot.gradle.plugin.SpringBootPlugin;
 import org.springframework.boot.gradle.tasks.bundling.BootJar;
 import org.springframework.boot.gradle.tasks.run.BootRun;
 import org.springframework.nativex.utils.VersionExtractor;
-import org.springframework.util.FileSystemUtils;
 
 /**
  * {@link Plugin} that generates AOT sources using {@code spring-native-aot} and compiles them.
@@ -62,6 +58,8 @@ public class SpringAotGradlePlugin implements Plugin<Project> {
 
 	public static final String GENERATE_TEST_TASK_NAME = "generateTestAot";
 
+	// Set (e.g. -Pspring.aot.profile) to profile generation
+	private static final String PROFILE_PROPERTY = "spring.aot.profile";
 
 	@Override
 	public void apply(Project project) {
@@ -74,19 +72,29 @@ public class SpringAotGradlePlugin implements Plugin<Project> {
 			String buildPath = project.getBuildDir().getAbsolutePath();
 			Path generatedSourcesPath = Paths.get(buildPath, "generated", "sources");
 			Path generatedResourcesPath = Paths.get(buildPath, "generated", "resources");
+			Path analysisCachePath = Paths.get(buildPath, "spring-aot", "cache");
+			Path profilePath = Paths.get(buildPath, "spring-aot", "profile");
+			boolean profile = project.hasProperty(PROFILE_PROPERTY);
 			SourceSetContainer sourceSets = project.getConvention().getPlugin(JavaPluginConvention.class).getSourceSets();
 
-			recreateGeneratedSourcesFolder(Paths.get(buildPath, "generated"));
 			File aotSourcesDirectory = generatedSourcesPath.resolve(AOT_SOURCE_SET_NAME).toFile();
 			File aotResourcesDirectory = generatedResourcesPath.resolve(AOT_SOURCE_SET_NAME).toFile();
 			SourceSet aotSourceSet = createAotSourceSet(sourceSets, aotSourcesDirectory, aotResourcesDirectory);
 			GenerateAotSources generateAotSources = createGenerateAotSourcesTask(project.getTasks(), sourceSets, aotSourcesDirectory, aotResourcesDirectory);
+			generateAotSources.getAnalysisCacheDirectory().set(analysisCachePath.resolve(AOT_SOURCE_SET_NAME).toFile());
+			if (profile) {
+				generateAotSources.getProfileDirectory().set(profilePath.resolve(AOT_SOURCE_SET_NAME).toFile());
+			}
 			configureAotTasks(project, aotSourceSet, generateAotSources);
 
 			File aotTestSourcesDirectory = generatedSourcesPath.resolve(AOT_TEST_SOURCE_SET_NAME).toFile();
 			File aotTestResourcesDirectory = generatedResourcesPath.resolve(AOT_TEST_SOURCE_SET_NAME).toFile();
 			SourceSet aotTestSourceSet = createAotTestSourceSet(sourceSets, aotTestSourcesDirectory, aotTestResourcesDirectory);
 			GenerateAotSources generateAotTestSources = createGenerateAotTestSourcesTask(project.getTasks(), sourceSets, aotTestSourcesDirectory, aotTestResourcesDirectory);
+			generateAotTestSources.getAnalysisCacheDirectory().set(analysisCachePath.resolve(AOT_TEST_SOURCE_SET_NAME).toFile());
+			if (profile) {
+				generateAotTestSources.getProfileDirectory().set(profilePath.resolve(AOT_TEST_SOURCE_SET_NAME).toFile());
+			}
 			configureAotTestTasks(project.getTasks(), sourceSets, aotSourceSet, aotTestSourceSet, generateAotTestSources);
 			
 			project.getPlugins().withId("org.jetbrains.kotlin.jvm", kotlinPlugin -> {
@@ -98,16 +106,6 @@ public class SpringAotGradlePlugin implements Plugin<Project> {
 		});
 	}
 
-	private void recreateGeneratedSourcesFolder(Path generatedSourcesFolder) {
-		try {
-			FileSystemUtils.deleteRecursively(generatedSourcesFolder);
-			Files.createDirectories(generatedSourcesFolder);
-		}
-		catch (IOException exc) {
-			throw new GradleException("Failed to recreate folder '" + generatedSourcesFolder.toAbsolutePath() + "'", exc);
-		}
-	}
-
 	private void addSpringNativeDependency(Project project) {
 		String springNativeVersion = VersionExtractor.forClass(BootstrapCodeGenerator.class);
 		if (springNativeVersion != null) {
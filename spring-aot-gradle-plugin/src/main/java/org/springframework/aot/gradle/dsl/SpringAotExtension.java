@@ -51,6 +51,8 @@ public class SpringAotExtension {
 
 	private final Property<String> mainClass;
 
+	private final Property<Integer> scanParallelism;
+
 	public SpringAotExtension(ObjectFactory objectFactory) {
 		this.mode = objectFactory.property(AotMode.class).convention(AotMode.NATIVE);
 		this.debugVerify = objectFactory.property(Boolean.class).convention(false);
@@ -64,6 +66,7 @@ public class SpringAotExtension {
 		this.buildTimePropertiesMatchIfMissing = objectFactory.property(Boolean.class).convention(true);
 		this.buildTimePropertiesChecks = objectFactory.property(String[].class).convention(new String[0]);
 		this.mainClass = objectFactory.property(String.class).convention((String)null);
+		this.scanParallelism = objectFactory.property(Integer.class).convention(0);
 	}
 
 	/**
@@ -136,6 +139,13 @@ public class SpringAotExtension {
 		return this.mainClass;
 	}
 
+	/**
+	 * Number of threads used to scan the classpath, 0 (the default) uses one thread per available processor.
+	 */
+	public Property<Integer> getScanParallelism() {
+		return this.scanParallelism;
+	}
+
 	/**
 	 * Whether AOT should honor the {@code matchIfMissing} directive in configuration properties.
 	 * If disabled, the application needs to explicitly activate {@code *.enable} configuration properties
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import org.gradle.api.provider.Property;
 import org.gradle.api.provider.Provider;
 import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 
 import org.gradle.api.tasks.Optional;
 import org.springframework.aot.gradle.dsl.SpringAotExtension;
@@ -57,6 +58,8 @@ public class GenerateAotOptions implements Serializable {
 
 	private final Property<String[]> buildTimePropertiesChecks;
 
+	private final Property<Integer> scanParallelism;
+
 	public GenerateAotOptions(SpringAotExtension extension) {
 		this.mode = extension.getMode().map(aotMode -> aotMode.getSlug());
 		this.debugVerify = extension.getDebugVerify();
@@ -70,6 +73,7 @@ public class GenerateAotOptions implements Serializable {
 		this.mainClass = extension.getMainClass();
 		this.buildTimePropertiesMatchIfMissing = extension.getBuildTimePropertiesMatchIfMissing();
 		this.buildTimePropertiesChecks = extension.getBuildTimePropertiesChecks();
+		this.scanParallelism = extension.getScanParallelism();
 	}
 
 	@Input
@@ -133,6 +137,11 @@ public class GenerateAotOptions implements Serializable {
 		return this.buildTimePropertiesChecks;
 	}
 
+	@Internal
+	public Property<Integer> getScanParallelism() {
+		return this.scanParallelism;
+	}
+
 	AotOptions toAotOptions() {
 		AotOptions options = new AotOptions();
 		options.setMode(this.mode.get());
@@ -146,6 +155,7 @@ public class GenerateAotOptions implements Serializable {
 		options.setFailOnMissingSelectorHint(this.failOnMissingSelectorHint.get());
 		options.setBuildTimePropertiesMatchIfMissing(this.buildTimePropertiesMatchIfMissing.get());
 		options.setBuildTimePropertiesChecks(this.buildTimePropertiesChecks.get());
+		options.setScanParallelism(this.scanParallelism.get());
 		return options;
 	}
 }
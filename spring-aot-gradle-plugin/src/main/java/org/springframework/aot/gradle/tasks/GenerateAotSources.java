@@ -18,7 +18,9 @@ package org.springframework.aot.gradle.tasks;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -28,16 +30,26 @@ import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.SourceDirectorySet;
 import org.gradle.api.tasks.*;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
 
 import org.springframework.aot.BootstrapCodeGenerator;
 import org.springframework.aot.gradle.dsl.SpringAotExtension;
+import org.springframework.nativex.AotOptions;
+import org.springframework.util.FileSystemUtils;
 
 /**
  * {@link org.gradle.api.Task} that generates AOT sources using the {@link BootstrapCodeGenerator}.
+ * <p>
+ * The sources are always generated as a whole, but when the task runs incrementally the analysis
+ * of the classpath entries that have not changed is reused from the analysis cache directory and
+ * only the changed entries are analysed again.
  *
  * @author Brian Clozel
  * @author Andy Wilkinson
  */
+@CacheableTask
 public class GenerateAotSources extends DefaultTask {
 
 	private FileCollection classpath;
@@ -48,15 +60,25 @@ public class GenerateAotSources extends DefaultTask {
 
 	private final DirectoryProperty resourcesOutputDirectory;
 
+	private final DirectoryProperty analysisCacheDirectory;
+
+	private final DirectoryProperty profileDirectory;
+
 	private final GenerateAotOptions aotOptions;
 
 	public GenerateAotSources() {
 		this.sourcesOutputDirectory = getProject().getObjects().directoryProperty();
 		this.resourcesOutputDirectory = getProject().getObjects().directoryProperty();
+		this.analysisCacheDirectory = getProject().getObjects().directoryProperty();
+		this.profileDirectory = getProject().getObjects().directoryProperty();
 		this.aotOptions = new GenerateAotOptions(getProject().getExtensions().findByType(SpringAotExtension.class));
+		// A profile is only useful if generation actually runs
+		getOutputs().upToDateWhen(task -> !this.profileDirectory.isPresent());
+		getOutputs().doNotCacheIf("Generation is profiled", task -> this.profileDirectory.isPresent());
 	}
 
-	@InputFiles
+	@Classpath
+	@Incremental
 	public FileCollection getClasspath() {
 		return this.classpath;
 	}
@@ -66,6 +88,7 @@ public class GenerateAotSources extends DefaultTask {
 	}
 
 	@InputFiles
+	@PathSensitive(PathSensitivity.RELATIVE)
 	public FileCollection getResourceDirectories() {
 		return this.resourceDirectories;
 	}
@@ -84,25 +107,62 @@ public class GenerateAotSources extends DefaultTask {
 		return this.resourcesOutputDirectory;
 	}
 
+	@LocalState
+	public DirectoryProperty getAnalysisCacheDirectory() {
+		return this.analysisCacheDirectory;
+	}
+
+	/**
+	 * The directory the profile of the generation is written to, if it is profiled.
+	 * @see AotOptions#getProfileDirectory()
+	 */
+	@Internal
+	public DirectoryProperty getProfileDirectory() {
+		return this.profileDirectory;
+	}
+
 	@Nested
 	public GenerateAotOptions getAotOptions() {
 		return this.aotOptions;
 	}
 
 	@TaskAction
-	public void generateSources() {
+	public void generateSources(InputChanges inputChanges) {
 		List<String> classpathElements = this.classpath.getFiles().stream()
 				.map(File::getAbsolutePath).collect(Collectors.toList());
 		Set<Path> resourcesElements = this.resourceDirectories.getSrcDirs().stream().map(File::toPath).collect(Collectors.toSet());
-		BootstrapCodeGenerator generator = new BootstrapCodeGenerator(this.aotOptions.toAotOptions());
+		AotOptions options = this.aotOptions.toAotOptions();
+		options.setAnalysisCacheDirectory(this.analysisCacheDirectory.getAsFile().getOrNull());
+		options.setProfileDirectory(this.profileDirectory.getAsFile().getOrNull());
+		if (inputChanges.isIncremental()) {
+			options.setUnchangedClasspathEntries(getUnchangedClasspathEntries(inputChanges));
+		}
+		BootstrapCodeGenerator generator = new BootstrapCodeGenerator(options);
 		try {
-			generator.generate(this.sourcesOutputDirectory.get().getAsFile().toPath(),
-					this.resourcesOutputDirectory.get().getAsFile().toPath(),
-					classpathElements, this.aotOptions.getMainClass().getOrNull(), resourcesElements);
+			Path sourcesPath = recreateDirectory(this.sourcesOutputDirectory.get().getAsFile().toPath());
+			Path resourcesPath = recreateDirectory(this.resourcesOutputDirectory.get().getAsFile().toPath());
+			generator.generate(sourcesPath, resourcesPath, classpathElements,
+					this.aotOptions.getMainClass().getOrNull(), resourcesElements);
 		}
 		catch (IOException exc) {
 			throw new TaskExecutionException(this, exc);
 		}
 	}
 
+	private Set<File> getUnchangedClasspathEntries(InputChanges inputChanges) {
+		Set<File> unchanged = new LinkedHashSet<>(this.classpath.getFiles());
+		for (FileChange change : inputChanges.getFileChanges(this.classpath)) {
+			// Changes within a directory are reported for the files it holds, not the directory itself
+			Path changed = change.getFile().toPath();
+			unchanged.removeIf(entry -> changed.startsWith(entry.toPath()));
+		}
+		return unchanged;
+	}
+
+	private Path recreateDirectory(Path directory) throws IOException {
+		// Output is regenerated as a whole, files from a previous run must not survive
+		FileSystemUtils.deleteRecursively(directory);
+		return Files.createDirectories(directory);
+	}
+
 }
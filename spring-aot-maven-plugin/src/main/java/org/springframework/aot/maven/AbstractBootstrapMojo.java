@@ -18,10 +18,14 @@ package org.springframework.aot.maven;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,6 +42,7 @@ import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.sonatype.plexus.build.incremental.BuildContext;
 import org.twdata.maven.mojoexecutor.MojoExecutor;
 
+import org.springframework.aot.BootstrapCodeGenerator;
 import org.springframework.nativex.AotOptions;
 import org.springframework.util.FileSystemUtils;
 
@@ -58,6 +63,8 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 
 	private static final String DEFAULT_COMPILER_PLUGIN_VERSION = "3.8.1";
 
+	private static final String FINGERPRINT_FILE = "spring-aot.fingerprint";
+
 	protected static Log logger = LogFactory.getLog(AbstractBootstrapMojo.class);
 
 	@Parameter(defaultValue = "${project}", readonly = true, required = true)
@@ -111,9 +118,30 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 	@Parameter
 	private boolean failOnMissingSelectorHint;
 
+	@Parameter
+	private int scanParallelism;
+
+	@Parameter(defaultValue = "${project.build.directory}/spring-aot/cache")
+	private File analysisCacheDirectory;
+
 	@Parameter(property = "spring.aot.mainClass")
 	protected String mainClass;
 
+	/**
+	 * Whether to skip generation when its inputs have not changed since the previous build, and
+	 * otherwise to only rewrite the generated files whose content changed.
+	 */
+	@Parameter(property = "spring.aot.incremental", defaultValue = "true")
+	private boolean incremental = true;
+
+	/**
+	 * Whether to profile generation, writing how long each of its phases takes, the CPU time and
+	 * memory they use, to {@code aot-profile.json} and {@code aot-profile.collapsed} in the folder
+	 * of the generated sources. Generation then always runs.
+	 */
+	@Parameter(property = "spring.aot.profile")
+	private boolean profile;
+
 	protected AotOptions getAotOptions() {
 		AotOptions aotOptions = new AotOptions();
 		aotOptions.setMode(mode);
@@ -128,16 +156,112 @@ abstract class AbstractBootstrapMojo extends AbstractMojo {
 		aotOptions.setBuildTimePropertiesMatchIfMissing(buildTimePropertiesMatchIfMissing);
 		aotOptions.setBuildTimePropertiesChecks(buildTimePropertiesChecks);
 		aotOptions.setFailOnMissingSelectorHint(failOnMissingSelectorHint);
+		aotOptions.setScanParallelism(scanParallelism);
+		aotOptions.setAnalysisCacheDirectory(analysisCacheDirectory);
 		return aotOptions;
 	}
 
-	protected void recreateGeneratedSourcesFolder(File generatedSourcesFolder) throws MojoFailureException {
-		try {
+	/**
+	 * @param generatedSourcesFolder the folder holding the generated sources and resources
+	 * @param classpath the classpath to generate against
+	 * @param resourceFolders the resource folders of the project
+	 * @return whether the classpath, the resource folders and the options are the same as when
+	 * generation into the folder was last recorded, so generating again is unnecessary
+	 * @throws IOException if the classpath or resource folders cannot be read
+	 */
+	protected boolean isUpToDate(File generatedSourcesFolder, List<String> classpath, Set<Path> resourceFolders) throws IOException {
+		if (!this.incremental || this.profile) {
+			return false;
+		}
+		GenerationFingerprint previous = GenerationFingerprint.load(getFingerprintFile(generatedSourcesFolder));
+		return previous != null && previous.equals(GenerationFingerprint.of(classpath, resourceFolders, getAotOptions(), this.mainClass));
+	}
+
+	/**
+	 * Generate the AOT sources and resources. After a previous generation into the same folder, the
+	 * analysis of the unchanged classpath entries is reused, and generation happens in a staging
+	 * folder from which only the files whose content changed are written to the generated folder,
+	 * so the compiler only sees those as stale.
+	 * @param generatedSourcesFolder the folder holding the generated sources and resources
+	 * @param sourcesPath the folder for the generated sources, within the generated folder
+	 * @param resourcesPath the folder for the generated resources, within the generated folder
+	 * @param classpath the classpath to generate against
+	 * @param resourceFolders the resource folders of the project
+	 * @throws IOException if generation fails
+	 */
+	protected void generate(File generatedSourcesFolder, Path sourcesPath, Path resourcesPath,
+			List<String> classpath, Set<Path> resourceFolders) throws IOException {
+		AotOptions aotOptions = getAotOptions();
+		if (this.profile) {
+			aotOptions.setProfileDirectory(generatedSourcesFolder);
+		}
+		Path fingerprintFile = getFingerprintFile(generatedSourcesFolder);
+		GenerationFingerprint previous = this.incremental ? GenerationFingerprint.load(fingerprintFile) : null;
+		// Until generation is recorded again, the generated folder may not match any inputs
+		Files.deleteIfExists(fingerprintFile);
+		if (previous == null) {
 			FileSystemUtils.deleteRecursively(generatedSourcesFolder);
-			Files.createDirectories(generatedSourcesFolder.toPath());
+			new BootstrapCodeGenerator(aotOptions).generate(sourcesPath, resourcesPath, classpath, this.mainClass, resourceFolders);
+			return;
+		}
+		aotOptions.setUnchangedClasspathEntries(GenerationFingerprint.of(classpath, resourceFolders, aotOptions, this.mainClass)
+				.getUnchangedClasspathEntries(previous));
+		Files.createDirectories(this.buildDir.toPath());
+		Path staging = Files.createTempDirectory(this.buildDir.toPath(), "spring-aot");
+		try {
+			Path stagingSourcesPath = staging.resolve(generatedSourcesFolder.toPath().relativize(sourcesPath));
+			Path stagingResourcesPath = staging.resolve(generatedSourcesFolder.toPath().relativize(resourcesPath));
+			new BootstrapCodeGenerator(aotOptions).generate(stagingSourcesPath, stagingResourcesPath, classpath,
+					this.mainClass, resourceFolders);
+			synchronize(stagingSourcesPath, sourcesPath);
+			synchronize(stagingResourcesPath, resourcesPath);
+		}
+		finally {
+			FileSystemUtils.deleteRecursively(staging);
+		}
+	}
+
+	/**
+	 * Record the inputs of a generation whose output has been compiled and processed. The output
+	 * folder is usually part of the classpath, so recording must happen after the generated
+	 * classes have been written to it.
+	 * @param generatedSourcesFolder the folder holding the generated sources and resources
+	 * @param classpath the classpath generation ran against
+	 * @param resourceFolders the resource folders of the project
+	 * @throws IOException if the fingerprint of the inputs cannot be stored
+	 */
+	protected void recordGeneration(File generatedSourcesFolder, List<String> classpath, Set<Path> resourceFolders) throws IOException {
+		GenerationFingerprint.of(classpath, resourceFolders, getAotOptions(), this.mainClass)
+				.store(getFingerprintFile(generatedSourcesFolder));
+	}
+
+	private Path getFingerprintFile(File generatedSourcesFolder) {
+		return generatedSourcesFolder.toPath().resolve(FINGERPRINT_FILE);
+	}
+
+	void synchronize(Path source, Path target) throws IOException {
+		Set<Path> generated;
+		try (Stream<Path> files = Files.walk(source)) {
+			generated = files.filter(Files::isRegularFile).map(source::relativize).collect(Collectors.toSet());
+		}
+		if (Files.isDirectory(target)) {
+			try (Stream<Path> files = Files.walk(target)) {
+				for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+					if (!generated.contains(target.relativize(file))) {
+						Files.delete(file);
+					}
+				}
+			}
 		}
-		catch (IOException exc) {
-			throw new MojoFailureException("Build failed during Spring AOT code generation", exc);
+		for (Path file : generated) {
+			byte[] content = Files.readAllBytes(source.resolve(file));
+			Path targetFile = target.resolve(file);
+			if (!Files.isRegularFile(targetFile) || !Arrays.equals(content, Files.readAllBytes(targetFile))) {
+				Files.createDirectories(targetFile.getParent());
+				try (OutputStream os = this.buildContext.newFileOutputStream(targetFile.toFile())) {
+					os.write(content);
+				}
+			}
 		}
 	}
 
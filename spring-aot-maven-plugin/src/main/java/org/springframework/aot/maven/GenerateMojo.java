@@ -32,8 +32,6 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 
-import org.springframework.aot.BootstrapCodeGenerator;
-
 /**
  * @author Brian Clozel
  * @author Sebastien Deleuze
@@ -56,15 +54,19 @@ public class GenerateMojo extends AbstractBootstrapMojo {
 			// TODO respect includes/excludes
 			resourceFolders.add(new File(r.getDirectory()).toPath());
 		}
-		recreateGeneratedSourcesFolder(this.generatedSourcesDirectory);
 		Path sourcesPath = this.generatedSourcesDirectory.toPath().resolve(Paths.get("src", "main", "java"));
 		Path resourcesPath = this.generatedSourcesDirectory.toPath().resolve(Paths.get("src", "main", "resources"));
 		try {
 			List<String> runtimeClasspathElements = project.getRuntimeClasspathElements();
-			BootstrapCodeGenerator generator = new BootstrapCodeGenerator(getAotOptions());
-			generator.generate(sourcesPath, resourcesPath, runtimeClasspathElements, mainClass, resourceFolders);
+			if (isUpToDate(this.generatedSourcesDirectory, runtimeClasspathElements, resourceFolders)) {
+				logger.info("Spring AOT code generation inputs are unchanged, skipping generation");
+				project.addCompileSourceRoot(sourcesPath.toString());
+				return;
+			}
+			generate(this.generatedSourcesDirectory, sourcesPath, resourcesPath, runtimeClasspathElements, resourceFolders);
 			compileGeneratedSources(sourcesPath, runtimeClasspathElements);
 			processGeneratedResources(resourcesPath, Paths.get(project.getBuild().getOutputDirectory()));
+			recordGeneration(this.generatedSourcesDirectory, runtimeClasspathElements, resourceFolders);
 			this.buildContext.refresh(this.buildDir);
 		}
 		catch (Throwable exc) {
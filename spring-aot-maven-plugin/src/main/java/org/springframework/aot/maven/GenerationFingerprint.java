@@ -0,0 +1,214 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.nativex.AotOptions;
+
+/**
+ * Fingerprint of the inputs of an AOT generation: the classpath, the resource folders and the
+ * {@link AotOptions}. It is stored with the generated sources so the next build can tell whether
+ * generating again could produce anything different and, if so, which classpath entries changed.
+ * <p>
+ * Entries are fingerprinted by their size and modification time rather than their contents, jars
+ * are replaced rather than modified in place and a directory fingerprint covers every file in it.
+ */
+class GenerationFingerprint {
+
+	// Bump when the entries recorded, or how they are computed, change
+	private static final String VERSION = "1";
+
+	private static final String CLASSPATH_PREFIX = "classpath:";
+
+	private static final String RESOURCES_PREFIX = "resources:";
+
+	// Options that affect how generation runs but not what it generates
+	private static final Set<String> IGNORED_OPTIONS = new LinkedHashSet<>(Arrays.asList(
+			"getAnalysisCacheDirectory", "getUnchangedClasspathEntries", "getScanParallelism", "getProfileDirectory"));
+
+	private final Map<String, String> entries;
+
+	private GenerationFingerprint(Map<String, String> entries) {
+		this.entries = entries;
+	}
+
+	/**
+	 * @param classpath the classpath elements generation runs against
+	 * @param resourceFolders the resource folders of the project
+	 * @param aotOptions the options generation runs with
+	 * @param mainClass the main class, may be null
+	 * @return the fingerprint of those inputs in their current state
+	 * @throws IOException if a classpath entry or resource folder cannot be read
+	 */
+	static GenerationFingerprint of(List<String> classpath, Set<Path> resourceFolders, AotOptions aotOptions,
+			String mainClass) throws IOException {
+		Map<String, String> entries = new TreeMap<>();
+		entries.put("version", VERSION);
+		entries.put("options", describe(aotOptions) + ",mainClass=" + mainClass);
+		entries.put("classpath", String.join(File.pathSeparator, classpath));
+		for (String element : classpath) {
+			entries.put(CLASSPATH_PREFIX + element, fingerprint(new File(element).toPath()));
+		}
+		for (Path folder : resourceFolders) {
+			entries.put(RESOURCES_PREFIX + folder, fingerprint(folder));
+		}
+		return new GenerationFingerprint(entries);
+	}
+
+	/**
+	 * @param file the file a fingerprint was stored in
+	 * @return the stored fingerprint, or null if there is none (or it could not be read)
+	 */
+	static GenerationFingerprint load(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream is = Files.newInputStream(file)) {
+			properties.load(is);
+		}
+		catch (IOException | IllegalArgumentException ex) {
+			// A malformed escape sequence is reported as an IllegalArgumentException
+			return null;
+		}
+		Map<String, String> entries = new TreeMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			entries.put(name, properties.getProperty(name));
+		}
+		return VERSION.equals(entries.get("version")) ? new GenerationFingerprint(entries) : null;
+	}
+
+	void store(Path file) throws IOException {
+		Properties properties = new Properties();
+		properties.putAll(this.entries);
+		Files.createDirectories(file.getParent());
+		try (OutputStream os = Files.newOutputStream(file)) {
+			properties.store(os, "Inputs of the last Spring AOT generation");
+		}
+	}
+
+	/**
+	 * @param previous the fingerprint of a previous generation
+	 * @return the classpath entries of this fingerprint that have not changed since then, or null if
+	 * the options changed, in which case nothing of the previous generation can be reused
+	 */
+	Set<File> getUnchangedClasspathEntries(GenerationFingerprint previous) {
+		if (!Objects.equals(this.entries.get("options"), previous.entries.get("options"))) {
+			return null;
+		}
+		return this.entries.entrySet().stream()
+				.filter(entry -> entry.getKey().startsWith(CLASSPATH_PREFIX))
+				.filter(entry -> entry.getValue().equals(previous.entries.get(entry.getKey())))
+				.map(entry -> new File(entry.getKey().substring(CLASSPATH_PREFIX.length())))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (other == null || getClass() != other.getClass()) {
+			return false;
+		}
+		return this.entries.equals(((GenerationFingerprint) other).entries);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.entries.hashCode();
+	}
+
+	private static String describe(AotOptions aotOptions) {
+		// Every property takes part, so an option added later cannot be overlooked here
+		return Arrays.stream(AotOptions.class.getMethods())
+				.filter(method -> method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers()))
+				.filter(method -> method.getName().startsWith("get") || method.getName().startsWith("is"))
+				.filter(method -> method.getDeclaringClass() == AotOptions.class)
+				.filter(method -> !IGNORED_OPTIONS.contains(method.getName()))
+				.sorted(Comparator.comparing(Method::getName))
+				.map(method -> method.getName() + "=" + invoke(method, aotOptions))
+				.collect(Collectors.joining(","));
+	}
+
+	private static String invoke(Method method, AotOptions aotOptions) {
+		try {
+			Object value = method.invoke(aotOptions);
+			return (value instanceof Object[]) ? Arrays.toString((Object[]) value) : String.valueOf(value);
+		}
+		catch (ReflectiveOperationException ex) {
+			throw new IllegalStateException("Unable to read AOT option " + method.getName(), ex);
+		}
+	}
+
+	private static String fingerprint(Path path) throws IOException {
+		if (!Files.exists(path)) {
+			return "missing";
+		}
+		if (!Files.isDirectory(path)) {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			return attributes.size() + "-" + attributes.lastModifiedTime().toMillis();
+		}
+		MessageDigest digest = newDigest();
+		try (Stream<Path> files = Files.walk(path)) {
+			for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+				BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				String description = path.relativize(file) + "=" + attributes.size() + "-"
+						+ attributes.lastModifiedTime().toMillis() + "\n";
+				digest.update(description.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		StringBuilder fingerprint = new StringBuilder();
+		for (byte b : digest.digest()) {
+			fingerprint.append(String.format("%02x", b));
+		}
+		return fingerprint.toString();
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -32,8 +32,6 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
 
-import org.springframework.aot.BootstrapCodeGenerator;
-
 /**
  * @author Brian Clozel
  * @author Sebastien Deleuze
@@ -56,15 +54,19 @@ public class TestGenerateMojo extends AbstractBootstrapMojo {
 			// TODO respect includes/excludes
 			resourceFolders.add(new File(r.getDirectory()).toPath());
 		}
-		recreateGeneratedSourcesFolder(this.generatedTestSourcesDirectory);
 		Path sourcesPath = this.generatedTestSourcesDirectory.toPath().resolve(Paths.get("src", "test", "java"));
 		Path resourcesPath = this.generatedTestSourcesDirectory.toPath().resolve(Paths.get("src", "test", "resources"));
 		try {
 			List<String> testClasspathElements = this.project.getTestClasspathElements();
-			BootstrapCodeGenerator generator = new BootstrapCodeGenerator(getAotOptions());
-			generator.generate(sourcesPath, resourcesPath, testClasspathElements, mainClass, resourceFolders);
+			if (isUpToDate(this.generatedTestSourcesDirectory, testClasspathElements, resourceFolders)) {
+				logger.info("Spring AOT test code generation inputs are unchanged, skipping generation");
+				project.addTestCompileSourceRoot(sourcesPath.toString());
+				return;
+			}
+			generate(this.generatedTestSourcesDirectory, sourcesPath, resourcesPath, testClasspathElements, resourceFolders);
 			compileGeneratedTestSources(sourcesPath, testClasspathElements);
 			processGeneratedTestResources(resourcesPath, Paths.get(project.getBuild().getTestOutputDirectory()));
+			recordGeneration(this.generatedTestSourcesDirectory, testClasspathElements, resourceFolders);
 			this.buildContext.refresh(this.buildDir);
 		}
 		catch (Throwable exc) {
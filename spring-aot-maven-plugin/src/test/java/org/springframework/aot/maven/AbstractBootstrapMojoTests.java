@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.build.incremental.DefaultBuildContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the incremental generation support of {@link AbstractBootstrapMojo}.
+ */
+class AbstractBootstrapMojoTests {
+
+	@TempDir
+	Path directory;
+
+	private final TestBootstrapMojo mojo = new TestBootstrapMojo();
+
+	private File generatedSourcesFolder;
+
+	private Path jar;
+
+	private List<String> classpath;
+
+	@BeforeEach
+	void createClasspath() throws IOException {
+		this.mojo.buildContext = new DefaultBuildContext();
+		this.generatedSourcesFolder = this.directory.resolve("generated").toFile();
+		this.jar = write(this.directory.resolve("library.jar"), "library");
+		this.classpath = Arrays.asList(this.jar.toString());
+	}
+
+	@Test
+	void generationIsUpToDateWhenInputsAreUnchanged() throws IOException {
+		this.mojo.recordGeneration(this.generatedSourcesFolder, this.classpath, Collections.emptySet());
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, this.classpath, Collections.emptySet())).isTrue();
+	}
+
+	@Test
+	void generationIsNotUpToDateWhenClasspathEntryChanges() throws IOException {
+		this.mojo.recordGeneration(this.generatedSourcesFolder, this.classpath, Collections.emptySet());
+		write(this.jar, "changed library");
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, this.classpath, Collections.emptySet())).isFalse();
+	}
+
+	@Test
+	void generationIsNotUpToDateWhenClasspathChanges() throws IOException {
+		this.mojo.recordGeneration(this.generatedSourcesFolder, this.classpath, Collections.emptySet());
+		List<String> classpath = Arrays.asList(this.jar.toString(), write(this.directory.resolve("other.jar"), "other").toString());
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, classpath, Collections.emptySet())).isFalse();
+	}
+
+	@Test
+	void generationIsNotUpToDateWhenOptionChanges() throws IOException {
+		this.mojo.recordGeneration(this.generatedSourcesFolder, this.classpath, Collections.emptySet());
+		this.mojo.mode = "native-agent";
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, this.classpath, Collections.emptySet())).isFalse();
+	}
+
+	@Test
+	void generationIsNotUpToDateWithoutRecordedFingerprint() throws IOException {
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, this.classpath, Collections.emptySet())).isFalse();
+	}
+
+	@Test
+	void generationIsNotUpToDateWithCorruptFingerprint() throws IOException {
+		this.mojo.recordGeneration(this.generatedSourcesFolder, this.classpath, Collections.emptySet());
+		write(this.generatedSourcesFolder.toPath().resolve("spring-aot.fingerprint"), "version=\\u00zz");
+		assertThat(this.mojo.isUpToDate(this.generatedSourcesFolder, this.classpath, Collections.emptySet())).isFalse();
+	}
+
+	@Test
+	void synchronizeDeletesFilesThatAreNoLongerGenerated() throws IOException {
+		Path staging = this.directory.resolve("staging");
+		Path target = this.directory.resolve("target");
+		write(staging.resolve("com/example/Kept.java"), "kept");
+		write(target.resolve("com/example/Kept.java"), "kept");
+		write(target.resolve("com/example/Removed.java"), "removed");
+		this.mojo.synchronize(staging, target);
+		assertThat(target.resolve("com/example/Kept.java")).exists();
+		assertThat(target.resolve("com/example/Removed.java")).doesNotExist();
+	}
+
+	@Test
+	void synchronizeOnlyRewritesFilesWhoseContentChanged() throws IOException {
+		Path staging = this.directory.resolve("staging");
+		Path target = this.directory.resolve("target");
+		write(staging.resolve("Unchanged.java"), "unchanged");
+		write(staging.resolve("Changed.java"), "changed");
+		write(staging.resolve("Added.java"), "added");
+		FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+		Files.setLastModifiedTime(write(target.resolve("Unchanged.java"), "unchanged"), past);
+		Files.setLastModifiedTime(write(target.resolve("Changed.java"), "original"), past);
+		this.mojo.synchronize(staging, target);
+		assertThat(Files.getLastModifiedTime(target.resolve("Unchanged.java"))).isEqualTo(past);
+		assertThat(target.resolve("Changed.java")).hasContent("changed");
+		assertThat(target.resolve("Added.java")).hasContent("added");
+	}
+
+	private static Path write(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent());
+		return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static class TestBootstrapMojo extends AbstractBootstrapMojo {
+
+		@Override
+		public void execute() {
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.nativex.AotOptions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link GenerationFingerprint}.
+ */
+class GenerationFingerprintTests {
+
+	@TempDir
+	Path directory;
+
+	private Path jar;
+
+	private Path classes;
+
+	private List<String> classpath;
+
+	@BeforeEach
+	void createClasspath() throws IOException {
+		this.jar = Files.write(this.directory.resolve("library.jar"), "library".getBytes(StandardCharsets.UTF_8));
+		this.classes = Files.createDirectories(this.directory.resolve("classes"));
+		Files.write(this.classes.resolve("Application.class"), "application".getBytes(StandardCharsets.UTF_8));
+		this.classpath = Arrays.asList(this.jar.toString(), this.classes.toString());
+	}
+
+	@Test
+	void unchangedInputsHaveTheSameFingerprint() throws IOException {
+		GenerationFingerprint fingerprint = fingerprint(new AotOptions());
+		Path file = this.directory.resolve("fingerprint");
+		fingerprint.store(file);
+		assertThat(GenerationFingerprint.load(file)).isEqualTo(fingerprint).isEqualTo(fingerprint(new AotOptions()));
+	}
+
+	@Test
+	void changedClasspathEntryChangesTheFingerprint() throws IOException {
+		GenerationFingerprint previous = fingerprint(new AotOptions());
+		Files.write(this.classes.resolve("Application.class"), "changed application".getBytes(StandardCharsets.UTF_8));
+		GenerationFingerprint current = fingerprint(new AotOptions());
+		assertThat(current).isNotEqualTo(previous);
+		assertThat(current.getUnchangedClasspathEntries(previous)).containsExactly(this.jar.toFile());
+	}
+
+	@Test
+	void changedClasspathChangesTheFingerprint() throws IOException {
+		GenerationFingerprint previous = fingerprint(new AotOptions());
+		GenerationFingerprint current = GenerationFingerprint.of(Collections.singletonList(this.jar.toString()),
+				Collections.emptySet(), new AotOptions(), null);
+		assertThat(current).isNotEqualTo(previous);
+		assertThat(current.getUnchangedClasspathEntries(previous)).containsExactly(this.jar.toFile());
+	}
+
+	@Test
+	void changedOptionChangesTheFingerprintAndPreventsReuse() throws IOException {
+		GenerationFingerprint previous = fingerprint(new AotOptions());
+		AotOptions aotOptions = new AotOptions();
+		aotOptions.setRemoveYamlSupport(true);
+		GenerationFingerprint current = fingerprint(aotOptions);
+		assertThat(current).isNotEqualTo(previous);
+		assertThat(current.getUnchangedClasspathEntries(previous)).isNull();
+	}
+
+	@Test
+	void optionNotAffectingTheOutputDoesNotChangeTheFingerprint() throws IOException {
+		AotOptions aotOptions = new AotOptions();
+		aotOptions.setAnalysisCacheDirectory(new File("cache"));
+		assertThat(fingerprint(aotOptions)).isEqualTo(fingerprint(new AotOptions()));
+	}
+
+	@Test
+	void missingFingerprintIsNotLoaded() {
+		assertThat(GenerationFingerprint.load(this.directory.resolve("missing"))).isNull();
+	}
+
+	@Test
+	void corruptFingerprintIsNotLoaded() throws IOException {
+		Path file = Files.write(this.directory.resolve("fingerprint"), "version=\\u00zz".getBytes(StandardCharsets.ISO_8859_1));
+		assertThat(GenerationFingerprint.load(file)).isNull();
+	}
+
+	@Test
+	void fingerprintOfAnotherVersionIsNotLoaded() throws IOException {
+		Path file = Files.write(this.directory.resolve("fingerprint"), "version=0".getBytes(StandardCharsets.ISO_8859_1));
+		assertThat(GenerationFingerprint.load(file)).isNull();
+	}
+
+	private GenerationFingerprint fingerprint(AotOptions aotOptions) throws IOException {
+		return GenerationFingerprint.of(this.classpath, Collections.emptySet(), aotOptions, "com.example.Application");
+	}
+
+}
@@ -16,7 +16,9 @@
 
 package org.springframework.aot;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -38,6 +40,7 @@ import org.springframework.nativex.domain.resources.ResourcesDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesJsonMarshaller;
 import org.springframework.nativex.domain.serialization.SerializationDescriptor;
 import org.springframework.nativex.domain.serialization.SerializationDescriptorJsonMarshaller;
+import org.springframework.nativex.support.AotProfiler;
 
 /**
  * Generate code for bootstrapping Spring applications in a GraalVM native environment.
@@ -59,7 +62,9 @@ public class BootstrapCodeGenerator {
 	}
 
 	/**
-	 * Generate bootstrap code for the application.
+	 * Generate bootstrap code for the application. When a {@link AotOptions#getProfileDirectory()
+	 * profile directory} is set, the phases of the generation are recorded by an {@link AotProfiler}
+	 * and its report is written there.
 	 *
 	 * @param sourcesPath the root path generated source files should be written to
 	 * @param resourcesPath the root path generated resource files should be written to
@@ -69,39 +74,71 @@ public class BootstrapCodeGenerator {
 	 * @throws IOException if an I/O error is thrown when opening the resource folders
 	 */
 	public void generate(Path sourcesPath, Path resourcesPath, List<String> classpath, @Nullable String mainClass, Set<Path> resourceFolders) throws IOException {
+		File profileDirectory = this.aotOptions.getProfileDirectory();
+		if (profileDirectory == null) {
+			doGenerate(sourcesPath, resourcesPath, classpath, mainClass, resourceFolders);
+			return;
+		}
+		AotProfiler profiler = AotProfiler.start();
+		try (AotProfiler.Phase phase = AotProfiler.phase("BootstrapCodeGenerator.generate")) {
+			doGenerate(sourcesPath, resourcesPath, classpath, mainClass, resourceFolders);
+		}
+		finally {
+			profiler.stop();
+			profiler.writeReport(profileDirectory.toPath());
+			logger.info("Spring AOT generation profile written to " + profileDirectory);
+		}
+	}
+
+	private void doGenerate(Path sourcesPath, Path resourcesPath, List<String> classpath, @Nullable String mainClass, Set<Path> resourceFolders) throws IOException {
 		logger.debug("Starting code generation with classpath: " + classpath);
 		DefaultBuildContext buildContext = new DefaultBuildContext(mainClass, classpath);
 		ServiceLoader<BootstrapContributor> contributors = ServiceLoader.load(BootstrapContributor.class);
 		for (BootstrapContributor contributor : contributors) {
 			logger.debug("Executing Contributor: " + contributor.getClass().getName());
-			contributor.contribute(buildContext, this.aotOptions);
+			try (AotProfiler.Phase phase = AotProfiler.phase("BootstrapContributor", contributor.getClass().getName())) {
+				contributor.contribute(buildContext, this.aotOptions);
+			}
 		}
 
 		buildResourcePatternCache(buildContext.getResourcesDescriptor());
 
 		if (!resourceFolders.isEmpty()) {
 			logger.debug("Processing resource folders: " + resourceFolders);
-			for (Path resourceFolder : resourceFolders) {
-				int resourceFolderLen = resourceFolder.toString().length() + 1;
-				if (Files.exists(resourceFolder)) {
-					Files.walk(resourceFolder).filter(p -> !p.toFile().isDirectory()).forEach(p -> {
-						String resourcePattern = p.toString().substring(resourceFolderLen);
-						String platformNormalisedResourcePattern = resourcePattern.replace("\\", "/");
-						if (!platformNormalisedResourcePattern.startsWith("META-INF/native-image")) {
-
-							if (matchesPatternInCache(platformNormalisedResourcePattern))
-								return;
-
-							logger.debug("Resource pattern: " + platformNormalisedResourcePattern);
-							// TODO recognize resource bundles?
-							// TODO escape the patterns (add leading trailing Q and E sequences...)
-							buildContext.describeResources(crd -> crd.add(platformNormalisedResourcePattern));
-						}
-					});
-				}
+			try (AotProfiler.Phase phase = AotProfiler.phase("BootstrapCodeGenerator.processResourceFolders")) {
+				processResourceFolders(buildContext, resourceFolders);
+			}
+		}
+
+		try (AotProfiler.Phase phase = AotProfiler.phase("BootstrapCodeGenerator.writeFiles")) {
+			writeFiles(buildContext, sourcesPath, resourcesPath);
+		}
+		logger.debug("Type system metrics: " + buildContext.getTypeSystem().getMetrics());
+	}
+
+	private void processResourceFolders(DefaultBuildContext buildContext, Set<Path> resourceFolders) throws IOException {
+		for (Path resourceFolder : resourceFolders) {
+			int resourceFolderLen = resourceFolder.toString().length() + 1;
+			if (Files.exists(resourceFolder)) {
+				Files.walk(resourceFolder).filter(p -> !p.toFile().isDirectory()).forEach(p -> {
+					String resourcePattern = p.toString().substring(resourceFolderLen);
+					String platformNormalisedResourcePattern = resourcePattern.replace("\\", "/");
+					if (!platformNormalisedResourcePattern.startsWith("META-INF/native-image")) {
+
+						if (matchesPatternInCache(platformNormalisedResourcePattern))
+							return;
+
+						logger.debug("Resource pattern: " + platformNormalisedResourcePattern);
+						// TODO recognize resource bundles?
+						// TODO escape the patterns (add leading trailing Q and E sequences...)
+						buildContext.describeResources(crd -> crd.add(platformNormalisedResourcePattern));
+					}
+				});
 			}
 		}
+	}
 
+	private void writeFiles(DefaultBuildContext buildContext, Path sourcesPath, Path resourcesPath) throws IOException {
 		logger.debug("Writing generated sources to: " + sourcesPath);
 		for (SourceFile sourceFile : buildContext.getSourceFiles()) {
 			sourceFile.writeTo(sourcesPath);
@@ -116,31 +153,41 @@ public class BootstrapCodeGenerator {
 		ReflectionDescriptor reflectionDescriptor = buildContext.getReflectionDescriptor();
 		if (!reflectionDescriptor.isEmpty()) {
 			Path reflectConfigPath = graalVMConfigPath.resolve(Paths.get("reflect-config.json"));
-			JsonMarshaller.write(reflectionDescriptor, Files.newOutputStream(reflectConfigPath));
+			try (OutputStream outputStream = Files.newOutputStream(reflectConfigPath)) {
+				JsonMarshaller.write(reflectionDescriptor, outputStream);
+			}
 		}
 		// proxy-config.json
 		ProxiesDescriptor proxiesDescriptor = buildContext.getProxiesDescriptor();
 		if (!proxiesDescriptor.isEmpty()) {
 			Path proxiesConfigPath = graalVMConfigPath.resolve(Paths.get("proxy-config.json"));
-			ProxiesDescriptorJsonMarshaller.write(proxiesDescriptor, Files.newOutputStream(proxiesConfigPath));
+			try (OutputStream outputStream = Files.newOutputStream(proxiesConfigPath)) {
+				ProxiesDescriptorJsonMarshaller.write(proxiesDescriptor, outputStream);
+			}
 		}
 		// resource-config.json
 		ResourcesDescriptor resourcesDescriptor = buildContext.getResourcesDescriptor();
 		if (!resourcesDescriptor.isEmpty()) {
 			Path resourceConfigPath = graalVMConfigPath.resolve(Paths.get("resource-config.json"));
-			ResourcesJsonMarshaller.write(resourcesDescriptor, Files.newOutputStream(resourceConfigPath));
+			try (OutputStream outputStream = Files.newOutputStream(resourceConfigPath)) {
+				ResourcesJsonMarshaller.write(resourcesDescriptor, outputStream);
+			}
 		}
 		// serialization-config.json
 		SerializationDescriptor serializationDescriptor = buildContext.getSerializationDescriptor();
 		if (!serializationDescriptor.isEmpty()) {
 			Path serializationConfigPath = graalVMConfigPath.resolve(Paths.get("serialization-config.json"));
-			SerializationDescriptorJsonMarshaller.write(serializationDescriptor, Files.newOutputStream(serializationConfigPath));
+			try (OutputStream outputStream = Files.newOutputStream(serializationConfigPath)) {
+				SerializationDescriptorJsonMarshaller.write(serializationDescriptor, outputStream);
+			}
 		}
 		// jni-config.json
 		ReflectionDescriptor jniReflectionDescriptor = buildContext.getJNIReflectionDescriptor();
 		if (!jniReflectionDescriptor.isEmpty()) {
 			Path jniReflectionConfigPath = graalVMConfigPath.resolve(Paths.get("jni-config.json"));
-			JsonMarshaller.write(jniReflectionDescriptor, Files.newOutputStream(jniReflectionConfigPath));
+			try (OutputStream outputStream = Files.newOutputStream(jniReflectionConfigPath)) {
+				JsonMarshaller.write(jniReflectionDescriptor, outputStream);
+			}
 		}
 	}
 
@@ -17,8 +17,10 @@
 package org.springframework.aot.factories;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -105,14 +107,26 @@ class CodeGenerator {
 				.initializer("new $T()", LinkedMultiValueMap.class)
 				.build();
 		ParameterizedTypeName namesType = ParameterizedTypeName.get(MultiValueMap.class, Class.class, String.class);
+		// Names of the factories created by the suppliers, in the same order, so they can be listed without creating them
+		FieldSpec factoryNames = FieldSpec.builder(namesType, "factoryNames")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.initializer("new $T()", LinkedMultiValueMap.class)
+				.build();
 		FieldSpec names = FieldSpec.builder(namesType, "names")
 				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
 				.initializer("new $T()", LinkedMultiValueMap.class)
 				.build();
+		// Factory types whose factories could not be sorted at build time, as some implement Ordered
+		FieldSpec dynamicallyOrdered = FieldSpec.builder(ParameterizedTypeName.get(Set.class, Class.class), "dynamicallyOrdered")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.initializer("new $T<>()", HashSet.class)
+				.build();
 		return TypeSpec.classBuilder("StaticSpringFactories")
 				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
 				.addField(factories)
+				.addField(factoryNames)
 				.addField(names)
+				.addField(dynamicallyOrdered)
 				.addStaticBlock(staticBlock)
 				.addJavadoc("Class generated - do not edit this file")
 				.build();
@@ -63,9 +63,12 @@ class DefaultFactoriesCodeContributor implements FactoriesCodeContributor {
 	}
 
 	Consumer<CodeBlock.Builder> generateStaticInit(SpringFactory factory) {
-		return builder ->
-				builder.addStatement("factories.add($N.class, () -> new $N())", factory.getFactoryType().getCanonicalClassName(),
-						factory.getFactory().getCanonicalClassName());
+		return builder -> {
+			builder.addStatement("factories.add($N.class, () -> new $N())", factory.getFactoryType().getCanonicalClassName(),
+					factory.getFactory().getCanonicalClassName());
+			builder.addStatement("factoryNames.add($N.class, $S)", factory.getFactoryType().getCanonicalClassName(),
+					factory.getFactory().getClassName());
+		};
 	}
 
 	private boolean passesFilterCheck(TypeSystem typeSystem, SpringFactory factory) {
@@ -60,6 +60,7 @@ class PrivateFactoriesCodeContributor implements FactoriesCodeContributor {
 			code.writeToStaticFactoryClass(packageName, builder -> builder.addMethod(creator));
 			code.writeToStaticBlock(block -> {
 				block.addStatement("factories.add($T.class, () -> $T.$N())", factoryTypeClass, staticFactoryClass, creator);
+				block.addStatement("factoryNames.add($T.class, $S)", factoryTypeClass, factory.getFactory().getClassName());
 			});
 			// TODO To be removed, currently required due to org.springframework.boot.env.ReflectionEnvironmentPostProcessorsFactory
 			if (factory.getFactoryType().getClassName().endsWith("EnvironmentPostProcessor")) {
@@ -19,7 +19,10 @@ package org.springframework.aot.factories;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +30,7 @@ import java.util.Properties;
 import java.util.ServiceLoader;
 import java.util.Set;
 
+import com.squareup.javapoet.ClassName;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -39,8 +43,10 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.core.type.classreading.ClassDescriptor;
 import org.springframework.core.type.classreading.TypeSystem;
 import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.support.AotProfiler;
 import org.springframework.nativex.type.SpringFactoriesProcessor;
 import org.springframework.util.StringUtils;
 
@@ -64,9 +70,15 @@ public class SpringFactoriesContributor implements BootstrapContributor {
 	@Override
 	public void contribute(BuildContext context, AotOptions aotOptions) {
 		try {
-			Set<SpringFactory> springFactories = loadSpringFactories(context.getTypeSystem());
+			Set<String> dynamicallyOrderedFactoryTypes = new LinkedHashSet<>();
+			Set<SpringFactory> springFactories = sortByOrder(loadSpringFactories(context.getTypeSystem()),
+					dynamicallyOrderedFactoryTypes);
 			FactoriesCodeContributors contributors = new FactoriesCodeContributors(aotOptions);
 			CodeGenerator codeGenerator = contributors.createCodeGenerator(springFactories, context, aotOptions);
+			for (String factoryType : dynamicallyOrderedFactoryTypes) {
+				codeGenerator.writeToStaticBlock(builder -> builder.addStatement("dynamicallyOrdered.add($T.class)",
+						ClassName.bestGuess(factoryType)));
+			}
 
 			context.addSourceFiles(SourceFiles.fromJavaFile(codeGenerator.generateStaticSpringFactories()));
 			codeGenerator.generateStaticFactoryClasses().forEach(javaFile -> {
@@ -95,9 +107,6 @@ public class SpringFactoriesContributor implements BootstrapContributor {
 				logger.debug("Loading factory Type:" + factoryTypeName);
 				String[] factoryNames = StringUtils.commaDelimitedListToStringArray((String) entry.getValue());
 
-				// TODO: sorting required here
-				// AnnotationAwareOrderComparator.sort();
-
 				for (String factoryName : factoryNames) {
 					logger.debug("Loading factory Impl:" + factoryName);
 					SpringFactory springFactory = SpringFactory.resolve(factoryTypeName, factoryName, typeSystem);
@@ -112,7 +121,36 @@ public class SpringFactoriesContributor implements BootstrapContributor {
 		}
 		return factories;
 	}
-	
+
+	/**
+	 * Sort the factories of each factory type as {@code AnnotationAwareOrderComparator} would at
+	 * runtime, so that it does not have to. Factory types with a factory implementing {@code Ordered}
+	 * are left in declaration order and added to {@code dynamicallyOrderedFactoryTypes}, those still
+	 * need sorting at runtime.
+	 */
+	Set<SpringFactory> sortByOrder(Set<SpringFactory> factories, Set<String> dynamicallyOrderedFactoryTypes) {
+		Map<ClassDescriptor, List<SpringFactory>> factoriesByType = new LinkedHashMap<>();
+		for (SpringFactory factory : factories) {
+			factoriesByType.computeIfAbsent(factory.getFactoryType(), key -> new ArrayList<>()).add(factory);
+		}
+		Set<SpringFactory> sorted = new LinkedHashSet<>();
+		factoriesByType.forEach((factoryType, factoriesOfType) -> {
+			Map<SpringFactory, Integer> orders = new HashMap<>();
+			for (SpringFactory factory : factoriesOfType) {
+				orders.put(factory, factory.getStaticOrder());
+			}
+			if (orders.containsValue(null)) {
+				dynamicallyOrderedFactoryTypes.add(factoryType.getCanonicalClassName());
+			}
+			else {
+				// Stable, so factories with the same order keep their declaration order
+				factoriesOfType.sort(Comparator.comparing(orders::get));
+			}
+			sorted.addAll(factoriesOfType);
+		});
+		return sorted;
+	}
+
 	private List<SpringFactoriesProcessor> getSpringFactoriesProcessors() {
 		if (springFactoriesProcessors == null) {
 			springFactoriesProcessors = new ArrayList<>();
@@ -137,9 +175,11 @@ public class SpringFactoriesContributor implements BootstrapContributor {
 			}
 			for (SpringFactoriesProcessor springFactoriesProcessor : springFactoriesProcessors) {
 				int len = values.size();
-				if (springFactoriesProcessor.filter(key, values)) {
-					logger.debug("Spring factory filtered by "+springFactoriesProcessor.getClass().getName()+" removing "+(len-values.size())+" entries");
-					modified = true;
+				try (AotProfiler.Phase phase = AotProfiler.phase("SpringFactoriesProcessor", springFactoriesProcessor.getClass().getName())) {
+					if (springFactoriesProcessor.filter(key, values)) {
+						logger.debug("Spring factory filtered by "+springFactoriesProcessor.getClass().getName()+" removing "+(len-values.size())+" entries");
+						modified = true;
+					}
 				}
 			}
 			if (modified) {
@@ -16,12 +16,21 @@
 
 package org.springframework.aot.factories;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.type.classreading.ClassDescriptor;
 import org.springframework.core.type.classreading.TypeSystem;
+import org.springframework.lang.Nullable;
 import org.springframework.nativex.type.MissingTypeException;
 
 /**
@@ -33,6 +42,10 @@ public class SpringFactory {
 
 	private static final Log logger = LogFactory.getLog(SpringFactory.class);
 
+	private static final String ORDER = "org.springframework.core.annotation.Order";
+
+	private static final String PRIORITY = "javax.annotation.Priority";
+
 	private final ClassDescriptor factoryType;
 
 	private final ClassDescriptor factory;
@@ -70,6 +83,57 @@ public class SpringFactory {
 		return this.factory;
 	}
 
+	/**
+	 * Determine the order of the factory from its class metadata, as
+	 * {@link org.springframework.core.annotation.AnnotationAwareOrderComparator} would at runtime
+	 * from {@code @Order} or {@code @Priority} on the factory type hierarchy.
+	 * @return the order, or {@code null} if the factory implements {@link Ordered} or its hierarchy
+	 * cannot be fully resolved, in which case the order can only be determined at runtime
+	 */
+	@Nullable
+	public Integer getStaticOrder() {
+		MergedAnnotation<?> order = null;
+		MergedAnnotation<?> priority = null;
+		Set<String> visited = new HashSet<>();
+		Deque<ClassDescriptor> hierarchy = new ArrayDeque<>();
+		hierarchy.add(this.factory);
+		while (!hierarchy.isEmpty()) {
+			ClassDescriptor type = hierarchy.removeFirst();
+			String typeName = type.getClassName();
+			if (typeName.equals(Ordered.class.getName())) {
+				return null;
+			}
+			if (typeName.equals(Object.class.getName()) || !visited.add(typeName)) {
+				continue;
+			}
+			// Breadth first, so the annotation closest to the factory wins
+			if (order == null && type.getAnnotations().isPresent(ORDER)) {
+				order = type.getAnnotations().get(ORDER);
+			}
+			if (priority == null && type.getAnnotations().isPresent(PRIORITY)) {
+				priority = type.getAnnotations().get(PRIORITY);
+			}
+			List<ClassDescriptor> supertypes = type.getInterfaces().collect(Collectors.toList());
+			if (!type.isInterface()) {
+				supertypes.add(0, type.getSuperClass());
+			}
+			for (ClassDescriptor supertype : supertypes) {
+				if (supertype == null) {
+					// Cannot tell whether it implements Ordered
+					return null;
+				}
+				hierarchy.add(supertype);
+			}
+		}
+		if (order != null) {
+			return order.getInt("value");
+		}
+		if (priority != null) {
+			return priority.getInt("value");
+		}
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
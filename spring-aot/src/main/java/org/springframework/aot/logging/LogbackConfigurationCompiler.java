@@ -0,0 +1,551 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * Compile a logback XML configuration into the statements that configure a {@code LoggerContext}
+ * named {@code context} the way Joran would when reading it: the same components are created, set
+ * up and started in the same order, only without parsing the XML or resolving the properties of
+ * the components reflectively at startup. Values are substituted against the context at runtime,
+ * as Joran does, so {@code ${...}} references keep working.
+ * <p>
+ * The logback classes are inspected at build time through the class loader given, which must see
+ * the application classpath. Constructs that depend on the runtime (conditions, Spring profiles,
+ * Spring properties, JNDI or JMX lookups, files and URLs) are not supported and make the compilation
+ * fail with an {@link UnsupportedConfigurationException}, that configuration is then left to Joran.
+ */
+class LogbackConfigurationCompiler {
+
+	private static final ClassName LOGGER = ClassName.get("ch.qos.logback.classic", "Logger");
+
+	private static final ClassName LEVEL = ClassName.get("ch.qos.logback.classic", "Level");
+
+	private static final ClassName OPTION_HELPER = ClassName.get("ch.qos.logback.core.util", "OptionHelper");
+
+	private static final ClassName ESCAPE_UTIL = ClassName.get("ch.qos.logback.core.pattern.util", "RegularEscapeUtil");
+
+	private static final ClassName STATUS_LISTENER_CONFIG_HELPER = ClassName.get("ch.qos.logback.core.util", "StatusListenerConfigHelper");
+
+	private static final ClassName ON_CONSOLE_STATUS_LISTENER = ClassName.get("ch.qos.logback.core.status", "OnConsoleStatusListener");
+
+	// As registered by DefaultNestedComponentRules, for the subclasses of both appender base classes
+	private static final Map<String, String> DEFAULT_APPENDER_COMPONENTS = new HashMap<>();
+
+	static {
+		DEFAULT_APPENDER_COMPONENTS.put("layout", "ch.qos.logback.classic.PatternLayout");
+		DEFAULT_APPENDER_COMPONENTS.put("encoder", "ch.qos.logback.classic.encoder.PatternLayoutEncoder");
+	}
+
+	private final ClassLoader classLoader;
+
+	private final CodeBlock.Builder code = CodeBlock.builder();
+
+	// Appender names to the variables holding them
+	private final Map<String, String> appenders = new HashMap<>();
+
+	// Resources being compiled, to detect include cycles
+	private final Deque<URL> resources = new ArrayDeque<>();
+
+	private int variables;
+
+	private LogbackConfigurationCompiler(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * @param resource the logback XML configuration
+	 * @param classLoader the class loader over the application classpath
+	 * @return the statements configuring a {@code LoggerContext} named {@code context} as the resource does
+	 * @throws IOException if the resource, or one it includes, cannot be read
+	 * @throws UnsupportedConfigurationException if the resource uses what cannot be compiled
+	 */
+	static CodeBlock compile(URL resource, ClassLoader classLoader) throws IOException, UnsupportedConfigurationException {
+		LogbackConfigurationCompiler compiler = new LogbackConfigurationCompiler(classLoader);
+		compiler.configuration(resource);
+		return compiler.code.build();
+	}
+
+	private void configuration(URL resource) throws IOException, UnsupportedConfigurationException {
+		Element root = parse(resource);
+		if (!"configuration".equals(root.getTagName())) {
+			throw new UnsupportedConfigurationException("Root element <" + root.getTagName() + "> of " + resource);
+		}
+		if ("true".equalsIgnoreCase(root.getAttribute("debug").trim())) {
+			code.addStatement("$T.addOnConsoleListenerInstance(context, new $T())", STATUS_LISTENER_CONFIG_HELPER,
+					ON_CONSOLE_STATUS_LISTENER);
+		}
+		if (root.hasAttribute("packagingData")) {
+			code.addStatement("context.setPackagingDataEnabled($T.toBoolean($L, false))", OPTION_HELPER,
+					value(root.getAttribute("packagingData")));
+		}
+		// Scanning for changes is left out: the resource is part of the image and cannot change
+		resources.push(resource);
+		elements(root);
+		resources.pop();
+	}
+
+	private void elements(Element parent) throws IOException, UnsupportedConfigurationException {
+		for (Element element : children(parent)) {
+			switch (element.getTagName()) {
+			case "property":
+			case "variable":
+				property(element);
+				break;
+			case "contextName":
+				code.addStatement("context.setName($L)", value(text(element)));
+				break;
+			case "conversionRule":
+				code.addStatement("conversionRule(context, $S, $S)", required(element, "conversionWord"),
+						required(element, "converterClass"));
+				break;
+			case "include":
+				include(element);
+				break;
+			case "appender":
+				appender(element);
+				break;
+			case "logger":
+				logger(element);
+				break;
+			case "root":
+				root(element);
+				break;
+			case "turboFilter":
+				code.addStatement("context.addTurboFilter($N)", topLevelComponent(element));
+				break;
+			case "statusListener":
+				code.addStatement("context.getStatusManager().add($N)", topLevelComponent(element));
+				break;
+			default:
+				throw new UnsupportedConfigurationException("Element <" + element.getTagName() + ">");
+			}
+		}
+	}
+
+	private String topLevelComponent(Element element) throws UnsupportedConfigurationException {
+		return nestedComponent(element, loadClass(required(element, "class")), null, null);
+	}
+
+	private void property(Element element) throws UnsupportedConfigurationException {
+		if (element.hasAttribute("file") || element.hasAttribute("resource")) {
+			throw new UnsupportedConfigurationException("Properties loaded from a file or resource");
+		}
+		String name = required(element, "name");
+		String value = required(element, "value");
+		CodeBlock escaped = value.indexOf('\\') >= 0 ? CodeBlock.of("$T.basicEscape($S).trim()", ESCAPE_UTIL, value)
+				: CodeBlock.of("$S", value.trim());
+		CodeBlock substituted = value.contains("${") ? CodeBlock.of("$T.substVars($L, context)", OPTION_HELPER, escaped)
+				: escaped;
+		if ("system".equalsIgnoreCase(element.getAttribute("scope").trim())) {
+			code.addStatement("$T.setProperty($S, $L)", System.class, name, substituted);
+		}
+		else {
+			// Local properties are only visible to substitutions made while configuring, which are
+			// made against the context here
+			code.addStatement("context.putProperty($S, $L)", name, substituted);
+		}
+	}
+
+	private void include(Element element) throws IOException, UnsupportedConfigurationException {
+		if (element.hasAttribute("file") || element.hasAttribute("url")) {
+			throw new UnsupportedConfigurationException("Included file or URL");
+		}
+		String name = required(element, "resource");
+		if (name.contains("${")) {
+			throw new UnsupportedConfigurationException("Included resource " + name + " known at runtime only");
+		}
+		URL resource = classLoader.getResource(name);
+		if (resource == null) {
+			// Joran reports a missing resource and carries on, unless it is optional
+			return;
+		}
+		if (resources.contains(resource)) {
+			throw new UnsupportedConfigurationException("Resource " + resource + " including itself");
+		}
+		Element root = parse(resource);
+		if (!"included".equals(root.getTagName())) {
+			throw new UnsupportedConfigurationException("Root element <" + root.getTagName() + "> of " + resource);
+		}
+		resources.push(resource);
+		elements(root);
+		resources.pop();
+	}
+
+	private void appender(Element element) throws UnsupportedConfigurationException {
+		String name = required(element, "name");
+		if (name.contains("${")) {
+			throw new UnsupportedConfigurationException("Appender name " + name + " known at runtime only");
+		}
+		Class<?> type = loadClass(required(element, "class"));
+		checkInstantiable(type);
+		String variable = variable("appender");
+		code.addStatement("$T $N = new $T()", type, variable, type);
+		code.addStatement("$N.setContext(context)", variable);
+		code.addStatement("$N.setName($S)", variable, name);
+		properties(element, type, variable);
+		code.addStatement("$N.start()", variable);
+		appenders.put(name, variable);
+	}
+
+	private void logger(Element element) throws UnsupportedConfigurationException {
+		String variable = variable("logger");
+		code.addStatement("$T $N = context.getLogger($L)", LOGGER, variable, value(required(element, "name")));
+		if (element.hasAttribute("level")) {
+			code.addStatement("$N.setLevel($L)", variable, level(element.getAttribute("level"), false));
+		}
+		if (element.hasAttribute("additivity")) {
+			code.addStatement("$N.setAdditive($T.toBoolean($L, true))", variable, OPTION_HELPER,
+					value(element.getAttribute("additivity")));
+		}
+		loggerChildren(element, variable, false);
+	}
+
+	private void root(Element element) throws UnsupportedConfigurationException {
+		String variable = variable("root");
+		code.addStatement("$T $N = context.getLogger($T.ROOT_LOGGER_NAME)", LOGGER, variable, LOGGER);
+		if (element.hasAttribute("level")) {
+			code.addStatement("$N.setLevel($L)", variable, level(element.getAttribute("level"), true));
+		}
+		loggerChildren(element, variable, true);
+	}
+
+	private void loggerChildren(Element element, String variable, boolean root) throws UnsupportedConfigurationException {
+		for (Element child : children(element)) {
+			if ("appender-ref".equals(child.getTagName())) {
+				code.addStatement("$N.addAppender($N)", variable, appenderRef(child));
+			}
+			else if ("level".equals(child.getTagName())) {
+				code.addStatement("$N.setLevel($L)", variable, level(required(child, "value"), root));
+			}
+			else {
+				throw new UnsupportedConfigurationException("Element <" + child.getTagName() + "> in a logger");
+			}
+		}
+	}
+
+	// Only loggers other than the root one can inherit their level
+	private static CodeBlock level(String level, boolean root) {
+		return root ? CodeBlock.of("$T.toLevel($L)", LEVEL, value(level)) : CodeBlock.of("level($L)", value(level));
+	}
+
+	private String appenderRef(Element element) throws UnsupportedConfigurationException {
+		String ref = required(element, "ref");
+		String variable = appenders.get(ref);
+		if (variable == null) {
+			// Joran only resolves references to the appenders declared before
+			throw new UnsupportedConfigurationException("Reference to undeclared appender " + ref);
+		}
+		return variable;
+	}
+
+	private void properties(Element element, Class<?> type, String variable) throws UnsupportedConfigurationException {
+		for (Element child : children(element)) {
+			String name = child.getTagName();
+			if ("appender-ref".equals(name)) {
+				if (!isA(type, "ch.qos.logback.core.spi.AppenderAttachable")) {
+					throw new UnsupportedConfigurationException("Appender reference in " + type.getName());
+				}
+				code.addStatement("$N.addAppender($N)", variable, appenderRef(child));
+				continue;
+			}
+			// As Joran, a collection property is preferred over a single one
+			Method method = findMethod(type, "add" + capitalize(name), null);
+			if (method == null) {
+				method = findMethod(type, "set" + capitalize(name), null);
+			}
+			if (method == null) {
+				throw new UnsupportedConfigurationException("Property <" + name + "> of " + type.getName());
+			}
+			Class<?> parameterType = method.getParameterTypes()[0];
+			if (isSimple(parameterType)) {
+				String text = text(child);
+				if (!text.isEmpty()) {
+					code.addStatement("$N.$N($L)", variable, method.getName(), convert(text, parameterType));
+				}
+			}
+			else {
+				Class<?> componentType = child.hasAttribute("class") ? loadClass(child.getAttribute("class").trim())
+						: defaultComponentType(type, name, method);
+				if (!parameterType.isAssignableFrom(componentType)) {
+					throw new UnsupportedConfigurationException(componentType.getName() + " as <" + name + "> of " + type.getName());
+				}
+				String component = nestedComponent(child, componentType, type, variable);
+				code.addStatement("$N.$N($N)", variable, method.getName(), component);
+			}
+		}
+	}
+
+	/**
+	 * Declare a component, as Joran's NestedComplexPropertyIA would create it.
+	 * @param parentType the type of the component it is nested in, or null if it is not nested
+	 * @param parent the variable holding the component it is nested in, or null if it is not nested
+	 * @return the variable holding the component, once set up and started
+	 */
+	private String nestedComponent(Element element, Class<?> type, Class<?> parentType, String parent)
+			throws UnsupportedConfigurationException {
+		checkInstantiable(type);
+		String variable = variable(element.getTagName());
+		code.addStatement("$T $N = new $T()", type, variable, type);
+		if (isA(type, "ch.qos.logback.core.spi.ContextAware")) {
+			code.addStatement("$N.setContext(context)", variable);
+		}
+		if (parentType != null && findMethod(type, "setParent", parentType) != null) {
+			code.addStatement("$N.setParent($N)", variable, parent);
+		}
+		properties(element, type, variable);
+		if (isA(type, "ch.qos.logback.core.spi.LifeCycle") && !hasAnnotation(type, "ch.qos.logback.core.joran.spi.NoAutoStart")) {
+			code.addStatement("$N.start()", variable);
+		}
+		return variable;
+	}
+
+	// The implicit rules of Joran: registered defaults, then @DefaultClass, then the concrete parameter type
+	private Class<?> defaultComponentType(Class<?> parentType, String name, Method method) throws UnsupportedConfigurationException {
+		String registered = DEFAULT_APPENDER_COMPONENTS.get(name);
+		if (registered != null && (isA(parentType, "ch.qos.logback.core.AppenderBase")
+				|| isA(parentType, "ch.qos.logback.core.UnsynchronizedAppenderBase"))) {
+			return loadClass(registered);
+		}
+		for (Annotation annotation : method.getAnnotations()) {
+			if (annotation.annotationType().getName().equals("ch.qos.logback.core.joran.spi.DefaultClass")) {
+				try {
+					return (Class<?>) annotation.annotationType().getMethod("value").invoke(annotation);
+				}
+				catch (ReflectiveOperationException ex) {
+					throw new UnsupportedConfigurationException("Default class of <" + name + "> of " + parentType.getName());
+				}
+			}
+		}
+		return method.getParameterTypes()[0];
+	}
+
+	// What Joran's StringToObjectConverter can build from the text of an element
+	private static boolean isSimple(Class<?> type) {
+		return type == String.class || type.isPrimitive() || type == Integer.class || type == Long.class
+				|| type == Float.class || type == Double.class || type == Boolean.class || type.isEnum()
+				|| Charset.class.isAssignableFrom(type) || findValueOf(type) != null;
+	}
+
+	private static CodeBlock convert(String text, Class<?> type) throws UnsupportedConfigurationException {
+		CodeBlock value = value(text);
+		if (type == String.class) {
+			return value;
+		}
+		if (Charset.class.isAssignableFrom(type)) {
+			return CodeBlock.of("charset($L)", value);
+		}
+		boolean dynamic = text.contains("${");
+		try {
+			if (type == int.class || type == Integer.class) {
+				return dynamic ? CodeBlock.of("$T.valueOf($L.trim())", Integer.class, value) : CodeBlock.of("$L", Integer.parseInt(text));
+			}
+			if (type == long.class || type == Long.class) {
+				return dynamic ? CodeBlock.of("$T.valueOf($L.trim())", Long.class, value) : CodeBlock.of("$LL", Long.parseLong(text));
+			}
+			if (type == float.class || type == Float.class) {
+				return dynamic ? CodeBlock.of("$T.valueOf($L.trim())", Float.class, value) : CodeBlock.of("$Lf", Float.parseFloat(text));
+			}
+			if (type == double.class || type == Double.class) {
+				return dynamic ? CodeBlock.of("$T.valueOf($L.trim())", Double.class, value) : CodeBlock.of("$Ld", Double.parseDouble(text));
+			}
+		}
+		catch (NumberFormatException ex) {
+			throw new UnsupportedConfigurationException("Value " + text + " for a " + type.getName());
+		}
+		if (type == boolean.class || type == Boolean.class) {
+			return dynamic ? CodeBlock.of("$T.valueOf($L.trim())", Boolean.class, value) : CodeBlock.of("$L", Boolean.parseBoolean(text));
+		}
+		if (type.isPrimitive()) {
+			throw new UnsupportedConfigurationException("Value " + text + " for a " + type.getName());
+		}
+		if (!Modifier.isPublic(type.getModifiers())) {
+			throw new UnsupportedConfigurationException("Value of non public type " + type.getName());
+		}
+		return CodeBlock.of("$T.valueOf($L.trim())", type, value);
+	}
+
+	private static Method findValueOf(Class<?> type) {
+		try {
+			Method valueOf = type.getMethod("valueOf", String.class);
+			return Modifier.isStatic(valueOf.getModifiers()) ? valueOf : null;
+		}
+		catch (NoSuchMethodException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * @param parameterType the type the parameter must accept, or null for any single parameter
+	 */
+	private static Method findMethod(Class<?> type, String name, Class<?> parameterType) {
+		for (Method method : type.getMethods()) {
+			if (method.getName().equals(name) && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())
+					&& (parameterType == null || method.getParameterTypes()[0].isAssignableFrom(parameterType))) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private static void checkInstantiable(Class<?> type) throws UnsupportedConfigurationException {
+		boolean accessible = !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+		for (Class<?> c = type; accessible && c != null; c = c.getEnclosingClass()) {
+			accessible = Modifier.isPublic(c.getModifiers()) && (c.getEnclosingClass() == null || Modifier.isStatic(c.getModifiers()));
+		}
+		try {
+			accessible = accessible && Modifier.isPublic(type.getConstructor().getModifiers());
+		}
+		catch (NoSuchMethodException ex) {
+			accessible = false;
+		}
+		if (!accessible) {
+			throw new UnsupportedConfigurationException("Component " + type.getName() + " without a public default constructor");
+		}
+	}
+
+	private Class<?> loadClass(String name) throws UnsupportedConfigurationException {
+		if (name.contains("${")) {
+			throw new UnsupportedConfigurationException("Class " + name + " known at runtime only");
+		}
+		try {
+			return Class.forName(name, false, classLoader);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			throw new UnsupportedConfigurationException("Class " + name + " cannot be loaded");
+		}
+	}
+
+	private boolean isA(Class<?> type, String name) {
+		try {
+			return Class.forName(name, false, classLoader).isAssignableFrom(type);
+		}
+		catch (ClassNotFoundException | LinkageError ex) {
+			return false;
+		}
+	}
+
+	private static boolean hasAnnotation(Class<?> type, String name) {
+		for (Annotation annotation : type.getAnnotations()) {
+			if (annotation.annotationType().getName().equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private String variable(String prefix) {
+		StringBuilder name = new StringBuilder();
+		for (char c : prefix.toCharArray()) {
+			if (Character.isJavaIdentifierPart(c)) {
+				name.append(c);
+			}
+		}
+		return name.append(variables++).toString();
+	}
+
+	private static CodeBlock value(String value) {
+		return value.contains("${") ? CodeBlock.of("$T.substVars($S, context)", OPTION_HELPER, value) : CodeBlock.of("$S", value);
+	}
+
+	private static String required(Element element, String attribute) throws UnsupportedConfigurationException {
+		String value = element.getAttribute(attribute).trim();
+		if (value.isEmpty()) {
+			throw new UnsupportedConfigurationException("Element <" + element.getTagName() + "> without " + attribute);
+		}
+		return value;
+	}
+
+	private static String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private static String text(Element element) {
+		StringBuilder text = new StringBuilder();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Node node = nodes.item(i);
+			if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+				text.append(node.getNodeValue());
+			}
+		}
+		return text.toString().trim();
+	}
+
+	private static Iterable<Element> children(Element element) {
+		List<Element> children = new ArrayList<>();
+		NodeList nodes = element.getChildNodes();
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i).getNodeType() == Node.ELEMENT_NODE) {
+				children.add((Element) nodes.item(i));
+			}
+		}
+		return children;
+	}
+
+	private static Element parse(URL resource) throws IOException {
+		try (InputStream is = resource.openStream()) {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setExpandEntityReferences(false);
+			DocumentBuilder builder = factory.newDocumentBuilder();
+			Document document = builder.parse(is, resource.toString());
+			return document.getDocumentElement();
+		}
+		catch (ParserConfigurationException | SAXException ex) {
+			throw new IOException("Unable to parse " + resource, ex);
+		}
+	}
+
+	/**
+	 * Thrown when a configuration uses what cannot be compiled, it is then left to Joran.
+	 */
+	static class UnsupportedConfigurationException extends Exception {
+
+		UnsupportedConfigurationException(String message) {
+			super(message);
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.squareup.javapoet.JavaFile;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.aot.BootstrapContributor;
+import org.springframework.aot.BuildContext;
+import org.springframework.aot.CodeGenerationException;
+import org.springframework.aot.SourceFiles;
+import org.springframework.nativex.AotOptions;
+
+/**
+ * Contribute source code configuring logback as the XML configurations found on the classpath
+ * would, see {@link LogbackConfigurationCompiler}. Currently this is used by substitutions on
+ * logback's {@code ContextInitializer} and on Spring Boot's {@code LogbackLoggingSystem}, which
+ * loads the configuration again once the application starts, so that those configurations work
+ * in a native image. Spring Boot's own {@code logback-spring.xml} variants are not compiled: they
+ * use Spring Boot extensions such as {@code <springProfile>} that only the runtime can evaluate,
+ * and are still read by Joran.
+ */
+public class LogbackConfigurationContributor implements BootstrapContributor {
+
+	private static final Log logger = LogFactory.getLog(LogbackConfigurationContributor.class);
+
+	// The XML configurations logback's ContextInitializer looks for by default
+	private static final List<String> CONFIGURATION_FILES = Arrays.asList("logback-test.xml", "logback.xml");
+
+	@Override
+	public void contribute(BuildContext context, AotOptions aotOptions) {
+		ClassLoader classLoader = context.getTypeSystem().getResourceLoader().getClassLoader();
+		if (classLoader.getResource("ch/qos/logback/classic/LoggerContext.class") == null) {
+			return;
+		}
+		Map<String, URL> configurations = new LinkedHashMap<>();
+		for (String name : CONFIGURATION_FILES) {
+			URL resource = classLoader.getResource(name);
+			if (resource != null) {
+				configurations.put(name, resource);
+			}
+		}
+		StaticLogbackConfigurationGenerator generator = new StaticLogbackConfigurationGenerator();
+		for (Map.Entry<String, URL> configuration : configurations.entrySet()) {
+			try {
+				generator.add(configuration.getKey(), LogbackConfigurationCompiler.compile(configuration.getValue(), classLoader));
+				logger.debug("Compiled logback configuration " + configuration.getValue());
+			}
+			catch (LogbackConfigurationCompiler.UnsupportedConfigurationException ex) {
+				logger.info("Logback configuration " + configuration.getValue() + " cannot be compiled: " + ex.getMessage());
+			}
+			catch (IOException ex) {
+				throw new CodeGenerationException("Could not compile logback configuration " + configuration.getValue(), ex);
+			}
+		}
+		JavaFile javaFile = generator.generate();
+		context.addSourceFiles(SourceFiles.fromJavaFile(javaFile));
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+
+/**
+ * Generate a {@code org.springframework.aot.StaticLogbackConfiguration} class with one method per
+ * compiled XML configuration, and a {@code configure(LoggerContext, String)} entry point selecting
+ * the one to run from the URL of the configuration logback was about to read.
+ */
+class StaticLogbackConfigurationGenerator {
+
+	static final String PACKAGE_NAME = "org.springframework.aot";
+
+	static final String CLASS_NAME = "StaticLogbackConfiguration";
+
+	private static final ClassName LOGGER_CONTEXT = ClassName.get("ch.qos.logback.classic", "LoggerContext");
+
+	private static final ClassName LEVEL = ClassName.get("ch.qos.logback.classic", "Level");
+
+	private static final ClassName CORE_CONSTANTS = ClassName.get("ch.qos.logback.core", "CoreConstants");
+
+	// Configuration file names to the statements configuring the context as they do
+	private final Map<String, CodeBlock> configurations = new LinkedHashMap<>();
+
+	void add(String name, CodeBlock configuration) {
+		this.configurations.put(name, configuration);
+	}
+
+	JavaFile generate() {
+		MethodSpec.Builder configure = MethodSpec.methodBuilder("configure")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.returns(boolean.class)
+				.addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(String.class, "url")
+				.addJavadoc("Configure the context as the configuration at the given URL would, if it was compiled.\n")
+				.addJavadoc("@return whether it was\n");
+		TypeSpec.Builder type = TypeSpec.classBuilder(CLASS_NAME)
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addJavadoc("Class generated - do not edit this file");
+		this.configurations.forEach((name, configuration) -> {
+			String methodName = methodName(name);
+			configure.beginControlFlow("if (url.endsWith($S))", "/" + name)
+					.addStatement("$N(context)", methodName)
+					.addStatement("return true")
+					.endControlFlow();
+			type.addMethod(MethodSpec.methodBuilder(methodName)
+					.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+					.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+							.addMember("value", "{$S, $S}", "rawtypes", "unchecked").build())
+					.addParameter(LOGGER_CONTEXT, "context")
+					.addCode(configuration)
+					.build());
+		});
+		configure.addStatement("return false");
+		type.addMethod(configure.build());
+		type.addMethod(level());
+		type.addMethod(charset());
+		type.addMethod(conversionRule());
+		return JavaFile.builder(PACKAGE_NAME, type.build()).build();
+	}
+
+	// As LoggerAction, a logger can be told to inherit its level
+	private static MethodSpec level() {
+		return MethodSpec.methodBuilder("level")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(LEVEL)
+				.addParameter(String.class, "value")
+				.beginControlFlow("if ($S.equalsIgnoreCase(value) || $S.equalsIgnoreCase(value))", "INHERITED", "NULL")
+				.addStatement("return null")
+				.endControlFlow()
+				.addStatement("return $T.toLevel(value)", LEVEL)
+				.build();
+	}
+
+	// As Joran, a charset that is not available is left unset
+	private static MethodSpec charset() {
+		return MethodSpec.methodBuilder("charset")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.returns(Charset.class)
+				.addParameter(String.class, "value")
+				.beginControlFlow("try")
+				.addStatement("return $T.forName(value.trim())", Charset.class)
+				.nextControlFlow("catch ($T | $T ex)", UnsupportedCharsetException.class, IllegalCharsetNameException.class)
+				.addStatement("return null")
+				.endControlFlow()
+				.build();
+	}
+
+	private static MethodSpec conversionRule() {
+		ParameterizedTypeName registryType = ParameterizedTypeName.get(Map.class, String.class, String.class);
+		return MethodSpec.methodBuilder("conversionRule")
+				.addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+				.addAnnotation(AnnotationSpec.builder(SuppressWarnings.class).addMember("value", "$S", "unchecked").build())
+				.addParameter(LOGGER_CONTEXT, "context")
+				.addParameter(String.class, "conversionWord")
+				.addParameter(String.class, "converterClass")
+				.addStatement("$T registry = ($T) context.getObject($T.PATTERN_RULE_REGISTRY)", registryType, registryType,
+						CORE_CONSTANTS)
+				.beginControlFlow("if (registry == null)")
+				.addStatement("registry = new $T<>()", HashMap.class)
+				.addStatement("context.putObject($T.PATTERN_RULE_REGISTRY, registry)", CORE_CONSTANTS)
+				.endControlFlow()
+				.addStatement("registry.put(conversionWord, converterClass)")
+				.build();
+	}
+
+	// logback-test.xml is configured by configureLogbackTest()
+	private static String methodName(String name) {
+		StringBuilder methodName = new StringBuilder("configure");
+		boolean capitalize = true;
+		for (char c : name.substring(0, name.lastIndexOf('.')).toCharArray()) {
+			if (Character.isLetterOrDigit(c)) {
+				methodName.append(capitalize ? Character.toUpperCase(c) : c);
+				capitalize = false;
+			}
+			else {
+				capitalize = true;
+			}
+		}
+		return methodName.toString();
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.lang.model.element.Modifier;
+
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import org.springframework.nativex.type.Type;
+import org.springframework.nativex.type.TypeSystem;
+
+/**
+ * Generate a {@code org.springframework.aot.StaticClassPresence} class listing the classes checked
+ * by {@code ClassUtils.isPresent()} from the static initializer of a Spring class that are missing
+ * from the build classpath. A class missing at build time cannot be in the image, so a substitution
+ * on {@code ClassUtils} shipped in spring-native answers false for those without attempting to load
+ * them. Classes that are present are checked as usual, loading them may still fail in the image.
+ */
+class ClassPresenceGenerator {
+
+	static final String PACKAGE_NAME = "org.springframework.aot";
+
+	static final String CLASS_NAME = "StaticClassPresence";
+
+	private final Map<String, Boolean> presence;
+
+	ClassPresenceGenerator(Map<String, Boolean> presence) {
+		this.presence = presence;
+	}
+
+	/**
+	 * @param typeSystem the type system over the classpath the image is built from
+	 * @return a generator for the checks found in the static initializers of that classpath
+	 */
+	static ClassPresenceGenerator of(TypeSystem typeSystem) {
+		Map<String, Boolean> presence = new TreeMap<>();
+		for (List<String> checkedTypes : typeSystem.getSpringClassesMakingIsPresentChecks().values()) {
+			for (String checkedType : checkedTypes) {
+				presence.computeIfAbsent(checkedType, name -> isPresent(typeSystem, name));
+			}
+		}
+		return new ClassPresenceGenerator(presence);
+	}
+
+	// Mirrors ClassUtils.isPresent(), a class whose hierarchy is incomplete cannot be loaded
+	private static boolean isPresent(TypeSystem typeSystem, String name) {
+		Type type = typeSystem.resolveDotted(name, true);
+		return type != null && typeSystem.findMissingTypesInHierarchyOfThisType(type).isEmpty();
+	}
+
+	/**
+	 * @return the class names checked, in name order, to whether they are present
+	 */
+	Map<String, Boolean> getPresence() {
+		return Collections.unmodifiableMap(this.presence);
+	}
+
+	JavaFile generate() {
+		CodeBlock.Builder staticBlock = CodeBlock.builder();
+		this.presence.forEach((name, present) -> {
+			if (!present) {
+				staticBlock.addStatement("absent.add($S)", name);
+			}
+		});
+		FieldSpec absent = FieldSpec.builder(ParameterizedTypeName.get(Set.class, String.class), "absent")
+				.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+				.initializer("new $T<>()", HashSet.class)
+				.build();
+		TypeSpec classPresence = TypeSpec.classBuilder(CLASS_NAME)
+				.addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+				.addField(absent)
+				.addStaticBlock(staticBlock.build())
+				.addJavadoc("Class generated - do not edit this file")
+				.build();
+		return JavaFile.builder(PACKAGE_NAME, classPresence).build();
+	}
+
+}
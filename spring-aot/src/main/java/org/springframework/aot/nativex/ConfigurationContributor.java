@@ -26,6 +26,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +40,7 @@ import org.springframework.aop.framework.ProxyGenerator;
 import org.springframework.aot.BootstrapContributor;
 import org.springframework.aot.BuildContext;
 import org.springframework.aot.ResourceFile;
+import org.springframework.aot.SourceFiles;
 import org.springframework.boot.loader.tools.MainClassFinder;
 import org.springframework.nativex.AotOptions;
 import org.springframework.nativex.domain.proxies.AotProxyDescriptor;
@@ -46,6 +49,7 @@ import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.hint.Flag;
 import org.springframework.nativex.support.ConfigurationCollector;
 import org.springframework.nativex.support.SpringAnalyzer;
+import org.springframework.nativex.type.ParallelScanner;
 import org.springframework.nativex.type.TypeSystem;
 
 import net.bytebuddy.description.type.TypeDescription;
@@ -54,7 +58,9 @@ import net.bytebuddy.dynamic.DynamicType.Unloaded;
 /**
  * Contributes the configuration files for native image construction. This includes the reflection,
  * resource and proxy configuration in addition to the native-image.properties file that includes
- * special args and initialization configuration.
+ * special args and initialization configuration. The classes that Spring static initializers check
+ * for with isPresent() and that are missing from the classpath are contributed too, see
+ * {@link ClassPresenceGenerator}.
  * 
  * @author Andy Clement
  */
@@ -64,12 +70,18 @@ public class ConfigurationContributor implements BootstrapContributor {
 	
 	@Override
 	public void contribute(BuildContext context, AotOptions aotOptions) {
-		TypeSystem typeSystem = new TypeSystem(context.getClasspath(), context.getMainClass());
-		typeSystem.setAotOptions(aotOptions);
-		SpringAnalyzer springAnalyzer = new SpringAnalyzer(typeSystem, aotOptions);
-		springAnalyzer.analyze();
-		ConfigurationCollector configurationCollector = springAnalyzer.getConfigurationCollector();
-		processBuildTimeClassProxyRequests(context, configurationCollector);
+		ConfigurationCollector configurationCollector;
+		ClassPresenceGenerator classPresence;
+		try (TypeSystem typeSystem = new TypeSystem(context.getClasspath(), context.getMainClass(), aotOptions)) {
+			SpringAnalyzer springAnalyzer = new SpringAnalyzer(typeSystem, aotOptions);
+			springAnalyzer.analyze();
+			configurationCollector = springAnalyzer.getConfigurationCollector();
+			processBuildTimeClassProxyRequests(context, configurationCollector, aotOptions);
+			classPresence = ClassPresenceGenerator.of(typeSystem);
+		}
+		logger.debug(classPresence.getPresence().values().stream().filter(present -> !present).count() + " of "
+				+ classPresence.getPresence().size() + " isPresent() checks are for classes missing at build time");
+		context.addSourceFiles(SourceFiles.fromJavaFile(classPresence.generate()));
 		context.describeReflection(reflect -> reflect.merge(configurationCollector.getReflectionDescriptor()));
 		context.describeResources(resources -> resources.merge(configurationCollector.getResourcesDescriptors()));
 		context.describeProxies(proxies -> proxies.merge(configurationCollector.getProxyDescriptors()));
@@ -133,8 +145,9 @@ public class ConfigurationContributor implements BootstrapContributor {
 	 * If the configuration has requested any class proxies to be constructed at build time, create them and register
 	 * reflective access to their necessary parts.
 	 */
-	private void processBuildTimeClassProxyRequests(BuildContext context, ConfigurationCollector configurationCollector) {
-		List<String> classProxyNames = generateBuildTimeClassProxies(configurationCollector, context);
+	private void processBuildTimeClassProxyRequests(BuildContext context, ConfigurationCollector configurationCollector, AotOptions aotOptions) {
+		int parallelism = aotOptions == null ? 0 : aotOptions.getScanParallelism();
+		List<String> classProxyNames = generateBuildTimeClassProxies(configurationCollector, context, parallelism);
 		ReflectionDescriptor reflectionDescriptor = new ReflectionDescriptor();
 		if (!classProxyNames.isEmpty()) {
 			for (String classProxyName: classProxyNames) {
@@ -150,23 +163,55 @@ public class ConfigurationContributor implements BootstrapContributor {
 	}
 	
 	public List<String> generateBuildTimeClassProxies(ConfigurationCollector configurationCollector, BuildContext context) {
+		return generateBuildTimeClassProxies(configurationCollector, context, 0);
+	}
+
+	/**
+	 * Generate the requested class proxies. Requests that result in the same proxy configuration are only
+	 * generated once and the remaining proxies are generated concurrently, all sharing one class loader over
+	 * the application classpath.
+	 * @param configurationCollector the collector holding the class proxy requests
+	 * @param context the build context the proxy classes are added to
+	 * @param parallelism the number of threads to use, 0 or less meaning one per available processor
+	 * @return the names of the generated proxy classes
+	 */
+	@SuppressWarnings("deprecation")
+	public List<String> generateBuildTimeClassProxies(ConfigurationCollector configurationCollector, BuildContext context, int parallelism) {
 		Set<AotProxyDescriptor> classProxyDescriptors = configurationCollector.getClassProxyDescriptors();
-		List<String> classProxyNames = new ArrayList<>();
+		Map<ProxyConfiguration, BuildTimeProxyDescriptor> proxies = new LinkedHashMap<>();
 		for (AotProxyDescriptor classProxyDescriptor: classProxyDescriptors) {
 			if(context.getTypeSystem().resolve(classProxyDescriptor.getTargetClassType()) == null) {
 				logger.debug("Cannot reach class proxy target type of: "+classProxyDescriptor);
 				continue;
 			}
-			classProxyNames.add(generateBuildTimeClassProxy(classProxyDescriptor, context));
+			BuildTimeProxyDescriptor c = classProxyDescriptor.asCPDescriptor();
+			proxies.putIfAbsent(ProxyConfiguration.get(c, null), c);
+		}
+		if (proxies.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<BuildTimeProxyDescriptor> descriptors = new ArrayList<>(proxies.values());
+		List<Unloaded<?>> unloadedProxies;
+		// TODO [build time proxies] is this parent OK?
+		try (URLClassLoader ucl = new URLClassLoader(toUrls(context.getClasspath()), ConfigurationContributor.class.getClassLoader())) {
+			unloadedProxies = ParallelScanner.map(descriptors, parallelism, c -> {
+				logger.debug("Creating build time class proxy for class "+c.getTargetClassType());
+				return ProxyGenerator.getProxyBytes(c, ucl);
+			});
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Unable to close the class loader used to generate proxies", ioe);
+		}
+		// Resources are added in request order, so the output does not depend on the parallelism
+		List<String> classProxyNames = new ArrayList<>();
+		int i = 0;
+		for (ProxyConfiguration proxyConfiguration : proxies.keySet()) {
+			addBuildTimeClassProxy(proxyConfiguration, unloadedProxies.get(i++), context);
+			classProxyNames.add(proxyConfiguration.getProxyClassName());
 		}
 		return classProxyNames;
 	}
-	
-	@SuppressWarnings("deprecation")
-	private String generateBuildTimeClassProxy(AotProxyDescriptor cpd, BuildContext context) {
-		BuildTimeProxyDescriptor c = cpd.asCPDescriptor();
-		ProxyConfiguration proxyConfiguration = ProxyConfiguration.get(c, null);
-		List<String> classpath = context.getClasspath();
+
+	private static URL[] toUrls(List<String> classpath) {
 		URL[] urls = new URL[classpath.size()];
 		for (int i=0;i<classpath.size();i++) {
 			try {
@@ -175,12 +220,10 @@ public class ConfigurationContributor implements BootstrapContributor {
 				throw new IllegalStateException(e);
 			}
 		}
-		// TODO [build time proxies] is this parent OK?
-		URLClassLoader ucl = new URLClassLoader(urls,ConfigurationContributor.class.getClassLoader());
-		logger.debug("Creating build time class proxy for class "+c.getTargetClassType());
+		return urls;
+	}
 
-		Unloaded<?> unloadedProxy = ProxyGenerator.getProxyBytes(c, ucl);
-		
+	private void addBuildTimeClassProxy(ProxyConfiguration proxyConfiguration, Unloaded<?> unloadedProxy, BuildContext context) {
 		Path primaryProxyFilepath = Paths.get(proxyConfiguration.getProxyClassName().replace(".", "/") + ".class");
 		context.addResources(new ResourceFile() {
 			@Override
@@ -202,7 +245,6 @@ public class ConfigurationContributor implements BootstrapContributor {
 				context.addResources(new ProxyAuxResourceFile(auxiliaryType.getKey(), auxiliaryType.getValue()));
 			}
 		}
-		return proxyConfiguration.getProxyClassName();
 	}
 	
 	/**
@@ -17,7 +17,6 @@
 package org.springframework.core.type.classreading;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -84,7 +83,9 @@ class DefaultClassDescriptorVisitor extends ClassVisitor {
 		if (supername != null && !isInterface(access)) {
 			this.superClassName = toClassName(supername);
 		}
-		Collections.addAll(this.interfaceNames, interfaces);
+		for (String interfaceName : interfaces) {
+			this.interfaceNames.add(toClassName(interfaceName));
+		}
 	}
 
 	@Override
@@ -152,7 +153,8 @@ class DefaultClassDescriptorVisitor extends ClassVisitor {
 	}
 
 	private String toClassName(String name) {
-		return ClassUtils.convertResourcePathToClassName(name);
+		// Interned as the same names are referenced from many descriptors held by the type system
+		return ClassUtils.convertResourcePathToClassName(name).intern();
 	}
 
 	private boolean isBridge(int access) {
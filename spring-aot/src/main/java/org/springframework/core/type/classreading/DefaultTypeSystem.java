@@ -17,7 +17,11 @@
 package org.springframework.core.type.classreading;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import org.springframework.core.io.Resource;
@@ -25,19 +29,32 @@ import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentLruCache;
 
 /**
- * Default implementation for {@link TypeSystem}
+ * Default implementation for {@link TypeSystem}.
+ * <p>Resolved types are kept in a bounded cache and package scans are cached for the lifetime of
+ * the type system, so contributors resolving the same types do not parse their class files again.
  * @author Brian Clozel
  */
 class DefaultTypeSystem implements TypeSystem {
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	// Enough for the types resolved while processing a typical Spring Boot application
+	static final int DESCRIPTOR_CACHE_LIMIT = 8192;
+
 	private final ResourcePatternResolver resourcePatternResolver;
 
 	private final ResourceLoader resourceLoader;
 
+	private final ConcurrentLruCache<String, TypeDescriptor> descriptorCache =
+			new ConcurrentLruCache<>(DESCRIPTOR_CACHE_LIMIT, this::readTypeDescriptor);
+
+	private final Map<String, List<ClassDescriptor>> scanCache = new ConcurrentHashMap<>();
+
+	private final TypeSystemMetrics metrics = new TypeSystemMetrics();
+
 	DefaultTypeSystem(ResourceLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
 		this.resourcePatternResolver = new PathMatchingResourcePatternResolver(resourceLoader);
@@ -48,35 +65,67 @@ class DefaultTypeSystem implements TypeSystem {
 		return this.resourceLoader;
 	}
 
+	@Override
+	public TypeSystemMetrics getMetrics() {
+		return this.metrics;
+	}
+
 	@Override
 	public TypeDescriptor resolve(String typeName) {
+		// Both dotted and slashed names are accepted, only cache one form of each
+		String name = typeName.replace('/', '.');
+		this.metrics.recordLookup();
+		return this.descriptorCache.get(name);
+	}
+
+	private TypeDescriptor readTypeDescriptor(String typeName) {
+		this.metrics.recordMiss();
+		long start = this.metrics.startParse();
 		try {
 			return new DefaultTypeDescriptor(typeName, this);
 		}
 		catch (IOException exc) {
 			throw new RuntimeException("Cannot resolve " + typeName, exc);
 		}
+		finally {
+			this.metrics.endParse(start);
+		}
 	}
 
 	@Override
 	public Stream<ClassDescriptor> scan(String basePackage) {
+		List<ClassDescriptor> descriptors = this.scanCache.get(basePackage);
+		this.metrics.recordScan(descriptors != null);
+		if (descriptors == null) {
+			descriptors = this.scanCache.computeIfAbsent(basePackage, this::scanPackage);
+		}
+		return descriptors.stream();
+	}
+
+	private List<ClassDescriptor> scanPackage(String basePackage) {
+		long start = this.metrics.startParse();
 		try {
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					ClassUtils.convertClassNameToResourcePath(basePackage) + DEFAULT_RESOURCE_PATTERN;
-			return Arrays.stream(this.resourcePatternResolver.getResources(packageSearchPath))
-					.filter(Resource::exists)
-					.map(resource -> {
-						try {
-							return DefaultClassDescriptorReader.readDescriptor(this, resource);
-						}
-						catch (IOException exception) {
-							throw new RuntimeException("Cannot read type for: " + resource.getDescription(), exception);
-						}
-					});
+			List<ClassDescriptor> descriptors = new ArrayList<>();
+			for (Resource resource : this.resourcePatternResolver.getResources(packageSearchPath)) {
+				if (resource.exists()) {
+					try {
+						descriptors.add(DefaultClassDescriptorReader.readDescriptor(this, resource));
+					}
+					catch (IOException exception) {
+						throw new RuntimeException("Cannot read type for: " + resource.getDescription(), exception);
+					}
+				}
+			}
+			return Collections.unmodifiableList(descriptors);
 		}
 		catch (IOException exc) {
 			throw new RuntimeException("Could not load resources in package: " + basePackage, exc);
 		}
+		finally {
+			this.metrics.endParse(start);
+		}
 	}
 
 }
\ No newline at end of file
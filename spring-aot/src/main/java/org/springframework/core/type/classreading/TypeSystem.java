@@ -46,4 +46,9 @@ public interface TypeSystem {
 
 	ResourceLoader getResourceLoader();
 
+	/**
+	 * Return metrics on the type lookups and package scans performed so far.
+	 */
+	TypeSystemMetrics getMetrics();
+
 }
\ No newline at end of file
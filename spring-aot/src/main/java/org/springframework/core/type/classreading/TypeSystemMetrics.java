@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters describing how a {@link TypeSystem} has been used: how often type lookups and
+ * package scans were answered from its caches, and how long was spent parsing class files.
+ */
+public class TypeSystemMetrics {
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder scanHits = new LongAdder();
+
+	private final LongAdder scanMisses = new LongAdder();
+
+	private final LongAdder parseNanos = new LongAdder();
+
+	// Parsing a class resolves other types, which may be parsed in turn: only the outermost parse is timed
+	private final ThreadLocal<int[]> parseDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+	void recordLookup() {
+		this.lookups.increment();
+	}
+
+	void recordMiss() {
+		this.misses.increment();
+	}
+
+	void recordScan(boolean hit) {
+		(hit ? this.scanHits : this.scanMisses).increment();
+	}
+
+	/**
+	 * Record the start of a parse, to be ended with {@link #endParse(long)}.
+	 * @return the start time, or -1 if the parse runs within another one
+	 */
+	long startParse() {
+		return (this.parseDepth.get()[0]++ == 0) ? System.nanoTime() : -1;
+	}
+
+	void endParse(long start) {
+		this.parseDepth.get()[0]--;
+		if (start != -1) {
+			this.parseNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Return the number of type lookups answered from the cache.
+	 */
+	public long getHits() {
+		return this.lookups.sum() - this.misses.sum();
+	}
+
+	/**
+	 * Return the number of type lookups that required reading a class file.
+	 */
+	public long getMisses() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Return the number of package scans answered from the cache.
+	 */
+	public long getScanHits() {
+		return this.scanHits.sum();
+	}
+
+	/**
+	 * Return the number of package scans that required reading class files.
+	 */
+	public long getScanMisses() {
+		return this.scanMisses.sum();
+	}
+
+	/**
+	 * Return the total time spent reading and parsing class files, in milliseconds.
+	 */
+	public long getParseTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(this.parseNanos.sum());
+	}
+
+	@Override
+	public String toString() {
+		return "type lookups: " + getHits() + " hits, " + getMisses() + " misses; package scans: " +
+				getScanHits() + " hits, " + getScanMisses() + " misses; class parsing: " + getParseTimeMillis() + "ms";
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.nativex;
 
+import java.io.File;
+import java.util.Set;
+
 import org.springframework.nativex.support.Mode;
 
 /**
@@ -126,6 +129,34 @@ public class AotOptions {
 	 */
 	private String[] buildTimePropertiesChecks;
 
+	/**
+	 * Number of threads used to scan the classpath during analysis. Jars and directories are scanned
+	 * independently and the results merged in classpath order, so this does not affect the generated
+	 * configuration. A value of 0 or less (the default) uses one thread per available processor, 1 scans
+	 * on the calling thread.
+	 */
+	private int scanParallelism;
+
+	/**
+	 * Directory holding the results of analysing dependency jars, reused by later builds whilst the jar
+	 * contents and the spring-aot version are unchanged. When not set analysis results are not cached.
+	 */
+	private File analysisCacheDirectory;
+
+	/**
+	 * Classpath entries that the build tool knows are unchanged since the last run using the same
+	 * analysis cache directory. Their cached analysis is reused without hashing the entry again, and
+	 * directories can then be cached too. When not set (the default) nothing is assumed unchanged.
+	 */
+	private Set<File> unchangedClasspathEntries;
+
+	/**
+	 * Directory the profile of the generation is written to: the wall time, CPU time, allocated bytes
+	 * and invocation count of each of its phases, as JSON and as collapsed stacks for flame graph tools.
+	 * When not set (the default) the generation is not profiled.
+	 */
+	private File profileDirectory;
+
 	public String getMode() {
 		return mode;
 	}
@@ -214,6 +245,38 @@ public class AotOptions {
 		this.removeSpelSupport = removeSpelSupport;
 	}
 
+	public int getScanParallelism() {
+		return scanParallelism;
+	}
+
+	public void setScanParallelism(int scanParallelism) {
+		this.scanParallelism = scanParallelism;
+	}
+
+	public File getAnalysisCacheDirectory() {
+		return analysisCacheDirectory;
+	}
+
+	public void setAnalysisCacheDirectory(File analysisCacheDirectory) {
+		this.analysisCacheDirectory = analysisCacheDirectory;
+	}
+
+	public Set<File> getUnchangedClasspathEntries() {
+		return unchangedClasspathEntries;
+	}
+
+	public void setUnchangedClasspathEntries(Set<File> unchangedClasspathEntries) {
+		this.unchangedClasspathEntries = unchangedClasspathEntries;
+	}
+
+	public File getProfileDirectory() {
+		return profileDirectory;
+	}
+
+	public void setProfileDirectory(File profileDirectory) {
+		this.profileDirectory = profileDirectory;
+	}
+
 	public boolean isFailOnMissingSelectorHint() {
 		return failOnMissingSelectorHint;
 	}
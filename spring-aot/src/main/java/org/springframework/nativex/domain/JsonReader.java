@@ -0,0 +1,330 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pull parser reading JSON a token at a time, so a document can be turned into descriptors
+ * as it is read rather than first being loaded into a {@link String} and parsed into a tree
+ * of {@code JSONObject}/{@code JSONArray}. Only the constructs found in native-image
+ * configuration files are needed: objects, arrays, strings, booleans, numbers and null.
+ */
+public class JsonReader {
+
+	public enum Token {
+		BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader in;
+
+	private final char[] buffer = new char[BUFFER_SIZE];
+
+	private int pos;
+
+	private int limit;
+
+	// Whether each enclosing scope is an object (true) or array (false)
+	private boolean[] scopes = new boolean[16];
+
+	private int depth;
+
+	// Whether the next string in the current object is a name
+	private boolean expectingName;
+
+	private Token peeked;
+
+	private final StringBuilder text = new StringBuilder();
+
+	public JsonReader(Reader in) {
+		this.in = in;
+	}
+
+	public static JsonReader of(InputStream inputStream) {
+		return new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return the kind of the next token, without consuming it
+	 * @throws IOException if the input cannot be read or is not valid JSON
+	 */
+	public Token peek() throws IOException {
+		if (peeked == null) {
+			peeked = readToken();
+		}
+		return peeked;
+	}
+
+	/**
+	 * @return true if the current array or object has another element
+	 * @throws IOException if the input cannot be read or is not valid JSON
+	 */
+	public boolean hasNext() throws IOException {
+		Token token = peek();
+		return token != Token.END_ARRAY && token != Token.END_OBJECT && token != Token.END_DOCUMENT;
+	}
+
+	public void beginArray() throws IOException {
+		expect(Token.BEGIN_ARRAY);
+	}
+
+	public void endArray() throws IOException {
+		expect(Token.END_ARRAY);
+	}
+
+	public void beginObject() throws IOException {
+		expect(Token.BEGIN_OBJECT);
+	}
+
+	public void endObject() throws IOException {
+		expect(Token.END_OBJECT);
+	}
+
+	public String nextName() throws IOException {
+		expect(Token.NAME);
+		return text.toString();
+	}
+
+	/**
+	 * @return the next value as a string, numbers and booleans are converted like
+	 * {@code JSONObject.getString} does
+	 * @throws IOException if the input cannot be read or the next value is not a string
+	 */
+	public String nextString() throws IOException {
+		Token token = peek();
+		if (token != Token.STRING && token != Token.NUMBER && token != Token.BOOLEAN) {
+			throw syntaxError("Expected a string but was " + token);
+		}
+		peeked = null;
+		return text.toString();
+	}
+
+	/**
+	 * @return the next value as a boolean, strings {@code "true"} and {@code "false"} are
+	 * accepted and anything else is false, like {@code JSONObject.optBoolean} does
+	 * @throws IOException if the input cannot be read or is not valid JSON
+	 */
+	public boolean nextBoolean() throws IOException {
+		Token token = peek();
+		if (token == Token.BOOLEAN || token == Token.STRING) {
+			peeked = null;
+			return "true".equalsIgnoreCase(text.toString());
+		}
+		skipValue();
+		return false;
+	}
+
+	/**
+	 * Skip the next value, including all the content of an array or object.
+	 * @throws IOException if the input cannot be read or is not valid JSON
+	 */
+	public void skipValue() throws IOException {
+		int nesting = 0;
+		do {
+			Token token = peek();
+			peeked = null;
+			if (token == Token.BEGIN_ARRAY || token == Token.BEGIN_OBJECT) {
+				nesting++;
+			} else if (token == Token.END_ARRAY || token == Token.END_OBJECT) {
+				nesting--;
+			} else if (token == Token.END_DOCUMENT) {
+				throw syntaxError("Unexpected end of document");
+			}
+		} while (nesting > 0);
+	}
+
+	private void expect(Token expected) throws IOException {
+		Token token = peek();
+		if (token != expected) {
+			throw syntaxError("Expected " + expected + " but was " + token);
+		}
+		peeked = null;
+	}
+
+	private Token readToken() throws IOException {
+		int c = nextNonWhitespace();
+		if (depth > 0) {
+			boolean inObject = scopes[depth - 1];
+			if (c == ',') {
+				c = nextNonWhitespace();
+				expectingName = inObject;
+			} else if (c == ':') {
+				if (!inObject) {
+					throw syntaxError("Unexpected ':'");
+				}
+				c = nextNonWhitespace();
+			}
+		}
+		switch (c) {
+		case -1:
+			if (depth > 0) {
+				throw syntaxError("Unexpected end of document");
+			}
+			return Token.END_DOCUMENT;
+		case '[':
+			push(false);
+			return Token.BEGIN_ARRAY;
+		case '{':
+			push(true);
+			expectingName = true;
+			return Token.BEGIN_OBJECT;
+		case ']':
+		case '}':
+			if (depth == 0 || scopes[depth - 1] != (c == '}')) {
+				throw syntaxError("Unexpected '" + (char) c + "'");
+			}
+			depth--;
+			expectingName = false;
+			return c == ']' ? Token.END_ARRAY : Token.END_OBJECT;
+		case '"':
+			readString();
+			if (expectingName) {
+				expectingName = false;
+				return Token.NAME;
+			}
+			return Token.STRING;
+		default:
+			readLiteral((char) c);
+			String literal = text.toString();
+			if (literal.equals("true") || literal.equals("false")) {
+				return Token.BOOLEAN;
+			}
+			if (literal.equals("null")) {
+				return Token.NULL;
+			}
+			if (!literal.isEmpty() && (Character.isDigit(literal.charAt(0)) || literal.charAt(0) == '-')) {
+				return Token.NUMBER;
+			}
+			throw syntaxError("Unexpected '" + literal + "'");
+		}
+	}
+
+	private void push(boolean object) {
+		if (depth == scopes.length) {
+			boolean[] newScopes = new boolean[depth * 2];
+			System.arraycopy(scopes, 0, newScopes, 0, depth);
+			scopes = newScopes;
+		}
+		scopes[depth++] = object;
+	}
+
+	private void readString() throws IOException {
+		text.setLength(0);
+		while (true) {
+			int start = pos;
+			while (pos < limit) {
+				char c = buffer[pos++];
+				if (c == '"') {
+					text.append(buffer, start, pos - start - 1);
+					return;
+				}
+				if (c == '\\') {
+					text.append(buffer, start, pos - start - 1);
+					text.append(readEscape());
+					start = pos;
+				}
+			}
+			text.append(buffer, start, pos - start);
+			if (!fill()) {
+				throw syntaxError("Unterminated string");
+			}
+		}
+	}
+
+	private char readEscape() throws IOException {
+		int c = read();
+		switch (c) {
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				int digit = Character.digit(read(), 16);
+				if (digit == -1) {
+					throw syntaxError("Invalid unicode escape");
+				}
+				value = (value << 4) | digit;
+			}
+			return (char) value;
+		case 't':
+			return '\t';
+		case 'b':
+			return '\b';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 'f':
+			return '\f';
+		case -1:
+			throw syntaxError("Unterminated escape sequence");
+		default:
+			return (char) c;
+		}
+	}
+
+	private void readLiteral(char first) throws IOException {
+		text.setLength(0);
+		text.append(first);
+		while (true) {
+			if (pos == limit && !fill()) {
+				return;
+			}
+			char c = buffer[pos];
+			if (c == ',' || c == ':' || c == ']' || c == '}' || c == '[' || c == '{' || c == '"' || Character.isWhitespace(c)) {
+				return;
+			}
+			text.append(c);
+			pos++;
+		}
+	}
+
+	private int nextNonWhitespace() throws IOException {
+		while (true) {
+			int c = read();
+			if (c == -1 || !Character.isWhitespace(c)) {
+				return c;
+			}
+		}
+	}
+
+	private int read() throws IOException {
+		if (pos == limit && !fill()) {
+			return -1;
+		}
+		return buffer[pos++];
+	}
+
+	private boolean fill() throws IOException {
+		pos = 0;
+		limit = in.read(buffer, 0, buffer.length);
+		if (limit <= 0) {
+			limit = 0;
+			return false;
+		}
+		return true;
+	}
+
+	private IOException syntaxError(String message) {
+		return new IOException("Malformed JSON: " + message);
+	}
+
+}
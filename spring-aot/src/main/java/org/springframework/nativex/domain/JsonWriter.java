@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.domain;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams JSON straight to a {@link Writer} rather than building a tree of
+ * {@code JSONObject}/{@code JSONArray} and rendering it to a {@link String} first. The
+ * output is formatted exactly as {@code JSONArray.toString(2)} would have formatted it, so
+ * the generated native-image configuration files are unchanged.
+ */
+public class JsonWriter implements Flushable {
+
+	private static final String INDENT = "  ";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private enum Scope {
+		EMPTY_ARRAY, NONEMPTY_ARRAY, EMPTY_OBJECT, DANGLING_NAME, NONEMPTY_OBJECT
+	}
+
+	private final Writer out;
+
+	private final boolean escapeSlashes;
+
+	private final List<Scope> stack = new ArrayList<>();
+
+	/**
+	 * @param out where to write the JSON
+	 * @param escapeSlashes whether to write {@code /} as {@code \/}, as the org.json renderer does
+	 */
+	public JsonWriter(Writer out, boolean escapeSlashes) {
+		this.out = out;
+		this.escapeSlashes = escapeSlashes;
+	}
+
+	/**
+	 * Create a writer producing UTF-8 encoded, buffered output to the stream. The stream
+	 * is flushed but not closed by {@link #flush()}.
+	 * @param outputStream where to write the JSON
+	 * @param escapeSlashes whether to write {@code /} as {@code \/}
+	 * @return the JSON writer
+	 */
+	public static JsonWriter of(OutputStream outputStream, boolean escapeSlashes) {
+		return new JsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), escapeSlashes);
+	}
+
+	public JsonWriter beginArray() throws IOException {
+		return open(Scope.EMPTY_ARRAY, '[');
+	}
+
+	public JsonWriter endArray() throws IOException {
+		return close(Scope.EMPTY_ARRAY, Scope.NONEMPTY_ARRAY, ']');
+	}
+
+	public JsonWriter beginObject() throws IOException {
+		return open(Scope.EMPTY_OBJECT, '{');
+	}
+
+	public JsonWriter endObject() throws IOException {
+		return close(Scope.EMPTY_OBJECT, Scope.NONEMPTY_OBJECT, '}');
+	}
+
+	public JsonWriter name(String name) throws IOException {
+		Scope context = peek();
+		if (context == Scope.NONEMPTY_OBJECT) {
+			out.write(',');
+		} else if (context != Scope.EMPTY_OBJECT) {
+			throw new IllegalStateException("Nesting problem");
+		}
+		newline();
+		replaceTop(Scope.DANGLING_NAME);
+		string(name);
+		return this;
+	}
+
+	public JsonWriter value(String value) throws IOException {
+		beforeValue();
+		string(value);
+		return this;
+	}
+
+	public JsonWriter value(boolean value) throws IOException {
+		beforeValue();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	public JsonWriter value(long value) throws IOException {
+		beforeValue();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	/**
+	 * Write a name and its string value.
+	 * @param name the name
+	 * @param value the value
+	 * @return this writer
+	 * @throws IOException if the JSON cannot be written
+	 */
+	public JsonWriter property(String name, String value) throws IOException {
+		return name(name).value(value);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (!stack.isEmpty()) {
+			throw new IllegalStateException("Nesting problem, unclosed array or object");
+		}
+		out.flush();
+	}
+
+	private JsonWriter open(Scope empty, char openBracket) throws IOException {
+		beforeValue();
+		stack.add(empty);
+		out.write(openBracket);
+		return this;
+	}
+
+	private JsonWriter close(Scope empty, Scope nonempty, char closeBracket) throws IOException {
+		Scope context = peek();
+		if (context != nonempty && context != empty) {
+			throw new IllegalStateException("Nesting problem");
+		}
+		stack.remove(stack.size() - 1);
+		if (context == nonempty) {
+			newline();
+		}
+		out.write(closeBracket);
+		return this;
+	}
+
+	private void beforeValue() throws IOException {
+		if (stack.isEmpty()) {
+			return;
+		}
+		Scope context = peek();
+		if (context == Scope.EMPTY_ARRAY) {
+			replaceTop(Scope.NONEMPTY_ARRAY);
+			newline();
+		} else if (context == Scope.NONEMPTY_ARRAY) {
+			out.write(',');
+			newline();
+		} else if (context == Scope.DANGLING_NAME) {
+			out.write(": ");
+			replaceTop(Scope.NONEMPTY_OBJECT);
+		} else {
+			throw new IllegalStateException("Nesting problem");
+		}
+	}
+
+	private Scope peek() {
+		if (stack.isEmpty()) {
+			throw new IllegalStateException("Nesting problem");
+		}
+		return stack.get(stack.size() - 1);
+	}
+
+	private void replaceTop(Scope scope) {
+		stack.set(stack.size() - 1, scope);
+	}
+
+	private void newline() throws IOException {
+		out.write('\n');
+		for (int i = 0; i < stack.size(); i++) {
+			out.write(INDENT);
+		}
+	}
+
+	private void string(String value) throws IOException {
+		out.write('"');
+		int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			String replacement;
+			switch (c) {
+			case '"':
+				replacement = "\\\"";
+				break;
+			case '\\':
+				replacement = "\\\\";
+				break;
+			case '/':
+				replacement = escapeSlashes ? "\\/" : null;
+				break;
+			case '\t':
+				replacement = "\\t";
+				break;
+			case '\b':
+				replacement = "\\b";
+				break;
+			case '\n':
+				replacement = "\\n";
+				break;
+			case '\r':
+				replacement = "\\r";
+				break;
+			case '\f':
+				replacement = "\\f";
+				break;
+			default:
+				replacement = c <= 0x1F ? new String(new char[] { '\\', 'u', '0', '0', HEX[c >> 4], HEX[c & 0xF] }) : null;
+			}
+			if (replacement != null) {
+				// Write the unescaped run before this character in one go
+				out.write(value, start, i - start);
+				out.write(replacement);
+				start = i + 1;
+			}
+		}
+		out.write(value, start, length - start);
+		out.write('"');
+	}
+
+}
@@ -17,7 +17,9 @@
 package org.springframework.nativex.domain.proxies;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
@@ -29,12 +31,17 @@ public class ProxiesDescriptor {
 
 	private final List<JdkProxyDescriptor> proxyDescriptors;
 
+	// The same descriptors as the list, for fast duplicate detection
+	private final Set<JdkProxyDescriptor> proxyDescriptorsIndex;
+
 	public ProxiesDescriptor() {
 		this.proxyDescriptors = new ArrayList<>();
+		this.proxyDescriptorsIndex = new HashSet<>();
 	}
 
 	public ProxiesDescriptor(ProxiesDescriptor metadata) {
 		this.proxyDescriptors = new ArrayList<>(metadata.proxyDescriptors);
+		this.proxyDescriptorsIndex = new HashSet<>(metadata.proxyDescriptorsIndex);
 	}
 
 	public List<JdkProxyDescriptor> getProxyDescriptors() {
@@ -42,13 +49,7 @@ public class ProxiesDescriptor {
 	}
 
 	public void add(JdkProxyDescriptor proxyDescriptor) {
-		boolean alreadyExists = false;
-		for (JdkProxyDescriptor pd: proxyDescriptors) {
-			if (pd.equals(proxyDescriptor)) {
-				alreadyExists = true;
-			}
-		}
-		if (!alreadyExists) {
+		if (this.proxyDescriptorsIndex.add(proxyDescriptor)) {
 			this.proxyDescriptors.add(proxyDescriptor);
 		}
 	}
@@ -80,7 +81,9 @@ public class ProxiesDescriptor {
 	}
 
 	public void merge(ProxiesDescriptor otherProxyDescriptor) {
-		proxyDescriptors.addAll(otherProxyDescriptor.getProxyDescriptors());
+		for (JdkProxyDescriptor proxyDescriptor : otherProxyDescriptor.getProxyDescriptors()) {
+			add(proxyDescriptor);
+		}
 	}
 
 	public static ProxiesDescriptor fromJSON(String jsonString) {
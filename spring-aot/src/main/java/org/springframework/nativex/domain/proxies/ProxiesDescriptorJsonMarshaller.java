@@ -24,8 +24,10 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.springframework.nativex.domain.JsonWriter;
 import org.springframework.nativex.json.JSONArray;
 
 /**
@@ -46,11 +48,27 @@ public class ProxiesDescriptorJsonMarshaller {
 		}
 	}
 	
+	/**
+	 * Write the descriptor, sorted by interface names, as JSON. The JSON is streamed to the output
+	 * stream, which is flushed but not closed.
+	 * @param metadata the descriptor to write
+	 * @param outputStream where to write the JSON
+	 */
 	public static void write(ProxiesDescriptor metadata, OutputStream outputStream) {
 		try {
-			ProxiesDescriptorJsonConverter converter = new ProxiesDescriptorJsonConverter();
-			JSONArray jsonArray = converter.toJsonArray(metadata);
-			outputStream.write(jsonArray.toString(2).getBytes(StandardCharsets.UTF_8));
+			List<JdkProxyDescriptor> proxyDescriptors = new ArrayList<>(metadata.getProxyDescriptors());
+			Collections.sort(proxyDescriptors);
+			JsonWriter writer = JsonWriter.of(outputStream, true);
+			writer.beginArray();
+			for (JdkProxyDescriptor pd : proxyDescriptors) {
+				writer.beginArray();
+				for (String intface : pd.getTypes()) {
+					writer.value(intface);
+				}
+				writer.endArray();
+			}
+			writer.endArray();
+			writer.flush();
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException(ex);
@@ -17,8 +17,10 @@
 package org.springframework.nativex.domain.reflect;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -40,6 +42,11 @@ public final class ClassDescriptor {
 
 	private Set<Flag> flags; // Inclusion in list indicates they are set
 
+	// Lookup indexes over the members, built on first use, so merging descriptors with many members stays linear
+	private Map<String, FieldDescriptor> fieldsByName;
+
+	private Map<MethodDescriptor, MethodDescriptor> methodsIndex;
+
 	ClassDescriptor() {
 	}
 
@@ -54,6 +61,11 @@ public final class ClassDescriptor {
 		return this.name;
 	}
 
+	/**
+	 * Set the name of the class. A descriptor must not be renamed once it has been added to a
+	 * {@link ReflectionDescriptor}, which looks its descriptors up by name.
+	 * @param name the name of the class, e.g. java.lang.Class
+	 */
 	public void setName(String name) {
 		this.name = name;
 	}
@@ -151,11 +163,18 @@ public final class ClassDescriptor {
 		flags.remove(f);
 	}
 
+	/**
+	 * Add a method, unless an equal one has already been added.
+	 * 
+	 * @param methodDescriptor the method to add
+	 */
 	public void addMethodDescriptor(MethodDescriptor methodDescriptor) {
 		if (methods == null) {
 			methods = new ArrayList<>();
 		}
-		methods.add(methodDescriptor);
+		if (getMethodsIndex().putIfAbsent(methodDescriptor, methodDescriptor) == null) {
+			methods.add(methodDescriptor);
+		}
 	}
 
 	private void addMethodDescriptors(List<MethodDescriptor> methodDescriptors) {
@@ -164,11 +183,21 @@ public final class ClassDescriptor {
 		}
 	}
 
+	/**
+	 * Add a field, or if one with the same name has already been added merge the access settings into it.
+	 * 
+	 * @param fieldDescriptor the field to add
+	 */
 	public void addFieldDescriptor(FieldDescriptor fieldDescriptor) {
 		if (fields == null) {
 			fields = new ArrayList<>();
 		}
-		fields.add(fieldDescriptor);
+		FieldDescriptor existingFieldDescriptor = getFieldsByName().putIfAbsent(fieldDescriptor.getName(), fieldDescriptor);
+		if (existingFieldDescriptor != null) {
+			existingFieldDescriptor.merge(fieldDescriptor);
+		} else {
+			fields.add(fieldDescriptor);
+		}
 	}
 	
 	private void addFieldDescriptors(List<FieldDescriptor> fieldDescriptors) {
@@ -190,68 +219,52 @@ public final class ClassDescriptor {
 			}
 		}
 		if (cd.getFields() != null) {
-			if (fields == null) {
-				addFieldDescriptors(cd.getFields());
-			} else {
-				for (FieldDescriptor fd : cd.getFields()) {
-					FieldDescriptor existingFieldDescriptor = null;
-					for (FieldDescriptor fieldDescriptor : getFields()) {
-						if (fieldDescriptor.getName().equals(fd.getName())) {
-							existingFieldDescriptor = fieldDescriptor;
-							break;
-						}
-					}
-					if (existingFieldDescriptor != null) {
-						existingFieldDescriptor.merge(fd);
-					} else {
-						addFieldDescriptor(fd);
-					}
-				}
-			}
+			addFieldDescriptors(cd.getFields());
 		}
 		if (cd.getMethods() != null) {
-			for (MethodDescriptor methodDescriptor : cd.getMethods()) {
-				if (!containsMethodDescriptor(methodDescriptor)) {
-					addMethodDescriptor(methodDescriptor);
+			addMethodDescriptors(cd.getMethods());
+		}
+	}
+
+	private Map<String, FieldDescriptor> getFieldsByName() {
+		if (fieldsByName == null) {
+			fieldsByName = new HashMap<>();
+			if (fields != null) {
+				for (FieldDescriptor fd : fields) {
+					fieldsByName.putIfAbsent(fd.getName(), fd);
 				}
 			}
 		}
+		return fieldsByName;
 	}
 
-	private boolean containsMethodDescriptor(MethodDescriptor methodDescriptor) {
-		return methods == null?false:methods.contains(methodDescriptor);
+	private Map<MethodDescriptor, MethodDescriptor> getMethodsIndex() {
+		if (methodsIndex == null) {
+			methodsIndex = new HashMap<>();
+			if (methods != null) {
+				for (MethodDescriptor md : methods) {
+					methodsIndex.putIfAbsent(md, md);
+				}
+			}
+		}
+		return methodsIndex;
 	}
 
 	public MethodDescriptor getMethodDescriptor(String name, String... parameterTypes) {
 		if (methods != null) {
-			MethodDescriptor toFind = MethodDescriptor.of(name, parameterTypes);
-			for (MethodDescriptor md : methods) {
-				if (md.equals(toFind)) {
-					return md;
-				}
-			}
+			return getMethodsIndex().get(MethodDescriptor.of(name, parameterTypes));
 		}
 		return null;
 	}
 
 	public boolean contains(MethodDescriptor toFind) {
-		if (methods != null) {
-			for (MethodDescriptor md : methods) {
-				if (md.equals(toFind)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return methods != null && getMethodsIndex().containsKey(toFind);
 	}
 
 	public boolean contains(FieldDescriptor toFind) {
 		if (fields != null) {
-			for (FieldDescriptor fd : fields) {
-				if (fd.equals(toFind)) {
-					return true;
-				}
-			}
+			FieldDescriptor fd = getFieldsByName().get(toFind.getName());
+			return fd != null && fd.equals(toFind);
 		}
 		return false;
 	}
@@ -354,11 +367,7 @@ public final class ClassDescriptor {
 
 	public FieldDescriptor getFieldDescriptorNamed(String name) {
 		if (fields != null) {
-			for (FieldDescriptor fd: fields) {
-				if (fd.getName().equals(name)) {
-					return fd;
-				}
-			}
+			return getFieldsByName().get(name);
 		}
 		return null;
 	}
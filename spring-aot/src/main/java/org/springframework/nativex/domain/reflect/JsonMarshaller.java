@@ -19,15 +19,17 @@ package org.springframework.nativex.domain.reflect;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.nativex.domain.JsonReader;
+import org.springframework.nativex.domain.JsonWriter;
 import org.springframework.nativex.hint.Flag;
-import org.springframework.nativex.json.JSONArray;
-import org.springframework.nativex.json.JSONObject;
 
 /**
  * Marshaller to write {@link ReflectionDescriptor} as JSON.
@@ -36,27 +38,81 @@ import org.springframework.nativex.json.JSONObject;
  */
 public class JsonMarshaller {
 
-	private static final int BUFFER_SIZE = 4098;
+	private static final Map<String, Flag> FLAGS = new HashMap<>();
 
+	static {
+		for (Flag flag : Flag.values()) {
+			FLAGS.put(flag.name(), flag);
+		}
+	}
+
+	/**
+	 * Write the descriptor, sorted by class name, as JSON. The JSON is streamed to the output
+	 * stream, which is flushed but not closed.
+	 * @param metadata the descriptor to write
+	 * @param outputStream where to write the JSON
+	 * @throws IOException if the JSON cannot be written
+	 */
 	public static void write(ReflectionDescriptor metadata, OutputStream outputStream)
 			throws IOException {
-		try {
-			JsonConverter converter = new JsonConverter();
-			metadata.sort();
-			JSONArray jsonArray = converter.toJsonArray(metadata);
-			outputStream.write(jsonArray.toString(2).getBytes(StandardCharsets.UTF_8));
+		metadata.sort();
+		JsonWriter writer = JsonWriter.of(outputStream, true);
+		writer.beginArray();
+		for (ClassDescriptor cd : metadata.getClassDescriptors()) {
+			write(cd, writer);
+		}
+		writer.endArray();
+		writer.flush();
+	}
+
+	private static void write(ClassDescriptor cd, JsonWriter writer) throws IOException {
+		writer.beginObject();
+		writer.property("name", cd.getName());
+		Set<Flag> flags = cd.getFlags();
+		if (flags != null) {
+			for (Flag flag: Flag.values()) {
+				if (flags.contains(flag)) {
+					writer.name(flag.name()).value(true);
+				}
+			}
 		}
-		catch (Exception ex) {
-			if (ex instanceof IOException) {
-				throw (IOException) ex;
+		List<FieldDescriptor> fds = cd.getFields();
+		if (fds != null) {
+			writer.name("fields").beginArray();
+			for (FieldDescriptor fd: fds) {
+				writer.beginObject();
+				writer.property("name", fd.getName());
+				if (fd.isAllowWrite()) {
+					writer.name("allowWrite").value(true);
+				}
+				if (fd.isAllowUnsafeAccess()) {
+					writer.name("allowUnsafeAccess").value(true);
+				}
+				writer.endObject();
 			}
-			if (ex instanceof RuntimeException) {
-				throw (RuntimeException) ex;
+			writer.endArray();
+		}
+		List<MethodDescriptor> mds = cd.getMethods();
+		if (mds != null) {
+			writer.name("methods").beginArray();
+			for (MethodDescriptor md: mds) {
+				writer.beginObject();
+				writer.property("name", md.getName());
+				writer.name("parameterTypes").beginArray();
+				List<String> parameterTypes = md.getParameterTypes();
+				if (parameterTypes != null) {
+					for (String pt: parameterTypes) {
+						writer.value(pt);
+					}
+				}
+				writer.endArray();
+				writer.endObject();
 			}
-			throw new IllegalStateException(ex);
+			writer.endArray();
 		}
+		writer.endObject();
 	}
-	
+
 	public static ReflectionDescriptor read(String input) throws Exception {
 		try (ByteArrayInputStream bais = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))) {
 			return read(bais);
@@ -69,81 +125,120 @@ public class JsonMarshaller {
 		}
 	}
 
+	/**
+	 * Read a descriptor from JSON, building the class descriptors as the stream is parsed.
+	 * @param inputStream the JSON, which is not closed
+	 * @return the descriptor
+	 */
 	public static ReflectionDescriptor read(InputStream inputStream) {
 		try {
-			ReflectionDescriptor metadata = toReflectionDescriptor(new JSONArray(toString(inputStream)));
-			return metadata;
+			return toReflectionDescriptor(JsonReader.of(inputStream));
 		} catch (Exception e) {
 			throw new IllegalStateException("Unable to read ReflectionDescriptor from inputstream", e);
 		}
 	}
 
-	private static ReflectionDescriptor toReflectionDescriptor(JSONArray array) throws Exception {
+	private static ReflectionDescriptor toReflectionDescriptor(JsonReader reader) throws IOException {
 		ReflectionDescriptor rd = new ReflectionDescriptor();
-		for (int i=0;i<array.length();i++) {
-			ClassDescriptor cd = toClassDescriptor((JSONObject)array.get(i));
+		reader.beginArray();
+		while (reader.hasNext()) {
+			ClassDescriptor cd = toClassDescriptor(reader);
 			if (rd.hasClassDescriptor(cd.getName())) {
 				rd.getClassDescriptor(cd.getName()).merge(cd);
 			} else {
 				rd.add(cd);
 			}
 		}
+		reader.endArray();
 		return rd;
 	}
-	
-	private static ClassDescriptor toClassDescriptor(JSONObject object) throws Exception {
+
+	private static ClassDescriptor toClassDescriptor(JsonReader reader) throws IOException {
 		ClassDescriptor cd = new ClassDescriptor();
-		cd.setName(object.getString("name"));
-		for (Flag f: Flag.values()) {
-			if (object.optBoolean(f.name())) {
-				cd.setFlag(f);
-			}
-		}
-		JSONArray fields = object.optJSONArray("fields");
-		if (fields != null) {
-			for (int i=0;i<fields.length();i++) {
-				cd.addFieldDescriptor(toFieldDescriptor(fields.getJSONObject(i)));
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			Flag flag = FLAGS.get(name);
+			if (flag != null) {
+				if (reader.nextBoolean()) {
+					cd.setFlag(flag);
+				}
+			} else if (name.equals("name")) {
+				cd.setName(reader.nextString());
+			} else if (name.equals("fields") && reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					cd.addFieldDescriptor(toFieldDescriptor(reader));
+				}
+				reader.endArray();
+			} else if (name.equals("methods") && reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					cd.addMethodDescriptor(toMethodDescriptor(reader));
+				}
+				reader.endArray();
+			} else {
+				reader.skipValue();
 			}
 		}
-		JSONArray methods = object.optJSONArray("methods");
-		if (methods != null) {
-			for (int i=0;i<methods.length();i++) {
-				cd.addMethodDescriptor(toMethodDescriptor(methods.getJSONObject(i)));
-			}
+		reader.endObject();
+		if (cd.getName() == null) {
+			throw new IllegalStateException("No name found for class descriptor");
 		}
 		return cd;
 	}
-	
-	private static FieldDescriptor toFieldDescriptor(JSONObject object) throws Exception {
-		String name = object.getString("name");
-		boolean allowWrite = object.optBoolean("allowWrite");
-		boolean allowUnsafeAccess = object.optBoolean("allowUnsafeAccess"); // Need to confirm this is right
+
+	private static FieldDescriptor toFieldDescriptor(JsonReader reader) throws IOException {
+		String name = null;
+		boolean allowWrite = false;
+		boolean allowUnsafeAccess = false; // Need to confirm this is right
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+			case "name":
+				name = reader.nextString();
+				break;
+			case "allowWrite":
+				allowWrite = reader.nextBoolean();
+				break;
+			case "allowUnsafeAccess":
+				allowUnsafeAccess = reader.nextBoolean();
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		if (name == null) {
+			throw new IllegalStateException("No name found for field descriptor");
+		}
 		return new FieldDescriptor(name,allowWrite,allowUnsafeAccess);
 	}
 
-	private static MethodDescriptor toMethodDescriptor(JSONObject object) throws Exception {
-		String name = object.getString("name");
-		JSONArray parameterTypes = object.optJSONArray("parameterTypes");
+	private static MethodDescriptor toMethodDescriptor(JsonReader reader) throws IOException {
+		String name = null;
 		List<String> listOfParameterTypes = null;
-		if (parameterTypes != null) {
-			listOfParameterTypes = new ArrayList<>();
-			for (int i=0;i<parameterTypes.length();i++) {
-				listOfParameterTypes.add(parameterTypes.getString(i));
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String key = reader.nextName();
+			if (key.equals("name")) {
+				name = reader.nextString();
+			} else if (key.equals("parameterTypes") && reader.peek() == JsonReader.Token.BEGIN_ARRAY) {
+				listOfParameterTypes = new ArrayList<>();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					listOfParameterTypes.add(reader.nextString());
+				}
+				reader.endArray();
+			} else {
+				reader.skipValue();
 			}
 		}
-		return new MethodDescriptor(name, listOfParameterTypes);
-	}
-
-	private static String toString(InputStream inputStream) throws IOException {
-		StringBuilder out = new StringBuilder();
-		InputStreamReader reader = new InputStreamReader(inputStream,
-				StandardCharsets.UTF_8);
-		char[] buffer = new char[BUFFER_SIZE];
-		int bytesRead;
-		while ((bytesRead = reader.read(buffer)) != -1) {
-			out.append(buffer, 0, bytesRead);
+		reader.endObject();
+		if (name == null) {
+			throw new IllegalStateException("No name found for method descriptor");
 		}
-		return out.toString();
+		return new MethodDescriptor(name, listOfParameterTypes);
 	}
 
 }
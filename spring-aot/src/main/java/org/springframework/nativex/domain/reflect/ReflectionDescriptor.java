@@ -17,7 +17,9 @@
 package org.springframework.nativex.domain.reflect;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * https://github.com/oracle/graal/blob/master/substratevm/REFLECTION.md
@@ -28,28 +30,40 @@ public class ReflectionDescriptor {
 
 	private final List<ClassDescriptor> classDescriptors;
 
+	// Class descriptors by type name, where a name is listed more than once the first descriptor wins.
+	// Descriptors are not renamed once added, see ClassDescriptor#setName(String)
+	private final Map<String, ClassDescriptor> classDescriptorsByName = new HashMap<>();
+
 	public ReflectionDescriptor() {
 		this.classDescriptors = new ArrayList<>();
 	}
 
 	public ReflectionDescriptor(ReflectionDescriptor reflectionDescriptor) {
-		this.classDescriptors = new ArrayList<>(reflectionDescriptor.classDescriptors);
+		this(reflectionDescriptor.classDescriptors);
 	}
 
 	public ReflectionDescriptor(List<ClassDescriptor> classDescriptors) {
 		this.classDescriptors = new ArrayList<>(classDescriptors);
+		for (ClassDescriptor classDescriptor : classDescriptors) {
+			this.classDescriptorsByName.putIfAbsent(classDescriptor.getName(), classDescriptor);
+		}
 	}
 	
 	public void sort() {
 		classDescriptors.sort((a,b) -> a.getName().compareTo(b.getName()));
 	}
 
+	/**
+	 * @return the class descriptors in the order they were added, which may be reordered but should be added
+	 * to through {@link #add(ClassDescriptor)} or {@link #merge(ClassDescriptor)} so lookups stay accurate
+	 */
 	public List<ClassDescriptor> getClassDescriptors() {
 		return this.classDescriptors;
 	}
 
 	public void add(ClassDescriptor classDescriptor) {
 		this.classDescriptors.add(classDescriptor);
+		this.classDescriptorsByName.putIfAbsent(classDescriptor.getName(), classDescriptor);
 	}
 
 	@Override
@@ -75,37 +89,19 @@ public class ReflectionDescriptor {
 	}
 
 	public boolean hasClassDescriptor(String string) {
-		for (ClassDescriptor cd: classDescriptors) {
-			if (cd.getName().equals(string)) {
-				return true;
-			}
-		}
-		return false;
+		return this.classDescriptorsByName.containsKey(string);
 	}
 
 	public ClassDescriptor getClassDescriptor(String type) {
-		for (ClassDescriptor cd: classDescriptors) {
-			if (cd.getName().equals(type)) {
-				return cd;
-			}
-		}
-		return null;
+		return this.classDescriptorsByName.get(type);
 	}
 
 	public void merge(ReflectionDescriptor rd) {
 		List<ClassDescriptor> otherClassDescriptors = rd.getClassDescriptors();
 		if (otherClassDescriptors != null) {
-			List<ClassDescriptor> toAdd = new ArrayList<>();
 			for (ClassDescriptor otherClassDescriptor: otherClassDescriptors) {
-				String typename = otherClassDescriptor.getName();
-				ClassDescriptor existingCD = getClassDescriptor(typename);
-				if (existingCD != null) {
-					existingCD.merge(otherClassDescriptor);
-				} else {
-					toAdd.add(otherClassDescriptor.copy());
-				}
+				merge(otherClassDescriptor);
 			}
-			classDescriptors.addAll(toAdd);
 		}
 	}
 
@@ -114,7 +110,7 @@ public class ReflectionDescriptor {
 		if (existingCD != null) {
 			existingCD.merge(classDescriptor);
 		} else {
-			classDescriptors.add(classDescriptor.copy());
+			add(classDescriptor.copy());
 		}
 	}
 
@@ -24,6 +24,7 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
+import org.springframework.nativex.domain.JsonWriter;
 import org.springframework.nativex.json.JSONArray;
 import org.springframework.nativex.json.JSONObject;
 
@@ -45,13 +46,31 @@ public class ResourcesJsonMarshaller {
 		}
 	}
 
+	/**
+	 * Write the descriptor, with sorted patterns and bundles, as JSON. The JSON is streamed to
+	 * the output stream, which is flushed but not closed.
+	 * @param metadata the descriptor to write
+	 * @param outputStream where to write the JSON
+	 */
 	public static void write(ResourcesDescriptor metadata, OutputStream outputStream) {
 		try {
-			ResourcesJsonConverter converter = new ResourcesJsonConverter();
-			JSONObject jsonObject = converter.toJsonArray(metadata);
-			outputStream.write(jsonObject.toString(2)
-					.replace("\\/","/")
-					.getBytes(StandardCharsets.UTF_8));
+			// Patterns are regular expressions, keep them readable by not escaping slashes
+			JsonWriter writer = JsonWriter.of(outputStream, false);
+			writer.beginObject();
+			writer.name("resources").beginObject();
+			writer.name("includes").beginArray();
+			for (String pattern : metadata.getPatterns()) {
+				writer.beginObject().property("pattern", pattern).endObject();
+			}
+			writer.endArray();
+			writer.endObject();
+			writer.name("bundles").beginArray();
+			for (String bundle : metadata.getBundles()) {
+				writer.beginObject().property("name", bundle).endObject();
+			}
+			writer.endArray();
+			writer.endObject();
+			writer.flush();
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException(ex);
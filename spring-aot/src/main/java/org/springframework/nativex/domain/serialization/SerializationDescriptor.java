@@ -16,7 +16,7 @@
 
 package org.springframework.nativex.domain.serialization;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -28,11 +28,11 @@ public class SerializationDescriptor {
 	private final Set<String> serializableTypes;
 
 	public SerializationDescriptor() {
-		this.serializableTypes = new HashSet<>();
+		this.serializableTypes = new LinkedHashSet<>();
 	}
 
 	public SerializationDescriptor(SerializationDescriptor metadata) {
-		this.serializableTypes = new HashSet<>(metadata.serializableTypes);
+		this.serializableTypes = new LinkedHashSet<>(metadata.serializableTypes);
 	}
 
 	public Set<String> getSerializableTypes() {
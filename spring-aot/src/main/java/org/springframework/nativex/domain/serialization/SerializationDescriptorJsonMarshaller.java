@@ -22,7 +22,11 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
+import org.springframework.nativex.domain.JsonWriter;
 import org.springframework.nativex.json.JSONArray;
 import org.springframework.nativex.json.JSONObject;
 
@@ -35,22 +39,24 @@ public class SerializationDescriptorJsonMarshaller {
 
 	private static final int BUFFER_SIZE = 4098;
 
+	/**
+	 * Write the descriptor, sorted by type name, as JSON. The JSON is streamed to the output
+	 * stream, which is flushed but not closed.
+	 * @param descriptor the descriptor to write
+	 * @param outputStream where to write the JSON
+	 * @throws IOException if the JSON cannot be written
+	 */
 	public static void write(SerializationDescriptor descriptor, OutputStream outputStream)
 			throws IOException {
-		try {
-			SerializationDescriptorJsonConverter converter = new SerializationDescriptorJsonConverter();
-			JSONArray jsonArray = converter.toJsonArray(descriptor);
-			outputStream.write(jsonArray.toString(2).getBytes(StandardCharsets.UTF_8));
-		}
-		catch (Exception ex) {
-			if (ex instanceof IOException) {
-				throw (IOException) ex;
-			}
-			if (ex instanceof RuntimeException) {
-				throw (RuntimeException) ex;
-			}
-			throw new IllegalStateException(ex);
+		List<String> serializableTypes = new ArrayList<>(descriptor.getSerializableTypes());
+		Collections.sort(serializableTypes);
+		JsonWriter writer = JsonWriter.of(outputStream, true);
+		writer.beginArray();
+		for (String type : serializableTypes) {
+			writer.beginObject().property("name", type).endObject();
 		}
+		writer.endArray();
+		writer.flush();
 	}
 	
 	public static SerializationDescriptor read(String input) throws Exception {
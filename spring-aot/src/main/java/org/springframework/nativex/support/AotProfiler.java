@@ -0,0 +1,358 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.nativex.domain.JsonWriter;
+
+/**
+ * Records the wall time, CPU time, allocated bytes and number of invocations of the phases of an
+ * AOT generation: each bootstrap contributor, hint provider and processor, the analysis steps and
+ * the classpath scans. Code marks a phase with {@link #phase(String)}, which records nothing
+ * unless a profiler was {@link #start() started} for the generation, so phases cost next to
+ * nothing when not profiling:
+ * <pre class="code">
+ * try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.scan")) {
+ *     ...
+ * }
+ * </pre>
+ * Phases nest, a phase opened whilst another is open on the same thread (or on the thread that
+ * handed the work over, see {@link #inCurrentPhase(Function)}) is recorded under it. CPU time and
+ * allocated bytes are those of the thread the phase ran on, so work a phase hands over to other
+ * threads is only accounted for in the phases opened on those threads.
+ * <p>
+ * The {@link #writeReport(Path) report} is a JSON file with the totals of each phase and of each
+ * stack of phases, and a file of those stacks in the collapsed format flame graph tools read.
+ */
+public final class AotProfiler {
+
+	static final String REPORT_FILE = "aot-profile.json";
+
+	static final String COLLAPSED_STACKS_FILE = "aot-profile.collapsed";
+
+	private static final char SEPARATOR = ';';
+
+	private static final Phase NOT_RECORDED = new Phase(null, null, null, null);
+
+	// Generation code does not pass the profiler around, phases find the one of the running generation here
+	private static volatile AotProfiler current;
+
+	// The stack of phases open on each thread, outermost first and separated as in the collapsed format
+	private static final ThreadLocal<String> openPhases = new ThreadLocal<>();
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final boolean cpuTime;
+
+	private final boolean allocatedBytes;
+
+	// The JVM wide settings before this profiler enabled the measurements, restored when it stops
+	private final boolean cpuTimeWasEnabled;
+
+	private final boolean allocatedBytesWereEnabled;
+
+	// Guarded by the AotProfiler class, so that the settings are only restored once
+	private boolean stopped;
+
+	// Totals by phase name, a phase invoked from within itself only counts once
+	private final Map<String, Statistics> phases = new ConcurrentHashMap<>();
+
+	private final Map<String, Statistics> stacks = new ConcurrentHashMap<>();
+
+	private AotProfiler() {
+		this.cpuTime = this.threads.isCurrentThreadCpuTimeSupported();
+		this.cpuTimeWasEnabled = this.cpuTime && this.threads.isThreadCpuTimeEnabled();
+		if (this.cpuTime && !this.cpuTimeWasEnabled) {
+			this.threads.setThreadCpuTimeEnabled(true);
+		}
+		this.allocatedBytes = (this.threads instanceof com.sun.management.ThreadMXBean)
+				&& ((com.sun.management.ThreadMXBean) this.threads).isThreadAllocatedMemorySupported();
+		this.allocatedBytesWereEnabled = this.allocatedBytes
+				&& ((com.sun.management.ThreadMXBean) this.threads).isThreadAllocatedMemoryEnabled();
+		if (this.allocatedBytes && !this.allocatedBytesWereEnabled) {
+			((com.sun.management.ThreadMXBean) this.threads).setThreadAllocatedMemoryEnabled(true);
+		}
+	}
+
+	/**
+	 * Start recording phases, until {@link #stop()} is called. Generations running at the same
+	 * time in one JVM are not told apart, phases are recorded by the profiler started last.
+	 * @return the profiler recording phases
+	 */
+	public static synchronized AotProfiler start() {
+		AotProfiler profiler = new AotProfiler();
+		current = profiler;
+		return profiler;
+	}
+
+	/**
+	 * Stop recording phases, and turn the thread CPU time and allocated memory measurements of the
+	 * JVM back to what they were when this profiler was started. Phases still open are not recorded.
+	 */
+	public void stop() {
+		synchronized (AotProfiler.class) {
+			if (current == this) {
+				current = null;
+			}
+			if (this.stopped) {
+				return;
+			}
+			this.stopped = true;
+			if (this.cpuTime && !this.cpuTimeWasEnabled) {
+				this.threads.setThreadCpuTimeEnabled(false);
+			}
+			if (this.allocatedBytes && !this.allocatedBytesWereEnabled) {
+				((com.sun.management.ThreadMXBean) this.threads).setThreadAllocatedMemoryEnabled(false);
+			}
+		}
+	}
+
+	/**
+	 * Open a phase, to be closed once it is over.
+	 * @param name the name of the phase
+	 * @return the phase
+	 */
+	public static Phase phase(String name) {
+		AotProfiler profiler = current;
+		return (profiler != null) ? profiler.open(name) : NOT_RECORDED;
+	}
+
+	/**
+	 * Open a phase for something of a given kind, for instance a {@code BootstrapContributor}.
+	 * The phase is named after both, only when it is recorded.
+	 * @param kind the kind of phase
+	 * @param subject what the phase is about, typically a class name
+	 * @return the phase
+	 */
+	public static Phase phase(String kind, String subject) {
+		AotProfiler profiler = current;
+		return (profiler != null) ? profiler.open(kind + ":" + subject) : NOT_RECORDED;
+	}
+
+	/**
+	 * Wrap a task so that the phases it opens are recorded under the phases open on the calling
+	 * thread, whichever thread it then runs on.
+	 * @param task the task
+	 * @return the task, running in the phases currently open
+	 */
+	public static <T, R> Function<T, R> inCurrentPhase(Function<T, R> task) {
+		String stack = openPhases.get();
+		if (current == null || stack == null) {
+			return task;
+		}
+		return input -> {
+			String previous = openPhases.get();
+			openPhases.set(stack);
+			try {
+				return task.apply(input);
+			}
+			finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * Write the report of the phases recorded so far.
+	 * @param directory the directory to write {@value #REPORT_FILE} and {@value #COLLAPSED_STACKS_FILE} to
+	 * @throws IOException if the report cannot be written
+	 */
+	public void writeReport(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		Map<String, Statistics> stacks = new TreeMap<>(this.stacks);
+		Map<String, Long> selfWallTimes = getSelfWallTimes(stacks);
+		try (OutputStream outputStream = Files.newOutputStream(directory.resolve(REPORT_FILE))) {
+			JsonWriter writer = JsonWriter.of(outputStream, false);
+			writer.beginObject();
+			writer.name("phases").beginArray();
+			List<Map.Entry<String, Statistics>> phases = new ArrayList<>(this.phases.entrySet());
+			phases.sort((p1, p2) -> Long.compare(p2.getValue().wallTime.sum(), p1.getValue().wallTime.sum()));
+			for (Map.Entry<String, Statistics> phase : phases) {
+				writer.beginObject().property("name", phase.getKey());
+				writeStatistics(writer, phase.getValue());
+				writer.endObject();
+			}
+			writer.endArray();
+			writer.name("stacks").beginArray();
+			for (Map.Entry<String, Statistics> stack : stacks.entrySet()) {
+				writer.beginObject().property("stack", stack.getKey());
+				writeStatistics(writer, stack.getValue());
+				writer.name("selfWallTimeNanos").value(selfWallTimes.get(stack.getKey()));
+				writer.endObject();
+			}
+			writer.endArray();
+			writer.endObject();
+			writer.flush();
+		}
+		// Flame graph tools expect integer weights, self wall time in microseconds is precise enough
+		try (Writer writer = Files.newBufferedWriter(directory.resolve(COLLAPSED_STACKS_FILE), StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, Long> selfWallTime : selfWallTimes.entrySet()) {
+				long micros = TimeUnit.NANOSECONDS.toMicros(selfWallTime.getValue());
+				if (micros > 0) {
+					writer.write(selfWallTime.getKey() + " " + micros + "\n");
+				}
+			}
+		}
+	}
+
+	private void writeStatistics(JsonWriter writer, Statistics statistics) throws IOException {
+		writer.name("invocations").value(statistics.invocations.sum());
+		writer.name("wallTimeNanos").value(statistics.wallTime.sum());
+		if (this.cpuTime) {
+			writer.name("cpuTimeNanos").value(statistics.cpuTime.sum());
+		}
+		if (this.allocatedBytes) {
+			writer.name("allocatedBytes").value(statistics.allocatedBytes.sum());
+		}
+	}
+
+	// Phases handed over to other threads can add up to more than their parent, so this is at least 0
+	private static Map<String, Long> getSelfWallTimes(Map<String, Statistics> stacks) {
+		Map<String, Long> childrenWallTimes = new HashMap<>();
+		stacks.forEach((stack, statistics) -> {
+			int parentEnd = stack.lastIndexOf(SEPARATOR);
+			if (parentEnd != -1) {
+				childrenWallTimes.merge(stack.substring(0, parentEnd), statistics.wallTime.sum(), Long::sum);
+			}
+		});
+		Map<String, Long> selfWallTimes = new TreeMap<>();
+		stacks.forEach((stack, statistics) -> selfWallTimes.put(stack,
+				Math.max(0, statistics.wallTime.sum() - childrenWallTimes.getOrDefault(stack, 0L))));
+		return selfWallTimes;
+	}
+
+	private Phase open(String name) {
+		// Keep names usable as frames of a collapsed stack
+		String frame = name.replace(SEPARATOR, '_').replace(' ', '_');
+		String parent = openPhases.get();
+		String stack = (parent != null) ? parent + SEPARATOR + frame : frame;
+		openPhases.set(stack);
+		return new Phase(this, frame, parent, stack);
+	}
+
+	private void record(Phase phase, long wallTime, long cpuTime, long allocatedBytes) {
+		this.stacks.computeIfAbsent(phase.stack, key -> new Statistics()).add(wallTime, cpuTime, allocatedBytes);
+		Statistics statistics = this.phases.computeIfAbsent(phase.name, key -> new Statistics());
+		if (phase.parent != null && (SEPARATOR + phase.parent + SEPARATOR).contains(SEPARATOR + phase.name + SEPARATOR)) {
+			statistics.invocations.increment();
+		}
+		else {
+			statistics.add(wallTime, cpuTime, allocatedBytes);
+		}
+	}
+
+	private long currentThreadCpuTime() {
+		return this.cpuTime ? this.threads.getCurrentThreadCpuTime() : 0;
+	}
+
+	private long currentThreadAllocatedBytes() {
+		return this.allocatedBytes
+				? ((com.sun.management.ThreadMXBean) this.threads).getThreadAllocatedBytes(Thread.currentThread().getId())
+				: 0;
+	}
+
+	private static void restore(String stack) {
+		if (stack != null) {
+			openPhases.set(stack);
+		}
+		else {
+			openPhases.remove();
+		}
+	}
+
+	/**
+	 * A phase of the generation, recorded when closed.
+	 */
+	public static final class Phase implements AutoCloseable {
+
+		private final AotProfiler profiler;
+
+		private final String name;
+
+		private final String parent;
+
+		private final String stack;
+
+		private final long wallTimeStart;
+
+		private final long cpuTimeStart;
+
+		private final long allocatedBytesStart;
+
+		private Phase(AotProfiler profiler, String name, String parent, String stack) {
+			this.profiler = profiler;
+			this.name = name;
+			this.parent = parent;
+			this.stack = stack;
+			this.allocatedBytesStart = (profiler != null) ? profiler.currentThreadAllocatedBytes() : 0;
+			this.cpuTimeStart = (profiler != null) ? profiler.currentThreadCpuTime() : 0;
+			this.wallTimeStart = (profiler != null) ? System.nanoTime() : 0;
+		}
+
+		@Override
+		public void close() {
+			if (this.profiler == null) {
+				return;
+			}
+			long wallTime = System.nanoTime() - this.wallTimeStart;
+			long cpuTime = this.profiler.currentThreadCpuTime() - this.cpuTimeStart;
+			long allocatedBytes = this.profiler.currentThreadAllocatedBytes() - this.allocatedBytesStart;
+			restore(this.parent);
+			if (current == this.profiler) {
+				this.profiler.record(this, wallTime, cpuTime, allocatedBytes);
+			}
+		}
+
+	}
+
+	private static class Statistics {
+
+		private final LongAdder invocations = new LongAdder();
+
+		private final LongAdder wallTime = new LongAdder();
+
+		private final LongAdder cpuTime = new LongAdder();
+
+		private final LongAdder allocatedBytes = new LongAdder();
+
+		void add(long wallTime, long cpuTime, long allocatedBytes) {
+			this.invocations.increment();
+			this.wallTime.add(wallTime);
+			this.cpuTime.add(cpuTime);
+			this.allocatedBytes.add(allocatedBytes);
+		}
+
+	}
+
+}
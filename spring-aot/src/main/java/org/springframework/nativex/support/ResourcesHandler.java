@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.MissingResourceException;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -59,6 +60,7 @@ import org.springframework.nativex.type.HintDeclaration;
 import org.springframework.nativex.type.Method;
 import org.springframework.nativex.type.MissingTypeException;
 import org.springframework.nativex.type.NativeContext;
+import org.springframework.nativex.type.ParallelScanner;
 import org.springframework.nativex.type.SpringFactoriesProcessor;
 import org.springframework.nativex.type.Type;
 import org.springframework.nativex.type.TypeSystem;
@@ -91,6 +93,10 @@ public class ResourcesHandler extends Handler {
 	
 	private final Set<String> followed = new HashSet<>();
 
+	// Outcome of processing each type, by the parts of the route to it that can change the outcome.
+	// The options cannot change whilst this handler is in use so are not part of the key.
+	private final Map<TypeAnalysisKey, TypeAnalysis> analysedTypes = new HashMap<>();
+
 	public ResourcesHandler(ConfigurationCollector collector, ReflectionHandler reflectionHandler, 
 			DynamicProxiesHandler dynamicProxiesHandler, InitializationHandler initializationHandler,
 			SerializationHandler serializationHandler, JNIReflectionHandler jniReflectionHandler,
@@ -111,12 +117,18 @@ public class ResourcesHandler extends Handler {
 	public void register() {
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
-			processSpringFactories();
+			try (AotProfiler.Phase phase = AotProfiler.phase("ResourcesHandler.processSpringFactories")) {
+				processSpringFactories();
+			}
+		}
+		try (AotProfiler.Phase phase = AotProfiler.phase("ResourcesHandler.handleConstantHints")) {
+			handleConstantHints(aotOptions.toMode() == Mode.NATIVE_INIT);
 		}
-		handleConstantHints(aotOptions.toMode() == Mode.NATIVE_INIT);
 		if (aotOptions.toMode() == Mode.NATIVE ||
 				aotOptions.toMode() == Mode.NATIVE_AGENT) {
-			handleSpringComponents();
+			try (AotProfiler.Phase phase = AotProfiler.phase("ResourcesHandler.handleSpringComponents")) {
+				handleSpringComponents();
+			}
 		}
 	}
 
@@ -236,7 +248,7 @@ public class ResourcesHandler extends Handler {
 		NativeContext context = new NativeContextImpl();
 //		Enumeration<URL> springComponents = fetchResources("META-INF/spring.components");
 		Collection<byte[]> springComponents = ts.getResources("META-INF/spring.components");
-		List<String> alreadyProcessed = new ArrayList<>();
+		Set<String> alreadyProcessed = new HashSet<>();
 		if (springComponents.size()!=0) {
 //		if (springComponents.hasMoreElements()) {
 			logger.debug("Processing existing META-INF/spring.components files...");
@@ -343,11 +355,19 @@ public class ResourcesHandler extends Handler {
 	 * </code></pre>
 	 * @param p the properties object containing spring components
 	 */
-	private void processSpringComponents(Properties p, NativeContext context, List<String> alreadyProcessed) {
+	private void processSpringComponents(Properties p, NativeContext context, Set<String> alreadyProcessed) {
 		int registeredComponents = 0;
 		RequestedConfigurationManager requestor = new RequestedConfigurationManager();
-		for (Entry<Object, Object> entry : p.entrySet()) {
-			boolean processedOK = processSpringComponent((String)entry.getKey(), (String)entry.getValue(), context, requestor, alreadyProcessed);
+		List<Entry<Object, Object>> entries = p.entrySet().stream()
+				.filter(entry -> !entry.getValue().equals("package-info"))
+				.filter(entry -> !alreadyProcessed.contains(entry.getKey() + ":" + entry.getValue()))
+				.collect(Collectors.toList());
+		// Working out what each component needs only reads the type system, so that runs concurrently.
+		// Everything it needs is then registered here, in entry order, so the result does not vary.
+		List<ComponentAnalysis> analyses = ParallelScanner.map(entries, aotOptions.getScanParallelism(),
+				entry -> analyseSpringComponent((String) entry.getKey(), (String) entry.getValue()));
+		for (ComponentAnalysis analysis : analyses) {
+			boolean processedOK = processSpringComponent(analysis, context, requestor, alreadyProcessed);
 			if (processedOK) {
 				registeredComponents++;
 			}
@@ -356,24 +376,67 @@ public class ResourcesHandler extends Handler {
 		ts.getComponentProcessors().forEach(ComponentProcessor::printSummary);
 		logger.debug("Registered " + registeredComponents + " entries");
 	}
-	
-	private boolean processSpringComponent(String componentTypename, String classifiers, NativeContext context, RequestedConfigurationManager requestor, List<String> alreadyProcessed) {
+
+	/**
+	 * Work out what registering a spring.components entry requires of the type system. This touches
+	 * nothing but the type system and the analysis itself, so entries can be analysed concurrently.
+	 */
+	private ComponentAnalysis analyseSpringComponent(String componentTypename, String classifiers) {
+		ComponentAnalysis analysis = new ComponentAnalysis(componentTypename, classifiers);
 		ProcessingContext pc = ProcessingContext.of(componentTypename, ReachedBy.FromSpringComponent);
+		Type kType;
+		try {
+			kType = ts.resolveDotted(componentTypename);
+		} catch (RuntimeException ex) {
+			analysis.resolutionFailure = ex;
+			return analysis;
+		}
+		analysis.type = kType;
+		analysis.metaAnnotated = kType.getMetaComponentTaggedAnnotations();
+		analysis.configuration = kType.isAtConfiguration();
+		if (!analysis.configuration) {
+			try {
+				analysis.nestedTypes = kType.getNestedTypes();
+				registerHierarchy(pc, kType, analysis.requestor);
+			} catch (Throwable t) {
+				analysis.failure = t;
+			}
+		}
+		StringTokenizer st = new StringTokenizer(classifiers, ",");
+		while (st.hasMoreElements()) {
+			ClassifierAnalysis classifier = new ClassifierAnalysis(st.nextToken());
+			try {
+				classifier.type = ts.resolveDotted(classifier.name);
+				classifier.nestedTypes = classifier.type.getNestedTypes();
+				registerHierarchy(pc, classifier.type, analysis.requestor);
+			} catch (Throwable t) {
+				classifier.failure = t;
+			}
+			analysis.classifiers.add(classifier);
+		}
+		return analysis;
+	}
+
+	private boolean processSpringComponent(ComponentAnalysis analysis, NativeContext context, RequestedConfigurationManager requestor, Set<String> alreadyProcessed) {
+		String componentTypename = analysis.typename;
 		List<ComponentProcessor> componentProcessors = ts.getComponentProcessors();
 		boolean isComponent = false;
-		if (classifiers.equals("package-info")) {
+		if (analysis.classifierNames.equals("package-info")) {
 			return false;
 		}
-		if (alreadyProcessed.contains(componentTypename+":"+classifiers)) {
+		if (!alreadyProcessed.add(componentTypename+":"+analysis.classifierNames)) {
 			return false;
 		}
-		alreadyProcessed.add(componentTypename+":"+classifiers);
-		Type kType = ts.resolveDotted(componentTypename);
+		if (analysis.resolutionFailure != null) {
+			throw analysis.resolutionFailure;
+		}
+		Type kType = analysis.type;
 		logger.debug("Registering Spring Component: " + componentTypename);
+		requestor.mergeIn(analysis.requestor);
 
 		// Ensure if usage of @Component is meta-usage, the annotations that are meta-annotated are
 		// exposed
-		Entry<Type, List<Type>> metaAnnotated = kType.getMetaComponentTaggedAnnotations();
+		Entry<Type, List<Type>> metaAnnotated = analysis.metaAnnotated;
 		if (metaAnnotated != null) {
 			for (Type t: metaAnnotated.getValue()) {
 				String name = t.getDottedName();
@@ -383,31 +446,31 @@ public class ResourcesHandler extends Handler {
 			}
 		}
 
-		if (kType.isAtConfiguration()) {
+		if (analysis.configuration) {
 			// Treat user configuration (from spring.components) the same as configuration
 			// discovered via spring.factories
 			checkAndRegisterConfigurationType(componentTypename,ReachedBy.FromSpringComponent);
 		} else {
-			try {
-				// TODO assess which kinds of thing requiring what kind of access - here we see
-				// an Entity might require field reflective access where others don't
-				// I think as a component may have autowired fields (and an entity may have
-				// interesting fields) - you kind of always need to expose fields
-				// There is a type in vanilla-orm called Bootstrap that shows this need
-				reflectionHandler.addAccess(componentTypename, Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
-					Flag.allDeclaredClasses, Flag.allDeclaredFields);
-//				resourcesRegistry.addResources(componentTypename.replace(".", "/") + ".class");
-				collector.addResource(componentTypename.replace(".", "/")+".class", false);
-				// Register nested types of the component
-				for (Type t : kType.getNestedTypes()) {
+			// TODO assess which kinds of thing requiring what kind of access - here we see
+			// an Entity might require field reflective access where others don't
+			// I think as a component may have autowired fields (and an entity may have
+			// interesting fields) - you kind of always need to expose fields
+			// There is a type in vanilla-orm called Bootstrap that shows this need
+			reflectionHandler.addAccess(componentTypename, Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
+				Flag.allDeclaredClasses, Flag.allDeclaredFields);
+//			resourcesRegistry.addResources(componentTypename.replace(".", "/") + ".class");
+			collector.addResource(componentTypename.replace(".", "/")+".class", false);
+			// Register nested types of the component
+			if (analysis.nestedTypes != null) {
+				for (Type t : analysis.nestedTypes) {
 					reflectionHandler.addAccess(t.getDottedName(), Flag.allDeclaredConstructors, Flag.allDeclaredMethods,
 							Flag.allDeclaredClasses);
 //					resourcesRegistry.addResources(t.getName() + ".class");
 					collector.addResource(t.getName()+".class", false);
 				}
-				registerHierarchy(pc, kType, requestor);
-			} catch (Throwable t) {
-				t.printStackTrace();
+			}
+			if (analysis.failure != null) {
+				analysis.failure.printStackTrace();
 			}
 		}
 		if (kType != null && kType.isAtResponseBody()) {
@@ -415,17 +478,14 @@ public class ResourcesHandler extends Handler {
 			processResponseBodyComponent(kType);
 		}
 		List<String> values = new ArrayList<>();
-		StringTokenizer st = new StringTokenizer(classifiers, ",");
 		// org.springframework.samples.petclinic.visit.JpaVisitRepositoryImpl=org.springframework.stereotype.Component,javax.transaction.Transactional
-		while (st.hasMoreElements()) {
-			String tt = st.nextToken();
+		for (ClassifierAnalysis classifier : analysis.classifiers) {
+			String tt = classifier.name;
 			values.add(tt);
 			if (tt.equals("org.springframework.stereotype.Component")) {
 				isComponent = true;
 			}
-			try {
-				Type baseType = ts.resolveDotted(tt);
-
+			if (classifier.type != null) {
 				// reflectionHandler.addAccess(tt,Flag.allDeclaredConstructors,
 				// Flag.allDeclaredMethods, Flag.allDeclaredClasses);
 				// reflectionHandler.addAccess(tt,Flag.allPublicConstructors,
@@ -433,17 +493,19 @@ public class ResourcesHandler extends Handler {
 				reflectionHandler.addAccess(tt, Flag.allDeclaredMethods);
 //				resourcesRegistry.addResources(tt.replace(".", "/") + ".class");
 				collector.addResource(tt.replace(".", "/")+".class", false);
-				// Register nested types of the component
-				for (Type t : baseType.getNestedTypes()) {
+			}
+			// Register nested types of the component
+			if (classifier.nestedTypes != null) {
+				for (Type t : classifier.nestedTypes) {
 					String n = t.getName().replace("/", ".");
 					reflectionHandler.addAccess(n, Flag.allDeclaredMethods);
 //					reflectionHandler.addAccess(n, Flag.allDeclaredConstructors, Flag.allDeclaredMethods, Flag.allDeclaredClasses);
 //					resourcesRegistry.addResources(t.getName() + ".class");
 					collector.addResource(t.getName() + ".class", false);
 				}
-				registerHierarchy(pc, baseType, requestor);
-			} catch (Throwable t) {
-				t.printStackTrace();
+			}
+			if (classifier.failure != null) {
+				classifier.failure.printStackTrace();
 				logger.debug("Problems with value " + tt);
 			}
 		}
@@ -454,17 +516,70 @@ public class ResourcesHandler extends Handler {
 			if (type.isComponent()) {
 				// TODO do we need to fill in the classifiers list here (second param) correctly?
 				// (We could do it, inferring like we infer spring.components in general)
-				processSpringComponent(type.getDottedName(),"",context,requestor,alreadyProcessed);
+				processSpringComponent(analyseSpringComponent(type.getDottedName(),""),context,requestor,alreadyProcessed);
 			}
 		}
 		for (ComponentProcessor componentProcessor: componentProcessors) {
-			if (componentProcessor.handle(context, componentTypename, values)) {
-				componentProcessor.process(context, componentTypename, values);
+			try (AotProfiler.Phase phase = AotProfiler.phase("ComponentProcessor", componentProcessor.getClass().getName())) {
+				if (componentProcessor.handle(context, componentTypename, values)) {
+					componentProcessor.process(context, componentTypename, values);
+				}
 			}
 		}	
 		return true;
 	}
 
+	/**
+	 * What registering a spring.components entry requires of the type system, see
+	 * {@link #analyseSpringComponent(String, String)}. Failures are kept so they are reported
+	 * when the entry is registered, as they were before entries were analysed concurrently.
+	 */
+	private static class ComponentAnalysis {
+
+		final String typename;
+
+		final String classifierNames;
+
+		// Accesses needed by the hierarchies of the component and its classifiers
+		final RequestedConfigurationManager requestor = new RequestedConfigurationManager();
+
+		final List<ClassifierAnalysis> classifiers = new ArrayList<>();
+
+		RuntimeException resolutionFailure;
+
+		Type type;
+
+		Entry<Type, List<Type>> metaAnnotated;
+
+		boolean configuration;
+
+		List<Type> nestedTypes;
+
+		Throwable failure;
+
+		ComponentAnalysis(String typename, String classifierNames) {
+			this.typename = typename;
+			this.classifierNames = classifierNames;
+		}
+
+	}
+
+	private static class ClassifierAnalysis {
+
+		final String name;
+
+		Type type;
+
+		List<Type> nestedTypes;
+
+		Throwable failure;
+
+		ClassifierAnalysis(String name) {
+			this.name = name;
+		}
+
+	}
+
 	/**
 	 * This is the type passed to the 'plugins' that process spring components or spring factories entries.
 	 */
@@ -704,21 +819,32 @@ public class ResourcesHandler extends Handler {
 	}
 
 	private List<Entry<Type, List<Type>>> filterOutNestedConfigurationTypes(List<Entry<Type, List<Type>>> indexedComponents) {
-		List<Entry<Type, List<Type>>> filtered = new ArrayList<>();
-		List<Entry<Type, List<Type>>> subtypesToRemove = new ArrayList<>();
+		Set<String> configurations = new HashSet<>();
 		for (Entry<Type, List<Type>> indexedComponent : indexedComponents) {
 			Type componentKey = indexedComponent.getKey();
-			String type = componentKey.getDottedName();
 			if (componentKey.isAtConfiguration()) {
-				subtypesToRemove.addAll(indexedComponents.stream()
-						.filter(e -> e.getKey().getDottedName().startsWith(type + "$")).collect(Collectors.toList()));
+				configurations.add(componentKey.getDottedName());
+			}
+		}
+		List<Entry<Type, List<Type>>> filtered = new ArrayList<>();
+		for (Entry<Type, List<Type>> indexedComponent : indexedComponents) {
+			if (!isNestedInAny(indexedComponent.getKey().getDottedName(), configurations)) {
+				filtered.add(indexedComponent);
 			}
 		}
-		filtered.addAll(indexedComponents);
-		filtered.removeAll(subtypesToRemove);
 		return filtered;
 	}
 
+	// Whether any type enclosing the named one, at whatever depth, is one of the given types
+	private static boolean isNestedInAny(String dottedName, Set<String> enclosingTypes) {
+		for (int i = dottedName.indexOf('$'); i != -1; i = dottedName.indexOf('$', i + 1)) {
+			if (enclosingTypes.contains(dottedName.substring(0, i))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * A key in a spring.factories file has a value that is a list of types. These
 	 * will be accessed at runtime through an interface but must be reflectively
@@ -770,9 +896,11 @@ public class ResourcesHandler extends Handler {
 				if (aotOptions.isRemoveUnusedConfig()) {
 					for (SpringFactoriesProcessor springFactoriesProcessor : springFactoriesProcessors) {
 						int len = values.size();
-						if (springFactoriesProcessor.filter(key, values)) {
-							logger.debug("Spring factory filtered by "+springFactoriesProcessor.getClass().getName()+" removing "+(len-values.size())+" entries");
-							modified = true;
+						try (AotProfiler.Phase phase = AotProfiler.phase("SpringFactoriesProcessor", springFactoriesProcessor.getClass().getName())) {
+							if (springFactoriesProcessor.filter(key, values)) {
+								logger.debug("Spring factory filtered by "+springFactoriesProcessor.getClass().getName()+" removing "+(len-values.size())+" entries");
+								modified = true;
+							}
 						}
 					}
 				}
@@ -993,7 +1121,7 @@ public class ResourcesHandler extends Handler {
 	 * any issues with accessibility of required types this will return false
 	 * indicating it can't be used at runtime.
 	 */
-	private boolean checkAndRegisterConfigurationType(String typename, ReachedBy reachedBy) {
+	boolean checkAndRegisterConfigurationType(String typename, ReachedBy reachedBy) {
 		return processType(new ProcessingContext(), typename, reachedBy);
 	}
 
@@ -1262,24 +1390,50 @@ public class ResourcesHandler extends Handler {
 		
 	}
 
+	/**
+	 * Process a type, or if it has already been processed when reached the same way, register again
+	 * what that found. Everything processing the type goes on to process, such as its nested types
+	 * and the types it imports, has been registered already so is not revisited. Reaching a type
+	 * through many paths, as happens with chains of imports, then costs one analysis rather than
+	 * one per path.
+	 */
 	private boolean processType(ProcessingContext pc, Type type, ReachedBy reachedBy) {
+		String typename = type.getDottedName();
+		// These are what the analysis reads from the processing context once the type is pushed on it
+		String hierarchyTopMostTypename = (reachedBy == ReachedBy.HierarchyProcessing && !pc.isEmpty())
+				? pc.getHierarchyProcessingTopMostTypename() : typename;
+		TypeAnalysisKey key = new TypeAnalysisKey(typename, reachedBy, pc.isEmpty(), hierarchyTopMostTypename);
+		TypeAnalysis analysis = analysedTypes.get(key);
+		if (analysis != null) {
+			logger.debug("Reusing analysis of " + typename + " reached by " + reachedBy);
+			if (analysis.requested != null) {
+				registerAllRequested(analysis.requested);
+			}
+			return analysis.passed;
+		}
+		analysis = analyseType(pc, type, reachedBy);
+		analysedTypes.put(key, analysis);
+		return analysis.passed;
+	}
+
+	private TypeAnalysis analyseType(ProcessingContext pc, Type type, ReachedBy reachedBy) {
 		pc.push(type, reachedBy);
 		String typename = type.getDottedName();
 		logger.debug("Analyzing " + typename + " reached by " + pc);
 		
 		if (!checkJmxConstraint(type, pc)) {
 			pc.pop();
-			return false;
+			return new TypeAnalysis(false, null);
 		}
 		
 		if (!checkPropertyRelatedConditions(type)) {
 			pc.pop();
-			return false;
+			return new TypeAnalysis(false, null);
 		}
 		
 		if (!checkConstraintMissingTypesInHierarchyOfThisType(type)) {
 			pc.pop();
-			return false;
+			return new TypeAnalysis(false, null);
 		}
 
 //		if (!checkConditionalOnBean(type) || !checkConditionalOnMissingBean(type) || !checkConditionalOnClass(type)) {
@@ -1295,11 +1449,12 @@ public class ResourcesHandler extends Handler {
 			// name - it will fail with an error that it doesn't refer to a valid configuration. So here we return true,
 			// which isn't optimal but we do skip all the hint processing and further chasing from this configuration.
 			pc.pop();
-			return true;
+			return new TypeAnalysis(true, null);
 		}
 
 		boolean passesTests = true;
 		RequestedConfigurationManager accessManager = new RequestedConfigurationManager();
+		RequestedConfigurationManager registered = null;
 		List<HintApplication> hints = type.getApplicableHints();
 		printHintSummary(type, hints);
 		Map<Type,ReachedBy> toFollow = new HashMap<>();
@@ -1378,6 +1533,7 @@ public class ResourcesHandler extends Handler {
 			}
 			processTypesToFollow(pc, accessManager, type, reachedBy, toFollow);
 			registerAllRequested(accessManager);
+			registered = accessManager;
 		}
 
 		// If the outer type is failing a test, we don't need to go into nested types...
@@ -1385,7 +1541,58 @@ public class ResourcesHandler extends Handler {
 			processNestedTypes(pc, type);
 		}
 		pc.pop();
-		return passesTests;
+		return new TypeAnalysis(passesTests, registered);
+	}
+
+	private static class TypeAnalysisKey {
+
+		private final String typename;
+
+		private final ReachedBy reachedBy;
+
+		private final boolean root;
+
+		private final String hierarchyTopMostTypename;
+
+		TypeAnalysisKey(String typename, ReachedBy reachedBy, boolean root, String hierarchyTopMostTypename) {
+			this.typename = typename;
+			this.reachedBy = reachedBy;
+			this.root = root;
+			this.hierarchyTopMostTypename = hierarchyTopMostTypename;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof TypeAnalysisKey)) {
+				return false;
+			}
+			TypeAnalysisKey that = (TypeAnalysisKey) other;
+			return this.typename.equals(that.typename) && this.reachedBy == that.reachedBy && this.root == that.root
+					&& this.hierarchyTopMostTypename.equals(that.hierarchyTopMostTypename);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(typename, reachedBy, root, hierarchyTopMostTypename);
+		}
+
+	}
+
+	private static class TypeAnalysis {
+
+		final boolean passed;
+
+		// What processing the type registered itself, null if it registered nothing
+		final RequestedConfigurationManager requested;
+
+		TypeAnalysis(boolean passed, RequestedConfigurationManager requested) {
+			this.passed = passed;
+			this.requested = requested;
+		}
+
 	}
 
 	private void checkForImportedConfigurations(Type type, Map<Type, ReachedBy> toFollow) {
@@ -1969,7 +2176,7 @@ public class ResourcesHandler extends Handler {
 	private boolean existingReflectionConfigContains(String s) {
 		Map<String, ReflectionDescriptor> reflectionConfigurationsOnClasspath = ts.getReflectionConfigurationsOnClasspath();
 		for (ReflectionDescriptor rd: reflectionConfigurationsOnClasspath.values()) {
-			if (rd.hasClassDescriptor(s)) {
+			if (rd != null && rd.hasClassDescriptor(s)) {
 				return true;
 			}
 		}
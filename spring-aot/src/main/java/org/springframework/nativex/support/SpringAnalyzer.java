@@ -57,6 +57,12 @@ public class SpringAnalyzer {
 	}
 
 	public void analyze() {
+		try (AotProfiler.Phase phase = AotProfiler.phase("SpringAnalyzer.analyze")) {
+			doAnalyze();
+		}
+	}
+
+	private void doAnalyze() {
 		logger.debug("Spring analysis running");
 		collector = new ConfigurationCollector(aotOptions);
 
@@ -74,6 +80,7 @@ public class SpringAnalyzer {
 		// This cannot be done via other means because those other means attempt resolution to see if it is a valid name.
 		// Whereas it may not be compiled yet
 		collector.initializeClassesAtBuildTime("org.springframework.aot.StaticSpringFactories");
+		collector.initializeClassesAtBuildTime("org.springframework.aot.StaticClassPresence");
 		dynamicProxiesHandler.setTypeSystem(typeSystem);
 		reflectionHandler.setTypeSystem(typeSystem);
 		jniReflectionHandler.setTypeSystem(typeSystem);
@@ -83,8 +90,12 @@ public class SpringAnalyzer {
 
 		logger.info("Spring Native operating mode: " + aotOptions.toMode().toString());
 
-		reflectionHandler.register();
-		resourcesHandler.register();
+		try (AotProfiler.Phase phase = AotProfiler.phase("ReflectionHandler.register")) {
+			reflectionHandler.register();
+		}
+		try (AotProfiler.Phase phase = AotProfiler.phase("ResourcesHandler.register")) {
+			resourcesHandler.register();
+		}
 	}
 
 	public ConfigurationCollector getConfigurationCollector() {
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.utils.VersionExtractor;
+
+/**
+ * Stores the {@link ArchiveAnalysis} of dependency jars on disk so later builds can skip parsing
+ * their classes. Entries are keyed by a hash of the jar contents and the spring-aot version, so a
+ * changed jar or a different spring-aot simply misses rather than needing invalidation. Directories
+ * hold the application classes that change from build to build, so they are only cached when the
+ * build tool reports which classpath entries are unchanged (see
+ * {@link AotOptions#getUnchangedClasspathEntries()}). In that case an index of the key used for each
+ * entry is kept too, so unchanged entries are found again without hashing them.
+ * <p>
+ * Each entry is a small text file, one line per analysed type:
+ * <pre>
+ * A&lt;tab&gt;com/foo/Bar&lt;tab&gt;Lcom/foo/Baz;...
+ * S&lt;tab&gt;com/foo/Bar&lt;tab&gt;com/foo/Super&lt;tab&gt;com/foo/Interface...
+ * P&lt;tab&gt;com.foo.Bar&lt;tab&gt;com.foo.Checked...
+ * </pre>
+ */
+class AnalysisCache {
+
+	private static Log logger = LogFactory.getLog(AnalysisCache.class);
+
+	// Bump when the file format or the information collected during analysis changes
+	private static final String HEADER = "spring-aot-analysis 2";
+
+	private static final String INDEX_HEADER = "spring-aot-analysis-index 1";
+
+	private static final String INDEX = "classpath.index";
+
+	private static final String DIRECTORY_KEY_PREFIX = "d";
+
+	private final Path directory;
+
+	private final String version;
+
+	// All keyed by normalized files, see normalize(File)
+	private final Map<File, String> keys = new ConcurrentHashMap<>();
+
+	private final Set<File> unchanged;
+
+	// Keys used by the previous build, only read when unchanged entries are known
+	private final Map<File, String> previousKeys;
+
+	AnalysisCache(Path directory, String version) {
+		this(directory, version, null);
+	}
+
+	/**
+	 * @param directory the directory holding the cache entries
+	 * @param version the spring-aot version, part of every key
+	 * @param unchanged the classpath entries known to be unchanged since the previous build, or null if unknown
+	 */
+	AnalysisCache(Path directory, String version, Set<File> unchanged) {
+		this.directory = directory;
+		this.version = version;
+		this.unchanged = (unchanged != null)
+				? unchanged.stream().map(AnalysisCache::normalize).collect(Collectors.toSet()) : null;
+		this.previousKeys = (unchanged != null) ? loadIndex() : Collections.emptyMap();
+	}
+
+	/**
+	 * @param aotOptions the options in use, may be null
+	 * @return the cache to use, or null if caching is not enabled or the spring-aot version is unknown
+	 */
+	static AnalysisCache get(AotOptions aotOptions) {
+		if (aotOptions == null || aotOptions.getAnalysisCacheDirectory() == null) {
+			return null;
+		}
+		String version = getVersion();
+		if (version == null) {
+			logger.debug("Unable to determine the spring-aot version, analysis results will not be cached");
+			return null;
+		}
+		return new AnalysisCache(aotOptions.getAnalysisCacheDirectory().toPath(), version,
+				aotOptions.getUnchangedClasspathEntries());
+	}
+
+	private static String getVersion() {
+		String version = VersionExtractor.forClass(TypeSystem.class);
+		if (version != null && version.endsWith("-SNAPSHOT")) {
+			// Snapshots change without their version changing
+			try {
+				File codeSource = new File(TypeSystem.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+				version = version + "-" + codeSource.length() + "-" + codeSource.lastModified();
+			} catch (Exception ex) {
+				return null;
+			}
+		}
+		return version;
+	}
+
+	/**
+	 * @param root a classpath root
+	 * @return whether the analysis of the root can be cached
+	 */
+	boolean isCacheable(File root) {
+		return unchanged != null || !root.isDirectory();
+	}
+
+	/**
+	 * @param jar the jar that was analysed
+	 * @param isPresentChecks true for the analysis of the isPresent() checks, false for that of the
+	 * annotations and supertypes, each is made by a pass of its own
+	 * @return the cached analysis, or null if there is none (or it could not be read)
+	 */
+	ArchiveAnalysis load(File jar, boolean isPresentChecks) {
+		Path file = getFile(jar, isPresentChecks);
+		if (file == null || !Files.isRegularFile(file)) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			if (!HEADER.equals(reader.readLine())) {
+				return null;
+			}
+			ArchiveAnalysis analysis = new ArchiveAnalysis();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split("\t");
+				if (fields.length < 2) {
+					return null;
+				}
+				List<String> values = new ArrayList<>(Arrays.asList(fields).subList(2, fields.length));
+				if (fields[0].equals("A")) {
+					analysis.getAnnotations().put(fields[1], values);
+				} else if (fields[0].equals("S")) {
+					analysis.getSupertypes().put(fields[1], values);
+				} else if (fields[0].equals("P")) {
+					analysis.getIsPresentChecks().put(fields[1], values);
+				} else {
+					return null;
+				}
+			}
+			logger.debug("Using cached analysis of " + jar + " from " + file);
+			return analysis;
+		} catch (IOException ioe) {
+			logger.debug("Unable to read cached analysis " + file, ioe);
+			return null;
+		}
+	}
+
+	/**
+	 * Store the analysis of a jar. Failures are logged and otherwise ignored, the next build will
+	 * simply analyse the jar again.
+	 * @param jar the jar that was analysed
+	 * @param isPresentChecks true for the analysis of the isPresent() checks, false for that of the
+	 * annotations and supertypes
+	 * @param analysis the result of the analysis
+	 */
+	void store(File jar, boolean isPresentChecks, ArchiveAnalysis analysis) {
+		Path file = getFile(jar, isPresentChecks);
+		if (file == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(directory);
+			// Write then move, so concurrent builds never see a partially written entry
+			Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				writer.write(HEADER);
+				writer.newLine();
+				write(writer, "A", analysis.getAnnotations());
+				write(writer, "S", analysis.getSupertypes());
+				write(writer, "P", analysis.getIsPresentChecks());
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ioe) {
+			logger.debug("Unable to cache analysis of " + jar + " in " + directory, ioe);
+		}
+	}
+
+	private static void write(BufferedWriter writer, String kind, Map<String, List<String>> entries) throws IOException {
+		for (Map.Entry<String, List<String>> entry : entries.entrySet()) {
+			writer.write(kind);
+			writer.write('\t');
+			writer.write(entry.getKey());
+			for (String value : entry.getValue()) {
+				writer.write('\t');
+				writer.write(value);
+			}
+			writer.newLine();
+		}
+	}
+
+	/**
+	 * Record the key used for each classpath entry, for the next build to reuse with the entries
+	 * that are unchanged, and delete the entries of directories that have changed since they can
+	 * never be used again. Does nothing unless unchanged entries are known.
+	 */
+	void storeIndex() {
+		if (unchanged == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(directory);
+			Path tmp = Files.createTempFile(directory, INDEX, ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				writer.write(INDEX_HEADER);
+				writer.newLine();
+				writer.write(version);
+				writer.newLine();
+				for (Map.Entry<File, String> entry : keys.entrySet()) {
+					if (!entry.getValue().isEmpty()) {
+						writer.write(entry.getValue());
+						writer.write('\t');
+						writer.write(entry.getKey().getPath());
+						writer.newLine();
+					}
+				}
+			}
+			Files.move(tmp, directory.resolve(INDEX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			for (Map.Entry<File, String> previous : previousKeys.entrySet()) {
+				String key = previous.getValue();
+				if (key.startsWith(DIRECTORY_KEY_PREFIX) && !key.equals(keys.get(previous.getKey()))) {
+					Files.deleteIfExists(directory.resolve(key + ".analysis"));
+					Files.deleteIfExists(directory.resolve(key + "-p.analysis"));
+				}
+			}
+		} catch (IOException ioe) {
+			logger.debug("Unable to store analysis cache index in " + directory, ioe);
+		}
+	}
+
+	private Map<File, String> loadIndex() {
+		Path file = directory.resolve(INDEX);
+		if (!Files.isRegularFile(file)) {
+			return Collections.emptyMap();
+		}
+		Map<File, String> index = new HashMap<>();
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			// Keys embed the version, an index written by another version is of no use
+			if (!INDEX_HEADER.equals(reader.readLine()) || !version.equals(reader.readLine())) {
+				return Collections.emptyMap();
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int tab = line.indexOf('\t');
+				if (tab == -1) {
+					return Collections.emptyMap();
+				}
+				index.put(normalize(new File(line.substring(tab + 1))), line.substring(0, tab));
+			}
+			return index;
+		} catch (IOException ioe) {
+			logger.debug("Unable to read analysis cache index " + file, ioe);
+			return Collections.emptyMap();
+		}
+	}
+
+	private Path getFile(File jar, boolean isPresentChecks) {
+		String key = keys.computeIfAbsent(normalize(jar), this::computeKey);
+		if (key.isEmpty()) {
+			return null;
+		}
+		return directory.resolve(key + (isPresentChecks ? "-p" : "") + ".analysis");
+	}
+
+	/**
+	 * @param file a classpath entry
+	 * @return the absolute form of the entry without any redundant name elements, so that the
+	 * same entry always matches whichever way its path was written
+	 */
+	static File normalize(File file) {
+		return file.toPath().toAbsolutePath().normalize().toFile();
+	}
+
+	private String computeKey(File jar) {
+		if (unchanged != null && unchanged.contains(jar)) {
+			String previous = previousKeys.get(jar);
+			if (previous != null) {
+				return previous;
+			}
+		}
+		if (jar.isDirectory()) {
+			// Only reached when unchanged entries are known, the index is what finds this entry again
+			return DIRECTORY_KEY_PREFIX + UUID.randomUUID().toString().replace("-", "");
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(version.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			byte[] buffer = new byte[65536];
+			try (InputStream is = Files.newInputStream(jar.toPath())) {
+				int n;
+				while ((n = is.read(buffer)) != -1) {
+					digest.update(buffer, 0, n);
+				}
+			}
+			StringBuilder key = new StringBuilder();
+			for (byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			return key.toString();
+		} catch (IOException | NoSuchAlgorithmException ex) {
+			logger.debug("Unable to compute analysis cache key for " + jar, ex);
+			return "";
+		}
+	}
+
+}
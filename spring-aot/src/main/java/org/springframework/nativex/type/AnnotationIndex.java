@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from annotation descriptors to the types on the classpath carrying them, built
+ * once by {@link TypeSystem#scan()}. Descriptors are interned to ids by the {@link NameTable} of
+ * the type system, and the types carrying each descriptor are held as a {@link BitSet} of type ids,
+ * separately for types annotated directly and types annotated through meta-annotations. A query
+ * then costs time in proportion to its result, rather than to the number of annotated types.
+ */
+class AnnotationIndex {
+
+	private final NameTable names;
+
+	// Slashed names of the annotated types, indexed by type id (in classpath order)
+	private final String[] types;
+
+	// Types carrying each annotation directly, indexed by descriptor id
+	private final BitSet[] direct;
+
+	// Types carrying each annotation through meta-annotations, indexed by descriptor id
+	private final BitSet[] meta;
+
+	/**
+	 * @param names the names of the type system, used to intern the descriptors
+	 * @param annotations slashed type names to the descriptors of their visible annotations
+	 */
+	AnnotationIndex(NameTable names, Map<String, List<String>> annotations) {
+		this.names = names;
+		this.types = new String[annotations.size()];
+		int[][] descriptorIds = new int[annotations.size()][];
+		Map<String, Integer> typeIds = new HashMap<>();
+		int typeId = 0;
+		for (Map.Entry<String, List<String>> entry : annotations.entrySet()) {
+			this.types[typeId] = names.intern(entry.getKey());
+			typeIds.put(entry.getKey(), typeId);
+			int[] ids = new int[entry.getValue().size()];
+			for (int i = 0; i < ids.length; i++) {
+				ids[i] = names.idOf(entry.getValue().get(i));
+			}
+			descriptorIds[typeId++] = ids;
+		}
+		this.direct = new BitSet[names.size()];
+		this.meta = new BitSet[names.size()];
+		// Annotation types are few and shared, so each closure is computed once
+		Map<Integer, BitSet> metaAnnotations = new HashMap<>();
+		for (int type = 0; type < this.types.length; type++) {
+			BitSet metaAnnotationsOfType = new BitSet();
+			for (int id : descriptorIds[type]) {
+				getOrCreate(this.direct, id).set(type);
+				metaAnnotationsOfType.or(metaAnnotations.computeIfAbsent(id, d -> collectMetaAnnotations(d, typeIds, descriptorIds)));
+			}
+			for (int id = metaAnnotationsOfType.nextSetBit(0); id >= 0; id = metaAnnotationsOfType.nextSetBit(id + 1)) {
+				getOrCreate(this.meta, id).set(type);
+			}
+		}
+	}
+
+	/**
+	 * @param annotationDescriptor the descriptor of the annotation, e.g. {@code Lcom/foo/Bar;}
+	 * @param metaAnnotated whether types carrying the annotation through meta-annotations are included
+	 * @return the slashed names of the types carrying the annotation, in classpath order
+	 */
+	List<String> findTypesAnnotated(String annotationDescriptor, boolean metaAnnotated) {
+		int id = names.lookup(annotationDescriptor);
+		BitSet found = get(direct, id);
+		BitSet viaMeta = metaAnnotated ? get(meta, id) : null;
+		if (viaMeta != null) {
+			if (found == null) {
+				found = viaMeta;
+			} else {
+				found = (BitSet) found.clone();
+				found.or(viaMeta);
+			}
+		}
+		if (found == null) {
+			return new ArrayList<>();
+		}
+		List<String> result = new ArrayList<>(found.cardinality());
+		for (int type = found.nextSetBit(0); type >= 0; type = found.nextSetBit(type + 1)) {
+			result.add(types[type]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of annotated types
+	 */
+	int size() {
+		return types.length;
+	}
+
+	// Every descriptor reachable through the annotations on the annotation type, and on theirs in turn
+	private BitSet collectMetaAnnotations(int descriptorId, Map<String, Integer> typeIds, int[][] descriptorIds) {
+		BitSet collected = new BitSet();
+		Deque<Integer> pending = new ArrayDeque<>();
+		pending.add(descriptorId);
+		while (!pending.isEmpty()) {
+			String descriptor = names.nameOf(pending.poll());
+			Integer annotationType = descriptor.length() > 2 ? typeIds.get(descriptor.substring(1, descriptor.length() - 1)) : null;
+			if (annotationType != null) {
+				for (int id : descriptorIds[annotationType]) {
+					if (!collected.get(id)) {
+						collected.set(id);
+						pending.add(id);
+					}
+				}
+			}
+		}
+		return collected;
+	}
+
+	private static BitSet get(BitSet[] index, int id) {
+		return (id >= 0 && id < index.length) ? index[id] : null;
+	}
+
+	private static BitSet getOrCreate(BitSet[] index, int id) {
+		BitSet types = index[id];
+		if (types == null) {
+			types = new BitSet();
+			index[id] = types;
+		}
+		return types;
+	}
+
+}
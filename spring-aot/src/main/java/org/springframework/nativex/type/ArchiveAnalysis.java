@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a {@link TypeSystem#scan()} learns about the classes in one classpath root. Kept free of
+ * references to the type system so it can be stored in, and restored from, an {@link AnalysisCache}.
+ */
+class ArchiveAnalysis {
+
+	// Slashed type names (e.g. com/foo/Bar) to the descriptors of their visible annotations
+	private final Map<String, List<String>> annotations = new LinkedHashMap<>();
+
+	// Slashed type names to their direct superclass and interfaces
+	private final Map<String, List<String>> supertypes = new LinkedHashMap<>();
+
+	// Dotted type names to the types checked by isPresent() calls in their static initializers
+	private final Map<String, List<String>> isPresentChecks = new LinkedHashMap<>();
+
+	Map<String, List<String>> getAnnotations() {
+		return annotations;
+	}
+
+	Map<String, List<String>> getSupertypes() {
+		return supertypes;
+	}
+
+	Map<String, List<String>> getIsPresentChecks() {
+		return isPresentChecks;
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * Size-bounded, least recently used cache of the full ASM {@link ClassNode} of types, along with
+ * the {@link Method} and {@link Field} wrappers built from it. A {@link Type} only keeps compact
+ * metadata about its class, so the memory held for a type no longer grows with its member count.
+ * When an evicted class node is needed again it is read back from the classpath.
+ */
+class ClassNodeCache {
+
+	static final int DEFAULT_LIMIT = 2048;
+
+	private final Function<String, ClassNode> loader;
+
+	private final Map<String, Entry> entries;
+
+	private long reads;
+
+	private long evictions;
+
+	/**
+	 * @param limit the maximum number of class nodes to hold
+	 * @param loader reads the class node for a slashed type name, returning null if it cannot be found
+	 */
+	ClassNodeCache(int limit, Function<String, ClassNode> loader) {
+		this.loader = loader;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > limit) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Record a class node that has just been read, so it need not be read again whilst it is in use.
+	 * @param node the class node
+	 */
+	synchronized void put(ClassNode node) {
+		entries.putIfAbsent(node.name, new Entry(node));
+	}
+
+	/**
+	 * @param slashedName the slashed name of the type
+	 * @return the cached class node and members of the type, reading them again if they were evicted
+	 * @throws IllegalStateException if the class can no longer be found
+	 */
+	Entry get(String slashedName) {
+		synchronized (this) {
+			Entry entry = entries.get(slashedName);
+			if (entry != null) {
+				return entry;
+			}
+		}
+		// Read outside the lock so other types can be served meanwhile. Two threads may read the
+		// same class, the first entry recorded is the one both use.
+		ClassNode node = loader.apply(slashedName);
+		if (node == null) {
+			throw new IllegalStateException("Unable to read class " + slashedName);
+		}
+		synchronized (this) {
+			reads++;
+			Entry entry = entries.get(slashedName);
+			if (entry == null) {
+				entry = new Entry(node);
+				entries.put(slashedName, entry);
+			}
+			return entry;
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ClassNodeCache: " + entries.size() + " class nodes held, " + evictions + " evicted, " + reads
+				+ " read on demand";
+	}
+
+	static class Entry {
+
+		final ClassNode node;
+
+		// Wrappers are built on first use and dropped along with the node
+		volatile List<Method> methods;
+
+		volatile List<Field> fields;
+
+		Entry(ClassNode node) {
+			this.node = node;
+		}
+
+	}
+
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Index of every entry available on a {@link TypeSystem} classpath. Jars are opened once and
+ * kept open for the lifetime of the index, so locating an entry is a single map lookup followed
+ * by a read of exactly that entry, rather than a walk over the entries of each candidate jar.
+ * The entries of each classpath root are also remembered in order, allowing searches for
+ * resources to run against the index rather than reopening jars and walking directories.
+ * <p>
+ * As with the original lookup, entries from directories take precedence over entries from jars.
+ * Amongst jars the first one on the classpath containing an entry wins.
+ */
+class ClasspathIndex implements Closeable {
+
+	private static Log logger = LogFactory.getLog(ClasspathIndex.class);
+
+	// Entry names (e.g. com/foo/Bar.class) to the file holding them, for directory classpath entries
+	private final Map<String, File> directoryEntries = new HashMap<>();
+
+	// Entry names to the open jar and entry holding them, for jar classpath entries
+	private final Map<String, JarEntryHandle> jarEntries = new HashMap<>();
+
+	// The indexed classpath entries, in classpath order
+	private final List<Root> roots = new ArrayList<>();
+
+	private final Map<File, Root> rootsByFile = new HashMap<>();
+
+	void addDirectory(File dir) {
+		Path rootPath = Paths.get(dir.toURI());
+		Root root = new Root(dir, rootPath, null);
+		try (Stream<Path> paths = Files.walk(rootPath)) {
+			paths.filter(Files::isRegularFile).forEach(p -> {
+				String name = rootPath.relativize(p).toString().replace('\\', '/');
+				root.entryNames.add(name);
+				directoryEntries.putIfAbsent(name, p.toFile());
+			});
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Unable to walk " + dir, ioe);
+		}
+		addRoot(root);
+	}
+
+	/**
+	 * Index the entries of an already opened jar, which will be closed when this index is closed.
+	 * @param jar the jar file
+	 * @param zf the open jar
+	 */
+	void addJar(File jar, ZipFile zf) {
+		Root root = new Root(jar, null, zf);
+		Enumeration<? extends ZipEntry> entries = zf.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			if (!entry.isDirectory()) {
+				root.entryNames.add(entry.getName());
+				jarEntries.putIfAbsent(entry.getName(), new JarEntryHandle(zf, entry));
+			}
+		}
+		addRoot(root);
+	}
+
+	private void addRoot(Root root) {
+		roots.add(root);
+		rootsByFile.putIfAbsent(root.file, root);
+	}
+
+	/**
+	 * @param name the entry name, for example {@code java/lang/String.class}
+	 * @return true if some directory or jar on the classpath contains the entry
+	 */
+	boolean contains(String name) {
+		return directoryEntries.containsKey(name) || jarEntries.containsKey(name);
+	}
+
+	/**
+	 * Read the contents of the named entry.
+	 * @param name the entry name, for example {@code java/lang/String.class}
+	 * @return the bytes of the entry or null if it is not on the classpath
+	 */
+	byte[] read(String name) throws IOException {
+		File file = directoryEntries.get(name);
+		if (file != null) {
+			return Files.readAllBytes(file.toPath());
+		}
+		JarEntryHandle handle = jarEntries.get(name);
+		if (handle != null) {
+			return handle.read();
+		}
+		return null;
+	}
+
+	/**
+	 * @return the indexed classpath entries, in classpath order
+	 */
+	List<Root> getRoots() {
+		return roots;
+	}
+
+	/**
+	 * @param file a directory or jar from the classpath
+	 * @return the indexed entry for that file, or null if it has not been indexed
+	 */
+	Root getRoot(File file) {
+		return rootsByFile.get(file);
+	}
+
+	int size() {
+		return directoryEntries.size() + jarEntries.size();
+	}
+
+	@Override
+	public void close() {
+		for (Root root : roots) {
+			if (root.jar != null) {
+				try {
+					root.jar.close();
+				} catch (IOException ioe) {
+					logger.debug("Problem closing " + root.jar.getName(), ioe);
+				}
+			}
+		}
+		roots.clear();
+		rootsByFile.clear();
+		directoryEntries.clear();
+		jarEntries.clear();
+	}
+
+	private static byte[] read(ZipFile zipFile, ZipEntry entry) throws IOException {
+		long size = entry.getSize();
+		try (InputStream is = zipFile.getInputStream(entry)) {
+			if (size < 0 || size > Integer.MAX_VALUE) {
+				return TypeSystem.loadFromStream(is);
+			}
+			// Size is known from the central directory, read exactly that many bytes
+			byte[] bytes = new byte[(int) size];
+			int read = 0;
+			while (read < bytes.length) {
+				int n = is.read(bytes, read, bytes.length - read);
+				if (n == -1) {
+					throw new IOException("Unexpected end of entry " + entry.getName() + " in " + zipFile.getName());
+				}
+				read += n;
+			}
+			return bytes;
+		}
+	}
+
+	/**
+	 * A directory or jar on the classpath and the entries within it.
+	 */
+	static class Root {
+
+		private final File file;
+
+		// Set for directories
+		private final Path path;
+
+		// Set for jars
+		private final ZipFile jar;
+
+		private final List<String> entryNames = new ArrayList<>();
+
+		Root(File file, Path path, ZipFile jar) {
+			this.file = file;
+			this.path = path;
+			this.jar = jar;
+		}
+
+		File getFile() {
+			return file;
+		}
+
+		boolean isDirectory() {
+			return jar == null;
+		}
+
+		/**
+		 * @return the names of the (non directory) entries, for example {@code com/foo/Bar.class}
+		 */
+		List<String> getEntryNames() {
+			return entryNames;
+		}
+
+		/**
+		 * Determine how an entry is identified when reporting where something was found. Entries in
+		 * directories are identified by their absolute path, entries in jars have the form
+		 * {@code path/to/foo.jar!path/to/file}.
+		 * @param name the entry name
+		 * @return the location of the entry
+		 */
+		String getLocation(String name) {
+			if (isDirectory()) {
+				return path.resolve(name).toString();
+			} else {
+				return file.toURI().getPath() + "!" + name;
+			}
+		}
+
+		byte[] read(String name) throws IOException {
+			if (isDirectory()) {
+				return Files.readAllBytes(path.resolve(name));
+			}
+			ZipEntry entry = jar.getEntry(name);
+			return entry == null ? null : ClasspathIndex.read(jar, entry);
+		}
+	}
+
+	private static class JarEntryHandle {
+
+		private final ZipFile zipFile;
+
+		private final ZipEntry entry;
+
+		JarEntryHandle(ZipFile zipFile, ZipEntry entry) {
+			this.zipFile = zipFile;
+			this.entry = entry;
+		}
+
+		byte[] read() throws IOException {
+			return ClasspathIndex.read(zipFile, entry);
+		}
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.nativex.type.ClasspathIndex.Root;
+
+/**
+ * Makes a single pass over an indexed classpath, handing each entry to every registered
+ * {@link EntryVisitor} interested in it. Each entry is read at most once, however many visitors
+ * want to see it. Classpath roots are visited in parallel, the visitor results are then collected
+ * on the calling thread in classpath order so the outcome matches a sequential pass.
+ */
+class ClasspathScanner {
+
+	private final ClasspathIndex index;
+
+	private final int parallelism;
+
+	private final List<EntryVisitor<?>> visitors = new ArrayList<>();
+
+	ClasspathScanner(ClasspathIndex index, int parallelism) {
+		this.index = index;
+		this.parallelism = parallelism;
+	}
+
+	ClasspathScanner register(EntryVisitor<?> visitor) {
+		this.visitors.add(visitor);
+		return this;
+	}
+
+	void scan() {
+		scan(index.getRoots());
+	}
+
+	/**
+	 * Make a pass over a subset of the indexed roots.
+	 * @param roots the roots to visit, in classpath order
+	 */
+	void scan(List<Root> roots) {
+		List<List<Hit<?>>> results = ParallelScanner.map(roots, parallelism, this::scan);
+		for (List<Hit<?>> hits : results) {
+			for (Hit<?> hit : hits) {
+				hit.collect();
+			}
+		}
+	}
+
+	private List<Hit<?>> scan(Root root) {
+		List<EntryVisitor<?>> interested = new ArrayList<>();
+		for (EntryVisitor<?> visitor : visitors) {
+			if (visitor.visitRoot(root)) {
+				interested.add(visitor);
+			}
+		}
+		if (interested.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<Hit<?>> hits = new ArrayList<>();
+		for (String name : root.getEntryNames()) {
+			// Directory entries are matched on their absolute path, jar entries on their name
+			String path = root.isDirectory() ? root.getLocation(name) : name;
+			byte[] contents = null;
+			for (EntryVisitor<?> visitor : interested) {
+				if (visitor.accepts(path)) {
+					if (contents == null) {
+						contents = read(root, name);
+					}
+					Hit<?> hit = visit(visitor, root, name, contents);
+					if (hit != null) {
+						hits.add(hit);
+					}
+				}
+			}
+		}
+		return hits;
+	}
+
+	private static byte[] read(Root root, String name) {
+		try {
+			return root.read(name);
+		} catch (IOException ioe) {
+			throw new IllegalStateException("Problem reading " + root.getLocation(name), ioe);
+		}
+	}
+
+	private static <T> Hit<T> visit(EntryVisitor<T> visitor, Root root, String name, byte[] contents) {
+		T result = visitor.visit(root, name, contents);
+		return (result == null && !visitor.collectsNullResults()) ? null : new Hit<>(visitor, root, name, result);
+	}
+
+	/**
+	 * Receives the entries of interest during a {@link ClasspathScanner} pass.
+	 *
+	 * @param <T> the type of information computed for each entry
+	 */
+	interface EntryVisitor<T> {
+
+		/**
+		 * @param root a directory or jar on the classpath
+		 * @return true if entries in this root should be offered to the visitor
+		 */
+		default boolean visitRoot(Root root) {
+			return true;
+		}
+
+		/**
+		 * @param path the absolute path of a file in a directory, or the name of an entry in a jar
+		 * @return true if the entry should be visited
+		 */
+		boolean accepts(String path);
+
+		/**
+		 * Compute the information for an entry. May be called concurrently for entries in different
+		 * roots so must not modify shared state.
+		 * @param root the directory or jar containing the entry
+		 * @param name the entry name, for example {@code com/foo/Bar.class}
+		 * @param contents the contents of the entry
+		 * @return the computed information, or null if there is nothing to collect (unless
+		 * {@link #collectsNullResults()})
+		 */
+		T visit(Root root, String name, byte[] contents);
+
+		/**
+		 * @return true if a null result of {@link #visit} is collected too, rather than meaning
+		 * there is nothing to collect for the entry
+		 */
+		default boolean collectsNullResults() {
+			return false;
+		}
+
+		/**
+		 * Collect the information computed by {@link #visit}. Called on the scanning thread, in
+		 * classpath order.
+		 * @param root the directory or jar containing the entry
+		 * @param name the entry name
+		 * @param result the information computed for the entry, only null if {@link #collectsNullResults()}
+		 */
+		void collect(Root root, String name, T result);
+	}
+
+	private static class Hit<T> {
+
+		private final EntryVisitor<T> visitor;
+
+		private final Root root;
+
+		private final String name;
+
+		private final T result;
+
+		Hit(EntryVisitor<T> visitor, Root root, String name, T result) {
+			this.visitor = visitor;
+			this.root = root;
+			this.name = name;
+			this.result = result;
+		}
+
+		void collect() {
+			visitor.collect(root, name, result);
+		}
+	}
+
+}
@@ -65,6 +65,8 @@ public class ConstantPoolScanner {
 
 	private final static byte CONSTANT_MethodType = 16;
 
+	private final static byte CONSTANT_Dynamic = 17;
+
 	private final static byte CONSTANT_InvokeDynamic = 18;
 
 	private final static byte CONSTANT_Module = 19;
@@ -206,6 +208,28 @@ public class ConstantPoolScanner {
 		return slashedclassname;
 	}
 
+	/**
+	 * Check whether the class references a method, which it must if it invokes it. Only the constant
+	 * pool entries for method references are decoded.
+	 *
+	 * @param slashedOwner the type declaring the method, for example {@code org/springframework/util/ClassUtils}
+	 * @param methodName the name of the method
+	 * @return true if the constant pool contains a Methodref or InterfaceMethodref to the method
+	 */
+	public boolean referencesMethod(String slashedOwner, String methodName) {
+		for (int i = 1; i < cpsize; i++) {
+			if (type[i] == CONSTANT_Methodref || type[i] == CONSTANT_InterfaceMethodref) {
+				int[] indexes = (int[]) cpdata[i];
+				// Compare the name first, it is the more selective
+				if (accessUtf8((Integer) cpdata[indexes[1]]).equals(methodName)
+						&& accessUtf8((Integer) cpdata[indexes[0]]).equals(slashedOwner)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Return the UTF8 at the specified index in the constant pool. The data found at the constant pool for that index
 	 * may not have been unpacked yet if this is the first access of the string. If not unpacked the constant pool entry
@@ -255,7 +279,7 @@ public class ConstantPoolScanner {
 			case CONSTANT_Integer: // CONSTANT_Integer_info { u1 tag; u4 bytes; }
 			case CONSTANT_Float: // CONSTANT_Float_info { u1 tag; u4 bytes; }
 			case CONSTANT_Fieldref: // CONSTANT_Fieldref_info { u1 tag; u2 class_index; u2 name_and_type_index; }
-			case CONSTANT_InterfaceMethodref: // CONSTANT_InterfaceMethodref_info { u1 tag; u2 class_index; u2 name_and_type_index; }
+			case CONSTANT_Dynamic: // CONSTANT_Dynamic_info { u1 tag; u2 bootstrap_method_attr_index; u2 name_and_type_index; }
 			case CONSTANT_InvokeDynamic: // CONSTANT_InvokeDynamic_info { u1 tag; u2 bootstrap_method_attr_index; u2 name_and_type_index; }
 				ptr += 4;
 				break;
@@ -276,6 +300,8 @@ public class ConstantPoolScanner {
 				break;
 			case CONSTANT_Methodref:
 				// CONSTANT_Methodref_info { u1 tag; u2 class_index; u2 name_and_type_index; }
+			case CONSTANT_InterfaceMethodref:
+				// CONSTANT_InterfaceMethodref_info { u1 tag; u2 class_index; u2 name_and_type_index; }
 				type[index] = b;
 				cpdata[index] = new int[] { readUnsignedShort(), readUnsignedShort() };
 				break;
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * The transitive closure of the hierarchy of a {@link Type}: the names of all its supertypes and
+ * the descriptors of all the annotations on it, directly or through meta-annotations, both for the
+ * type alone and across its hierarchy. Held as sets of ids in the {@link NameTable} of the type
+ * system and computed once per type (see {@link Type#getHierarchyClosure()}), so the assignability
+ * and annotation checks of a type are lookups rather than hierarchy walks. Sets that are the same
+ * for many types, such as the superclasses of siblings, are shared through the type system.
+ */
+final class HierarchyClosure {
+
+	static final HierarchyClosure EMPTY = new HierarchyClosure(IdSet.EMPTY, IdSet.EMPTY, IdSet.EMPTY, IdSet.EMPTY, null);
+
+	// The type itself, its superclasses and every interface they implement
+	private final IdSet supertypes;
+
+	// Only the superclasses, as far as they can be resolved
+	private final IdSet superclasses;
+
+	// Annotations on the type itself, and the annotations on those in turn
+	private final IdSet annotations;
+
+	// As annotations, across the type and all its supertypes
+	private final IdSet hierarchyAnnotations;
+
+	// Slashed name of the first supertype that could not be resolved, if any
+	private final String missingSupertype;
+
+	HierarchyClosure(IdSet supertypes, IdSet superclasses, IdSet annotations, IdSet hierarchyAnnotations,
+			String missingSupertype) {
+		this.supertypes = supertypes;
+		this.superclasses = superclasses;
+		this.annotations = annotations;
+		this.hierarchyAnnotations = hierarchyAnnotations;
+		this.missingSupertype = missingSupertype;
+	}
+
+	/**
+	 * @param nameId the id of a slashed type name, or -1 if the name is unknown
+	 * @return whether the type is, extends or implements the named type
+	 */
+	boolean hasSupertype(int nameId) {
+		return supertypes.contains(nameId);
+	}
+
+	/**
+	 * @param nameId the id of a slashed type name, or -1 if the name is unknown
+	 * @return whether the named type is one of the (resolvable) superclasses of the type
+	 */
+	boolean hasSuperclass(int nameId) {
+		return superclasses.contains(nameId);
+	}
+
+	/**
+	 * @param descriptorId the id of an annotation descriptor, or -1 if the descriptor is unknown
+	 * @return whether the type carries the annotation, directly or through meta-annotations
+	 */
+	boolean hasAnnotation(int descriptorId) {
+		return annotations.contains(descriptorId);
+	}
+
+	/**
+	 * @param descriptorId the id of an annotation descriptor, or -1 if the descriptor is unknown
+	 * @return whether the type or any of its supertypes carries the annotation, directly or through
+	 * meta-annotations
+	 */
+	boolean hasAnnotationInHierarchy(int descriptorId) {
+		return hierarchyAnnotations.contains(descriptorId);
+	}
+
+	/**
+	 * A negative answer about the supertypes is only certain if they could all be resolved.
+	 * @throws MissingTypeException if a supertype could not be resolved
+	 */
+	void checkComplete() {
+		if (missingSupertype != null) {
+			throw new MissingTypeException(missingSupertype);
+		}
+	}
+
+	/**
+	 * Builds the closure of a type from its own names and the closures of its direct supertypes.
+	 */
+	static class Builder {
+
+		private final IdSet.Builder supertypes = new IdSet.Builder();
+
+		private final IdSet.Builder superclasses = new IdSet.Builder();
+
+		private final IdSet annotations;
+
+		private final IdSet.Builder hierarchyAnnotations = new IdSet.Builder();
+
+		private String missingSupertype;
+
+		/**
+		 * @param nameId the id of the slashed name of the type
+		 * @param annotations the ids of the annotations on the type, directly or through meta-annotations
+		 */
+		Builder(int nameId, IdSet annotations) {
+			this.supertypes.add(nameId);
+			this.annotations = annotations;
+			this.hierarchyAnnotations.addAll(annotations);
+		}
+
+		Builder superclass(int nameId, HierarchyClosure superclass) {
+			this.superclasses.add(nameId);
+			this.superclasses.addAll(superclass.superclasses);
+			return supertype(superclass);
+		}
+
+		Builder supertype(HierarchyClosure supertype) {
+			this.supertypes.addAll(supertype.supertypes);
+			this.hierarchyAnnotations.addAll(supertype.hierarchyAnnotations);
+			if (this.missingSupertype == null) {
+				this.missingSupertype = supertype.missingSupertype;
+			}
+			return this;
+		}
+
+		Builder missing(String slashedName) {
+			if (this.missingSupertype == null) {
+				this.missingSupertype = slashedName;
+			}
+			return this;
+		}
+
+		/**
+		 * @param interner returns the shared instance of a set equal to the one given
+		 * @return the closure
+		 */
+		HierarchyClosure build(UnaryOperator<IdSet> interner) {
+			// The supertypes include the type itself so are never shared
+			return new HierarchyClosure(supertypes.build(), interner.apply(superclasses.build()),
+					interner.apply(annotations), interner.apply(hierarchyAnnotations.build()), missingSupertype);
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of {@link NameTable} ids, held as a sorted array. Its size only depends on the
+ * number of ids in it, not on how large they are, and equal sets can be shared between the types
+ * of a {@link TypeSystem} (see {@link TypeSystem#intern(IdSet)}).
+ */
+final class IdSet {
+
+	static final IdSet EMPTY = new IdSet(new int[0]);
+
+	private final int[] ids;
+
+	private IdSet(int[] ids) {
+		this.ids = ids;
+	}
+
+	boolean contains(int id) {
+		return id >= 0 && Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	int size() {
+		return ids.length;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return this == other || (other instanceof IdSet && Arrays.equals(ids, ((IdSet) other).ids));
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(ids);
+	}
+
+	/**
+	 * Collects ids, and the contents of other sets, into a new set.
+	 */
+	static class Builder {
+
+		private int[] ids = new int[8];
+
+		private int size;
+
+		Builder add(int id) {
+			ensureCapacity(1);
+			ids[size++] = id;
+			return this;
+		}
+
+		// A linear scan, builders collecting distinct ids only ever hold a handful of them
+		boolean contains(int id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		Builder addAll(IdSet other) {
+			ensureCapacity(other.ids.length);
+			System.arraycopy(other.ids, 0, ids, size, other.ids.length);
+			size += other.ids.length;
+			return this;
+		}
+
+		IdSet build() {
+			if (size == 0) {
+				return EMPTY;
+			}
+			int[] sorted = Arrays.copyOf(ids, size);
+			Arrays.sort(sorted);
+			int unique = 1;
+			for (int i = 1; i < sorted.length; i++) {
+				if (sorted[i] != sorted[unique - 1]) {
+					sorted[unique++] = sorted[i];
+				}
+			}
+			return new IdSet(unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique));
+		}
+
+		private void ensureCapacity(int additional) {
+			if (size + additional > ids.length) {
+				ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + additional));
+			}
+		}
+
+	}
+
+}
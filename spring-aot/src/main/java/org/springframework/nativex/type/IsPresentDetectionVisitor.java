@@ -53,16 +53,30 @@ class IsPresentDetectionVisitor extends ClassVisitor {
 	 */
 	public static List<String> run(InputStream inputStream) {
 		try {
-			IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
-			ClassReader reader = new ClassReader(inputStream);
-			reader.accept(node, ClassReader.SKIP_DEBUG);
-			return (node.containsIsPresentChecksInStaticInitializer ? node.typesCheckedInIsPresentCalls : null);
+			return run(new ClassReader(inputStream));
 		} catch (IOException e) {
 			e.printStackTrace();
 			return null;
 		}
 	}
 
+	/**
+	 * Variant of {@link #run(InputStream)} for class file contents that have already been read.
+	 *
+	 * @param classbytes the contents of a class file
+	 * @return null if there are no isPresent() checks otherwise a list of types
+	 *         isPresent() checks are being made upon
+	 */
+	public static List<String> run(byte[] classbytes) {
+		return run(new ClassReader(classbytes));
+	}
+
+	private static List<String> run(ClassReader reader) {
+		IsPresentDetectionVisitor node = new IsPresentDetectionVisitor(Opcodes.ASM9);
+		reader.accept(node, ClassReader.SKIP_DEBUG);
+		return (node.containsIsPresentChecksInStaticInitializer ? node.typesCheckedInIsPresentCalls : null);
+	}
+
 	private IsPresentDetectionVisitor(int api) {
 		super(api);
 	}
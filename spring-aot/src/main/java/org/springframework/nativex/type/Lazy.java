@@ -31,7 +31,8 @@ class Lazy<T> implements Supplier<T> {
 
 	private final Supplier<? extends T> supplier;
 	private T value = null;
-	private boolean resolved = false;
+	// Written after the value, so a thread that sees it set also sees the value
+	private volatile boolean resolved = false;
 
 	private Lazy(Supplier<? extends T> supplier) {
 		this(supplier, null, false);
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cheap first pass for the bytecode detectors, such as {@link IsPresentDetectionVisitor}, that
+ * only parses the constant pool of a class. A class can only invoke a method if its constant pool
+ * references it, so the full ASM walk of the method bodies can be skipped for the many classes
+ * that do not. Safe to use from multiple threads.
+ */
+class MethodReferenceFilter {
+
+	private final String slashedOwner;
+
+	private final String methodName;
+
+	private final LongAdder checked = new LongAdder();
+
+	private final LongAdder skipped = new LongAdder();
+
+	/**
+	 * @param slashedOwner the type declaring the method, for example {@code org/springframework/util/ClassUtils}
+	 * @param methodName the name of the method
+	 */
+	MethodReferenceFilter(String slashedOwner, String methodName) {
+		this.slashedOwner = slashedOwner;
+		this.methodName = methodName;
+	}
+
+	/**
+	 * @param classbytes the contents of a class file
+	 * @return false if the class cannot invoke the method, true if it may and the detector should run
+	 */
+	boolean mayInvoke(byte[] classbytes) {
+		this.checked.increment();
+		try {
+			if (!new ConstantPoolScanner(classbytes).referencesMethod(this.slashedOwner, this.methodName)) {
+				this.skipped.increment();
+				return false;
+			}
+		}
+		catch (IllegalStateException ex) {
+			// Unexpected constant pool content, leave it to the detector
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of classes checked
+	 */
+	long getChecked() {
+		return this.checked.sum();
+	}
+
+	/**
+	 * @return the number of classes the detector did not need to visit
+	 */
+	long getSkipped() {
+		return this.skipped.sum();
+	}
+
+	@Override
+	public String toString() {
+		return this.slashedOwner + "." + this.methodName + "() prefilter skipped " + getSkipped() + " of " + getChecked() + " classes";
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the type names and descriptors referenced by the {@link Type types} of a
+ * {@link TypeSystem}, giving each a small int id. The same few thousand names are referenced by
+ * many types, so sharing one instance of each, and storing ids rather than strings, keeps the
+ * per-type metadata small. Lookups are safe from multiple threads.
+ */
+class NameTable {
+
+	private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private volatile String[] names = new String[1024];
+
+	private int size;
+
+	/**
+	 * @param name the name to intern
+	 * @return the id of the name, allocating one if it has not been seen before
+	 */
+	int idOf(String name) {
+		Integer id = ids.get(name);
+		return id != null ? id : allocate(name);
+	}
+
+	/**
+	 * @param name the name to look for
+	 * @return the id of the name, or -1 if it has never been interned (so nothing can reference it)
+	 */
+	int lookup(String name) {
+		Integer id = ids.get(name);
+		return id != null ? id : -1;
+	}
+
+	/**
+	 * @param id an id returned by {@link #idOf(String)}
+	 * @return the name with that id
+	 */
+	String nameOf(int id) {
+		return names[id];
+	}
+
+	/**
+	 * @param name the name to intern
+	 * @return the shared instance equal to the name
+	 */
+	String intern(String name) {
+		return name == null ? null : nameOf(idOf(name));
+	}
+
+	int size() {
+		return ids.size();
+	}
+
+	private synchronized int allocate(String name) {
+		Integer existing = ids.get(name);
+		if (existing != null) {
+			return existing;
+		}
+		String[] current = names;
+		if (size == current.length) {
+			current = Arrays.copyOf(current, size * 2);
+		}
+		current[size] = name;
+		// Publish the array before the id, so a reader holding the id always finds the name
+		names = current;
+		ids.put(name, size);
+		return size++;
+	}
+
+}
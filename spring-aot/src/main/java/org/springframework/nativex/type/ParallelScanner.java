@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.nativex.support.AotProfiler;
+
+/**
+ * Runs a task against each classpath entry, or other independent unit of work, using a
+ * work-stealing pool. Results are returned in the same order as the entries so callers can merge
+ * them exactly as a single threaded scan would have done, keeping the outcome independent of the
+ * level of parallelism.
+ */
+public final class ParallelScanner {
+
+	private ParallelScanner() {
+	}
+
+	/**
+	 * @param parallelism the number of threads to use, 0 or less meaning one per available processor
+	 * @return the effective number of threads for the requested parallelism
+	 */
+	public static int threads(int parallelism) {
+		return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Apply the task to every entry, possibly concurrently.
+	 * @param entries the classpath entries (or any other units of work)
+	 * @param parallelism the number of threads to use, 0 or less meaning one per available processor
+	 * @param task the task to run for each entry, must not touch shared state
+	 * @return the task results, in entry order
+	 */
+	public static <E, R> List<R> map(List<E> entries, int parallelism, Function<E, R> task) {
+		int threads = Math.min(threads(parallelism), entries.size());
+		if (threads <= 1) {
+			List<R> results = new ArrayList<>(entries.size());
+			for (E entry : entries) {
+				results.add(task.apply(entry));
+			}
+			return results;
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		// Tasks may fall back to the context class loader to find system classes, as on the calling thread
+		ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		// and are profiled as part of the phase that runs them
+		Function<E, R> profiledTask = AotProfiler.inCurrentPhase(task);
+		Function<E, R> workerTask = entry -> {
+			Thread.currentThread().setContextClassLoader(contextClassLoader);
+			return profiledTask.apply(entry);
+		};
+		try {
+			return pool.submit(() -> entries.parallelStream().map(workerTask).collect(Collectors.toList())).get();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted whilst processing " + entries.size() + " entries", ie);
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Problem whilst processing " + entries.size() + " entries", cause);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
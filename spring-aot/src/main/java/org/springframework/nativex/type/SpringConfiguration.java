@@ -26,6 +26,8 @@ import java.util.ServiceLoader;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.nativex.support.AotProfiler;
+
 /**
  * @author Andy Clement
  */
@@ -56,7 +58,7 @@ public class SpringConfiguration {
 				}
 				List<HintDeclaration> hints = new ArrayList<>();
 				hints.addAll(t.getCompilationHints());
-				try {
+				try (AotProfiler.Phase phase = AotProfiler.phase("NativeConfiguration.computeHints", hintProvider.getClass().getName())) {
 					hints.addAll(hintProvider.computeHints(typeSystem));
 				} catch (NoClassDefFoundError ncdfe) {
 					System.out.println("WARNING: Hint provider computeHints() method in "+
@@ -20,10 +20,12 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -32,6 +34,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
@@ -72,6 +75,7 @@ import org.springframework.nativex.hint.SerializationHint;
 import org.springframework.nativex.hint.SerializationHints;
 import org.springframework.nativex.hint.TypeHint;
 import org.springframework.nativex.hint.TypeHints;
+import org.springframework.nativex.support.AotProfiler;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
@@ -133,44 +137,86 @@ public class Type {
 
 	protected static Set<String> validBoxing = new HashSet<String>();
 
+	private static final String[] NO_NAMES = new String[0];
+
+	private static final int[] NO_IDS = new int[0];
+
 	private TypeSystem typeSystem;
 
-	private ClassNode node;
+	// The full class node is not held, see getClassNode(). Only what is needed to navigate the
+	// hierarchy and check for annotations is kept, so a type costs about the same whatever its size.
+
+	// Slashed name of the class itself, the element type for arrays
+	private String nodeName;
+
+	private int access;
+
+	private String superName;
+
+	private String[] interfaceNames;
 
-	private Type[] interfaces;
+	private String signature;
+
+	// Ids in the type system name table of the descriptors of the visible annotations
+	private int[] annotationIds;
+
+	private volatile Type[] interfaces;
+
+	// Computed when first needed, see getHierarchyClosure()
+	private volatile HierarchyClosure hierarchyClosure;
 
 	private String name;
 	private String dottedName;
 
 	private int dimensions = 0; // >0 for array types
 
-	private final Lazy<List<Field>> fields;
-	private final Lazy<List<Method>> methods;
 	private final Lazy<List<Type>> annotations;
 	
 	private boolean isPrimitive;
 
 	private Type(TypeSystem typeSystem, ClassNode node, int dimensions) {
 		this.typeSystem = typeSystem;
-		this.node = node;
 		this.dimensions = dimensions;
 		if (node != null) {
-			this.name = node.name;
+			NameTable names = typeSystem.getNames();
+			this.nodeName = names.intern(node.name);
+			this.access = node.access;
+			this.superName = names.intern(node.superName);
+			this.interfaceNames = internAll(names, node.interfaces);
+			this.signature = node.signature;
+			// Read from the node itself, getVisibleAnnotations() relies on these ids
+			this.annotationIds = NO_IDS;
+			if (node.visibleAnnotations != null && !node.visibleAnnotations.isEmpty()) {
+				this.annotationIds = new int[node.visibleAnnotations.size()];
+				for (int i = 0; i < annotationIds.length; i++) {
+					annotationIds[i] = names.idOf(node.visibleAnnotations.get(i).desc);
+				}
+			}
+			typeSystem.getClassNodes().put(node);
+			this.name = nodeName;
 			for (int i = 0; i < dimensions; i++) {
 				this.name += "[]";
 			}
 			this.dottedName = name.replace("/", ".");
-			this.fields = Lazy.of(this::resolveFields);
-			this.methods = Lazy.of(this::resolveMethods);
 			this.annotations = Lazy.of(this::resolveAnnotations);
 		} else {
-
-			this.fields = Lazy.empty();
-			this.methods = Lazy.empty();
+			this.interfaceNames = NO_NAMES;
+			this.annotationIds = NO_IDS;
 			this.annotations = Lazy.empty();
 		}
 	}
 
+	private static String[] internAll(NameTable names, List<String> input) {
+		if (input == null || input.isEmpty()) {
+			return NO_NAMES;
+		}
+		String[] result = new String[input.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = names.intern(input.get(i));
+		}
+		return result;
+	}
+
 	public static Type forClassNode(TypeSystem typeSystem, ClassNode node, int dimensions) {
 		return new Type(typeSystem, node, dimensions);
 	}
@@ -212,10 +258,10 @@ public class Type {
 		if (dimensions > 0) {
 			return typeSystem.resolveSlashed("java/lang/Object");
 		}
-		if (node.superName == null) {
+		if (superName == null) {
 			return null;
 		}
-		return typeSystem.resolveSlashed(node.superName);
+		return typeSystem.resolveSlashed(superName);
 	}
 
 	@Override
@@ -229,13 +275,13 @@ public class Type {
 				interfaces = new Type[] { typeSystem.resolveSlashed("java/lang/Cloneable"),
 						typeSystem.resolveSlashed("java/io/Serializable") };
 			} else {
-				List<String> itfs = node.interfaces;
-				if (itfs.size() == 0) {
+				String[] itfs = interfaceNames;
+				if (itfs.length == 0) {
 					interfaces = NO_INTERFACES;
 				} else {
 					List<Type> interfacesOnClasspath = new ArrayList<>();
-					for (int i = 0; i < itfs.size(); i++) {
-						Type t = typeSystem.resolveSlashed(itfs.get(i));
+					for (int i = 0; i < itfs.length; i++) {
+						Type t = typeSystem.resolveSlashed(itfs[i]);
 						interfacesOnClasspath.add(t);
 					}
 					interfaces = interfacesOnClasspath.toArray(new Type[interfacesOnClasspath.size()]);
@@ -288,7 +334,7 @@ public class Type {
 			itfs.add("java/io/Serializable");
 			return itfs;
 		} else {
-			return node.interfaces;
+			return Arrays.asList(interfaceNames);
 		}
 	}
 
@@ -296,7 +342,7 @@ public class Type {
 	 * @return slashed supertype name
 	 */
 	public String getSuperclassString() {
-		return dimensions > 0 ? "java/lang/Object" : node.superName;
+		return dimensions > 0 ? "java/lang/Object" : superName;
 	}
 
 	/**
@@ -306,19 +352,17 @@ public class Type {
 	public Set<String> getTypesInSignature() {
 		if (dimensions > 0) {
 			return Collections.emptySet();
-		} else if (node.signature == null) {
+		} else if (signature == null) {
 			// With no generic signature it is just superclass and interfaces
 			Set<String> ls = new TreeSet<>();
-			if (node.superName != null) {
-				ls.add(node.superName);
-			}
-			if (node.interfaces != null) {
-				ls.addAll(node.interfaces);
+			if (superName != null) {
+				ls.add(superName);
 			}
+			ls.addAll(Arrays.asList(interfaceNames));
 			return ls;
 		} else {
 			// Pull out all the types from the generic signature
-			SignatureReader reader = new SignatureReader(node.signature);
+			SignatureReader reader = new SignatureReader(signature);
 			TypeCollector tc = new TypeCollector();
 			reader.accept(tc);
 			return tc.getTypes();
@@ -352,51 +396,88 @@ public class Type {
 
 	// TODO fix inconsistency between extendsClass working with descriptors and implementsInterface working with slashed names
 	public boolean extendsClass(String clazzname) {
-		Type superclass = null;
-		if (dimensions > 0) {
-			superclass = typeSystem.resolveSlashed("java/lang/Object");
-		} else {
-			superclass = node.superName==null ? null : typeSystem.resolveSlashed(node.superName, true);
-		}
-		while (superclass != null) {
-			if (superclass.getDescriptor().equals(clazzname)) {
-				return true;
-			}
-			String nextSupername = superclass.node.superName;
-			superclass = nextSupername==null ? null : typeSystem.resolveSlashed(nextSupername, true);
-		}
-		return false;
+		String slashedName = clazzname.startsWith("L") && clazzname.endsWith(";") ? fromLdescriptorToSlashed(clazzname) : clazzname;
+		return getHierarchyClosure().hasSuperclass(typeSystem.getNames().lookup(slashedName));
 	}
 
 	public boolean implementsInterface(String interfaceName) {
-		if (this.getName().equals(interfaceName)) {
+		HierarchyClosure closure = getHierarchyClosure();
+		if (closure.hasSupertype(typeSystem.getNames().lookup(interfaceName))) {
 			return true;
 		}
-		Type[] interfacesToCheck = getInterfaces();
-		for (Type interfaceToCheck : interfacesToCheck) {
-			if (interfaceToCheck != null) {
-				if (interfaceToCheck.getName().equals(interfaceName)) {
-					return true;
-				}
-				if (interfaceToCheck.implementsInterface(interfaceName)) {
-					return true;
-				}
+		closure.checkComplete();
+		return false;
+	}
+
+	/**
+	 * @return the closure of the hierarchy of this type, computed on first use and then kept for as
+	 * long as the type
+	 */
+	HierarchyClosure getHierarchyClosure() {
+		HierarchyClosure closure = hierarchyClosure;
+		if (closure == null) {
+			// Computing a closure computes the closures of the supertypes first. Two threads may
+			// compute the same closure, either result will do.
+			closure = computeHierarchyClosure();
+			hierarchyClosure = closure;
+		}
+		return closure;
+	}
+
+	// The closure of the hierarchy of this type, from the closures of its direct supertypes
+	private HierarchyClosure computeHierarchyClosure() {
+		if (name == null) {
+			return HierarchyClosure.EMPTY;
+		}
+		NameTable names = typeSystem.getNames();
+		HierarchyClosure.Builder closure = new HierarchyClosure.Builder(names.idOf(name), collectAnnotationClosure(names));
+		String superclassName = (dimensions > 0) ? "java/lang/Object" : superName;
+		if (superclassName != null) {
+			Type superclass = typeSystem.resolveSlashed(superclassName, true);
+			if (superclass != null) {
+				closure.superclass(names.idOf(superclass.getName()), superclass.getHierarchyClosure());
+			} else {
+				closure.missing(superclassName);
 			}
 		}
-		Type superclass = getSuperclass();
-		while (superclass != null) {
-			if (superclass.implementsInterface(interfaceName)) {
-				return true;
+		String[] interfaceNamesToCheck = (dimensions > 0) ? new String[] { "java/lang/Cloneable", "java/io/Serializable" } : interfaceNames;
+		for (String interfaceName : interfaceNamesToCheck) {
+			Type intface = typeSystem.resolveSlashed(interfaceName, true);
+			if (intface != null) {
+				closure.supertype(intface.getHierarchyClosure());
+			} else {
+				closure.missing(interfaceName);
 			}
-			superclass = superclass.getSuperclass();
 		}
-		return false;
+		return closure.build(typeSystem::intern);
+	}
+
+	// The annotations on this type and, transitively, on those annotations; cycles are common (e.g. @Documented)
+	private IdSet collectAnnotationClosure(NameTable names) {
+		if (dimensions > 0 || annotationIds.length == 0) {
+			return IdSet.EMPTY;
+		}
+		IdSet.Builder ids = new IdSet.Builder();
+		Deque<Type> pending = new ArrayDeque<>();
+		pending.add(this);
+		while (!pending.isEmpty()) {
+			for (int id : pending.poll().annotationIds) {
+				if (!ids.contains(id)) {
+					ids.add(id);
+					Type annotationType = typeSystem.Lresolve(names.nameOf(id), true);
+					if (annotationType != null) {
+						pending.add(annotationType);
+					}
+				}
+			}
+		}
+		return ids.build();
 	}
 
 	public List<Method> getMethodsWithAnnotation(String string) {
-		// logger.debug("looking through methods "+node.methods+" for "+string);
+		// logger.debug("looking through methods "+getClassNode().methods+" for "+string);
 		return dimensions > 0 ? Collections.emptyList()
-				: node.methods.stream().filter(m -> hasAnnotation(m, string)).map(m -> wrap(m))
+				: getClassNode().methods.stream().filter(m -> hasAnnotation(m, string)).map(m -> wrap(m))
 						.collect(Collectors.toList());
 	}
 
@@ -409,8 +490,8 @@ public class Type {
 			return Collections.emptyList();
 		}
 		List<Method> results = new ArrayList<>();
-		if (node.methods != null) {
-			for (MethodNode mn : node.methods) {
+		if (getClassNode().methods != null) {
+			for (MethodNode mn : getClassNode().methods) {
 				if (hasAnnotation(mn, string, checkMetaUsage)) {
 					if (results == null) {
 						results = new ArrayList<>();
@@ -423,16 +504,25 @@ public class Type {
 	}
 
 	public List<Method> getMethods() {
-		return methods.get();
-	}
-
-	private List<Method> resolveMethods() {
-		return dimensions > 0 ? Collections.emptyList()
-				: node.methods.stream().map(m -> wrap(m)).collect(Collectors.toList());
+		if (dimensions > 0 || nodeName == null) {
+			return Collections.emptyList();
+		}
+		ClassNodeCache.Entry entry = typeSystem.getClassNodes().get(nodeName);
+		if (entry.methods == null) {
+			entry.methods = entry.node.methods.stream().map(m -> wrap(m)).collect(Collectors.toList());
+		}
+		return entry.methods;
 	}
 
 	public List<Field> getFields() {
-		return fields.get();
+		if (dimensions > 0 || nodeName == null) {
+			return Collections.emptyList();
+		}
+		ClassNodeCache.Entry entry = typeSystem.getClassNodes().get(nodeName);
+		if (entry.fields == null) {
+			entry.fields = entry.node.fields.stream().map(it -> new Field(it, typeSystem)).collect(Collectors.toList());
+		}
+		return entry.fields;
 	}
 
 	public List<Field> getFieldsWithAnnotationName(String string, boolean checkMetaUsage) {
@@ -444,8 +534,8 @@ public class Type {
 			return Collections.emptyList();
 		}
 		List<Field> results = new ArrayList<>();
-		if (node.methods != null) {
-			for (FieldNode fn : node.fields) {
+		if (getClassNode().methods != null) {
+			for (FieldNode fn : getClassNode().fields) {
 				if (hasAnnotation(fn, string, checkMetaUsage)) {
 					if (results == null) {
 						results = new ArrayList<>();
@@ -457,11 +547,6 @@ public class Type {
 		return results == null ? Collections.emptyList() : results;
 	}
 
-	private List<Field> resolveFields() {
-		return dimensions > 0 ? Collections.emptyList()
-				: node.fields.stream().map(it -> new Field(it, typeSystem)).collect(Collectors.toList());
-	}
-
 	public List<Method> getMethodsWithAtBean() {
 		return getMethodsWithAnnotation(AtBean);
 	}
@@ -487,13 +572,13 @@ public class Type {
 	}
 
 	private boolean hasAnnotationHelper(String lAnnotationDescriptor, boolean checkMetaUsage, Set<String> seen) {
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
-				if (an.desc.equals(lAnnotationDescriptor)) {
-					return true;
-				}
-				if (checkMetaUsage && seen.add(lAnnotationDescriptor)) {
-					Type t = typeSystem.Lresolve(an.desc);
+		if (hasAnnotationDescriptor(lAnnotationDescriptor)) {
+			return true;
+		}
+		if (checkMetaUsage) {
+			for (String annotationDescriptor : getAnnotationDescriptors()) {
+				if (seen.add(lAnnotationDescriptor)) {
+					Type t = typeSystem.Lresolve(annotationDescriptor);
 					if (t != null) {
 						boolean b = t.hasAnnotationHelper(lAnnotationDescriptor, checkMetaUsage, seen);
 						if (b) {
@@ -605,20 +690,11 @@ public class Type {
 			return true;
 		}
 
-		Type[] interfaces = other.getInterfaces();
-		for (Type intface : interfaces) {
-			boolean b = this.isAssignableFrom(intface);
-			if (b) {
-				return true;
-			}
-		}
-		Type superclass = other.getSuperclass();
-		if (superclass != null) {
-			boolean b = this.isAssignableFrom(superclass);
-			if (b) {
-				return true;
-			}
+		HierarchyClosure closure = other.getHierarchyClosure();
+		if (closure.hasSupertype(typeSystem.getNames().lookup(getName()))) {
+			return true;
 		}
+		closure.checkComplete();
 		return false;
 	}
 
@@ -627,11 +703,15 @@ public class Type {
 	}
 
 	public boolean isInterface() {
-		return dimensions > 0 ? false : Modifier.isInterface(node.access);
+		return dimensions > 0 ? false : Modifier.isInterface(access);
 	}
 
 	public boolean isPublic() {
-		return dimensions > 0 ? false : Modifier.isPublic(node.access);
+		return dimensions > 0 ? false : Modifier.isPublic(access);
+	}
+
+	public boolean isAbstract() {
+		return dimensions > 0 ? false : Modifier.isAbstract(access);
 	}
 
 	public Map<String, String> getAnnotationValuesInHierarchy(String LdescriptorLookingFor) {
@@ -647,8 +727,8 @@ public class Type {
 		if (dimensions > 0) {
 			return;
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode anno : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode anno : getVisibleAnnotations()) {
 				if (seen.contains(anno.desc))
 					continue;
 				seen.add(anno.desc);
@@ -696,37 +776,15 @@ public class Type {
 		}
 	}
 
+	/**
+	 * @param lookingFor the descriptor of the annotation
+	 * @return whether the annotation is on this type, directly or through meta-annotations
+	 */
 	public boolean hasAnnotationInHierarchy(String lookingFor) {
 		if (dimensions > 0) {
 			return false;
 		}
-		return hasAnnotationInHierarchy(lookingFor, new ArrayList<String>());
-	}
-
-	public boolean hasAnnotationInHierarchy(String lookingFor, List<String> seen) {
-		if (dimensions > 0) {
-			return false;
-		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode anno : node.visibleAnnotations) {
-				if (seen.contains(anno.desc))
-					continue;
-				seen.add(anno.desc);
-				// logger.debug("Comparing "+anno.desc+" with "+lookingFor);
-				if (anno.desc.equals(lookingFor)) {
-					return true;
-				}
-				try {
-					Type resolve = typeSystem.Lresolve(anno.desc);
-					if (resolve.hasAnnotationInHierarchy(lookingFor, seen)) {
-						return true;
-					}
-				} catch (MissingTypeException mte) {
-					// not on classpath, that's ok
-				}
-			}
-		}
-		return false;
+		return getHierarchyClosure().hasAnnotation(typeSystem.getNames().lookup(lookingFor));
 	}
 
 	public boolean isCondition() {
@@ -756,7 +814,7 @@ public class Type {
 		if (dimensions > 0) {
 			return false;
 		}
-		boolean b = isMetaAnnotated(fromLdescriptorToSlashed(AtConfiguration), new HashSet<>(), false);
+		boolean b = isMetaAnnotated(fromLdescriptorToSlashed(AtConfiguration));
 		if (b) {
 			return b;
 		}
@@ -770,16 +828,16 @@ public class Type {
 	}
 	
 	public boolean isAtComponent() {
-		return (dimensions > 0) ? false : isMetaAnnotated(fromLdescriptorToSlashed(AtComponent), new HashSet<>(), false);
+		return (dimensions > 0) ? false : isMetaAnnotated(fromLdescriptorToSlashed(AtComponent));
 	}
 
 	public boolean isAtSpringBootApplication() {
 		return (dimensions > 0) ? false
-				: isMetaAnnotated(fromLdescriptorToSlashed(AtSpringBootApplication), new HashSet<>(), false);
+				: isMetaAnnotated(fromLdescriptorToSlashed(AtSpringBootApplication));
 	}
 
 	public boolean isAtController() {
-		return (dimensions > 0) ? false : isMetaAnnotated(fromLdescriptorToSlashed(AtController), new HashSet<>(), false);
+		return (dimensions > 0) ? false : isMetaAnnotated(fromLdescriptorToSlashed(AtController));
 	}
 
 	public boolean isAbstractNestedCondition() {
@@ -797,39 +855,15 @@ public class Type {
 		if (dimensions > 0) {
 			return false;
 		}
-		return isMetaAnnotated(slashedTypeDescriptor, new HashSet<>(), includeHierarchy);
-	}
-
-	private boolean isMetaAnnotated(String slashedTypeDescriptor, Set<String> seen, boolean includeHierarchy) {
-		if (dimensions > 0) {
-			return false;
-		}
-		for (Type t : this.getAnnotations()) {
-			if (t == null) {
-				continue;
-			}
-			String tname = t.getName();
-			if (tname.equals(slashedTypeDescriptor)) {
-				return true;
-			}
-			if (!seen.contains(tname)) {
-				seen.add(tname);
-				if (t.isMetaAnnotated(slashedTypeDescriptor, seen, false)) {
-					return true;
-				}
-			}
+		HierarchyClosure closure = getHierarchyClosure();
+		int descriptorId = typeSystem.getNames().lookup("L" + slashedTypeDescriptor + ";");
+		if (!includeHierarchy) {
+			return closure.hasAnnotation(descriptorId);
 		}
-		if (includeHierarchy) {
-			for (Type intface : getInterfaces()) {
-				if (intface.isMetaAnnotated(slashedTypeDescriptor, seen, true)) {
-					return true;
-				}
-			}
-			Type superclass = getSuperclass();
-			if (superclass != null && superclass.isMetaAnnotated(slashedTypeDescriptor, seen, true)) {
-				return true;
-			}
+		if (closure.hasAnnotationInHierarchy(descriptorId)) {
+			return true;
 		}
+		closure.checkComplete();
 		return false;
 	}
 
@@ -842,8 +876,8 @@ public class Type {
 		}
 		List<String> findAnnotationValue = findAnnotationValue(AtConditionalOnBean, false, false);
 		if (findAnnotationValue == null) {
-			if (node.visibleAnnotations != null) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+			if (getVisibleAnnotations() != null) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					if (an.desc.equals(AtConditionalOnBean)) {
 						logger.debug("??? found nothing on this @COB annotated thing " + this.getName());
 					}
@@ -859,8 +893,8 @@ public class Type {
 		}
 		List<String> findAnnotationValue = findAnnotationValue(AtConditionalOnMissingBean, false, false);
 		if (findAnnotationValue == null) {
-			if (node.visibleAnnotations != null) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+			if (getVisibleAnnotations() != null) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					if (an.desc.equals(AtConditionalOnMissingBean)) {
 						logger.debug("??? found nothing on this @COMB annotated thing " + this.getName());
 					}
@@ -884,8 +918,8 @@ public class Type {
 		}
 		List<String> findAnnotationValue = findAnnotationValue(AtConditionalOnClass, true, false);
 		if (findAnnotationValue == null) {
-			if (node.visibleAnnotations != null) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+			if (getVisibleAnnotations() != null) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					if (an.desc.equals(AtConditionalOnClass)) {
 						logger.debug("??? found nothing on this @COC annotated thing " + this.getName());
 					}
@@ -925,8 +959,8 @@ public class Type {
 			return Collections.emptyMap();
 		}
 		Map<String, List<String>> collectedResults = new LinkedHashMap<>();
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				if (an.desc.equals(annotationType)) {
 					List<Object> values = an.values;
 					if (values != null) {
@@ -941,7 +975,7 @@ public class Type {
 				}
 			}
 			if (searchMeta) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					// For example @EnableSomething might have @Import on it
 					Type annoType = null;
 					try {
@@ -966,8 +1000,8 @@ public class Type {
 			return Collections.emptyList();
 		}
 		List<String> collectedResults = new ArrayList<>();
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				if (an.desc.equals(annotationType)) {
 					List<Object> values = an.values;
 					if (values != null) {
@@ -987,7 +1021,7 @@ public class Type {
 				}
 			}
 			if (searchMeta) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					// For example @EnableSomething might have @Import on it
 					Type annoType = typeSystem.Lresolve(an.desc);
 					collectedResults.addAll(annoType.findAnnotationValue(annotationType, searchMeta, false, visited));
@@ -1005,8 +1039,8 @@ public class Type {
 		if (!visited.add(this.getName())) {
 			return null;
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				if (an.desc.equals(annotationType)) {
 					List<Object> values = an.values;
 					if (values != null) {
@@ -1020,7 +1054,7 @@ public class Type {
 				}
 			}
 			if (searchMeta) {
-				for (AnnotationNode an : node.visibleAnnotations) {
+				for (AnnotationNode an : getVisibleAnnotations()) {
 					// For example @EnableSomething might have @Import on it
 					Type annoType = typeSystem.Lresolve(an.desc);
 					String value = annoType.findAnnotationSingleValue(annotationType, searchMeta, visited);
@@ -1042,13 +1076,11 @@ public class Type {
 			return Collections.emptyList();
 		}
 		List<Type> annotations = new ArrayList<>();
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
-				try {
-					annotations.add(this.typeSystem.Lresolve(an.desc));
-				} catch (MissingTypeException mte) {
-					// that's ok you weren't relying on it anyway!
-				}
+		for (String annotationDescriptor : getAnnotationDescriptors()) {
+			try {
+				annotations.add(this.typeSystem.Lresolve(annotationDescriptor));
+			} catch (MissingTypeException mte) {
+				// that's ok you weren't relying on it anyway!
 			}
 		}
 		if (annotations.size() == 0) {
@@ -1149,14 +1181,7 @@ public class Type {
 		if (dimensions > 0) {
 			return false;
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
-				if (an.desc.equals(Ldescriptor)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return hasAnnotationDescriptor(Ldescriptor);
 	}
 
 	private List<Type> getAnnotatedElementsInHierarchy(Predicate<AnnotationNode> p) {
@@ -1172,8 +1197,8 @@ public class Type {
 		if (dimensions > 0)
 			return Collections.emptyList();
 		List<Type> results = new ArrayList<>();
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				boolean match = p.test(an);
 				if (match || seen.add(an.desc)) {
 					if (match) {
@@ -1200,17 +1225,15 @@ public class Type {
 		if (dimensions > 0)
 			return Collections.emptyList();
 		List<Type> result = new ArrayList<>();
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
-				if (seen.add(an.desc)) {
-					Type annoType = typeSystem.Lresolve(an.desc, true);
-					if (annoType != null) {
-						if (annoType.getDottedName().startsWith("javax.")) {
-							result.add(annoType);
-						} else {
-							List<Type> ts = annoType.getJavaxAnnotations(seen);
-							result.addAll(ts);
-						}
+		for (String annotationDescriptor : getAnnotationDescriptors()) {
+			if (seen.add(annotationDescriptor)) {
+				Type annoType = typeSystem.Lresolve(annotationDescriptor, true);
+				if (annoType != null) {
+					if (annoType.getDottedName().startsWith("javax.")) {
+						result.add(annoType);
+					} else {
+						List<Type> ts = annoType.getJavaxAnnotations(seen);
+						result.addAll(ts);
 					}
 				}
 			}
@@ -1222,7 +1245,7 @@ public class Type {
 		if (dimensions > 0)
 			return Collections.emptyList();
 		List<Type> result = null;
-		List<InnerClassNode> innerClasses = node.innerClasses;
+		List<InnerClassNode> innerClasses = getClassNode().innerClasses;
 		for (InnerClassNode inner : innerClasses) {
 			if (inner.outerName == null || !inner.outerName.equals(getName())) {
 				// logger.debug("SKIPPING "+inner.name+" because outer is
@@ -1246,7 +1269,7 @@ public class Type {
 		for (int i = 0; i < dimensions; i++) {
 			s.append("[");
 		}
-		s.append("L").append(node.name.replace(".", "/")).append(";");
+		s.append("L").append(nodeName).append(";");
 		return s.toString();
 	}
 
@@ -1268,8 +1291,8 @@ public class Type {
 				hints.add(new HintApplication(s, Collections.emptyMap(), hintDeclaration));
 			}
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				Type annotationType = typeSystem.Lresolve(an.desc, true);
 				if (annotationType == null) {
 					logger.debug("Couldn't resolve " + an.desc + " annotation type whilst searching for hints on "
@@ -1330,8 +1353,8 @@ public class Type {
 				}
 			}
 			// check for hints on meta annotation
-			if (node.visibleAnnotations != null) {
-				for (AnnotationNode visibleAnnotation : node.visibleAnnotations) {
+			if (getVisibleAnnotations() != null) {
+				for (AnnotationNode visibleAnnotation : getVisibleAnnotations()) {
 					Type annotationType = typeSystem.Lresolve(visibleAnnotation.desc, true);
 					if (annotationType == null) {
 						logger.debug("Couldn't resolve " + visibleAnnotation.desc
@@ -1474,7 +1497,7 @@ public class Type {
 	}
 
 	public boolean isEnum() {
-		return (node.access & Opcodes.ACC_ENUM)!=0;
+		return (access & Opcodes.ACC_ENUM)!=0;
 	}
 
 	private Map<String, Integer> asMap(List<String> typesCollectedFromAnnotation, boolean usingForVisibilityCheck) {
@@ -1498,7 +1521,7 @@ public class Type {
 		if (dimensions > 0)
 			return new Type[0];
 		List<Type> result = new ArrayList<>();
-		List<InnerClassNode> nestMembers = node.innerClasses;
+		List<InnerClassNode> nestMembers = getClassNode().innerClasses;
 		if (nestMembers != null) {
 			for (InnerClassNode icn : nestMembers) {
 				if (icn.name.startsWith(this.getName() + "$")) {
@@ -1515,6 +1538,9 @@ public class Type {
 	
 	public List<String> getMethodsInvokingGetBean() {
 		byte[] bytes = typeSystem.find(getName());
+		if (!typeSystem.getGetBeanPrefilter().mayInvoke(bytes)) {
+			return null;
+		}
 		try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes)) {
 			return GetBeanDetectionVisitor.run(bais);
 		} catch (IOException e) {
@@ -1523,6 +1549,10 @@ public class Type {
 	}
 
 	public List<String> getMethodsInvokingAtBeanMethods() {
+		// Only @Configuration classes are visited, avoid reading the others
+		if (!isAtConfiguration()) {
+			return null;
+		}
 		byte[] bytes = typeSystem.find(getName());
 		try (ByteArrayInputStream bais = new ByteArrayInputStream(bytes)) {
 			return AtBeanMethodInvocationDetectionVisitor.run(typeSystem, bais);
@@ -1537,8 +1567,8 @@ public class Type {
 		if (!visited.add(this)) {
 			return null;
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				List<CompilationHint> compilationHints = typeSystem.findHints(an.desc);// SpringConfiguration.findProposedHints(an.desc);
 				if (compilationHints.size() != 0) {
 					return compilationHints;
@@ -1682,24 +1712,22 @@ public class Type {
 		if (!visited.add(this)) {
 			return;
 		}
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
-				Type annotationType = typeSystem.Lresolve(an.desc, true);
-				if (annotationType == null) {
-					missingAnnotationTypes.add(an.desc.substring(0, an.desc.length() - 1).replace("/", "."));
-				} else {
-					annotationType.collectMissingAnnotationTypesHelper(missingAnnotationTypes, visited);
-				}
+		for (String annotationDescriptor : getAnnotationDescriptors()) {
+			Type annotationType = typeSystem.Lresolve(annotationDescriptor, true);
+			if (annotationType == null) {
+				missingAnnotationTypes.add(annotationDescriptor.substring(0, annotationDescriptor.length() - 1).replace("/", "."));
+			} else {
+				annotationType.collectMissingAnnotationTypesHelper(missingAnnotationTypes, visited);
 			}
 		}
 	}
 
 	public int getMethodCount(boolean includeConstructors) {
 		if (includeConstructors) {
-			return node.methods.size();
+			return getClassNode().methods.size();
 		} else {
 			int m = 0;
-			for (MethodNode methodNode : node.methods) {
+			for (MethodNode methodNode : getClassNode().methods) {
 				if (!methodNode.name.equals("<init>")) {
 					m++;
 				}
@@ -1711,15 +1739,15 @@ public class Type {
 	public boolean isAnnotation() {
 		if (dimensions > 0)
 			return false;
-		return (node.access & Opcodes.ACC_ANNOTATION) != 0;
+		return (access & Opcodes.ACC_ANNOTATION) != 0;
 	}
 
 	public List<Type> getAutoConfigureBeforeOrAfter() {
 		if (dimensions > 0)
 			return Collections.emptyList();
 		List<Type> result = new ArrayList<>();
-		if (node.visibleAnnotations!=null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations()!=null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				if (an.desc.equals("Lorg/springframework/boot/autoconfigure/AutoConfigureAfter;")
 						|| an.desc.equals("Lorg/springframework/boot/autoconfigure/AutoConfigureBefore;")) {
 					List<Object> values = an.values;
@@ -1772,8 +1800,8 @@ public class Type {
 			defaultHintDeclaration.setTriggerTypename(getDottedName());
 		}
 		boolean defaultHintPopulated = false;
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				String name = fromLdescriptorToDotted(an.desc);
 				if (name.equals(NativeHint.class.getName())) {
 					hints.add(unpackNativeHint(an));
@@ -1919,8 +1947,50 @@ public class Type {
 		}
 	}
 
+	/**
+	 * @return the full class node, read again from the classpath if it has been evicted from the
+	 * type system cache since this type was resolved
+	 */
 	ClassNode getClassNode() {
-		return node;
+		return typeSystem.getClassNodes().get(nodeName).node;
+	}
+
+	/**
+	 * @return the visible annotations of the class, or null if there are none. Types without
+	 * annotations are answered without needing the class node.
+	 */
+	private List<AnnotationNode> getVisibleAnnotations() {
+		return annotationIds.length == 0 ? null : getClassNode().visibleAnnotations;
+	}
+
+	/**
+	 * @param Ldescriptor the annotation descriptor, for example {@code Lorg/foo/Bar;}
+	 * @return true if the annotation is directly on this type
+	 */
+	private boolean hasAnnotationDescriptor(String Ldescriptor) {
+		int id = typeSystem == null ? -1 : typeSystem.getNames().lookup(Ldescriptor);
+		if (id != -1) {
+			for (int annotationId : annotationIds) {
+				if (annotationId == id) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the descriptors of the annotations directly on this type
+	 */
+	private List<String> getAnnotationDescriptors() {
+		if (annotationIds.length == 0) {
+			return Collections.emptyList();
+		}
+		List<String> descriptors = new ArrayList<>(annotationIds.length);
+		for (int annotationId : annotationIds) {
+			descriptors.add(typeSystem.getNames().nameOf(annotationId));
+		}
+		return descriptors;
 	}
 
 	private void unpackTypeHint(AnnotationNode typeInfo, HintDeclaration ch) {
@@ -2267,7 +2337,7 @@ public class Type {
 	
 	public boolean isConfigurationProperties() {
 		return (dimensions > 0) ? false
-				: isMetaAnnotated(fromLdescriptorToSlashed(AtConfigurationProperties), new HashSet<>(), false);
+				: isMetaAnnotated(fromLdescriptorToSlashed(AtConfigurationProperties));
 	}
 
 	public static int inferAccessRequired(Type t) {
@@ -2427,10 +2497,10 @@ public class Type {
 	}
 
 	public String findTypeParameterInSupertype(String supertype, int typeParameterNumber) {
-		if (node.signature == null) {
+		if (signature == null) {
 			return null;
 		}
-		SignatureReader reader = new SignatureReader(node.signature);
+		SignatureReader reader = new SignatureReader(signature);
 		TypeParamFinder tpm = new TypeParamFinder(supertype);
 		reader.accept(tpm);
 		return tpm.getTypeParameter(typeParameterNumber);
@@ -2596,7 +2666,7 @@ public class Type {
 	}
 
 	public boolean hasMethod(String methodName) {
-		List<MethodNode> methods = node.methods;
+		List<MethodNode> methods = getClassNode().methods;
 		for (MethodNode method : methods) {
 			if (method.name.equals(methodName)) {
 				return true;
@@ -2616,8 +2686,8 @@ public class Type {
 	}
 
 	private void collectAnnotationsHelper(List<AnnotationNode> collector, Set<String> seen) {
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode anno : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode anno : getVisibleAnnotations()) {
 				if (!seen.add(anno.desc)) {
 					continue;
 				}
@@ -2631,7 +2701,7 @@ public class Type {
 	public Method getDefaultConstructor() {
 		if (dimensions > 0)
 			return null;
-		List<MethodNode> methods = node.methods;
+		List<MethodNode> methods = getClassNode().methods;
 		for (MethodNode mn : methods) {
 			if (mn.name.equals("<init>")) {
 				if (mn.desc.equals("()V")) {
@@ -2644,13 +2714,13 @@ public class Type {
 
 	public List<Method> getMethods(Predicate<Method> predicate) {
 		return dimensions > 0 ? Collections.emptyList()
-				: node.methods.stream().map(m -> wrap(m)).filter(m -> predicate.test(m)).collect(Collectors.toList());
+				: getClassNode().methods.stream().map(m -> wrap(m)).filter(m -> predicate.test(m)).collect(Collectors.toList());
 	}
 	
 	public List<Method> getMethod(String name) {
 		List<Method> results = new ArrayList<>();
-		for (int i = 0; i < node.methods.size(); i++) {
-			MethodNode methodNode = node.methods.get(i);
+		for (int i = 0; i < getClassNode().methods.size(); i++) {
+			MethodNode methodNode = getClassNode().methods.get(i);
 			if (methodNode.name.equals(name)) {
 				results.add(wrap(methodNode));
 			}
@@ -2659,12 +2729,12 @@ public class Type {
 	}
 
 	public boolean equals(Object that) {
-		return (that instanceof Type) && (((Type) that).name.equals(this.name))
-				&& (((Type) that).dimensions == this.dimensions) && (((Type) that).node.equals(this.node));
+		return (that instanceof Type) && Objects.equals(((Type) that).name, this.name)
+				&& (((Type) that).dimensions == this.dimensions) && (((Type) that).typeSystem == this.typeSystem);
 	}
 
 	public int hashCode() {
-		return node.hashCode() * 37;
+		return Objects.hashCode(name) * 37;
 	}
 
 	/**
@@ -2696,8 +2766,8 @@ public class Type {
 	 *         requirement cannot be met, otherwise true
 	 */
 	public boolean checkConditionalOnWebApplication() {
-		if (node.visibleAnnotations != null) {
-			for (AnnotationNode an : node.visibleAnnotations) {
+		if (getVisibleAnnotations() != null) {
+			for (AnnotationNode an : getVisibleAnnotations()) {
 				if (an.desc.equals("Lorg/springframework/boot/autoconfigure/condition/ConditionalOnWebApplication;")) {
 					boolean checkHappened = false;
 					List<Object> values = an.values;
@@ -2860,7 +2930,7 @@ public class Type {
 	}
 
 	public Field getField(String name) {
-		for (Field field : fields.get()) {
+		for (Field field : getFields()) {
 			if (field.getName().equals(name)) {
 				return field;
 			}
@@ -2875,8 +2945,8 @@ public class Type {
 	}
 
 	public AnnotationNode getAnnotation(String Ldescriptor) {
-		if (node.visibleAnnotations !=null) {
-			for (AnnotationNode annotationNode : node.visibleAnnotations) {
+		if (hasAnnotationDescriptor(Ldescriptor)) {
+			for (AnnotationNode annotationNode : getVisibleAnnotations()) {
 				if (annotationNode.desc.equals(Ldescriptor)) {
 					return annotationNode;
 				}
@@ -2886,8 +2956,8 @@ public class Type {
 	}
 
 	AnnotationNode getAnnotationMetaAnnotatedWith(String Ldescriptor) {
-		if (node.visibleAnnotations !=null) {
-			for (AnnotationNode annotationNode : node.visibleAnnotations) {
+		if (getVisibleAnnotations() !=null) {
+			for (AnnotationNode annotationNode : getVisibleAnnotations()) {
 				if (annotationNode.desc.equals(Ldescriptor)) {
 					return annotationNode;
 				}
@@ -2909,8 +2979,8 @@ public class Type {
 	}
 
 	public boolean hasAnnotatedField(Predicate<String> annotationCheck) {
-		if (node.fields != null) {
-			for (FieldNode fieldNode : node.fields) {
+		if (getClassNode().fields != null) {
+			for (FieldNode fieldNode : getClassNode().fields) {
 				List<AnnotationNode> vAnnotations = fieldNode.visibleAnnotations;
 				if (vAnnotations!=null) {
 					if (annotationCheck == null) {
@@ -2934,7 +3004,7 @@ public class Type {
 	 * @return if the specified method on this type have the {@code @Bean} annotation on it
 	 */
 	public boolean isAtBeanMethod(String methodName, String descriptor) {
-		List<MethodNode> ms = this.node.methods;
+		List<MethodNode> ms = getClassNode().methods;
 		for (MethodNode m : ms) {
 			if (m.name.equals(methodName) && m.desc.equals(descriptor)) {
 				List<AnnotationNode> vas = m.visibleAnnotations;
@@ -3032,17 +3102,11 @@ public class Type {
 	 * @return subtypes of the current type
 	 */
 	public List<Type> getSubtypes() {
-		long stime = System.currentTimeMillis();
-		String n = this.isInterface()?this.getName():this.getDescriptor();
-		List<Type> subtypes = typeSystem.scan(t -> {
-			if (t == this) {
-				return false;
-			}
-			return this.isInterface()?t.implementsInterface(n):t.extendsClass(n);
-		});
-		long etime = System.currentTimeMillis();
-		logger.debug("TIMER: Time taken to scan for subtypes of "+getDottedName()+" was "+(etime-stime)+"ms and found "+subtypes.size()+" subtypes");
-		return subtypes;
+		try (AotProfiler.Phase phase = AotProfiler.phase("Type.getSubtypes")) {
+			return typeSystem.findSubtypes(this, true).stream()
+					.filter(typeSystem::isApplicationType)
+					.collect(Collectors.toList());
+		}
 	}
 	
 	/**
@@ -17,7 +17,9 @@
 package org.springframework.nativex.type;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -34,13 +36,16 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +54,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -70,6 +76,7 @@ import org.springframework.nativex.domain.reflect.JsonMarshaller;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesJsonMarshaller;
+import org.springframework.nativex.support.AotProfiler;
 import org.springframework.nativex.support.Utils;
 
 
@@ -78,7 +85,7 @@ import org.springframework.nativex.support.Utils;
  * 
  * @author Andy Clement
  */
-public class TypeSystem {
+public class TypeSystem implements Closeable {
 
 	private static Log logger = LogFactory.getLog(TypeSystem.class);
 
@@ -88,16 +95,27 @@ public class TypeSystem {
 
 	public Map<TypeId, Type> primitives = new HashMap<>();
 
-	// Map of all types on the classpath that have some kind of annotations on them
-	Map<String, AnnotationInfo> annotatedTypes;
+	// Index of all types on the classpath that have some kind of annotations on them
+	private AnnotationIndex annotatedTypes;
 
 	private SpringConfiguration hintLocator = null;
 
 	// Classpath from which this type system will resolve types
 	private List<String> classpath;
 
-	// Cache of resolved types TODO time out entries?
-	private Map<String, Type> typeCache = new HashMap<>();
+	// Cache of resolved types, these only hold compact metadata so are kept for the life of the type system.
+	// Types may be resolved concurrently once the classpath is indexed, see ResourcesHandler.
+	private Map<String, Type> typeCache = new ConcurrentHashMap<>();
+
+	// Names and annotation descriptors referenced by resolved types, shared between them
+	private final NameTable names = new NameTable();
+
+	// Shared instances of the id sets in the hierarchy closures of types, only needed whilst closures
+	// are computed so released on close()
+	private final Map<IdSet, IdSet> idSets = new ConcurrentHashMap<>();
+
+	// Full class nodes of the most recently used types, the rest are read again when needed
+	private final ClassNodeCache classNodes = new ClassNodeCache(ClassNodeCache.DEFAULT_LIMIT, this::readClassNode);
 
 	// Map of which zip files contain which packages
 	private Map<String, Set<File>> packageCache = new HashMap<>();
@@ -105,23 +123,45 @@ public class TypeSystem {
 	// Map of which application files contain particular packages
 	private Map<String, List<File>> appPackages = new HashMap<>();
 
+	// Direct lookup of classpath entries, jars are kept open whilst this type system is in use
+	private ClasspathIndex classpathIndex = new ClasspathIndex();
+
 	private Map<String, ResourcesDescriptor> resourceConfigurations;
 	
 	private List<String> excludedAutoConfigurations;
 
 	private Map<String, ReflectionDescriptor> reflectionConfigurations;
+
+	// Contents of application*.properties files found on the classpath, keyed by location
+	private Map<String, byte[]> applicationPropertiesResources;
 	
 	// A map from the types whose clinits make isPresent checks to the types that they are checking the presence
 	// of (the parameters to the isPresent calls)
 	private Map<String,List<String>> typesMakingIsPresentChecksInStaticInitializers;
+
+	// Reverse type hierarchy, from slashed type names to the classes and interfaces directly extending
+	// or implementing them
+	private Map<String, List<String>> directSubtypes;
+
+	// Slashed names of the types defined in application directories and target jars
+	private Set<String> applicationTypes;
+
+	// Most types never call getBean(), lets Type skip visiting their method bodies
+	private final MethodReferenceFilter getBeanPrefilter =
+			new MethodReferenceFilter("org/springframework/beans/factory/BeanFactory", "getBean");
 	
 	public AotOptions aotOptions;
 
 	private String mainClass;
 
 	public TypeSystem(List<String> classpath, String mainClass) {
+		this(classpath, mainClass, null);
+	}
+
+	public TypeSystem(List<String> classpath, String mainClass, AotOptions aotOptions) {
 		this.classpath = classpath;
 		this.mainClass = mainClass;
+		this.aotOptions = aotOptions;
 		index();
 	}
 
@@ -211,8 +251,9 @@ public class TypeSystem {
 			}
 		}
 		if (resolvedType != null) {
-			typeCache.put(slashedTypeName, resolvedType);
-			return resolvedType;
+			// Another thread may have resolved it meanwhile, all callers must see the same instance
+			Type existing = typeCache.putIfAbsent(slashedTypeName, resolvedType);
+			return existing != null ? existing : resolvedType;
 		} else {
 			// cache a missingtype so we don't go looking again!
 			typeCache.put(slashedTypeName, Type.MISSING);
@@ -251,15 +292,23 @@ public class TypeSystem {
 			}
 			typeToLocate = n;
 		}
-		byte[] bytes = find(typeToLocate);
+		ClassNode node = readClassNode(typeToLocate);
+		if (node == null) {
+			return null;
+		}
+		return Type.forClassNode(this, node, dimensions);
+	}
+
+	private ClassNode readClassNode(String slashedTypeName) {
+		byte[] bytes = find(slashedTypeName);
 		if (bytes == null) {
 			// System class?
 			InputStream resourceAsStream = Thread.currentThread().getContextClassLoader()
-					.getResourceAsStream(typeToLocate + ".class");
+					.getResourceAsStream(slashedTypeName + ".class");
 			if (resourceAsStream == null) {
 				// One more try, are we on Java9+ and modules are hiding it from us...
 				if (javaModuleLookupSystem != null) {
-					resourceAsStream = javaModuleLookupSystem.findClassfile(typeToLocate+".class");
+					resourceAsStream = javaModuleLookupSystem.findClassfile(slashedTypeName+".class");
 				}
 			}
 			if (resourceAsStream == null) {
@@ -271,10 +320,28 @@ public class TypeSystem {
 				throw new RuntimeException("Problems loading class from resource stream: " + slashedTypeName, e);
 			}
 		}
+		// Method bodies are never looked at through the class node, the detection visitors read the bytes
 		ClassNode node = new ClassNode();
 		ClassReader reader = new ClassReader(bytes);
-		reader.accept(node, ClassReader.SKIP_DEBUG);
-		return Type.forClassNode(this, node, dimensions);
+		reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+		return node;
+	}
+
+	NameTable getNames() {
+		return names;
+	}
+
+	/**
+	 * @param ids a set of ids in the hierarchy closure of a type
+	 * @return the shared instance of an equal set
+	 */
+	IdSet intern(IdSet ids) {
+		IdSet existing = idSets.putIfAbsent(ids, ids);
+		return existing != null ? existing : ids;
+	}
+
+	ClassNodeCache getClassNodes() {
+		return classNodes;
 	}
 
 	private String toSlashedName(String dottedTypeName) {
@@ -391,16 +458,32 @@ public class TypeSystem {
 	}
 
 	public void index() {
-		for (String s : classpath) {
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.index")) {
+			indexClasspath();
+		}
+	}
+
+	private void indexClasspath() {
+		// Opening the jars is the costly part so that happens in parallel, the results are then
+		// indexed in classpath order
+		List<ZipFile> jars = ParallelScanner.map(classpath, getScanParallelism(), s -> {
 			File f = new File(s);
+			return f.isDirectory() ? null : openJar(f);
+		});
+		for (int i = 0; i < classpath.size(); i++) {
+			File f = new File(classpath.get(i));
 			if (f.isDirectory()) {
 				indexDir(f);
-			} else {
-				indexJar(f);
+			} else if (jars.get(i) != null) {
+				indexJar(f, jars.get(i));
 			}
 		}
 	}
 
+	private int getScanParallelism() {
+		return aotOptions == null ? 0 : aotOptions.getScanParallelism();
+	}
+
 	public void indexDir(File dir) {
 		Path root = Paths.get(dir.toURI());
 		try {
@@ -425,63 +508,64 @@ public class TypeSystem {
 		} catch (IOException ioe) {
 			throw new IllegalStateException("Unable to walk " + dir, ioe);
 		}
+		classpathIndex.addDirectory(dir);
 	}
 
 	public void indexJar(File jar) {
-		// Walk the jar, index entries and cache package > this jar
+		ZipFile zf = openJar(jar);
+		if (zf != null) {
+			indexJar(jar, zf);
+		}
+	}
+
+	private ZipFile openJar(File jar) {
 		try {
-			try (ZipFile zf = new ZipFile(jar)) {
-				Enumeration<? extends ZipEntry> entries = zf.entries();
-				while (entries.hasMoreElements()) {
-					ZipEntry entry = entries.nextElement();
-					String name = entry.getName();
-					if (name.endsWith(".class")) {
-						int lastSlash = name.lastIndexOf("/");
-						if (lastSlash != -1 && name.endsWith(".class")) {
-							String packageName = name.substring(0, lastSlash);
-							Set<File> jars = packageCache.getOrDefault(packageName, new HashSet<>());
-							jars.add(jar);
-							packageCache.put(packageName, jars);
-						}
-					}
-				}
-			}
+			return new ZipFile(jar);
 		} catch (FileNotFoundException | NoSuchFileException fileIsntThere) {
 			System.err.println("WARNING: Unable to find jar '" + jar + "' whilst scanning filesystem");
+			return null;
 		} catch (IOException ioe) {
 			throw new RuntimeException("Problem during scan of " + jar, ioe);
 		}
 	}
 
+	private void indexJar(File jar, ZipFile zf) {
+		// Walk the jar, index entries and cache package > this jar
+		classpathIndex.addJar(jar, zf);
+		Enumeration<? extends ZipEntry> entries = zf.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			String name = entry.getName();
+			if (name.endsWith(".class")) {
+				int lastSlash = name.lastIndexOf("/");
+				if (lastSlash != -1 && name.endsWith(".class")) {
+					String packageName = name.substring(0, lastSlash);
+					Set<File> jars = packageCache.getOrDefault(packageName, new HashSet<>());
+					jars.add(jar);
+					packageCache.put(packageName, jars);
+				}
+			}
+		}
+	}
+
 	public byte[] find(String slashedTypeName) {
 		String search = slashedTypeName + ".class";
 		try {
+			byte[] bytes = classpathIndex.read(search);
+			if (bytes != null) {
+				return bytes;
+			}
+			// Not indexed, but may have been created in an application folder since indexing
 			int index = slashedTypeName.lastIndexOf("/");
 			String packageName = index == -1 ? "" : slashedTypeName.substring(0, index);
-			if (appPackages.containsKey(packageName)) {
-				List<File> list = appPackages.get(packageName);
+			List<File> list = appPackages.get(packageName);
+			if (list != null) {
 				for (File f : list) {
 					File toTry = new File(f, search);
 					if (toTry.exists()) {
 						try (FileInputStream fis = new FileInputStream(toTry)) {
 							return loadFromStream(fis);
 						}
-//						return loadFromStream(new FileInputStream(toTry));
-					}
-				}
-			}
-			Set<File> jarfiles = packageCache.get(packageName);
-			if (jarfiles!=null) {
-				for (File jarfile: jarfiles) {
-					try (ZipFile zf = new ZipFile(jarfile)) {
-						Enumeration<? extends ZipEntry> entries = zf.entries();
-						while (entries.hasMoreElements()) {
-							ZipEntry entry = entries.nextElement();
-							String name = entry.getName();
-							if (name.equals(search)) {
-								return loadFromStream(zf.getInputStream(entry));
-							}
-						}
 					}
 				}
 			}
@@ -491,6 +575,19 @@ public class TypeSystem {
 		}
 	}
 
+	/**
+	 * Release the jar files held open by this type system, and what it only needs whilst it
+	 * resolves types. Types already resolved remain usable but further lookups against the
+	 * classpath will fail to find anything.
+	 */
+	@Override
+	public void close() {
+		logger.debug(classNodes);
+		logger.debug(getBeanPrefilter);
+		idSets.clear();
+		classpathIndex.close();
+	}
+
 	/**
 	 * Prepare a {@link TypeScanner} selecting (single class files or jars) for {@link Type} scanning.
 	 *
@@ -739,159 +836,292 @@ public class TypeSystem {
 				+ appPackages;
 	}
 
-	public void scan() {
-		// Scan the classpath for things of interest, do this only once!
-		for (String classpathEntry : classpath) {
-			File f = new File(classpathEntry);
-			if (f.exists()) {
-				if (f.isDirectory()) {
-					scanFiles(f, f);
-				} else {
-					scanArchive(f);
-				}
+	/**
+	 * Scan the classpath classes for things of interest, do this only once! A single pass reads each
+	 * class header once, collecting the annotated types. Entries are visited in parallel but collected in
+	 * classpath order, giving the same result as a sequential scan. The direct supertypes of every class
+	 * are recorded too, building the reverse hierarchy used by {@link #findSubtypes(Type, boolean)}.
+	 * When an analysis cache directory
+	 * is configured the results for jars are reused from previous builds rather than recomputed, as
+	 * are those for directories the build tool reports as unchanged.
+	 */
+	public synchronized void scan() {
+		if (annotatedTypes != null) {
+			return;
+		}
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.scan")) {
+			scanClasses();
+		}
+	}
+
+	private void scanClasses() {
+		List<ClasspathIndex.Root> roots = classpathIndex.getRoots();
+		AnalysisCache cache = AnalysisCache.get(aotOptions);
+		Map<ClasspathIndex.Root, ArchiveAnalysis> collected = new HashMap<>();
+		List<ArchiveAnalysis> analyses = analyze(roots, cache, false, collected, new ClassInfoCollector(collected));
+		Set<Path> applicationRoots = findDirectoriesOrTargetDirJar(classpath).collect(Collectors.toSet());
+		Map<String, List<String>> annotations = new LinkedHashMap<>();
+		Map<String, List<String>> supertypes = new HashMap<>();
+		Set<String> applicationTypeNames = new HashSet<>();
+		for (int i = 0; i < roots.size(); i++) {
+			ClasspathIndex.Root root = roots.get(i);
+			ArchiveAnalysis analysis = analyses.get(i);
+			for (Map.Entry<String, List<String>> entry : analysis.getAnnotations().entrySet()) {
+				annotations.put(entry.getKey(), entry.getValue());
+			}
+			// As with resolution, the first definition of a type on the classpath wins
+			for (Map.Entry<String, List<String>> entry : analysis.getSupertypes().entrySet()) {
+				supertypes.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+			if (applicationRoots.contains(Paths.get(root.getFile().toURI()))) {
+				applicationTypeNames.addAll(analysis.getSupertypes().keySet());
 			}
 		}
+		if (cache != null) {
+			cache.storeIndex();
+		}
+		Map<String, List<String>> subtypes = new HashMap<>();
+		for (Map.Entry<String, List<String>> entry : supertypes.entrySet()) {
+			for (String supertype : entry.getValue()) {
+				subtypes.computeIfAbsent(supertype, k -> new ArrayList<>()).add(entry.getKey());
+			}
+		}
+		directSubtypes = subtypes;
+		applicationTypes = applicationTypeNames;
+		annotatedTypes = new AnnotationIndex(names, annotations);
 	}
 
-	private void scanArchive(File f) {
-		try (ZipFile zf = new ZipFile(f)) {
-			Enumeration<? extends ZipEntry> entries = zf.entries();
-			while (entries.hasMoreElements()) {
-				ZipEntry entry = entries.nextElement();
-				if (entry.getName().endsWith(".class")) {
-					ClassReader reader = new ClassReader(zf.getInputStream(entry));
-					ClassNode node = new ClassNode();
-					reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
-					AnnotationInfo ai = new AnnotationInfo(this, node);
-					if (ai.hasData()) {
-						logger.debug("From " + entry.toString() + " got " + ai.toAnnotationString());
-						annotatedTypes.put(node.name, ai);
-					}
-				}
-				// TODO resources?
+	/**
+	 * Scan the Spring jars for the types making isPresent() checks in their static initializers, do
+	 * this only once! This is a pass of its own rather than part of {@link #scan()}: it only reads
+	 * the Spring jars, and builds that never ask for these checks do not pay for it.
+	 */
+	private void scanIsPresentChecks() {
+		if (typesMakingIsPresentChecksInStaticInitializers != null) {
+			return;
+		}
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.scanIsPresentChecks")) {
+			List<ClasspathIndex.Root> roots = classpathIndex.getRoots().stream()
+					.filter(IsPresentCheckCollector::appliesTo).collect(Collectors.toList());
+			Map<ClasspathIndex.Root, ArchiveAnalysis> collected = new HashMap<>();
+			IsPresentCheckCollector collector = new IsPresentCheckCollector(collected);
+			Map<String, List<String>> isPresentChecks = new HashMap<>();
+			for (ArchiveAnalysis analysis : analyze(roots, AnalysisCache.get(aotOptions), true, collected, collector)) {
+				isPresentChecks.putAll(analysis.getIsPresentChecks());
 			}
-		} catch (IOException ioe) {
-			throw new IllegalStateException(ioe);
+			logger.debug(collector.prefilter);
+			typesMakingIsPresentChecksInStaticInitializers = isPresentChecks.isEmpty() ? Collections.emptyMap() : isPresentChecks;
 		}
 	}
 
-	private void scanFiles(File file, File base) {
-		if (file.isDirectory()) {
-			File[] files = file.listFiles();
-			for (File f : files) {
-				scanFiles(f, base);
+	/**
+	 * Analyze classpath roots with a visitor, reusing and storing the analyses of the cache if there is one.
+	 * @param roots the roots to analyze, in classpath order
+	 * @param cache the analysis cache, or null
+	 * @param isPresentChecks whether the visitor collects isPresent() checks rather than class information
+	 * @param analyses the analyses the visitor fills in, by root
+	 * @param visitor the visitor analyzing the roots that are not cached
+	 * @return the analysis of each root, in the same order
+	 */
+	private List<ArchiveAnalysis> analyze(List<ClasspathIndex.Root> roots, AnalysisCache cache, boolean isPresentChecks,
+			Map<ClasspathIndex.Root, ArchiveAnalysis> analyses, ClasspathScanner.EntryVisitor<?> visitor) {
+		List<ArchiveAnalysis> cached = ParallelScanner.map(roots, getScanParallelism(), root -> {
+			return (cache == null || !cache.isCacheable(root.getFile())) ? null : cache.load(root.getFile(), isPresentChecks);
+		});
+		List<ClasspathIndex.Root> uncachedRoots = new ArrayList<>();
+		for (int i = 0; i < roots.size(); i++) {
+			if (cached.get(i) != null) {
+				analyses.put(roots.get(i), cached.get(i));
+			} else {
+				uncachedRoots.add(roots.get(i));
 			}
-		} else if (file.getName().endsWith(".class")) {
-			try {
-				byte[] bytes = Files.readAllBytes(Paths.get(file.toURI()));
-				ClassReader reader = new ClassReader(bytes);
-				ClassNode node = new ClassNode();
-				reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
-				AnnotationInfo ai = new AnnotationInfo(this, node);
-				if (ai.hasData()) {
-					logger.debug("From " + file.getName() + " got " + ai.toAnnotationString());
-					annotatedTypes.put(node.name, ai);
-				}
-			} catch (IOException ioe) {
-				throw new IllegalStateException(ioe);
+		}
+		new ClasspathScanner(classpathIndex, getScanParallelism())
+				.register(visitor)
+				.scan(uncachedRoots);
+		List<ArchiveAnalysis> result = new ArrayList<>(roots.size());
+		for (int i = 0; i < roots.size(); i++) {
+			ClasspathIndex.Root root = roots.get(i);
+			ArchiveAnalysis analysis = analyses.computeIfAbsent(root, r -> new ArchiveAnalysis());
+			if (cache != null && cache.isCacheable(root.getFile()) && cached.get(i) == null) {
+				cache.store(root.getFile(), isPresentChecks, analysis);
 			}
+			result.add(analysis);
 		}
-//		else // resource?
+		return result;
 	}
 
-	public static class AnnotationInfo {
-
-		private String name;
-		private TypeSystem typeSystem;
-		private List<AnnotationNode> annotations;
+	/**
+	 * Scan the classpath resources for the native-image configuration files and application properties
+	 * files, do this only once! All of them are found by a single pass over the classpath index.
+	 */
+	private synchronized void scanResources() {
+		if (applicationPropertiesResources != null) {
+			return;
+		}
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.scanResources")) {
+			scanResourceFiles();
+		}
+	}
+
+	private void scanResourceFiles() {
+		Map<String, ResourcesDescriptor> resourceConfigs = new HashMap<>();
+		Map<String, ReflectionDescriptor> reflectConfigs = new HashMap<>();
+		Map<String, byte[]> applicationProperties = new LinkedHashMap<>();
+		new ClasspathScanner(classpathIndex, getScanParallelism())
+				.register(new ResourceCollector<>(filepath -> {
+					return filepath.contains("META-INF/native-image") && filepath.endsWith("resource-config.json");
+				}, ResourcesJsonMarshaller::read, resourceConfigs))
+				.register(new ResourceCollector<>(filepath -> {
+					return filepath.contains("META-INF/native-image") && filepath.endsWith("reflect-config.json");
+				}, JsonMarshaller::read, reflectConfigs))
+				.register(new ResourceCollector<>(filepath -> {
+					return filepath.contains("application") && filepath.endsWith(".properties");
+				}, this::readInputStream, applicationProperties))
+				.scan();
+		resourceConfigurations = resourceConfigs.isEmpty() ? Collections.emptyMap() : resourceConfigs;
+		reflectionConfigurations = reflectConfigs.isEmpty() ? Collections.emptyMap() : reflectConfigs;
+		applicationPropertiesResources = applicationProperties;
+	}
 
-		// if this is the annotationinfo for an annotation, this will cache meta
-		// annotations
-		private List<AnnotationNode> metaAnnotationsList = null;
+	private static class ClassInfoCollector implements ClasspathScanner.EntryVisitor<ClassInfo> {
 
-		// need file?
+		private final Map<ClasspathIndex.Root, ArchiveAnalysis> collector;
 
-		public AnnotationInfo(TypeSystem typeSystem, ClassNode node) {
-			this.typeSystem = typeSystem;
-			this.name = node.name;
-			annotations = node.visibleAnnotations;
-		}
-
-		public boolean hasData() {
-			return annotations != null && annotations.size() != 0;
-		}
-
-		public String toAnnotationString() {
-			StringBuilder sb = new StringBuilder();
-			if (annotations != null) {
-				for (AnnotationNode an : annotations) {
-					sb.append(an.desc);
-					sb.append("(");
-					List<Object> values = an.values;
-					if (values != null) {
-						for (int j = 0; j < values.size(); j += 2) {
-							sb.append(values.get(j));
-							sb.append("=");
-							sb.append(values.get(j + 1));
-						}
-					}
-					sb.append(")");
-				}
-			}
-			return sb.toString();
+		ClassInfoCollector(Map<ClasspathIndex.Root, ArchiveAnalysis> collector) {
+			this.collector = collector;
 		}
 
-		public boolean hasDescriptor(String annotationDescriptor) {
-			for (AnnotationNode an : annotations) {
-				if (an.desc.equals(annotationDescriptor)) {
-					return true;
-				}
-			}
-			return false;
+		@Override
+		public boolean accepts(String path) {
+			return path.endsWith(".class");
 		}
 
-		// TODO filter out java/lang/annotation annotations? Surely we don't need all of them
-		List<AnnotationNode> getMetaAnnotations() {
-			if (metaAnnotationsList == null) {
-				metaAnnotationsList = new ArrayList<>();
-				collectMetaAnnotations();
-				if (metaAnnotationsList.size() == 0) {
-					metaAnnotationsList = Collections.emptyList();
+		@Override
+		public ClassInfo visit(ClasspathIndex.Root root, String name, byte[] contents) {
+			ClassReader reader = new ClassReader(contents);
+			ClassNode node = new ClassNode();
+			reader.accept(node, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+			ClassInfo classInfo = new ClassInfo(node.name);
+			if (node.superName != null) {
+				classInfo.supertypes.add(node.superName);
+			}
+			classInfo.supertypes.addAll(node.interfaces);
+			if (node.visibleAnnotations != null) {
+				for (AnnotationNode an : node.visibleAnnotations) {
+					classInfo.annotationDescriptors.add(an.desc);
 				}
 			}
-			return metaAnnotationsList;
+			return classInfo;
 		}
 
-		public boolean hasDescriptorMeta(String annotationDescriptor) {
-			for (AnnotationNode an : annotations) {
-				if (an.desc.equals(annotationDescriptor)) {
-					return true;
-				}
+		@Override
+		public void collect(ClasspathIndex.Root root, String name, ClassInfo classInfo) {
+			ArchiveAnalysis analysis = collector.computeIfAbsent(root, r -> new ArchiveAnalysis());
+			if (!classInfo.annotationDescriptors.isEmpty()) {
+				logger.debug("From " + name + " got " + classInfo.annotationDescriptors);
+				analysis.getAnnotations().put(classInfo.name, classInfo.annotationDescriptors);
 			}
-			for (AnnotationNode an : getMetaAnnotations()) {
-				if (an.desc.equals(annotationDescriptor)) {
-					return true;
-				}
+			if (!classInfo.supertypes.isEmpty()) {
+				analysis.getSupertypes().put(classInfo.name, classInfo.supertypes);
 			}
-			return false;
 		}
+	}
 
-		private void collectMetaAnnotations() {
-			for (AnnotationNode an : annotations) {
-				// Go through our annotations and grab their meta annotations
-				AnnotationInfo ai = typeSystem.annotatedTypes.get(an.desc.substring(1, an.desc.length() - 1));
-				if (ai != null && ai.hasData()) {
-					metaAnnotationsList.addAll(ai.getAnnotations());
-					metaAnnotationsList.addAll(ai.getMetaAnnotations());
-				}
+	/**
+	 * The parts of a class header gathered by a {@link #scan()}.
+	 */
+	private static class ClassInfo {
+
+		private final String name;
+
+		private final List<String> supertypes = new ArrayList<>();
+
+		private final List<String> annotationDescriptors = new ArrayList<>();
+
+		ClassInfo(String name) {
+			this.name = name;
+		}
+	}
+
+	private static class IsPresentCheckCollector implements ClasspathScanner.EntryVisitor<List<String>> {
+
+		private final Map<ClasspathIndex.Root, ArchiveAnalysis> collector;
+
+		// Most classes never call isPresent(), skip visiting their method bodies
+		private final MethodReferenceFilter prefilter = new MethodReferenceFilter("org/springframework/util/ClassUtils", "isPresent");
+
+		IsPresentCheckCollector(Map<ClasspathIndex.Root, ArchiveAnalysis> collector) {
+			this.collector = collector;
+		}
+
+		static boolean appliesTo(ClasspathIndex.Root root) {
+			String classpathentry = root.getFile().toString();
+			return classpathentry.endsWith(".jar") && classpathentry.contains("spring") && !classpathentry.contains("test");
+		}
+
+		@Override
+		public boolean accepts(String path) {
+			return path.endsWith(".class");
+		}
+
+		@Override
+		public List<String> visit(ClasspathIndex.Root root, String name, byte[] contents) {
+			return prefilter.mayInvoke(contents) ? IsPresentDetectionVisitor.run(contents) : null;
+		}
+
+		@Override
+		public void collect(ClasspathIndex.Root root, String name, List<String> presenceCheckedTypes) {
+			collector.computeIfAbsent(root, r -> new ArchiveAnalysis()).getIsPresentChecks()
+					.put(name.substring(0, name.length() - 6).replace('/', '.'), presenceCheckedTypes);
+		}
+	}
+
+	/**
+	 * Collects resources matching a predicate, converting their contents to something of type T.
+	 * A resource that cannot be converted is reported and collected as null, so consumers of the
+	 * collected resources can warn about it.
+	 */
+	private static class ResourceCollector<T> implements ClasspathScanner.EntryVisitor<T> {
+
+		private final Predicate<String> matchPredicate;
+
+		private final Function<InputStream, T> converter;
+
+		private final Map<String, T> collector;
+
+		ResourceCollector(Predicate<String> matchPredicate, Function<InputStream, T> converter, Map<String, T> collector) {
+			this.matchPredicate = matchPredicate;
+			this.converter = converter;
+			this.collector = collector;
+		}
+
+		@Override
+		public boolean accepts(String path) {
+			return matchPredicate.test(path);
+		}
+
+		@Override
+		public T visit(ClasspathIndex.Root root, String name, byte[] contents) {
+			try {
+				return converter.apply(new ByteArrayInputStream(contents));
+			} catch (Exception e) {
+				System.err.println("Unexpected problem reading " + root.getLocation(name) + ": " + e);
+				return null;
 			}
 		}
 
-		private Collection<? extends AnnotationNode> getAnnotations() {
-			return annotations;
+		@Override
+		public boolean collectsNullResults() {
+			return true;
+		}
+
+		@Override
+		public void collect(ClasspathIndex.Root root, String name, T result) {
+			collector.put(root.getLocation(name), result);
 		}
 	}
-	
+
 	private void ensureSpringConfigurationDiscovered() {
 		if (hintLocator == null) {
 			hintLocator = new SpringConfiguration(this);
@@ -900,22 +1130,13 @@ public class TypeSystem {
 
 	private void ensureScanned() {
 		if (annotatedTypes == null) {
-			annotatedTypes = new HashMap<>();
-			long t = System.currentTimeMillis();
 			scan();
-			logger.debug("SBG: scan time: " + (System.currentTimeMillis() - t) + "ms");
 		}
 	}
 
 	public List<String> findTypesAnnotated(String annotationDescriptor, boolean metaAnnotated) {
 		ensureScanned();
-		if (metaAnnotated) {
-			return annotatedTypes.values().stream().filter(ai -> ai.hasDescriptorMeta(annotationDescriptor))
-					.map(ai -> ai.name).collect(Collectors.toList());
-		} else {
-			return annotatedTypes.values().stream().filter(ai -> ai.hasDescriptor(annotationDescriptor))
-					.map(ai -> ai.name).collect(Collectors.toList());
-		}
+		return annotatedTypes.findTypesAnnotated(annotationDescriptor, metaAnnotated);
 	}
 
 	public List<String> findTypesAnnotationAtConfiguration(boolean metaAnnotated) {
@@ -1028,76 +1249,31 @@ public class TypeSystem {
 	 * @return map from files to @link {@link ResourcesDescriptor}
 	 */
 	public Map<String, ResourcesDescriptor> getResourceConfigurationsOnClasspath() {
-		if (this.resourceConfigurations == null) {
-			Map<String,ResourcesDescriptor> configs = new HashMap<>();
-			for (String s: classpath) {
-				File f = new File(s);
-				if (f.isDirectory()) {
-					searchDir(f, filepath -> { 
-						return filepath.contains("META-INF/native-image") && filepath.endsWith("resource-config.json");
-					}, 
-					ResourcesJsonMarshaller::read,
-					configs);
-				} else if (f.isFile() && f.toString().endsWith(".jar")) {
-					searchJar(f, filepath -> { 
-						return filepath.contains("META-INF/native-image") && filepath.endsWith("resource-config.json");
-					}, 
-					ResourcesJsonMarshaller::read,
-					configs);
-				}
-			}
-			if (configs.isEmpty()) {
-				this.resourceConfigurations = Collections.emptyMap();
-			} else {
-				this.resourceConfigurations = configs;
-			}
-		}
+		scanResources();
 		return this.resourceConfigurations;
 	}
 	
 	public Map<String, Map<String, String>> scanForApplicationProperties() {
+		scanResources();
 		Map<String, Map<String,String>> collectedProperties = new HashMap<>();
-		for (String s: classpath) {
-			File f = new File(s);
-			if (f.isDirectory()) {
-				searchDir(f, filepath -> { 
-					return filepath.contains("application") && filepath.endsWith(".properties");
-				},
-				TypeSystem::loadApplicationProperties,
-				collectedProperties);
-			} else if (f.isFile() && f.toString().endsWith(".jar")) {
-				searchJar(f, filepath -> { 
-					return filepath.contains("application") && filepath.endsWith(".properties");
-				}, 
-				TypeSystem::loadApplicationProperties,
-				collectedProperties);
+		for (Map.Entry<String, byte[]> properties: applicationPropertiesResources.entrySet()) {
+			if (properties.getValue() == null) {
+				continue;
 			}
-		}	
+			collectedProperties.put(properties.getKey(), loadApplicationProperties(new ByteArrayInputStream(properties.getValue())));
+		}
 		return collectedProperties;
 	}
 	
 	public List<String> getExcludedAutoConfigurations() {
 		if (this.excludedAutoConfigurations == null) {
+			scanResources();
 			excludedAutoConfigurations = new ArrayList<>();
-			Map<String, List<String>> collectedExclusions = new HashMap<>();
-			for (String s: classpath) {
-				File f = new File(s);
-				if (f.isDirectory()) {
-					searchDir(f, filepath -> { 
-						return  filepath.contains("application") && filepath.endsWith(".properties");
-					},
-					TypeSystem::findExcludedAutoconfigurationsInPropertiesFile,
-					collectedExclusions);
-				} else if (f.isFile() && f.toString().endsWith(".jar")) {
-					searchJar(f, filepath -> { 
-						return filepath.contains("application") && filepath.endsWith(".properties");
-					}, 
-					TypeSystem::findExcludedAutoconfigurationsInPropertiesFile,
-					collectedExclusions);
+			for (byte[] properties: applicationPropertiesResources.values()) {
+				if (properties == null) {
+					continue;
 				}
-			}
-			for (Map.Entry<String,List<String>> entry: collectedExclusions.entrySet()) {
-				excludedAutoConfigurations.addAll(entry.getValue());
+				excludedAutoConfigurations.addAll(findExcludedAutoconfigurationsInPropertiesFile(new ByteArrayInputStream(properties)));
 			}
 			logger.debug("INFO: these spring auto configuration exclusions have been detected: "+excludedAutoConfigurations);
 		}
@@ -1135,30 +1311,7 @@ public class TypeSystem {
 	
 
 	public Map<String, ReflectionDescriptor> getReflectionConfigurationsOnClasspath() {
-		if (this.reflectionConfigurations == null) {
-			Map<String,ReflectionDescriptor> configs = new HashMap<>();
-			for (String s: classpath) {
-				File f = new File(s);
-				if (f.isDirectory()) {
-					searchDir(f, filepath -> { 
-						return filepath.contains("META-INF/native-image") && filepath.endsWith("reflect-config.json");
-					},
-					JsonMarshaller::read,
-					configs);
-				} else if (f.isFile() && f.toString().endsWith(".jar")) {
-					searchJar(f, filepath -> { 
-						return filepath.contains("META-INF/native-image") && filepath.endsWith("reflect-config.json");
-					}, 
-					JsonMarshaller::read,
-					configs);
-				}
-			}
-			if (configs.isEmpty()) {
-				this.reflectionConfigurations = Collections.emptyMap();
-			} else {
-				this.reflectionConfigurations = configs;
-			}
-		}
+		scanResources();
 		return this.reflectionConfigurations;
 	}
 	
@@ -1175,6 +1328,23 @@ public class TypeSystem {
 	 */
 	private <T> void searchDir(File dir, Predicate<String> matchPredicate, Function<InputStream, T> converter,
 			Map<String, T> collector) {
+		ClasspathIndex.Root indexed = classpathIndex.getRoot(dir);
+		if (indexed != null) {
+			for (String name: indexed.getEntryNames()) {
+				String filepath = indexed.getLocation(name);
+				if (matchPredicate.test(filepath)) {
+					T t;
+					try {
+						t = converter.apply(new ByteArrayInputStream(indexed.read(name)));
+					} catch (Exception e) {
+						System.err.println("Unexpected problem reading " + filepath + ": " + e);
+						t = null;
+					}
+					collector.put(filepath, t);
+				}
+			}
+			return;
+		}
 		Path root = Paths.get(dir.toURI());
 		try {
 			List<Tuple<String, T>> found =
@@ -1207,6 +1377,19 @@ public class TypeSystem {
 	 * @param collector the place to store mappings from matched jar file paths to T objects
 	 */
 	private <T> void searchJar(File jar, Predicate<String> matchPredicate, Function<InputStream, T> converter, Map<String, T> collector) {
+		ClasspathIndex.Root indexed = classpathIndex.getRoot(jar);
+		if (indexed != null) {
+			for (String name: indexed.getEntryNames()) {
+				if (matchPredicate.test(name)) {
+					try {
+						collector.put(indexed.getLocation(name), converter.apply(new ByteArrayInputStream(indexed.read(name))));
+					} catch (IOException ioe) {
+						throw new RuntimeException("Problem during scan of " + jar, ioe);
+					}
+				}
+			}
+			return;
+		}
 		try {
 			try (ZipFile zf = new ZipFile(jar)) {
 				Enumeration<? extends ZipEntry> entries = zf.entries();
@@ -1289,37 +1472,7 @@ public class TypeSystem {
 	}
 
 	public synchronized Map<String,List<String>> getSpringClassesMakingIsPresentChecks() {
-		if (typesMakingIsPresentChecksInStaticInitializers == null) {
-			for (String classpathentry : classpath) {
-				if (classpathentry.endsWith(".jar") && classpathentry.contains("spring") && !classpathentry.contains("test")) {
-					try {
-						try (ZipFile zf = new ZipFile(classpathentry)) {
-							Enumeration<? extends ZipEntry> entries = zf.entries();
-							while (entries.hasMoreElements()) {
-								ZipEntry entry = entries.nextElement();
-								String name = entry.getName();
-								if (name.endsWith(".class")) {
-									List<String> presenceCheckedTypes = IsPresentDetectionVisitor.run(zf.getInputStream(entry));
-									if (presenceCheckedTypes != null) {
-										if (typesMakingIsPresentChecksInStaticInitializers == null) {
-											typesMakingIsPresentChecksInStaticInitializers = new HashMap<>();
-										}
-										typesMakingIsPresentChecksInStaticInitializers.put(name.substring(0,name.length()-6).replace('/', '.'),presenceCheckedTypes);
-									}
-								}
-							}
-						}
-					} catch (FileNotFoundException fnfe) {
-						System.err.println("WARNING: Unable to find jar '" + classpathentry + "' whilst scanning filesystem for isPresent() checking Spring classes");
-					} catch (IOException ioe) {
-						throw new RuntimeException("Problem during isPresent() checking scan of " + classpathentry, ioe);
-					}
-				}
-			}
-			if (typesMakingIsPresentChecksInStaticInitializers == null) {
-				typesMakingIsPresentChecksInStaticInitializers = Collections.emptyMap();
-			}
-		}
+		scanIsPresentChecks();
 		return typesMakingIsPresentChecksInStaticInitializers;
 	}
 
@@ -1476,6 +1629,50 @@ public class TypeSystem {
 			}).filter(Objects::nonNull).collect(Collectors.toList());
 	}
 
+	/**
+	 * Find the classes and interfaces extending or implementing a type, using the reverse hierarchy
+	 * built during the classpath {@link #scan()} rather than resolving every class on the classpath.
+	 * 
+	 * @param type the class or interface whose subtypes are wanted
+	 * @param transitive if false only direct subtypes are returned, otherwise subtypes of subtypes too
+	 * @return the subtypes found on the classpath, excluding the type itself
+	 */
+	public List<Type> findSubtypes(Type type, boolean transitive) {
+		scan();
+		Set<String> names = new LinkedHashSet<>();
+		Deque<String> toVisit = new ArrayDeque<>();
+		toVisit.add(type.getName());
+		while (!toVisit.isEmpty()) {
+			for (String subtype : directSubtypes.getOrDefault(toVisit.poll(), Collections.emptyList())) {
+				if (names.add(subtype) && transitive) {
+					toVisit.add(subtype);
+				}
+			}
+		}
+		names.remove(type.getName());
+		List<Type> subtypes = new ArrayList<>(names.size());
+		for (String name : names) {
+			Type subtype = resolveSlashed(name, true);
+			if (subtype != null) {
+				subtypes.add(subtype);
+			}
+		}
+		return subtypes;
+	}
+
+	/**
+	 * @param type a type on the classpath
+	 * @return true if the type is defined in an application directory or target jar
+	 */
+	boolean isApplicationType(Type type) {
+		scan();
+		return applicationTypes.contains(type.getName());
+	}
+
+	MethodReferenceFilter getGetBeanPrefilter() {
+		return getBeanPrefilter;
+	}
+
 	// TODO memory management when exploding typecache with scans done here
 	/**
 	 * Scan all classes considered to be 'bits of the application' (so everything apart
@@ -1582,25 +1779,26 @@ public class TypeSystem {
 	public <T> T getJson(String string,Function<InputStream,T> reader) {
 		long t = System.currentTimeMillis();
 		Map<String,T> configs = new HashMap<>();
-		for (String s: classpath) {
-			File f = new File(s);
-			if (f.isDirectory()) {
-				searchDir(f, filepath -> { 
-					return filepath.equals(string);
-				}, 
-						reader,
-//				ResourcesJsonMarshaller::read,
-				configs);
-			} else if (f.isFile() && f.toString().endsWith(".jar")) {
-				searchJar(f, filepath -> { 
-					return filepath.equals(string);
-				}, 
-				reader,
-//				ResourcesJsonMarshaller::read,
-				configs);
-			}
-		}
-		logger.debug("Took: "+(System.currentTimeMillis()-t)+"ms");
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.getJson")) {
+			for (String s: classpath) {
+				File f = new File(s);
+				if (f.isDirectory()) {
+					searchDir(f, filepath -> { 
+						return filepath.equals(string);
+					}, 
+							reader,
+//					ResourcesJsonMarshaller::read,
+					configs);
+				} else if (f.isFile() && f.toString().endsWith(".jar")) {
+					searchJar(f, filepath -> { 
+						return filepath.equals(string);
+					}, 
+					reader,
+//					ResourcesJsonMarshaller::read,
+					configs);
+				}
+			}
+		}
 		return configs.values().iterator().next();
 	}
 	
@@ -1623,23 +1821,25 @@ public class TypeSystem {
 		long t = System.currentTimeMillis();
 		Map<String, byte[]> resources = new HashMap<>();
 		String filePathPrefix = prefix.replace(".", "/");
-		for (String s: classpath) {
-			File f = new File(s);
-			if (f.isDirectory()) {
-				searchDir(f, filepath -> { 
-					return filepath.startsWith(filePathPrefix) && filepath.endsWith(".properties");
-				}, 
-				this::readInputStream, // InputStream to a byte array?
-				resources);
-			} else if (f.isFile() && f.toString().endsWith(".jar")) {
-				searchJar(f, filepath -> { 
-					return filepath.startsWith(filePathPrefix) && filepath.endsWith(".properties");
-				}, 
-				this::readInputStream,
-				resources);
-			}
-		}
-		logger.debug("Took: "+(System.currentTimeMillis()-t)+"ms "+resources.size()+" resource bundles (name: "+prefix+")");
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.getBundles")) {
+			for (String s: classpath) {
+				File f = new File(s);
+				if (f.isDirectory()) {
+					searchDir(f, filepath -> { 
+						return filepath.startsWith(filePathPrefix) && filepath.endsWith(".properties");
+					}, 
+					this::readInputStream, // InputStream to a byte array?
+					resources);
+				} else if (f.isFile() && f.toString().endsWith(".jar")) {
+					searchJar(f, filepath -> { 
+						return filepath.startsWith(filePathPrefix) && filepath.endsWith(".properties");
+					}, 
+					this::readInputStream,
+					resources);
+				}
+			}
+		}
+		logger.debug("Found "+resources.size()+" resource bundles (name: "+prefix+")");
 		return resources.keySet();
 	}
 
@@ -1647,25 +1847,27 @@ public class TypeSystem {
 		long t = System.currentTimeMillis();
 		Map<String, byte[]> resources = new HashMap<>();
 		boolean specific = resource.startsWith("/");
-		for (String s: classpath) {
-			File f = new File(s);
-			if (f.isDirectory()) {
-				searchDir(f, filepath -> { 
-					return specific?filepath.equals(resource):filepath.endsWith(resource);
-				}, 
-				this::readInputStream, // InputStream to a byte array?
-//				ResourcesJsonMarshaller::read,
-				resources);
-			} else if (f.isFile() && f.toString().endsWith(".jar")) {
-				searchJar(f, filepath -> { 
-					return specific?filepath.equals(resource):filepath.endsWith(resource);
-				}, 
-				this::readInputStream,
-//				ResourcesJsonMarshaller::read,
-				resources);
-			}
-		}
-		logger.debug("Took: "+(System.currentTimeMillis()-t)+"ms to find "+resource+" returning "+resources.values().size()+" entries: "+resources.keySet());
+		try (AotProfiler.Phase phase = AotProfiler.phase("TypeSystem.getResources")) {
+			for (String s: classpath) {
+				File f = new File(s);
+				if (f.isDirectory()) {
+					searchDir(f, filepath -> { 
+						return specific?filepath.equals(resource):filepath.endsWith(resource);
+					}, 
+					this::readInputStream, // InputStream to a byte array?
+//					ResourcesJsonMarshaller::read,
+					resources);
+				} else if (f.isFile() && f.toString().endsWith(".jar")) {
+					searchJar(f, filepath -> { 
+						return specific?filepath.equals(resource):filepath.endsWith(resource);
+					}, 
+					this::readInputStream,
+//					ResourcesJsonMarshaller::read,
+					resources);
+				}
+			}
+		}
+		logger.debug("Found "+resources.values().size()+" entries for "+resource+": "+resources.keySet());
 		return resources.values();
 	}
 
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.nativex.hint.ProxyBits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+/**
+ * Tests for {@link BuildTimeAopProxy} calling through proxies generated by {@link ProxyGenerator}.
+ * Each test proxies its own target class as generated proxies are cached by configuration.
+ */
+class BuildTimeAopProxyTests {
+
+	@Test
+	void adviceIsAppliedThroughCachedChain() {
+		ProxyFactory factory = proxyFactory(new FrozenTarget(), "advised");
+		factory.setFrozen(true);
+		FrozenTarget proxy = (FrozenTarget) createProxy(factory);
+		assertThat(((_AdvisedSupportAware) proxy)._getAdvised()).isSameAs(factory);
+		assertThat(proxy.advised("world")).isEqualTo("[Hello world]");
+		assertThat(proxy.advised("again")).isEqualTo("[Hello again]");
+	}
+
+	@Test
+	void methodWithoutAdviceCallsTargetDirectly() {
+		ProxyFactory factory = new ProxyFactory(new CallerRecordingTarget());
+		factory.setProxyTargetClass(true);
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(
+				(MethodInterceptor) MethodInvocation::proceed);
+		advisor.setMappedName("advisedCallers");
+		factory.addAdvisor(advisor);
+		factory.setFrozen(true);
+		CallerRecordingTarget proxy = (CallerRecordingTarget) createProxy(factory);
+		assertThat(proxy.unadvisedCallers()).noneMatch(this::isReflectiveInvocation);
+		assertThat(proxy.advisedCallers()).anyMatch(this::isReflectiveInvocation);
+	}
+
+	private boolean isReflectiveInvocation(String className) {
+		return className.endsWith("MethodInvocation") || className.startsWith("java.lang.reflect.");
+	}
+
+	@Test
+	void checkedExceptionsAreRethrownWhenDeclared() {
+		ProxyFactory factory = proxyFactory(new ThrowingTarget(), "failAdvised");
+		factory.setFrozen(true);
+		ThrowingTarget proxy = (ThrowingTarget) createProxy(factory);
+		assertThatIOException().isThrownBy(proxy::failAdvised).withMessage("advised");
+		assertThatIOException().isThrownBy(proxy::failUnadvised).withMessage("unadvised");
+	}
+
+	@Test
+	void uncheckedExceptionsAreRethrownAsIs() {
+		ProxyFactory factory = proxyFactory(new UncheckedThrowingTarget(), "failAdvised");
+		factory.setFrozen(true);
+		UncheckedThrowingTarget proxy = (UncheckedThrowingTarget) createProxy(factory);
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(proxy::failAdvised).withMessage("advised");
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(proxy::failUnadvised).withMessage("unadvised");
+	}
+
+	@Test
+	void undeclaredCheckedExceptionsAreWrapped() {
+		ProxyFactory factory = new ProxyFactory(new UndeclaredTarget());
+		factory.setProxyTargetClass(true);
+		factory.addAdvice((MethodInterceptor) invocation -> {
+			throw new IOException("from advice");
+		});
+		factory.setFrozen(true);
+		UndeclaredTarget proxy = (UndeclaredTarget) createProxy(factory);
+		assertThatExceptionOfType(UndeclaredThrowableException.class).isThrownBy(proxy::succeed)
+				.withCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	void nonPublicTargetClassIsProxied() {
+		ProxyFactory factory = proxyFactory(new PackagePrivateTarget(), "advised");
+		factory.setFrozen(true);
+		PackagePrivateTarget proxy = (PackagePrivateTarget) createProxy(factory);
+		assertThat(proxy.advised("world")).isEqualTo("[Hello world]");
+		assertThat(proxy.unadvised("world")).isEqualTo("Hello world");
+	}
+
+	@Test
+	void adviceAddedAfterProxyCreationIsAppliedWhenNotFrozen() {
+		ProxyFactory factory = proxyFactory(new MutableTarget(), "advised");
+		MutableTarget proxy = (MutableTarget) createProxy(factory);
+		assertThat(proxy.unadvised("world")).isEqualTo("Hello world");
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(new BracketingInterceptor());
+		advisor.setMappedName("unadvised");
+		factory.addAdvisor(advisor);
+		assertThat(proxy.unadvised("world")).isEqualTo("[Hello world]");
+		assertThat(proxy.advised("world")).isEqualTo("[Hello world]");
+	}
+
+	@Test
+	void frozenProxyOfSerializableTargetIsSerializable() throws Exception {
+		ProxyFactory factory = proxyFactory(new SerializableTarget(), "advised");
+		factory.setFrozen(true);
+		SerializableTarget proxy = (SerializableTarget) createProxy(factory);
+		assertThat(proxy.advised("world")).isEqualTo("[Hello world]");
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(proxy);
+		}
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			SerializableTarget copy = (SerializableTarget) input.readObject();
+			assertThat(copy.advised("again")).isEqualTo("[Hello again]");
+			assertThat(copy.unadvised("again")).isEqualTo("Hello again");
+		}
+	}
+
+	private static ProxyFactory proxyFactory(Object target, String advisedMethod) {
+		ProxyFactory factory = new ProxyFactory(target);
+		factory.setProxyTargetClass(true);
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(new BracketingInterceptor());
+		advisor.setMappedName(advisedMethod);
+		factory.addAdvisor(advisor);
+		return factory;
+	}
+
+	private static Object createProxy(ProxyFactory factory) {
+		ClassLoader classLoader = BuildTimeAopProxyTests.class.getClassLoader();
+		int bits = ProxyBits.IS_STATIC | (factory.isFrozen() ? ProxyBits.IS_FROZEN : ProxyBits.NONE);
+		BuildTimeProxyDescriptor descriptor = new BuildTimeProxyDescriptor(factory.getTargetClass().getName(),
+				Collections.emptyList(), bits);
+		// Injected rather than wrapped so that the proxy shares the runtime package of its target
+		ProxyGenerator.getProxyBytes(descriptor, classLoader).load(classLoader, ClassLoadingStrategy.Default.INJECTION);
+		Object proxy = new BuildTimeAopProxy(factory).getProxy(classLoader);
+		assertThat(proxy.getClass().getName()).isEqualTo(ProxyConfiguration.get(factory, classLoader).getProxyClassName());
+		return proxy;
+	}
+
+	@SuppressWarnings("serial")
+	static class BracketingInterceptor implements MethodInterceptor, Serializable {
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			return "[" + invocation.proceed() + "]";
+		}
+
+	}
+
+	public static class FrozenTarget {
+
+		public String advised(String name) {
+			return "Hello " + name;
+		}
+
+		public String unadvised(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+	public static class CallerRecordingTarget {
+
+		public List<String> advisedCallers() {
+			return callers();
+		}
+
+		public List<String> unadvisedCallers() {
+			return callers();
+		}
+
+		private List<String> callers() {
+			List<String> callers = new ArrayList<>();
+			for (StackTraceElement element : new Throwable().getStackTrace()) {
+				callers.add(element.getClassName());
+			}
+			return callers;
+		}
+
+	}
+
+	@SuppressWarnings("serial")
+	public static class SerializableTarget implements Serializable {
+
+		public String advised(String name) {
+			return "Hello " + name;
+		}
+
+		public String unadvised(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+	public static class MutableTarget {
+
+		public String advised(String name) {
+			return "Hello " + name;
+		}
+
+		public String unadvised(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+	public static class ThrowingTarget {
+
+		public void failAdvised() throws IOException {
+			throw new IOException("advised");
+		}
+
+		public void failUnadvised() throws IOException {
+			throw new IOException("unadvised");
+		}
+
+	}
+
+	public static class UncheckedThrowingTarget {
+
+		public void failAdvised() {
+			throw new IllegalStateException("advised");
+		}
+
+		public void failUnadvised() {
+			throw new IllegalStateException("unadvised");
+		}
+
+	}
+
+	public static class UndeclaredTarget {
+
+		public void succeed() {
+		}
+
+	}
+
+	static class PackagePrivateTarget {
+
+		String advised(String name) {
+			return "Hello " + name;
+		}
+
+		String unadvised(String name) {
+			return "Hello " + name;
+		}
+
+	}
+
+}
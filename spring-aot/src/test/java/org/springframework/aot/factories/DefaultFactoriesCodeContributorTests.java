@@ -61,7 +61,9 @@ class DefaultFactoriesCodeContributorTests {
 		this.contributor.contribute(factory, code, Mockito.mock(BuildContext.class));
 		assertThat(code.generateStaticSpringFactories().toString())
 				.contains("factories.add(org.springframework.aot.factories.fixtures.TestFactory.class, " +
-						"() -> new org.springframework.aot.factories.fixtures.PublicFactory());\n");
+						"() -> new org.springframework.aot.factories.fixtures.PublicFactory());\n")
+				.contains("factoryNames.add(org.springframework.aot.factories.fixtures.TestFactory.class, " +
+						"\"org.springframework.aot.factories.fixtures.PublicFactory\");\n");
 	}
 
 	@Test
@@ -71,7 +73,9 @@ class DefaultFactoriesCodeContributorTests {
 		this.contributor.contribute(factory, code, Mockito.mock(BuildContext.class));
 		assertThat(code.generateStaticSpringFactories().toString())
 				.contains("factories.add(org.springframework.aot.factories.fixtures.TestFactory.class, " +
-						"() -> new org.springframework.aot.factories.fixtures.PublicFactory.InnerFactory());\n");
+						"() -> new org.springframework.aot.factories.fixtures.PublicFactory.InnerFactory());\n")
+				.contains("factoryNames.add(org.springframework.aot.factories.fixtures.TestFactory.class, " +
+						"\"org.springframework.aot.factories.fixtures.PublicFactory$InnerFactory\");\n");
 	}
 
 }
\ No newline at end of file
@@ -62,7 +62,8 @@ class PrivateFactoriesCodeContributorTests {
 				"org.springframework.aot.factories.fixtures.ProtectedFactory.InnerProtectedFactory", typeSystem);
 		this.contributor.contribute(factory, code, Mockito.mock(BuildContext.class));
 		assertThat(code.generateStaticSpringFactories().toString())
-				.contains("factories.add(TestFactory.class, () -> _FactoryProvider.protectedFactory());\n");
+				.contains("factories.add(TestFactory.class, () -> _FactoryProvider.protectedFactory());\n")
+				.contains("factoryNames.add(TestFactory.class, \"org.springframework.aot.factories.fixtures.ProtectedFactory\");\n");
 		assertThat(code.generateStaticFactoryClasses()).hasSize(1);
 		assertThat(code.generateStaticFactoryClasses().get(0).toString())
 				.isEqualTo("package org.springframework.aot.factories.fixtures;\n" +
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.factories;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.aot.TypeSystemExtension;
+import org.springframework.aot.factories.fixtures.AnnotatedOrderFactory;
+import org.springframework.aot.factories.fixtures.OrderedFactory;
+import org.springframework.aot.factories.fixtures.PublicFactory;
+import org.springframework.aot.factories.fixtures.TestFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.type.classreading.TypeSystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ordering {@link SpringFactory spring factories} at build time.
+ */
+@ExtendWith(TypeSystemExtension.class)
+class SpringFactoryOrderTests {
+
+	@Test
+	void unorderedFactoryHasLowestPrecedence(TypeSystem typeSystem) {
+		assertThat(resolve(PublicFactory.class, typeSystem).getStaticOrder()).isEqualTo(Ordered.LOWEST_PRECEDENCE);
+	}
+
+	@Test
+	void orderAnnotationIsUsed(TypeSystem typeSystem) {
+		assertThat(resolve(AnnotatedOrderFactory.class, typeSystem).getStaticOrder()).isEqualTo(10);
+	}
+
+	@Test
+	void orderAnnotationIsInherited(TypeSystem typeSystem) {
+		assertThat(resolve(AnnotatedOrderFactory.InheritedOrderFactory.class, typeSystem).getStaticOrder()).isEqualTo(10);
+	}
+
+	@Test
+	void orderedFactoryIsOrderedAtRuntime(TypeSystem typeSystem) {
+		assertThat(resolve(OrderedFactory.class, typeSystem).getStaticOrder()).isNull();
+	}
+
+	@Test
+	void factoriesAreSortedByOrder(TypeSystem typeSystem) {
+		Set<SpringFactory> factories = new LinkedHashSet<>();
+		factories.add(resolve(PublicFactory.class, typeSystem));
+		factories.add(resolve(AnnotatedOrderFactory.class, typeSystem));
+		Set<String> dynamicallyOrdered = new LinkedHashSet<>();
+		Set<SpringFactory> sorted = new SpringFactoriesContributor().sortByOrder(factories, dynamicallyOrdered);
+		assertThat(sorted).extracting(factory -> factory.getFactory().getClassName())
+				.containsExactly(AnnotatedOrderFactory.class.getName(), PublicFactory.class.getName());
+		assertThat(dynamicallyOrdered).isEmpty();
+	}
+
+	@Test
+	void factoriesImplementingOrderedAreLeftForRuntime(TypeSystem typeSystem) {
+		Set<SpringFactory> factories = new LinkedHashSet<>();
+		factories.add(resolve(PublicFactory.class, typeSystem));
+		factories.add(resolve(OrderedFactory.class, typeSystem));
+		factories.add(resolve(AnnotatedOrderFactory.class, typeSystem));
+		Set<String> dynamicallyOrdered = new LinkedHashSet<>();
+		Set<SpringFactory> sorted = new SpringFactoriesContributor().sortByOrder(factories, dynamicallyOrdered);
+		assertThat(sorted).containsExactlyElementsOf(factories);
+		assertThat(dynamicallyOrdered).containsExactly(TestFactory.class.getName());
+	}
+
+	private static SpringFactory resolve(Class<?> factory, TypeSystem typeSystem) {
+		return SpringFactory.resolve(TestFactory.class.getName(), factory.getName(), typeSystem);
+	}
+
+}
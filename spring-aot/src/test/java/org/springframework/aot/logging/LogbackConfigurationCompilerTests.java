@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.logging;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link LogbackConfigurationCompiler}
+ */
+class LogbackConfigurationCompilerTests {
+
+	@TempDir
+	Path resources;
+
+	@Test
+	void propertiesAndLoggersAreCompiledInDeclarationOrder() throws Exception {
+		String code = compile("<configuration>\n"
+				+ "  <property name=\"LOG_LEVEL\" value=\"${LOG_LEVEL:-INFO}\"/>\n"
+				+ "  <contextName>app</contextName>\n"
+				+ "  <logger name=\"org.springframework\" level=\"${LOG_LEVEL}\" additivity=\"false\"/>\n"
+				+ "  <root level=\"WARN\"/>\n"
+				+ "</configuration>");
+		assertThat(code).containsSubsequence(
+				"context.putProperty(\"LOG_LEVEL\", ch.qos.logback.core.util.OptionHelper.substVars(\"${LOG_LEVEL:-INFO}\", context));",
+				"context.setName(\"app\");",
+				"ch.qos.logback.classic.Logger logger0 = context.getLogger(\"org.springframework\");",
+				"logger0.setLevel(level(ch.qos.logback.core.util.OptionHelper.substVars(\"${LOG_LEVEL}\", context)));",
+				"logger0.setAdditive(ch.qos.logback.core.util.OptionHelper.toBoolean(\"false\", true));",
+				"ch.qos.logback.classic.Logger root1 = context.getLogger(ch.qos.logback.classic.Logger.ROOT_LOGGER_NAME);",
+				"root1.setLevel(ch.qos.logback.classic.Level.toLevel(\"WARN\"));");
+	}
+
+	@Test
+	void includedResourcesAreInlined() throws Exception {
+		Files.write(resources.resolve("defaults.xml"), ("<included>\n"
+				+ "  <conversionRule conversionWord=\"clr\" converterClass=\"com.example.ColorConverter\"/>\n"
+				+ "</included>").getBytes());
+		String code = compile("<configuration>\n"
+				+ "  <include resource=\"defaults.xml\"/>\n"
+				+ "  <include resource=\"missing.xml\" optional=\"true\"/>\n"
+				+ "  <root level=\"INFO\"/>\n"
+				+ "</configuration>");
+		assertThat(code).containsSubsequence("conversionRule(context, \"clr\", \"com.example.ColorConverter\");",
+				"root0.setLevel(");
+	}
+
+	@Test
+	void runtimeConditionsAreNotSupported() {
+		assertThatExceptionOfType(LogbackConfigurationCompiler.UnsupportedConfigurationException.class)
+				.isThrownBy(() -> compile("<configuration>\n"
+						+ "  <springProfile name=\"dev\"><root level=\"DEBUG\"/></springProfile>\n"
+						+ "</configuration>"))
+				.withMessageContaining("springProfile");
+	}
+
+	@Test
+	void referencesToUndeclaredAppendersAreNotSupported() {
+		assertThatExceptionOfType(LogbackConfigurationCompiler.UnsupportedConfigurationException.class)
+				.isThrownBy(() -> compile("<configuration>\n"
+						+ "  <root level=\"INFO\"><appender-ref ref=\"CONSOLE\"/></root>\n"
+						+ "</configuration>"))
+				.withMessageContaining("CONSOLE");
+	}
+
+	@Test
+	void compiledConfigurationConfiguresTheContextAsJoranDoes() throws Exception {
+		Path configuration = resources.resolve("logback.xml");
+		Files.write(configuration, ("<configuration>\n"
+				+ "  <property name=\"PATTERN\" value=\"%d %-5level %logger - %msg%n\"/>\n"
+				+ "  <appender name=\"CONSOLE\" class=\"ch.qos.logback.core.ConsoleAppender\">\n"
+				+ "    <encoder><pattern>${PATTERN}</pattern></encoder>\n"
+				+ "  </appender>\n"
+				+ "  <appender name=\"FILE\" class=\"ch.qos.logback.core.FileAppender\">\n"
+				+ "    <file>" + resources.resolve("application.log") + "</file>\n"
+				+ "    <encoder><pattern>%msg%n</pattern><charset>UTF-8</charset></encoder>\n"
+				+ "  </appender>\n"
+				+ "  <logger name=\"org.springframework\" level=\"DEBUG\" additivity=\"false\">\n"
+				+ "    <appender-ref ref=\"FILE\"/>\n"
+				+ "  </logger>\n"
+				+ "  <logger name=\"com.example\" level=\"TRACE\"/>\n"
+				+ "  <logger name=\"com.example.inherited\" level=\"INHERITED\"/>\n"
+				+ "  <root level=\"WARN\"><appender-ref ref=\"CONSOLE\"/></root>\n"
+				+ "</configuration>").getBytes());
+		URL url = configuration.toUri().toURL();
+		LoggerContext joran = new LoggerContext();
+		LoggerContext compiled = new LoggerContext();
+		try {
+			JoranConfigurator configurator = new JoranConfigurator();
+			configurator.setContext(joran);
+			configurator.doConfigure(url);
+			assertThat(configureWithCompiledConfiguration(compiled, url)).isTrue();
+			assertThat(describe(compiled)).isEqualTo(describe(joran)).contains(
+					"ROOT level=WARN additive=true appenders=[CONSOLE:ch.qos.logback.core.ConsoleAppender:started]",
+					"org.springframework level=DEBUG additive=false appenders=[FILE:ch.qos.logback.core.FileAppender:started]");
+		}
+		finally {
+			joran.stop();
+			compiled.stop();
+		}
+	}
+
+	// Generate the StaticLogbackConfiguration class for the resource, then compile and run it
+	private boolean configureWithCompiledConfiguration(LoggerContext context, URL resource) throws Exception {
+		StaticLogbackConfigurationGenerator generator = new StaticLogbackConfigurationGenerator();
+		generator.add("logback.xml", LogbackConfigurationCompiler.compile(resource, getClass().getClassLoader()));
+		Path sources = Files.createDirectories(resources.resolve("sources"));
+		Path classes = Files.createDirectories(resources.resolve("classes"));
+		generator.generate().writeTo(sources);
+		Path source = sources.resolve(StaticLogbackConfigurationGenerator.PACKAGE_NAME.replace('.', '/'))
+				.resolve(StaticLogbackConfigurationGenerator.CLASS_NAME + ".java");
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertThat(compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"),
+				"-d", classes.toString(), source.toString())).isZero();
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toUri().toURL() }, getClass().getClassLoader())) {
+			Class<?> type = classLoader.loadClass(StaticLogbackConfigurationGenerator.PACKAGE_NAME + "."
+					+ StaticLogbackConfigurationGenerator.CLASS_NAME);
+			Method configure = type.getMethod("configure", LoggerContext.class, String.class);
+			return (boolean) configure.invoke(null, context, resource.toString());
+		}
+	}
+
+	// The level, additivity and appenders of each logger of the context
+	private static List<String> describe(LoggerContext context) {
+		List<String> loggers = new ArrayList<>();
+		for (Logger logger : context.getLoggerList()) {
+			List<String> appenders = new ArrayList<>();
+			for (Iterator<Appender<ILoggingEvent>> iterator = logger.iteratorForAppenders(); iterator.hasNext();) {
+				Appender<ILoggingEvent> appender = iterator.next();
+				appenders.add(appender.getName() + ":" + appender.getClass().getName()
+						+ (appender.isStarted() ? ":started" : ":stopped"));
+			}
+			loggers.add(logger.getName() + " level=" + logger.getLevel() + " additive=" + logger.isAdditive()
+					+ " appenders=" + appenders);
+		}
+		return loggers;
+	}
+
+	private String compile(String xml) throws IOException, LogbackConfigurationCompiler.UnsupportedConfigurationException {
+		Path configuration = resources.resolve("logback.xml");
+		Files.write(configuration, xml.getBytes());
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { resources.toUri().toURL() }, null)) {
+			return LogbackConfigurationCompiler.compile(configuration.toUri().toURL(), classLoader).toString();
+		}
+	}
+
+}
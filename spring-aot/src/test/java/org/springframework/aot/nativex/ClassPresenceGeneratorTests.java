@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aot.nativex;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.nativex.type.TypeSystem;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ClassPresenceGenerator}.
+ */
+class ClassPresenceGeneratorTests {
+
+	@Test
+	void checksAreAnsweredFromTheClasspath() throws Exception {
+		File jar = new File(ClassUtils.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		try (TypeSystem typeSystem = new TypeSystem(Collections.singletonList(jar.toString()))) {
+			Map<String, Boolean> presence = ClassPresenceGenerator.of(typeSystem).getPresence();
+			assertThat(presence).containsEntry("reactor.core.publisher.Flux", false);
+			assertThat(presence.keySet()).isSorted();
+		}
+	}
+
+	@Test
+	void generatedClassOnlyRecordsMissingClasses() {
+		Map<String, Boolean> presence = new LinkedHashMap<>();
+		presence.put("com.example.Absent", false);
+		presence.put("java.lang.String", true);
+		String source = new ClassPresenceGenerator(presence).generate().toString();
+		assertThat(source).contains("package org.springframework.aot;");
+		assertThat(source).contains("public abstract class StaticClassPresence");
+		assertThat(source).contains("absent.add(\"com.example.Absent\");");
+		assertThat(source).doesNotContain("java.lang.String");
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TypeSystemMetrics}.
+ */
+class TypeSystemMetricsTests {
+
+	@Test
+	void nestedParseIsOnlyTimedOnce() throws Exception {
+		TypeSystemMetrics metrics = new TypeSystemMetrics();
+		long outer = metrics.startParse();
+		long inner = metrics.startParse();
+		Thread.sleep(50);
+		metrics.endParse(inner);
+		metrics.endParse(outer);
+		assertThat(inner).isEqualTo(-1);
+		assertThat(metrics.getParseTimeMillis()).isGreaterThanOrEqualTo(50).isLessThan(100);
+	}
+
+	@Test
+	void consecutiveParsesAreAllTimed() throws Exception {
+		TypeSystemMetrics metrics = new TypeSystemMetrics();
+		for (int i = 0; i < 2; i++) {
+			long start = metrics.startParse();
+			Thread.sleep(30);
+			metrics.endParse(start);
+		}
+		assertThat(metrics.getParseTimeMillis()).isGreaterThanOrEqualTo(60);
+	}
+
+}
@@ -92,4 +92,22 @@ class TypeSystemTests {
 						SampleClass.InnerClass.class.getName(), OtherClass.class.getName());
 	}
 
-}
\ No newline at end of file
+	@Test
+	void resolvedTypeIsCached() {
+		TypeDescriptor first = this.typeSystem.resolve(SampleClass.class.getName());
+		TypeDescriptor second = this.typeSystem.resolve(SampleClass.class.getName().replace('.', '/'));
+		assertThat(second).isSameAs(first);
+		assertThat(this.typeSystem.getMetrics().getMisses()).isEqualTo(1);
+		assertThat(this.typeSystem.getMetrics().getHits()).isEqualTo(1);
+	}
+
+	@Test
+	void scannedPackageIsCached() {
+		String packageName = SampleClass.class.getPackage().getName();
+		assertThat(this.typeSystem.scan(packageName)).hasSize(3);
+		assertThat(this.typeSystem.scan(packageName)).hasSize(3);
+		assertThat(this.typeSystem.getMetrics().getScanMisses()).isEqualTo(1);
+		assertThat(this.typeSystem.getMetrics().getScanHits()).isEqualTo(1);
+	}
+
+}
@@ -21,11 +21,19 @@ import org.springframework.nativex.domain.init.InitializationDescriptor;
 import org.springframework.nativex.domain.proxies.ProxiesDescriptor;
 import org.springframework.nativex.domain.proxies.JdkProxyDescriptor;
 import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.domain.reflect.FieldDescriptor;
+import org.springframework.nativex.domain.reflect.JsonMarshaller;
+import org.springframework.nativex.domain.reflect.MethodDescriptor;
 import org.springframework.nativex.domain.reflect.ReflectionDescriptor;
 import org.springframework.nativex.domain.resources.ResourcesDescriptor;
+import org.springframework.nativex.domain.serialization.SerializationDescriptor;
+import org.springframework.nativex.domain.serialization.SerializationDescriptorJsonMarshaller;
+import org.springframework.nativex.hint.Flag;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 
 public class DescriptorTests {
@@ -117,6 +125,64 @@ public class DescriptorTests {
 		assertThat(a.getClassDescriptors()).containsExactly(one, two);
 	}
 
+	@Test
+	public void reflectionDescriptorMergeExisting() {
+		ClassDescriptor one = ClassDescriptor.of("one");
+		one.addMethodDescriptor(method("foo", "java.lang.String"));
+		ReflectionDescriptor a = new ReflectionDescriptor();
+		a.add(one);
+		ClassDescriptor oneAgain = ClassDescriptor.of("one");
+		oneAgain.addMethodDescriptor(method("foo", "java.lang.String"));
+		oneAgain.addMethodDescriptor(method("bar"));
+		oneAgain.addFieldDescriptor(FieldDescriptor.of("baz", false, false));
+		ReflectionDescriptor b = new ReflectionDescriptor();
+		b.add(oneAgain);
+		b.add(ClassDescriptor.of("two"));
+		a.merge(b);
+		assertThat(a.getClassDescriptors()).hasSize(2);
+		assertThat(a.getClassDescriptor("one")).isSameAs(one);
+		assertThat(one.getMethods()).hasSize(2);
+		assertThat(one.getMethodDescriptor("bar")).isNotNull();
+		assertThat(a.hasClassDescriptor("two")).isTrue();
+	}
+
+	@Test
+	public void reflectionDescriptorLookupOfDescriptorRenamedBeforeBeingAdded() {
+		ClassDescriptor one = ClassDescriptor.of("one");
+		one.setName("renamed");
+		ReflectionDescriptor a = new ReflectionDescriptor();
+		a.add(one);
+		assertThat(a.hasClassDescriptor("one")).isFalse();
+		assertThat(a.getClassDescriptor("renamed")).isSameAs(one);
+		a.merge(ClassDescriptor.of("renamed"));
+		assertThat(a.getClassDescriptors()).containsExactly(one);
+	}
+
+	@Test
+	public void classDescriptorMembersAreDeduplicated() {
+		ClassDescriptor cd = ClassDescriptor.of("one");
+		cd.addMethodDescriptor(method("foo", "int"));
+		cd.addMethodDescriptor(method("foo", "int"));
+		cd.addMethodDescriptor(method("foo"));
+		cd.addFieldDescriptor(FieldDescriptor.of("bar", false, false));
+		cd.addFieldDescriptor(FieldDescriptor.of("bar", true, false));
+		assertThat(cd.getMethods()).containsExactly(method("foo", "int"), method("foo"));
+		assertThat(cd.getFields()).containsExactly(FieldDescriptor.of("bar", true, false));
+		assertThat(cd.contains(FieldDescriptor.of("bar", true, false))).isTrue();
+		assertThat(cd.contains(FieldDescriptor.of("bar", false, false))).isFalse();
+	}
+
+	@Test
+	public void proxiesDescriptorMerge() {
+		ProxiesDescriptor a = new ProxiesDescriptor();
+		a.add(new JdkProxyDescriptor(Collections.singletonList("java.io.Serializable")));
+		ProxiesDescriptor b = new ProxiesDescriptor();
+		b.add(new JdkProxyDescriptor(Collections.singletonList("java.io.Serializable")));
+		b.add(new JdkProxyDescriptor(Collections.singletonList("java.io.Closeable")));
+		a.merge(b);
+		assertThat(a.getProxyDescriptors()).hasSize(2);
+	}
+
 	@Test
 	public void resourcesDescriptorMerge() {
 		ResourcesDescriptor a = new ResourcesDescriptor();
@@ -127,4 +193,50 @@ public class DescriptorTests {
 		assertThat(a.getPatterns()).containsExactlyInAnyOrder("foo/one.json", "bar/two.json");
 	}
 
+	@Test
+	public void reflectionDescriptorReadingWriting() throws Exception {
+		ReflectionDescriptor rd = new ReflectionDescriptor();
+		ClassDescriptor two = ClassDescriptor.of("com.foo.Two");
+		two.setFlag(Flag.allDeclaredConstructors);
+		two.addFieldDescriptor(FieldDescriptor.of("path/\"quoted\"", true, false));
+		two.addMethodDescriptor(method("foo", "java.lang.String[]", "int"));
+		two.addMethodDescriptor(method("<init>"));
+		rd.add(two);
+		rd.add(ClassDescriptor.of("com.foo.One"));
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		JsonMarshaller.write(rd, baos);
+		String json = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(json.indexOf("com.foo.One")).isLessThan(json.indexOf("com.foo.Two"));
+		assertThat(json).contains("\"name\": \"path\\/\\\"quoted\\\"\"").contains("\"parameterTypes\": []");
+		ReflectionDescriptor rd2 = JsonMarshaller.read(json);
+		assertThat(rd2.toString()).isEqualTo(rd.toString());
+	}
+
+	@Test
+	public void reflectionDescriptorReadingIsLenient() throws Exception {
+		String json = "[{\"name\":\"a.A\",\"condition\":{\"typeReachable\":\"b.B\"},\"allPublicFields\":\"true\","
+				+ "\"methods\":[{\"name\":\"m\",\"parameterTypes\":[]}]},{\"name\":\"a.A\",\"fields\":[{\"name\":\"f\"}]}]";
+		ReflectionDescriptor rd = JsonMarshaller.read(json);
+		assertThat(rd.getClassDescriptors()).hasSize(1);
+		ClassDescriptor cd = rd.getClassDescriptor("a.A");
+		assertThat(cd.getFlags()).containsExactly(Flag.allPublicFields);
+		assertThat(cd.getMethodDescriptor("m")).isNotNull();
+		assertThat(cd.getFieldDescriptorNamed("f")).isNotNull();
+	}
+
+	@Test
+	public void serializationDescriptorWritingIsSorted() throws Exception {
+		SerializationDescriptor sd = new SerializationDescriptor();
+		sd.add("z.Z");
+		sd.add("a.A");
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		SerializationDescriptorJsonMarshaller.write(sd, baos);
+		String json = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+		assertThat(json.indexOf("a.A")).isLessThan(json.indexOf("z.Z"));
+	}
+
+	private static MethodDescriptor method(String name, String... parameterTypes) {
+		return MethodDescriptor.of(name, parameterTypes);
+	}
+
 }
@@ -17,16 +17,22 @@
 package org.springframework.nativex;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.nativex.type.Type;
 import org.springframework.nativex.type.TypeSystem;
+import org.springframework.util.ClassUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TypeSystemTests {
@@ -45,6 +51,25 @@ public class TypeSystemTests {
 		Type t = typeSystem.resolveName("java.lang.String");
 		assertNotNull(t);
 	}
+
+	@Test
+	public void accessFlags() throws Exception {
+		Type string = typeSystem.resolveName("java.lang.String");
+		assertTrue(string.isPublic());
+		assertFalse(string.isInterface());
+		assertFalse(string.isAbstract());
+		Type list = typeSystem.resolveName("java.util.List");
+		assertTrue(list.isPublic());
+		assertTrue(list.isInterface());
+		assertTrue(list.isAbstract());
+		Type abstractList = typeSystem.resolveName("java.util.AbstractList");
+		assertFalse(abstractList.isInterface());
+		assertTrue(abstractList.isAbstract());
+		Type classNodeCache = typeSystem.resolveName("org.springframework.nativex.type.ClassNodeCache");
+		assertFalse(classNodeCache.isPublic());
+		assertFalse(classNodeCache.isInterface());
+		assertFalse(classNodeCache.isAbstract());
+	}
 	
 	@Test
 	public void badpath() throws Exception {
@@ -52,6 +77,58 @@ public class TypeSystemTests {
 		ts.findTypesAnnotated(Type.AtConfiguration, false);
 	}
 
+	@Test
+	public void findInJar() throws Exception {
+		File jar = new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		try (TypeSystem ts = new TypeSystem(Collections.singletonList(jar.toString()))) {
+			assertNotNull(ts.find("org/junit/jupiter/api/Test"));
+			assertNull(ts.find("org/junit/jupiter/api/DoesNotExist"));
+		}
+	}
+
+	@Test
+	public void findInDirectory() throws Exception {
+		assertNotNull(typeSystem.find("org/springframework/nativex/type/TypeSystem"));
+		assertNull(typeSystem.find("org/springframework/nativex/type/DoesNotExist"));
+	}
+
+	@Test
+	public void parallelScanMatchesSequentialScan() throws Exception {
+		File jar = new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		List<String> classpath = Arrays.asList(new File("./target/classes").toString(), jar.toString());
+		AotOptions sequential = new AotOptions();
+		sequential.setScanParallelism(1);
+		AotOptions parallel = new AotOptions();
+		parallel.setScanParallelism(4);
+		try (TypeSystem ts1 = new TypeSystem(classpath, null, sequential);
+				TypeSystem ts2 = new TypeSystem(classpath, null, parallel)) {
+			assertEquals(ts1.toString(), ts2.toString());
+			assertEquals(ts1.findTypesAnnotated("Ljava/lang/annotation/Retention;", false),
+					ts2.findTypesAnnotated("Ljava/lang/annotation/Retention;", false));
+			assertEquals(ts1.findTypesAnnotated("Ljava/lang/annotation/Documented;", true),
+					ts2.findTypesAnnotated("Ljava/lang/annotation/Documented;", true));
+		}
+	}
+
+	@Test
+	public void isPresentChecksFoundDuringScan() throws Exception {
+		File jar = new File(ClassUtils.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		try (TypeSystem ts = new TypeSystem(Collections.singletonList(jar.toString()))) {
+			Map<String, List<String>> checks = ts.getSpringClassesMakingIsPresentChecks();
+			assertTrue(checks.get("org.springframework.core.ReactiveAdapterRegistry").contains("reactor.core.publisher.Flux"));
+		}
+	}
+
+	@Test
+	public void findSubtypes() throws Exception {
+		Type missingTypeException = typeSystem.resolveName("org.springframework.nativex.type.MissingTypeException");
+		List<Type> direct = typeSystem.findSubtypes(typeSystem.resolveName("java.lang.RuntimeException"), false);
+		assertTrue(direct.contains(missingTypeException));
+		assertFalse(typeSystem.findSubtypes(typeSystem.resolveName("java.lang.Exception"), false).contains(missingTypeException));
+		assertTrue(typeSystem.findSubtypes(typeSystem.resolveName("java.lang.Exception"), true).contains(missingTypeException));
+		assertTrue(typeSystem.findSubtypes(missingTypeException, true).isEmpty());
+	}
+
 	@Test
 	public void testArray() throws Exception {
 		Type s = typeSystem.resolveName("java.lang.String");
@@ -97,6 +97,65 @@ public class TypeTests {
 	static interface DDD extends III {	
 	}
 
+	@Test
+	public void hierarchyChecks() {
+		Type aa = typeSystem.resolve(AA.class);
+		Type cc = typeSystem.resolve(CC.class);
+		Type iii = typeSystem.resolve(III.class);
+		Type bbb = typeSystem.resolve(BBB.class);
+		assertTrue(cc.extendsClass(aa.getDescriptor()));
+		assertFalse(aa.extendsClass(cc.getDescriptor()));
+		assertFalse(bbb.extendsClass(iii.getDescriptor()));
+		assertTrue(bbb.implementsInterface(iii.getName()));
+		assertTrue(iii.isAssignableFrom(bbb));
+		assertTrue(aa.isAssignableFrom(cc));
+		assertFalse(cc.isAssignableFrom(aa));
+		assertFalse(aa.isAssignableFrom(iii));
+	}
+
+	@Test
+	public void metaAnnotationChecks() {
+		String meta = typeSystem.resolve(MetaAnnotation.class).getName();
+		Type annotated = typeSystem.resolve(MetaAnnotated.class);
+		Type subclass = typeSystem.resolve(MetaAnnotatedSubclass.class);
+		assertTrue(annotated.isMetaAnnotated(meta));
+		assertTrue(annotated.hasAnnotationInHierarchy("L" + meta + ";"));
+		assertFalse(subclass.isMetaAnnotated(meta));
+		assertTrue(subclass.isMetaAnnotated(meta, true));
+		assertFalse(subclass.isMetaAnnotated(typeSystem.resolve(AA.class).getName(), true));
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface MetaAnnotation {
+	}
+
+	@MetaAnnotation
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface ComposedAnnotation {
+	}
+
+	@ComposedAnnotation
+	static class MetaAnnotated {
+	}
+
+	static class MetaAnnotatedSubclass extends MetaAnnotated {
+	}
+
+	@Test
+	public void annotationDescriptors() {
+		Type annotated = typeSystem.resolve(MultiplyAnnotated.class);
+		assertThat(annotated.getAnnotations()).extracting(Type::getDescriptor).containsExactly(
+				"L" + typeSystem.resolve(MetaAnnotation.class).getName() + ";",
+				"L" + typeSystem.resolve(ComposedAnnotation.class).getName() + ";");
+		assertTrue(annotated.hasAnnotation("L" + typeSystem.resolve(ComposedAnnotation.class).getName() + ";", false));
+		assertThat(typeSystem.resolve(AA.class).getAnnotations()).isEmpty();
+	}
+
+	@MetaAnnotation
+	@ComposedAnnotation
+	static class MultiplyAnnotated {
+	}
+
 	@Test
 	public void conversions() {
 		String c = Type.fromLdescriptorToSlashed("[Ljava/lang/String;");
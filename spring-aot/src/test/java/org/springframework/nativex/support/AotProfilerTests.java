@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.nativex.json.JSONArray;
+import org.springframework.nativex.json.JSONObject;
+import org.springframework.nativex.type.ParallelScanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for {@link AotProfiler}
+ */
+class AotProfilerTests {
+
+	@TempDir
+	Path report;
+
+	@Test
+	void nestedPhasesAreRecordedUnderTheirParent() throws Exception {
+		AotProfiler profiler = AotProfiler.start();
+		try (AotProfiler.Phase generate = AotProfiler.phase("generate")) {
+			for (int i = 0; i < 3; i++) {
+				try (AotProfiler.Phase contributor = AotProfiler.phase("BootstrapContributor", "com.example.Contributor")) {
+					sleep();
+				}
+			}
+		}
+		profiler.stop();
+		profiler.writeReport(this.report);
+		JSONObject json = readReport();
+		JSONObject contributor = find(json.getJSONArray("phases"), "name", "BootstrapContributor:com.example.Contributor");
+		assertThat(contributor.getLong("invocations")).isEqualTo(3);
+		JSONObject stack = find(json.getJSONArray("stacks"), "stack", "generate;BootstrapContributor:com.example.Contributor");
+		assertThat(stack.getLong("invocations")).isEqualTo(3);
+		assertThat(stack.getLong("wallTimeNanos")).isGreaterThanOrEqualTo(3_000_000);
+		assertThat(readCollapsedStacks()).anyMatch(line -> line.startsWith("generate;BootstrapContributor:com.example.Contributor "));
+	}
+
+	@Test
+	void phasesOpenedWithinThemselvesAreOnlyTimedOnce() throws Exception {
+		AotProfiler profiler = AotProfiler.start();
+		try (AotProfiler.Phase outer = AotProfiler.phase("processSpringComponent")) {
+			try (AotProfiler.Phase inner = AotProfiler.phase("processSpringComponent")) {
+				sleep();
+			}
+		}
+		profiler.stop();
+		profiler.writeReport(this.report);
+		JSONObject json = readReport();
+		JSONObject phase = find(json.getJSONArray("phases"), "name", "processSpringComponent");
+		JSONObject outer = find(json.getJSONArray("stacks"), "stack", "processSpringComponent");
+		assertThat(phase.getLong("invocations")).isEqualTo(2);
+		assertThat(phase.getLong("wallTimeNanos")).isEqualTo(outer.getLong("wallTimeNanos"));
+	}
+
+	@Test
+	void phasesRunByParallelScannerAreRecordedUnderTheCallingPhase() throws Exception {
+		AotProfiler profiler = AotProfiler.start();
+		List<Integer> entries = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+		try (AotProfiler.Phase scan = AotProfiler.phase("TypeSystem.scan")) {
+			ParallelScanner.map(entries, 4, entry -> {
+				try (AotProfiler.Phase phase = AotProfiler.phase("entry")) {
+					return entry;
+				}
+			});
+		}
+		profiler.stop();
+		profiler.writeReport(this.report);
+		JSONObject stack = find(readReport().getJSONArray("stacks"), "stack", "TypeSystem.scan;entry");
+		assertThat(stack.getLong("invocations")).isEqualTo(20);
+	}
+
+	@Test
+	void phasesAreNotRecordedWhenNotProfiling() throws Exception {
+		AotProfiler profiler = AotProfiler.start();
+		profiler.stop();
+		try (AotProfiler.Phase phase = AotProfiler.phase("generate")) {
+			sleep();
+		}
+		profiler.writeReport(this.report);
+		assertThat(readReport().getJSONArray("phases").length()).isZero();
+		assertThat(readCollapsedStacks()).isEmpty();
+	}
+
+	@Test
+	void threadMeasurementsAreTurnedBackOffWhenProfilingStops() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isCurrentThreadCpuTimeSupported() && threads.isThreadAllocatedMemorySupported());
+		boolean cpuTimeEnabled = threads.isThreadCpuTimeEnabled();
+		boolean allocatedMemoryEnabled = threads.isThreadAllocatedMemoryEnabled();
+		try {
+			threads.setThreadCpuTimeEnabled(false);
+			threads.setThreadAllocatedMemoryEnabled(false);
+			AotProfiler profiler = AotProfiler.start();
+			assertThat(threads.isThreadCpuTimeEnabled()).isTrue();
+			assertThat(threads.isThreadAllocatedMemoryEnabled()).isTrue();
+			profiler.stop();
+			assertThat(threads.isThreadCpuTimeEnabled()).isFalse();
+			assertThat(threads.isThreadAllocatedMemoryEnabled()).isFalse();
+		}
+		finally {
+			threads.setThreadCpuTimeEnabled(cpuTimeEnabled);
+			threads.setThreadAllocatedMemoryEnabled(allocatedMemoryEnabled);
+		}
+	}
+
+	@Test
+	void threadMeasurementsEnabledBeforeProfilingAreLeftOn() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isCurrentThreadCpuTimeSupported() && threads.isThreadAllocatedMemorySupported());
+		boolean cpuTimeEnabled = threads.isThreadCpuTimeEnabled();
+		boolean allocatedMemoryEnabled = threads.isThreadAllocatedMemoryEnabled();
+		try {
+			threads.setThreadCpuTimeEnabled(true);
+			threads.setThreadAllocatedMemoryEnabled(true);
+			AotProfiler.start().stop();
+			assertThat(threads.isThreadCpuTimeEnabled()).isTrue();
+			assertThat(threads.isThreadAllocatedMemoryEnabled()).isTrue();
+		}
+		finally {
+			threads.setThreadCpuTimeEnabled(cpuTimeEnabled);
+			threads.setThreadAllocatedMemoryEnabled(allocatedMemoryEnabled);
+		}
+	}
+
+	private JSONObject readReport() throws Exception {
+		return new JSONObject(new String(Files.readAllBytes(this.report.resolve(AotProfiler.REPORT_FILE)), StandardCharsets.UTF_8));
+	}
+
+	private List<String> readCollapsedStacks() throws Exception {
+		return Files.readAllLines(this.report.resolve(AotProfiler.COLLAPSED_STACKS_FILE));
+	}
+
+	private static JSONObject find(JSONArray array, String key, String value) throws Exception {
+		for (int i = 0; i < array.length(); i++) {
+			if (array.getJSONObject(i).getString(key).equals(value)) {
+				return array.getJSONObject(i);
+			}
+		}
+		throw new AssertionError("No " + key + " " + value + " in " + array);
+	}
+
+	private static void sleep() throws InterruptedException {
+		Thread.sleep(1);
+	}
+
+}
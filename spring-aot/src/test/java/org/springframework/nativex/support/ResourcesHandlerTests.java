@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.SpringVersion;
+import org.springframework.nativex.AotOptions;
+import org.springframework.nativex.domain.reflect.ClassDescriptor;
+import org.springframework.nativex.support.ResourcesHandler.ReachedBy;
+import org.springframework.nativex.support.fixtures.FirstConfiguration;
+import org.springframework.nativex.support.fixtures.JmxConfiguration;
+import org.springframework.nativex.support.fixtures.SecondConfiguration;
+import org.springframework.nativex.support.fixtures.SharedConfiguration;
+import org.springframework.nativex.type.TypeSystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for the reuse of type analyses by {@link ResourcesHandler}: whatever is registered when
+ * an analysis is reused must be what analysing the type afresh registers.
+ */
+class ResourcesHandlerTests {
+
+	private static TypeSystem typeSystem;
+
+	@BeforeAll
+	static void setup() throws Exception {
+		typeSystem = new TypeSystem(Arrays.asList(new File("./target/test-classes").toString(),
+				codeSource(Configuration.class), codeSource(SpringVersion.class)));
+	}
+
+	@AfterAll
+	static void close() {
+		typeSystem.close();
+	}
+
+	@Test
+	void typeProcessedTwiceRegistersWhatProcessingItOnceDoes() {
+		Analysis once = new Analysis(new AotOptions());
+		boolean passed = once.process(SharedConfiguration.class, ReachedBy.FromRoot);
+		Analysis twice = new Analysis(new AotOptions());
+		assertThat(twice.process(SharedConfiguration.class, ReachedBy.FromRoot)).isEqualTo(passed);
+		assertThat(twice.process(SharedConfiguration.class, ReachedBy.FromRoot)).isEqualTo(passed);
+		assertThat(passed).isTrue();
+		assertThat(twice.registrations()).isEqualTo(once.registrations());
+	}
+
+	@Test
+	void typeReachedFromDifferentContextsRegistersWhatSeparateAnalysesDo() {
+		Analysis first = new Analysis(new AotOptions());
+		boolean firstPassed = first.process(FirstConfiguration.class, ReachedBy.FromRoot);
+		Analysis second = new Analysis(new AotOptions());
+		boolean secondPassed = second.process(SecondConfiguration.class, ReachedBy.FromRoot);
+		// SharedConfiguration, imported by both, is only analysed the first time here
+		Analysis both = new Analysis(new AotOptions());
+		assertThat(both.process(FirstConfiguration.class, ReachedBy.FromRoot)).isEqualTo(firstPassed);
+		assertThat(both.process(SecondConfiguration.class, ReachedBy.FromRoot)).isEqualTo(secondPassed);
+		Registrations expected = first.registrations().and(second.registrations());
+		assertThat(both.registrations()).isEqualTo(expected);
+		assertThat(expected.reflection).anyMatch(cd -> cd.getName().equals(SharedConfiguration.class.getName()));
+	}
+
+	@Test
+	void analysesAreOnlyReusedWithTheOptionsTheyWereMadeWith() {
+		// The options are not part of the key an analysis is reused by, they are fixed for a
+		// given handler so handlers with other options analyse the type again
+		AotOptions withoutJmx = new AotOptions();
+		withoutJmx.setRemoveJmxSupport(true);
+		AotOptions withJmx = new AotOptions();
+		withJmx.setRemoveJmxSupport(false);
+		Analysis removing = new Analysis(withoutJmx);
+		Analysis keeping = new Analysis(withJmx);
+		for (int i = 0; i < 2; i++) {
+			assertThat(removing.process(JmxConfiguration.class, ReachedBy.FromRoot)).isFalse();
+			assertThat(keeping.process(JmxConfiguration.class, ReachedBy.FromRoot)).isTrue();
+		}
+		Analysis fresh = new Analysis(withJmx);
+		fresh.process(JmxConfiguration.class, ReachedBy.FromRoot);
+		assertThat(keeping.registrations()).isEqualTo(fresh.registrations());
+		assertThat(removing.registrations()).isNotEqualTo(keeping.registrations());
+	}
+
+	private static String codeSource(Class<?> type) throws Exception {
+		return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+	}
+
+	/**
+	 * A resources handler and the handlers it registers with, wired as {@link SpringAnalyzer}
+	 * does, each with a collector of its own.
+	 */
+	private static class Analysis {
+
+		private final ConfigurationCollector collector;
+
+		private final ResourcesHandler resourcesHandler;
+
+		Analysis(AotOptions aotOptions) {
+			this.collector = new ConfigurationCollector(aotOptions);
+			ReflectionHandler reflectionHandler = new ReflectionHandler(this.collector, aotOptions);
+			DynamicProxiesHandler dynamicProxiesHandler = new DynamicProxiesHandler(this.collector);
+			InitializationHandler initializationHandler = new InitializationHandler(this.collector);
+			SerializationHandler serializationHandler = new SerializationHandler(this.collector);
+			JNIReflectionHandler jniReflectionHandler = new JNIReflectionHandler(this.collector);
+			this.resourcesHandler = new ResourcesHandler(this.collector, reflectionHandler, dynamicProxiesHandler,
+					initializationHandler, serializationHandler, jniReflectionHandler, new OptionHandler(this.collector),
+					aotOptions);
+			this.collector.setTypeSystem(typeSystem);
+			reflectionHandler.setTypeSystem(typeSystem);
+			dynamicProxiesHandler.setTypeSystem(typeSystem);
+			initializationHandler.setTypeSystem(typeSystem);
+			serializationHandler.setTypeSystem(typeSystem);
+			jniReflectionHandler.setTypeSystem(typeSystem);
+			this.resourcesHandler.setTypeSystem(typeSystem);
+		}
+
+		boolean process(Class<?> type, ReachedBy reachedBy) {
+			return this.resourcesHandler.checkAndRegisterConfigurationType(type.getName(), reachedBy);
+		}
+
+		Registrations registrations() {
+			return new Registrations(this.collector);
+		}
+
+	}
+
+	/**
+	 * The types registered for reflection, and the resource patterns, that a collector holds.
+	 */
+	private static class Registrations {
+
+		private final List<ClassDescriptor> reflection;
+
+		private final List<String> resources;
+
+		Registrations(ConfigurationCollector collector) {
+			this(collector.getReflectionDescriptor().getClassDescriptors(),
+					collector.getResourcesDescriptors().getPatterns());
+		}
+
+		private Registrations(Collection<ClassDescriptor> reflection, Collection<String> resources) {
+			this.reflection = new ArrayList<>(reflection);
+			this.reflection.sort(Comparator.comparing(ClassDescriptor::getName));
+			this.resources = new ArrayList<>(new TreeSet<>(resources));
+		}
+
+		// A type registered by both must be registered the same way, descriptors are not merged here
+		Registrations and(Registrations other) {
+			Set<ClassDescriptor> reflection = new LinkedHashSet<>(this.reflection);
+			reflection.addAll(other.reflection);
+			Set<String> resources = new TreeSet<>(this.resources);
+			resources.addAll(other.resources);
+			return new Registrations(reflection, resources);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Registrations)) {
+				return false;
+			}
+			Registrations that = (Registrations) other;
+			return this.reflection.equals(that.reflection) && this.resources.equals(that.resources);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.reflection.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "reflection=" + this.reflection + ", resources=" + this.resources;
+		}
+
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnalysisCache}
+ */
+class AnalysisCacheTests {
+
+	@TempDir
+	Path cacheDirectory;
+
+	@Test
+	void storedAnalysisIsLoaded() {
+		File jar = getJar();
+		ArchiveAnalysis analysis = new ArchiveAnalysis();
+		analysis.getAnnotations().put("org/junit/jupiter/api/Test", Arrays.asList("Ljava/lang/annotation/Documented;", "Lorg/apiguardian/api/API;"));
+		analysis.getIsPresentChecks().put("com.foo.Bar", Arrays.asList("com.foo.Baz", "com.foo.Qux"));
+		analysis.getIsPresentChecks().put("com.foo.Empty", Collections.emptyList());
+		new AnalysisCache(cacheDirectory, "1.0").store(jar, true, analysis);
+
+		ArchiveAnalysis loaded = new AnalysisCache(cacheDirectory, "1.0").load(jar, true);
+		assertThat(loaded).isNotNull();
+		assertThat(loaded.getAnnotations()).isEqualTo(analysis.getAnnotations());
+		assertThat(loaded.getIsPresentChecks()).isEqualTo(analysis.getIsPresentChecks());
+	}
+
+	@Test
+	void analysisIsNotSharedBetweenVersions() {
+		File jar = getJar();
+		new AnalysisCache(cacheDirectory, "1.0").store(jar, false, new ArchiveAnalysis());
+		assertThat(new AnalysisCache(cacheDirectory, "1.0").load(jar, false)).isNotNull();
+		assertThat(new AnalysisCache(cacheDirectory, "1.1").load(jar, false)).isNull();
+	}
+
+	@Test
+	void analysisWithoutIsPresentChecksIsNotUsedWhenTheyAreNeeded() {
+		File jar = getJar();
+		new AnalysisCache(cacheDirectory, "1.0").store(jar, false, new ArchiveAnalysis());
+		assertThat(new AnalysisCache(cacheDirectory, "1.0").load(jar, true)).isNull();
+	}
+
+	@Test
+	void corruptEntryIsIgnored() throws Exception {
+		File jar = getJar();
+		AnalysisCache cache = new AnalysisCache(cacheDirectory, "1.0");
+		cache.store(jar, false, new ArchiveAnalysis());
+		try (Stream<Path> entries = Files.list(cacheDirectory)) {
+			entries.forEach(entry -> {
+				try {
+					Files.write(entry, "garbage".getBytes());
+				} catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+			});
+		}
+		assertThat(cache.load(jar, false)).isNull();
+	}
+
+	@Test
+	void directoryIsOnlyCachedWhenUnchangedEntriesAreKnown(@TempDir Path classes) {
+		File directory = classes.toFile();
+		assertThat(new AnalysisCache(cacheDirectory, "1.0").isCacheable(directory)).isFalse();
+		assertThat(new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet()).isCacheable(directory)).isTrue();
+	}
+
+	@Test
+	void unchangedDirectoryIsFoundThroughTheIndex(@TempDir Path classes) {
+		File directory = classes.toFile();
+		AnalysisCache first = new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet());
+		first.store(directory, false, new ArchiveAnalysis());
+		first.storeIndex();
+		assertThat(new AnalysisCache(cacheDirectory, "1.0", Collections.singleton(directory)).load(directory, false)).isNotNull();
+		assertThat(new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet()).load(directory, false)).isNull();
+		assertThat(new AnalysisCache(cacheDirectory, "1.1", Collections.singleton(directory)).load(directory, false)).isNull();
+	}
+
+	@Test
+	void changedDirectoryEntryIsDeleted(@TempDir Path classes) throws Exception {
+		File directory = classes.toFile();
+		AnalysisCache first = new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet());
+		first.store(directory, false, new ArchiveAnalysis());
+		first.storeIndex();
+		AnalysisCache second = new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet());
+		second.store(directory, false, new ArchiveAnalysis());
+		second.storeIndex();
+		try (Stream<Path> entries = Files.list(cacheDirectory)) {
+			assertThat(entries.filter(entry -> entry.toString().endsWith(".analysis"))).hasSize(1);
+		}
+	}
+
+	@Test
+	void unchangedDirectoryIsFoundWhateverTheFormOfItsPath(@TempDir Path classes) throws Exception {
+		Path directory = Files.createDirectory(classes.resolve("classes"));
+		File redundant = directory.resolve("..").resolve("classes").toFile();
+		AnalysisCache first = new AnalysisCache(cacheDirectory, "1.0", Collections.emptySet());
+		first.store(redundant, false, new ArchiveAnalysis());
+		first.storeIndex();
+		AnalysisCache second = new AnalysisCache(cacheDirectory, "1.0", Collections.singleton(directory.toFile()));
+		assertThat(second.load(directory.toFile(), false)).isNotNull();
+		second.storeIndex();
+		try (Stream<Path> entries = Files.list(cacheDirectory)) {
+			assertThat(entries.filter(entry -> entry.toString().endsWith(".analysis"))).hasSize(1);
+		}
+		assertThat(AnalysisCache.normalize(redundant)).isEqualTo(directory.toFile().getAbsoluteFile());
+	}
+
+	private static File getJar() {
+		try {
+			return new File(Test.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
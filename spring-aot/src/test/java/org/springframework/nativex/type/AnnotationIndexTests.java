@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AnnotationIndex}
+ */
+class AnnotationIndexTests {
+
+	private final AnnotationIndex index = new AnnotationIndex(new NameTable(), annotations());
+
+	@Test
+	void directlyAnnotatedTypesAreFound() {
+		assertThat(index.findTypesAnnotated("Lcom/foo/Component;", false)).containsExactly("com/foo/Service", "com/foo/Plain");
+		assertThat(index.findTypesAnnotated("Lcom/foo/Service;", false)).containsExactly("com/foo/Repository", "com/foo/MyService");
+	}
+
+	@Test
+	void metaAnnotatedTypesAreFoundInClasspathOrder() {
+		assertThat(index.findTypesAnnotated("Lcom/foo/Component;", true))
+				.containsExactly("com/foo/Service", "com/foo/Repository", "com/foo/MyService", "com/foo/MyRepository", "com/foo/Plain");
+	}
+
+	@Test
+	void cyclicMetaAnnotationsAreFollowed() {
+		assertThat(index.findTypesAnnotated("Lcom/foo/Documented;", true)).contains("com/foo/Documented", "com/foo/MyService");
+	}
+
+	@Test
+	void unknownAnnotationFindsNothing() {
+		assertThat(index.findTypesAnnotated("Lcom/foo/Unknown;", true)).isEmpty();
+		assertThat(index.size()).isEqualTo(7);
+	}
+
+	private static Map<String, List<String>> annotations() {
+		Map<String, List<String>> annotations = new LinkedHashMap<>();
+		annotations.put("com/foo/Documented", Collections.singletonList("Lcom/foo/Documented;"));
+		annotations.put("com/foo/Component", Collections.singletonList("Lcom/foo/Documented;"));
+		annotations.put("com/foo/Service", Arrays.asList("Lcom/foo/Component;", "Lcom/foo/Documented;"));
+		annotations.put("com/foo/Repository", Collections.singletonList("Lcom/foo/Service;"));
+		annotations.put("com/foo/MyService", Collections.singletonList("Lcom/foo/Service;"));
+		annotations.put("com/foo/MyRepository", Collections.singletonList("Lcom/foo/Repository;"));
+		annotations.put("com/foo/Plain", Collections.singletonList("Lcom/foo/Component;"));
+		return annotations;
+	}
+
+}
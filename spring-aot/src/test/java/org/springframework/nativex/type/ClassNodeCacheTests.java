@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link ClassNodeCache}
+ */
+class ClassNodeCacheTests {
+
+	private final List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void recordedNodeIsNotReloaded() {
+		ClassNodeCache cache = new ClassNodeCache(2, this::load);
+		ClassNode node = load("java/lang/String");
+		loaded.clear();
+		cache.put(node);
+		assertThat(cache.get("java/lang/String").node).isSameAs(node);
+		assertThat(loaded).isEmpty();
+	}
+
+	@Test
+	void leastRecentlyUsedNodeIsEvictedAndReloaded() {
+		ClassNodeCache cache = new ClassNodeCache(2, this::load);
+		ClassNodeCache.Entry string = cache.get("java/lang/String");
+		cache.get("java/lang/Integer");
+		cache.get("java/lang/String");
+		cache.get("java/lang/Long");
+		assertThat(cache.get("java/lang/String")).isSameAs(string);
+		assertThat(loaded).containsExactly("java/lang/String", "java/lang/Integer", "java/lang/Long");
+		assertThat(cache.get("java/lang/Integer").node.name).isEqualTo("java/lang/Integer");
+		assertThat(loaded).containsExactly("java/lang/String", "java/lang/Integer", "java/lang/Long", "java/lang/Integer");
+	}
+
+	@Test
+	void missingClassFails() {
+		ClassNodeCache cache = new ClassNodeCache(2, this::load);
+		assertThatIllegalStateException().isThrownBy(() -> cache.get("com/example/Missing"));
+	}
+
+	@Test
+	void cachedNodeIsAvailableWhilstAnotherIsRead() throws Exception {
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ClassNodeCache cache = new ClassNodeCache(2, slashedName -> {
+			if (slashedName.equals("java/lang/Long")) {
+				reading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return load(slashedName);
+		});
+		ClassNodeCache.Entry string = cache.get("java/lang/String");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ClassNodeCache.Entry> slowRead = executor.submit(() -> cache.get("java/lang/Long"));
+			assertThat(reading.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(cache.get("java/lang/String")).isSameAs(string);
+			release.countDown();
+			assertThat(slowRead.get(10, TimeUnit.SECONDS).node.name).isEqualTo("java/lang/Long");
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void concurrentReadsOfTheSameClassShareOneEntry() throws Exception {
+		CountDownLatch bothReading = new CountDownLatch(2);
+		ClassNodeCache cache = new ClassNodeCache(2, slashedName -> {
+			bothReading.countDown();
+			try {
+				bothReading.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return load(slashedName);
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<ClassNodeCache.Entry> first = executor.submit(() -> cache.get("java/lang/String"));
+			Future<ClassNodeCache.Entry> second = executor.submit(() -> cache.get("java/lang/String"));
+			assertThat(first.get(10, TimeUnit.SECONDS)).isSameAs(second.get(10, TimeUnit.SECONDS));
+			assertThat(cache.get("java/lang/String")).isSameAs(first.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void namesAreInterned() {
+		NameTable names = new NameTable();
+		String name = names.intern("java/lang/String");
+		assertThat(names.intern(new String("java/lang/String"))).isSameAs(name);
+		assertThat(names.nameOf(names.lookup("java/lang/String"))).isSameAs(name);
+		assertThat(names.lookup("java/lang/Integer")).isEqualTo(-1);
+	}
+
+	private ClassNode load(String slashedName) {
+		loaded.add(slashedName);
+		try {
+			ClassNode node = new ClassNode();
+			new ClassReader(slashedName.replace('/', '.')).accept(node, ClassReader.SKIP_CODE);
+			return node;
+		} catch (IOException ex) {
+			return null;
+		}
+	}
+
+}
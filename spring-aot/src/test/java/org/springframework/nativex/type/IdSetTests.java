@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link IdSet}
+ */
+class IdSetTests {
+
+	@Test
+	void containsOnlyAddedIds() {
+		IdSet ids = new IdSet.Builder().add(70000).add(3).add(42).build();
+		assertThat(ids.contains(3)).isTrue();
+		assertThat(ids.contains(42)).isTrue();
+		assertThat(ids.contains(70000)).isTrue();
+		assertThat(ids.contains(4)).isFalse();
+		assertThat(ids.contains(-1)).isFalse();
+		assertThat(ids.size()).isEqualTo(3);
+	}
+
+	@Test
+	void duplicatesAreRemoved() {
+		IdSet first = new IdSet.Builder().add(1).add(2).build();
+		IdSet union = new IdSet.Builder().add(2).addAll(first).addAll(first).add(3).build();
+		assertThat(union.size()).isEqualTo(3);
+		assertThat(union).isEqualTo(new IdSet.Builder().add(3).add(2).add(1).build());
+		assertThat(union.hashCode()).isEqualTo(new IdSet.Builder().add(3).add(2).add(1).build().hashCode());
+	}
+
+	@Test
+	void builderContainsOnlyAddedIds() {
+		IdSet.Builder builder = new IdSet.Builder().add(5).addAll(new IdSet.Builder().add(9).build());
+		assertThat(builder.contains(5)).isTrue();
+		assertThat(builder.contains(9)).isTrue();
+		assertThat(builder.contains(7)).isFalse();
+	}
+
+	@Test
+	void emptyBuilderGivesEmptySet() {
+		assertThat(new IdSet.Builder().build()).isSameAs(IdSet.EMPTY);
+		assertThat(IdSet.EMPTY.contains(0)).isFalse();
+	}
+
+	@Test
+	void builderGrowsBeyondItsInitialCapacity() {
+		IdSet.Builder builder = new IdSet.Builder();
+		for (int i = 100; i > 0; i--) {
+			builder.add(i * 2);
+		}
+		IdSet ids = builder.build();
+		assertThat(ids.size()).isEqualTo(100);
+		assertThat(ids.contains(200)).isTrue();
+		assertThat(ids.contains(199)).isFalse();
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.io.InputStream;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MethodReferenceFilter}
+ */
+class MethodReferenceFilterTests {
+
+	@Test
+	void classInvokingMethodIsNotSkipped() throws Exception {
+		MethodReferenceFilter filter = new MethodReferenceFilter("org/springframework/util/ClassUtils", "isPresent");
+		assertThat(filter.mayInvoke(getBytes(CheckingPresence.class))).isTrue();
+		assertThat(filter.getChecked()).isEqualTo(1);
+		assertThat(filter.getSkipped()).isEqualTo(0);
+	}
+
+	@Test
+	void classNotInvokingMethodIsSkipped() throws Exception {
+		MethodReferenceFilter filter = new MethodReferenceFilter("org/springframework/util/ClassUtils", "isPresent");
+		assertThat(filter.mayInvoke(getBytes(NotCheckingPresence.class))).isFalse();
+		assertThat(filter.getSkipped()).isEqualTo(1);
+	}
+
+	@Test
+	void methodOfOtherTypeIsNotMatched() throws Exception {
+		MethodReferenceFilter filter = new MethodReferenceFilter("org/springframework/util/ClassUtils", "getShortName");
+		assertThat(filter.mayInvoke(getBytes(CheckingPresence.class))).isFalse();
+	}
+
+	@Test
+	void detectorFindsChecksInClassesPassingFilter() throws Exception {
+		byte[] bytes = getBytes(CheckingPresence.class);
+		assertThat(IsPresentDetectionVisitor.run(bytes)).containsExactly("com.example.Missing");
+		assertThat(IsPresentDetectionVisitor.run(getBytes(NotCheckingPresence.class))).isNull();
+	}
+
+	private static byte[] getBytes(Class<?> type) throws Exception {
+		try (InputStream is = type.getResourceAsStream(ClassUtils.getClassFileName(type))) {
+			return StreamUtils.copyToByteArray(is);
+		}
+	}
+
+	static class CheckingPresence {
+
+		static final boolean present = ClassUtils.isPresent("com.example.Missing", CheckingPresence.class.getClassLoader());
+
+	}
+
+	static class NotCheckingPresence {
+
+		static final String name = ClassUtils.getShortName(NotCheckingPresence.class);
+
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.type;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ParallelScanner}
+ */
+class ParallelScannerTests {
+
+	@Test
+	void resultsAreInEntryOrder() {
+		List<Integer> entries = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+		List<Integer> results = ParallelScanner.map(entries, 4, entry -> entry * 2);
+		assertThat(results).isEqualTo(entries.stream().map(entry -> entry * 2).collect(Collectors.toList()));
+	}
+
+	@Test
+	void tasksRunWithTheContextClassLoaderOfTheCaller() {
+		List<Integer> entries = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+		ClassLoader original = Thread.currentThread().getContextClassLoader();
+		ClassLoader loader = new URLClassLoader(new URL[0], original);
+		Thread.currentThread().setContextClassLoader(loader);
+		try {
+			List<ClassLoader> seen = ParallelScanner.map(entries, 4,
+					entry -> Thread.currentThread().getContextClassLoader());
+			assertThat(seen).containsOnly(loader);
+		}
+		finally {
+			Thread.currentThread().setContextClassLoader(original);
+		}
+	}
+
+}
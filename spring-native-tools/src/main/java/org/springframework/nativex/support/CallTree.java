@@ -16,8 +16,10 @@
 
 package org.springframework.nativex.support;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -240,14 +242,15 @@ public class CallTree {
 	 * @return a CompilationSummary containing parses of all the 'Compiled...' lines
 	 */
 	public static CallTree load(String id, String file) {
-		try {
+		// Reports run to gigabytes, read them a line at a time (CallTreeIndex queries them without loading them)
+		try (BufferedReader reader = Files.newBufferedReader(Paths.get(new File(file).toURI()), StandardCharsets.UTF_8)) {
 			Node tree = new Node();
-			List<String> lines = Files.readAllLines(Paths.get(new File(file).toURI()));
 			int entries = 0;
 			boolean valid = false;
 			Node current = tree;
 			int lastIndent = 0;
-			for (String line : lines) {
+			String line;
+			while ((line = reader.readLine()) != null) {
 				entries++;
 				if (valid) {
 					Entry e = null;
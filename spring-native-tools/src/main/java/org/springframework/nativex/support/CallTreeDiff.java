@@ -53,20 +53,9 @@ public class CallTreeDiff {
 			idB = args[1].substring(idxB + 1);
 		}
 
-		CallTree a = CallTree.load(idA, fileA);
-		CallTree b = CallTree.load(idB, fileB);
-//		CompilationSummary b = CompilationSummary.load(idB, fileB);
-		
-		System.out.println(a.getData().getKids());
-
-//		System.out.println("Compiled entries in " + a.getId() + " = " + a.getData().size());
-//		a.getData().print(0,4);
-		System.out.println("Tree length is "+a.length());
-		
-		System.out.println("Routes to SAXParser:");
-//		a.printRoutes(".SAXParser.");
-//		a.printRoutes("org.jcp.xml.dsig.internal.dom.ApacheCanonicalizer");
-		a.stripOut(b);
+		try (CallTreeIndex a = CallTreeIndex.load(fileA); CallTreeIndex b = CallTreeIndex.load(fileB)) {
+			CallTreeQuery.printDiff(idA, a, idB, b);
+		}
 //		System.out.println("Compiled entries in " + b.getId() + " = " + b.getData().size());
 //
 //		// Maps from packages to number of types in that package
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A native-image call tree report (see {@link CallTree}) indexed into a memory-mapped file, to be
+ * queried without loading the tree. Each line of the report below {@code VM Entry Points} is a
+ * node, numbered in the order of the report, so depth first. The index records for each node its
+ * parent, the method it is about and how it is reached, and where its subtree ends; and for each
+ * method its name and the nodes it appears at. Only the pages a query touches are read in, so
+ * queries on reports of several gigabytes answer in milliseconds once the report is indexed.
+ * <p>
+ * The index of a report is {@link #load(String) built} next to it, the first time it is queried
+ * or when the report changes, by {@link CallTreeIndexer}.
+ */
+public final class CallTreeIndex implements Closeable {
+
+	static final String INDEX_SUFFIX = ".index";
+
+	private final FileChannel channel;
+
+	private final int methodCount;
+
+	private final int nodeCount;
+
+	private final IntRegion parents;
+
+	private final IntRegion methods;
+
+	private final IntRegion ends;
+
+	private final IntRegion occurrenceOffsets;
+
+	private final IntRegion occurrences;
+
+	private final IntRegion nameOffsets;
+
+	private final ByteBuffer names;
+
+	private CallTreeIndex(FileChannel channel, Layout layout) throws IOException {
+		this.channel = channel;
+		this.methodCount = layout.methodCount;
+		this.nodeCount = layout.nodeCount;
+		this.parents = layout.parents(channel, MapMode.READ_ONLY);
+		this.methods = layout.methods(channel, MapMode.READ_ONLY);
+		this.ends = layout.ends(channel, MapMode.READ_ONLY);
+		this.occurrenceOffsets = layout.occurrenceOffsets(channel, MapMode.READ_ONLY);
+		this.occurrences = layout.occurrences(channel, MapMode.READ_ONLY);
+		this.nameOffsets = layout.nameOffsets(channel, MapMode.READ_ONLY);
+		this.names = channel.map(MapMode.READ_ONLY, layout.getNamesPosition(), layout.nameBytes);
+	}
+
+	/**
+	 * Load the index of a call tree report, indexing the report first if it has no index yet or
+	 * has changed since it was indexed.
+	 * @param file the report, or its index
+	 * @return the index
+	 */
+	public static CallTreeIndex load(String file) {
+		Path path = Paths.get(file);
+		try {
+			if (file.endsWith(INDEX_SUFFIX)) {
+				CallTreeIndex index = open(path);
+				if (index == null) {
+					throw new IllegalStateException("Not a call tree index: " + file);
+				}
+				return index;
+			}
+			Path index = Paths.get(file + INDEX_SUFFIX);
+			if (Files.exists(index) && Files.getLastModifiedTime(index).compareTo(Files.getLastModifiedTime(path)) >= 0) {
+				CallTreeIndex existing = open(index);
+				if (existing != null) {
+					return existing;
+				}
+			}
+			System.out.println("Indexing call tree " + file);
+			long start = System.currentTimeMillis();
+			CallTreeIndexer.index(path, index);
+			CallTreeIndex created = open(index);
+			System.out.println("Indexed " + created.nodeCount + " calls to " + created.methodCount + " methods in "
+					+ (System.currentTimeMillis() - start) + "ms");
+			return created;
+		}
+		catch (IOException ioe) {
+			throw new IllegalStateException("Problem loading file: " + file, ioe);
+		}
+	}
+
+	// Null if the file is not a complete index of this version
+	private static CallTreeIndex open(Path index) throws IOException {
+		FileChannel channel = FileChannel.open(index);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(Layout.HEADER_SIZE);
+			while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+			}
+			header.flip();
+			Layout layout = Layout.readHeader(header, channel.size());
+			if (layout != null) {
+				return new CallTreeIndex(channel, layout);
+			}
+		}
+		catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+		channel.close();
+		return null;
+	}
+
+	public int getMethodCount() {
+		return this.methodCount;
+	}
+
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+
+	/**
+	 * Find the routes from the entry points to the methods whose name contains the given text,
+	 * merged into one tree like the report would show them.
+	 * @param text what the name of the methods must contain
+	 * @param ignoreOverridden whether to ignore the methods reached as overrides of those virtually called
+	 * @return the lines of the tree, indented by depth
+	 */
+	public List<String> getRoutes(String text, boolean ignoreOverridden) {
+		BitSet onRoute = new BitSet(this.nodeCount);
+		BitSet matching = findMethods(text);
+		for (int method = matching.nextSetBit(0); method >= 0; method = matching.nextSetBit(method + 1)) {
+			for (int i = this.occurrenceOffsets.get(method); i < this.occurrenceOffsets.get(method + 1); i++) {
+				int node = this.occurrences.get(i);
+				if (ignoreOverridden && getKind(node) == Kind.OVERRIDDEN_BY) {
+					continue;
+				}
+				while (node != -1 && !onRoute.get(node)) {
+					onRoute.set(node);
+					node = this.parents.get(node);
+				}
+			}
+		}
+		List<String> routes = new ArrayList<>();
+		for (int node = onRoute.nextSetBit(0); node >= 0; node = onRoute.nextSetBit(node + 1)) {
+			StringBuilder line = new StringBuilder();
+			for (int parent = this.parents.get(node); parent != -1; parent = this.parents.get(parent)) {
+				line.append("  ");
+			}
+			routes.add(line.append(describe(node)).toString());
+		}
+		return routes;
+	}
+
+	/**
+	 * Find the callers of the methods whose name contains the given text. A method reached as an
+	 * override is called by the caller of the method it overrides.
+	 * @param text what the name of the methods must contain
+	 * @return the callers, described with how they call it, by method name
+	 */
+	public Map<String, SortedSet<String>> getCallers(String text) {
+		Map<String, SortedSet<String>> callers = new TreeMap<>();
+		BitSet matching = findMethods(text);
+		for (int method = matching.nextSetBit(0); method >= 0; method = matching.nextSetBit(method + 1)) {
+			SortedSet<String> methodCallers = callers.computeIfAbsent(getMethodName(method), name -> new TreeSet<>());
+			for (int i = this.occurrenceOffsets.get(method); i < this.occurrenceOffsets.get(method + 1); i++) {
+				int node = this.occurrences.get(i);
+				int parent = this.parents.get(node);
+				Kind kind = getKind(node);
+				if (parent == -1) {
+					methodCallers.add("entry point");
+				}
+				else if (kind == Kind.OVERRIDDEN_BY) {
+					int caller = this.parents.get(parent);
+					methodCallers.add("virtually by " + ((caller != -1) ? getMethodName(getMethod(caller)) : "?")
+							+ " calling " + getMethodName(getMethod(parent)));
+				}
+				else {
+					methodCallers.add((kind == Kind.VIRTUALLY_CALLS ? "virtually by " : "directly by ")
+							+ getMethodName(getMethod(parent)));
+				}
+			}
+		}
+		return callers;
+	}
+
+	/**
+	 * Find the methods reachable from the methods whose name contains the given text. The report
+	 * only lists the calls of a method the first time it reaches it, so these are collected from
+	 * every node of each method.
+	 * @param text what the name of the methods to start from must contain
+	 * @return the names of the methods reachable, including those started from
+	 */
+	public SortedSet<String> getReachable(String text) {
+		BitSet reached = findMethods(text);
+		int[] pending = new int[Math.max(16, reached.cardinality())];
+		int pendingCount = 0;
+		for (int method = reached.nextSetBit(0); method >= 0; method = reached.nextSetBit(method + 1)) {
+			pending[pendingCount++] = method;
+		}
+		while (pendingCount > 0) {
+			int method = pending[--pendingCount];
+			for (int i = this.occurrenceOffsets.get(method); i < this.occurrenceOffsets.get(method + 1); i++) {
+				int node = this.occurrences.get(i);
+				int end = this.ends.get(node);
+				for (int child = node + 1; child < end; child = this.ends.get(child)) {
+					int callee = getMethod(child);
+					if (!reached.get(callee)) {
+						reached.set(callee);
+						if (pendingCount == pending.length) {
+							pending = Arrays.copyOf(pending, pendingCount * 2);
+						}
+						pending[pendingCount++] = callee;
+					}
+				}
+			}
+		}
+		return getMethodNames(reached);
+	}
+
+	/**
+	 * Find the methods in this call tree that are not in another.
+	 * @param other the other call tree
+	 * @return the names of the methods only in this call tree
+	 */
+	public SortedSet<String> getMethodsNotIn(CallTreeIndex other) {
+		Set<String> otherMethods = new HashSet<>(other.methodCount * 2);
+		for (int method = 0; method < other.methodCount; method++) {
+			otherMethods.add(other.getMethodName(method));
+		}
+		SortedSet<String> methods = new TreeSet<>();
+		for (int method = 0; method < this.methodCount; method++) {
+			String name = getMethodName(method);
+			if (!otherMethods.contains(name)) {
+				methods.add(name);
+			}
+		}
+		return methods;
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	private BitSet findMethods(String text) {
+		BitSet matching = new BitSet(this.methodCount);
+		for (int method = 0; method < this.methodCount; method++) {
+			if (getMethodName(method).contains(text)) {
+				matching.set(method);
+			}
+		}
+		return matching;
+	}
+
+	private SortedSet<String> getMethodNames(BitSet methods) {
+		SortedSet<String> names = new TreeSet<>();
+		for (int method = methods.nextSetBit(0); method >= 0; method = methods.nextSetBit(method + 1)) {
+			names.add(getMethodName(method));
+		}
+		return names;
+	}
+
+	private String getMethodName(int method) {
+		int start = this.nameOffsets.get(method);
+		byte[] bytes = new byte[this.nameOffsets.get(method + 1) - start];
+		ByteBuffer name = this.names.duplicate();
+		name.position(start);
+		name.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private int getMethod(int node) {
+		return Kind.unpackMethod(this.methods.get(node));
+	}
+
+	private Kind getKind(int node) {
+		return Kind.unpack(this.methods.get(node));
+	}
+
+	private String describe(int node) {
+		return getKind(node).getLabel() + getMethodName(getMethod(node));
+	}
+
+	/**
+	 * How a node of the call tree reaches its method, packed with the method id in the index.
+	 */
+	enum Kind {
+
+		ENTRY("entry ", "Entry: "),
+
+		DIRECTLY_CALLS("directly calls ", "DirectlyCalls: "),
+
+		VIRTUALLY_CALLS("virtually calls ", "VirtuallyCalls: "),
+
+		OVERRIDDEN_BY("is overridden by ", "OverriddenBy: ");
+
+		private static final int SHIFT = 29;
+
+		static final int MAX_METHODS = 1 << SHIFT;
+
+		private static final Kind[] KINDS = values();
+
+		private final String prefix;
+
+		private final String label;
+
+		Kind(String prefix, String label) {
+			this.prefix = prefix;
+			this.label = label;
+		}
+
+		String getPrefix() {
+			return this.prefix;
+		}
+
+		String getLabel() {
+			return this.label;
+		}
+
+		int pack(int method) {
+			return (ordinal() << SHIFT) | method;
+		}
+
+		static Kind unpack(int packed) {
+			return KINDS[packed >>> SHIFT];
+		}
+
+		static int unpackMethod(int packed) {
+			return packed & (MAX_METHODS - 1);
+		}
+
+		// Null if the line has none of the kinds at that position
+		static Kind of(String line, int position) {
+			for (Kind kind : KINDS) {
+				if (line.startsWith(kind.prefix, position)) {
+					return kind;
+				}
+			}
+			return null;
+		}
+
+	}
+
+	/**
+	 * Where each part of the index is in the file. A header with the counts comes first, then
+	 * for each node its parent, its packed method and kind and the end of its subtree, then for each
+	 * method where its nodes start in the nodes by method that follow, then for each method where
+	 * its name starts in the UTF-8 encoded names that follow.
+	 */
+	static final class Layout {
+
+		static final int HEADER_SIZE = 24;
+
+		private static final int MAGIC = 0x43544958;
+
+		private static final int VERSION = 1;
+
+		private final int methodCount;
+
+		private final int nodeCount;
+
+		private final int nameBytes;
+
+		Layout(int methodCount, int nodeCount, int nameBytes) {
+			this.methodCount = methodCount;
+			this.nodeCount = nodeCount;
+			this.nameBytes = nameBytes;
+		}
+
+		// Null if the header is not that of a complete index of this version
+		static Layout readHeader(ByteBuffer header, long size) {
+			if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+				return null;
+			}
+			Layout layout = new Layout(header.getInt(), header.getInt(), (int) header.getLong());
+			return (layout.getNamesPosition() + layout.nameBytes == size) ? layout : null;
+		}
+
+		void writeHeader(ByteBuffer header) {
+			header.putInt(MAGIC).putInt(VERSION).putInt(this.methodCount).putInt(this.nodeCount).putLong(this.nameBytes);
+		}
+
+		IntRegion parents(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE, this.nodeCount);
+		}
+
+		IntRegion methods(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE + 4L * this.nodeCount, this.nodeCount);
+		}
+
+		IntRegion ends(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE + 8L * this.nodeCount, this.nodeCount);
+		}
+
+		IntRegion occurrenceOffsets(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE + 12L * this.nodeCount, this.methodCount + 1L);
+		}
+
+		IntRegion occurrences(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE + 12L * this.nodeCount + 4L * (this.methodCount + 1),
+					this.nodeCount);
+		}
+
+		IntRegion nameOffsets(FileChannel channel, MapMode mode) throws IOException {
+			return new IntRegion(channel, mode, HEADER_SIZE + 16L * this.nodeCount + 4L * (this.methodCount + 1),
+					this.methodCount + 1L);
+		}
+
+		long getNamesPosition() {
+			return HEADER_SIZE + 16L * this.nodeCount + 8L * (this.methodCount + 1);
+		}
+
+	}
+
+	/**
+	 * Ints of a file, mapped in chunks as a single mapping cannot be larger than 2GB.
+	 */
+	static final class IntRegion {
+
+		private static final int CHUNK_SHIFT = 26;
+
+		private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+
+		private final IntBuffer[] chunks;
+
+		IntRegion(FileChannel channel, MapMode mode, long position, long count) throws IOException {
+			this.chunks = new IntBuffer[(int) ((count + CHUNK_INTS - 1) / CHUNK_INTS)];
+			for (int i = 0; i < this.chunks.length; i++) {
+				long ints = Math.min(CHUNK_INTS, count - (long) i * CHUNK_INTS);
+				this.chunks[i] = channel.map(mode, position + 4L * i * CHUNK_INTS, 4L * ints).asIntBuffer();
+			}
+		}
+
+		int get(int index) {
+			return this.chunks[index >>> CHUNK_SHIFT].get(index & (CHUNK_INTS - 1));
+		}
+
+		void set(int index, int value) {
+			this.chunks[index >>> CHUNK_SHIFT].put(index & (CHUNK_INTS - 1), value);
+		}
+
+	}
+
+}
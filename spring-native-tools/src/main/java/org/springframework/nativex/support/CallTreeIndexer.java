@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.nativex.support.CallTreeIndex.IntRegion;
+import org.springframework.nativex.support.CallTreeIndex.Kind;
+import org.springframework.nativex.support.CallTreeIndex.Layout;
+
+/**
+ * Builds a {@link CallTreeIndex} from a native-image call tree report in two passes. The first
+ * streams the report a line at a time, giving each distinct method an id and writing each node
+ * (its parent and its method) to a temporary file, so only the method names and a stack of the
+ * currently open nodes are held in memory. The second lays the index out in a memory-mapped file:
+ * the nodes, the end of the subtree of each node and, for each method, the nodes it appears at.
+ */
+final class CallTreeIndexer {
+
+	private static final String ENTRY_POINTS_HEADER = "VM Entry Points";
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final Map<String, Integer> methodIds = new HashMap<>();
+
+	// Per method, the number of nodes it appears at
+	private int[] occurrences = new int[1024];
+
+	// Per method, where its name starts in the names, the last entry being where the names end
+	private int[] nameOffsets = new int[1025];
+
+	private int nodeCount;
+
+	// The nodes still open, with the indent of their line, as the report lists them depth first
+	private int[] openIndents = new int[64];
+
+	private int[] openNodes = new int[64];
+
+	private int openCount;
+
+	private CallTreeIndexer() {
+	}
+
+	/**
+	 * Index a call tree report.
+	 * @param report the report, as output by native-image
+	 * @param index where to write the index, replacing any index already there
+	 * @throws IOException if the report cannot be read or the index written
+	 */
+	static void index(Path report, Path index) throws IOException {
+		Path directory = index.toAbsolutePath().getParent();
+		Path nodesFile = Files.createTempFile(directory, "calltree-nodes", ".tmp");
+		Path namesFile = Files.createTempFile(directory, "calltree-names", ".tmp");
+		try {
+			CallTreeIndexer indexer = new CallTreeIndexer();
+			try (BufferedReader reader = Files.newBufferedReader(report, StandardCharsets.UTF_8);
+					DataOutputStream nodes = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(nodesFile), BUFFER_SIZE));
+					OutputStream names = new BufferedOutputStream(Files.newOutputStream(namesFile), BUFFER_SIZE)) {
+				indexer.parse(reader, nodes, names);
+			}
+			indexer.write(nodesFile, namesFile, index);
+		}
+		finally {
+			Files.deleteIfExists(nodesFile);
+			Files.deleteIfExists(namesFile);
+		}
+	}
+
+	private void parse(BufferedReader reader, DataOutputStream nodes, OutputStream names) throws IOException {
+		boolean valid = false;
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (!valid) {
+				valid = line.equals(ENTRY_POINTS_HEADER);
+				continue;
+			}
+			if (isBlank(line)) {
+				continue;
+			}
+			// Lines are like '│   ├── directly calls a.B.c(java.lang.String):void id=876 @bci=192'
+			int indent = line.lastIndexOf('─');
+			Kind kind = (indent != -1) ? Kind.of(line, indent + 2) : null;
+			if (kind == null) {
+				throw new IllegalStateException("What is this? (line " + lineNumber + ") " + line);
+			}
+			int nameStart = indent + 2 + kind.getPrefix().length();
+			int nameEnd = line.indexOf(':', nameStart);
+			if (nameEnd == -1) {
+				throw new IllegalStateException("Unexpectedly unable to match (line " + lineNumber + ") '" + line + "'");
+			}
+			int method = getMethodId(line.substring(nameStart, nameEnd), names);
+			while (this.openCount > 0 && this.openIndents[this.openCount - 1] >= indent) {
+				this.openCount--;
+			}
+			int parent = (this.openCount > 0) ? this.openNodes[this.openCount - 1] : -1;
+			open(indent, this.nodeCount);
+			nodes.writeInt(parent);
+			nodes.writeInt(kind.pack(method));
+			this.occurrences[method]++;
+			if (++this.nodeCount == Integer.MAX_VALUE) {
+				throw new IllegalStateException("Too many calls to index in " + lineNumber + " lines");
+			}
+		}
+	}
+
+	private int getMethodId(String name, OutputStream names) throws IOException {
+		Integer id = this.methodIds.get(name);
+		if (id != null) {
+			return id;
+		}
+		int method = this.methodIds.size();
+		if (method == Kind.MAX_METHODS) {
+			throw new IllegalStateException("Too many methods to index");
+		}
+		this.methodIds.put(name, method);
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		long nameEnd = (long) this.nameOffsets[method] + bytes.length;
+		if (nameEnd > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Method names too large to index");
+		}
+		names.write(bytes);
+		if (method + 1 == this.occurrences.length) {
+			this.occurrences = Arrays.copyOf(this.occurrences, this.occurrences.length * 2);
+			this.nameOffsets = Arrays.copyOf(this.nameOffsets, this.nameOffsets.length * 2);
+		}
+		this.nameOffsets[method + 1] = (int) nameEnd;
+		return method;
+	}
+
+	private void open(int indent, int node) {
+		if (this.openCount == this.openNodes.length) {
+			this.openIndents = Arrays.copyOf(this.openIndents, this.openCount * 2);
+			this.openNodes = Arrays.copyOf(this.openNodes, this.openCount * 2);
+		}
+		this.openIndents[this.openCount] = indent;
+		this.openNodes[this.openCount++] = node;
+	}
+
+	private void write(Path nodesFile, Path namesFile, Path index) throws IOException {
+		int methodCount = this.methodIds.size();
+		int nameBytes = this.nameOffsets[methodCount];
+		Layout layout = new Layout(methodCount, this.nodeCount, nameBytes);
+		try (FileChannel channel = FileChannel.open(index, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			IntRegion parents = layout.parents(channel, MapMode.READ_WRITE);
+			IntRegion methods = layout.methods(channel, MapMode.READ_WRITE);
+			IntRegion occurrenceOffsets = layout.occurrenceOffsets(channel, MapMode.READ_WRITE);
+			IntRegion occurrences = layout.occurrences(channel, MapMode.READ_WRITE);
+			int[] nextOccurrence = new int[methodCount];
+			int offset = 0;
+			for (int method = 0; method < methodCount; method++) {
+				occurrenceOffsets.set(method, offset);
+				nextOccurrence[method] = offset;
+				offset += this.occurrences[method];
+			}
+			occurrenceOffsets.set(methodCount, offset);
+			try (DataInputStream nodes = new DataInputStream(new BufferedInputStream(Files.newInputStream(nodesFile), BUFFER_SIZE))) {
+				for (int node = 0; node < this.nodeCount; node++) {
+					int parent = nodes.readInt();
+					int packed = nodes.readInt();
+					parents.set(node, parent);
+					methods.set(node, packed);
+					occurrences.set(nextOccurrence[Kind.unpackMethod(packed)]++, node);
+				}
+			}
+			// Nodes are numbered depth first, so a subtree ends where the last of its descendants does
+			IntRegion ends = layout.ends(channel, MapMode.READ_WRITE);
+			for (int node = this.nodeCount - 1; node >= 0; node--) {
+				int end = Math.max(ends.get(node), node + 1);
+				ends.set(node, end);
+				int parent = parents.get(node);
+				if (parent != -1 && ends.get(parent) < end) {
+					ends.set(parent, end);
+				}
+			}
+			IntRegion nameOffsets = layout.nameOffsets(channel, MapMode.READ_WRITE);
+			for (int method = 0; method <= methodCount; method++) {
+				nameOffsets.set(method, this.nameOffsets[method]);
+			}
+			try (FileChannel names = FileChannel.open(namesFile)) {
+				long position = 0;
+				while (position < nameBytes) {
+					position += channel.transferFrom(names, layout.getNamesPosition() + position, nameBytes - position);
+				}
+			}
+			// The header goes last, an index only half written is not valid and gets rebuilt
+			ByteBuffer header = ByteBuffer.allocate(Layout.HEADER_SIZE);
+			layout.writeHeader(header);
+			header.flip();
+			channel.write(header, 0);
+			channel.force(false);
+		}
+	}
+
+	private static boolean isBlank(String line) {
+		for (int i = 0; i < line.length(); i++) {
+			if (!Character.isWhitespace(line.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedSet;
 
 /*
  * 
@@ -31,6 +32,8 @@ public class CallTreeQuery {
 		if (args == null || args.length < 3) {
 			System.out.println(
 					"Usage: CallTreeQuery <fileLocation> [options] command parameter");
+			System.out.println(
+					"Commands: routes <method>, callers <method>, reachable <method>, diff <otherFileLocation>");
 			System.out.println(
 					"e.g. CallTreeQuery /path/to/output.txt --ignore-overridden routes Foo.toString");
 			System.exit(0);
@@ -44,20 +47,45 @@ public class CallTreeQuery {
 		}
 		command = args[commandIndex];
 		parameter = args[commandIndex+1];
-		
-		CallTree a = CallTree.load("", file);
-		int flags = 0;
-		if (options.contains("--ignore-overridden")) {
-			flags|=CallTree.IGNORE_OVERRIDDEN;
-		}
 
-		switch (command) {
-		case "routes": 
-			System.out.println("Printing routes to "+parameter);
-			a.printRoutes(parameter, flags);
-			break;
+		// The report is indexed on first use, queries then only read the parts of the index they need
+		try (CallTreeIndex a = CallTreeIndex.load(file)) {
+			long start = System.currentTimeMillis();
+			switch (command) {
+			case "routes":
+				System.out.println("Printing routes to "+parameter);
+				a.getRoutes(parameter, options.contains("--ignore-overridden")).forEach(System.out::println);
+				break;
+			case "callers":
+				System.out.println("Printing callers of "+parameter);
+				a.getCallers(parameter).forEach((method, callers) -> {
+					System.out.println(method+" has "+callers.size()+" callers:");
+					callers.forEach(caller -> System.out.println("  "+caller));
+				});
+				break;
+			case "reachable":
+				SortedSet<String> reachable = a.getReachable(parameter);
+				System.out.println("Methods reachable from "+parameter+": "+reachable.size());
+				reachable.forEach(System.out::println);
+				break;
+			case "diff":
+				try (CallTreeIndex b = CallTreeIndex.load(parameter)) {
+					printDiff(file, a, parameter, b);
+				}
+				break;
 			default:
-				throw new IllegalStateException("Don't understand command: "+args[1]);
+				throw new IllegalStateException("Don't understand command: "+command);
+			}
+			System.out.println("Query took "+(System.currentTimeMillis()-start)+"ms");
 		}
 	}
+
+	static void printDiff(String idA, CallTreeIndex a, String idB, CallTreeIndex b) {
+		SortedSet<String> onlyInA = a.getMethodsNotIn(b);
+		SortedSet<String> onlyInB = b.getMethodsNotIn(a);
+		System.out.println("Methods in "+idA+" ("+a.getMethodCount()+") not in "+idB+": "+onlyInA.size());
+		onlyInA.forEach(method -> System.out.println("  "+method));
+		System.out.println("Methods in "+idB+" ("+b.getMethodCount()+") not in "+idA+": "+onlyInB.size());
+		onlyInB.forEach(method -> System.out.println("  "+method));
+	}
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.framework;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * The interceptor chains for the methods of a build time proxy whose configuration is frozen
+ * and whose target is static. Neither the advice nor the target class can change, so the chain
+ * of each method is looked up on its first invocation and then reused. {@link AdvisedSupport}
+ * already caches the chains per method in its {@code methodCache}, what this saves is building
+ * a {@code MethodCacheKey} and looking it up on every call, not computing the chains.
+ * <p>
+ * Proxies hold this in a transient field, a deserialized proxy has none and uses the
+ * {@link AdvisedSupport} directly.
+ */
+public final class AdviceChains {
+
+	private final AdvisedSupport advised;
+
+	private final Map<Method, List<Object>> chains = new ConcurrentHashMap<>();
+
+	private AdviceChains(AdvisedSupport advised) {
+		this.advised = advised;
+	}
+
+	/**
+	 * @param advised the configuration of the proxy
+	 * @return the chains for a proxy with that configuration, or null if its chains may change
+	 */
+	@Nullable
+	static AdviceChains forConfiguration(AdvisedSupport advised) {
+		if (advised.isFrozen() && advised.getTargetSource().isStatic()) {
+			return new AdviceChains(advised);
+		}
+		return null;
+	}
+
+	/**
+	 * @param method the proxied method
+	 * @param targetClass the class of the target, always the same as the target is static
+	 * @return the interceptors and dynamic interception advice for the method
+	 */
+	List<Object> get(Method method, @Nullable Class<?> targetClass) {
+		List<Object> chain = this.chains.get(method);
+		if (chain == null) {
+			chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+			this.chains.put(method, chain);
+		}
+		return chain;
+	}
+
+}
@@ -153,6 +153,7 @@ public class BuildTimeAopProxy implements AopProxy, Serializable {
 			}
 			Object proxy = createProxyInstance(proxyType);
 			((_AdvisedSupportAware) proxy)._setAdvised(this.advised);
+			((_AdvisedSupportAware) proxy)._setAdviceChains(AdviceChains.forConfiguration(this.advised));
 			return proxy;
 		} catch (IllegalStateException ex) {
 			throw new AopConfigException("Unexpected problem loading and instantiating proxy for target class "+
@@ -9,7 +9,6 @@ import org.springframework.aop.TargetSource;
 import org.springframework.lang.Nullable;
 
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
@@ -25,6 +24,8 @@ import java.util.function.Function;
 public class Interceptors {
 
 	public static final String ADVISED = "advised";
+
+	public static final String ADVICE_CHAINS = "adviceChains";
 	
 	/**
 	 * Method interceptor used for static targets with no advice chain. The call
@@ -56,17 +57,19 @@ public class Interceptors {
 
 
 	/**
-	 * General purpose AOP callback. Used when the target is dynamic or when the
-	 * proxy is not frozen.
+	 * General purpose AOP callback. When the proxy is frozen and its target static the
+	 * advice chain of each method is only computed once, see {@link AdviceChains}.
 	 */
 	public static class DynamicAdvisedInterceptor {
 
 		@Nullable
 		@RuntimeType
 		public static Object intercept(@Nullable @FieldValue(ADVISED) AdvisedSupport advised,
+									   @Nullable @FieldValue(ADVICE_CHAINS) AdviceChains adviceChains,
 									   @This Object proxy,
 									   @Origin Method method,
 									   @AllArguments Object[] args,
+									   @Pipe Function<Object, ?> forward,
 									   @Nullable @SuperCall(nullIfImpossible = true) Callable<?> superCall) throws Throwable {
 			if (advised == null) {
 				if (superCall == null) {
@@ -91,45 +94,31 @@ public class Interceptors {
 				if (target != null) {
 					targetClass = target.getClass();
 				}
-				List<Object> chain = advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass);
+				List<Object> chain = (adviceChains != null ? adviceChains.get(method, targetClass) :
+						advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass));
 				Object returnValue;
-				// Check whether we only have one InvokerInterceptor: that is,
-				// no real advice, but just reflective invocation of the target.
-
-				// this check should verify the containing type for the target is also public! (see InitCountingBean used by tests)
-				
-				// TODO [build time proxies] dig into the 'false' here - as I recall it is not always
-				// sufficient just to check the method is public, the type containing the method also
-				// needs to be public? Needs testcase
-				if (false && chain.isEmpty() && Modifier.isPublic(method.getModifiers())) {
-					// We can skip creating a MethodInvocation: just invoke the target directly.
-					// Note that the final invoker must be an InvokerInterceptor, so we know
-					// it does nothing but a reflective operation on the target, and no hot
-					// swapping or fancy proxying.
-					Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
-					try {
-						returnValue = method.invoke(target, argsToUse);
+				try {
+					if (chain.isEmpty() && target != null) {
+						// No real advice: skip creating a MethodInvocation and call the target
+						// directly through the generated pipe. Unlike reflection this works
+						// whatever the visibility of the method or of the type declaring it.
+						returnValue = forward.apply(target);
 					}
-					catch (InvocationTargetException exception) {
-						throw exception.getCause();
+					else {
+						// We need to create a method invocation...
+						returnValue = new OptimizedReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain).proceed();
 					}
 				}
-				else {
-					// We need to create a method invocation...
-					try {
-						returnValue = new OptimizedReflectiveMethodInvocation(proxy, target, method, args, targetClass, chain).proceed();
+				catch (Throwable throwable) {
+					if (throwable instanceof RuntimeException || throwable instanceof Error) {
+						throw throwable;
 					}
-					catch (Throwable throwable) {
-						if (throwable instanceof RuntimeException || throwable instanceof Error) {
+					for (Class<?> exceptionType : method.getExceptionTypes()) {
+						if (exceptionType.isInstance(throwable)) {
 							throw throwable;
 						}
-						for (Class<?> exceptionType : method.getExceptionTypes()) {
-							if (exceptionType.isInstance(throwable)) {
-								throw throwable;
-							}
-						}
-						throw new UndeclaredThrowableException(throwable);
 					}
+					throw new UndeclaredThrowableException(throwable);
 				}
 				returnValue = processReturnType(proxy, target, method, returnValue);
 				return returnValue;
@@ -31,6 +31,7 @@ import org.springframework.util.ClassUtils;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.NamingStrategy;
 import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.FieldPersistence;
 import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.DynamicType;
@@ -59,7 +60,20 @@ public class ProxyGenerator {
 	 * Keeps track of the Classes that we have validated for final methods.
 	 */
 	private static final Map<Class<?>, Boolean> validatedClasses = new WeakHashMap<>();
-	
+
+	/**
+	 * Configuration common to every proxy, Byte Buddy instances are immutable so this can be shared
+	 * by proxies being generated concurrently.
+	 */
+	private static final ByteBuddy byteBuddy = new ByteBuddy().with(TypeValidation.DISABLED).ignore(ElementMatchers.none());
+
+	/**
+	 * Generate the proxy class, this may be called concurrently for different proxies sharing the
+	 * same class loader.
+	 * @param cpd the descriptor of the proxy to build
+	 * @param classLoader the class loader able to load the proxied types
+	 * @return the unloaded proxy class, and its auxiliary classes
+	 */
 	public static DynamicType.Unloaded<?> getProxyBytes(BuildTimeProxyDescriptor cpd, ClassLoader classLoader) {
 		ProxyConfiguration config = ProxyConfiguration.get(cpd, classLoader);
 		logger.info("Generating class file bytes for a proxy named "+config.getProxyClassName());
@@ -70,21 +84,24 @@ public class ProxyGenerator {
 
 			validateClassIfNecessary(proxySuperClass, classLoader);
 
-			ByteBuddy byteBuddy = new ByteBuddy().with(TypeValidation.DISABLED);
-			byteBuddy = byteBuddy.ignore(ElementMatchers.none());
-			byteBuddy = byteBuddy.with(new ProxyNamingStrategy(config));
-			byteBuddy = byteBuddy.with(new AuxiliaryTypeNamingStrategy());
+			ByteBuddy proxyByteBuddy = byteBuddy.with(new ProxyNamingStrategy(config))
+					.with(new AuxiliaryTypeNamingStrategy());
 
-			DynamicType.Builder<?> builder = byteBuddy.subclass(resolve(config.getTargetClass(), classLoader));
+			DynamicType.Builder<?> builder = proxyByteBuddy.subclass(resolve(config.getTargetClass(), classLoader));
 			builder = builder.implement(resolve(config.getProxiedInterfaces(), classLoader));
 
 			builder = configure(builder, proxySuperClass, config, classLoader);
 
 			builder = builder.defineField(Interceptors.ADVISED, AdvisedSupport.class, Visibility.PRIVATE);
+			// Transient so that serializable proxies stay serializable, the chains are found again without it
+			builder = builder.defineField(Interceptors.ADVICE_CHAINS, AdviceChains.class, Visibility.PRIVATE,
+					FieldPersistence.TRANSIENT);
 			builder = builder.implement(_AdvisedSupportAware.class)
 					.method(ElementMatchers.named("_setAdvised")
 							.or(ElementMatchers.named("_getAdvised")))
-					.intercept(FieldAccessor.ofField(Interceptors.ADVISED));
+					.intercept(FieldAccessor.ofField(Interceptors.ADVISED))
+					.method(ElementMatchers.named("_setAdviceChains"))
+					.intercept(FieldAccessor.ofField(Interceptors.ADVICE_CHAINS));
 			DynamicType.Unloaded<?> type = builder.make();
 			return type;
 		} catch (Exception ex) {
@@ -184,7 +201,7 @@ public class ProxyGenerator {
 					Interceptors.DynamicUnadvisedInterceptor.class);
 		}
 
-		MethodDelegation aopProxy = MethodDelegation.to(Interceptors.DynamicAdvisedInterceptor.class);
+		MethodDelegation aopProxy = invokeConfiguration.to(Interceptors.DynamicAdvisedInterceptor.class);
 
 		Implementation adviceDispatched = MethodCall.invokeSelf().onField(Interceptors.ADVISED).withAllArguments();
 
@@ -28,4 +28,6 @@ public interface _AdvisedSupportAware {
 	AdvisedSupport _getAdvised();
 
 	void _setAdvised(AdvisedSupport advised);
+
+	void _setAdviceChains(AdviceChains adviceChains);
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.nativex.substitutions.framework;
+
+import com.oracle.svm.core.annotate.Alias;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.lang.Nullable;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.StaticClassPresenceIsAround;
+import org.springframework.nativex.substitutions.WithAot;
+
+/**
+ * Answer false, without attempting to load them, for the classes checked by Spring static
+ * initializers that the generated {@code StaticClassPresence} records as missing from the build
+ * classpath. Those cannot be in the image whoever asks. Every other check is made as usual.
+ */
+@TargetClass(className = "org.springframework.util.ClassUtils", onlyWith = { WithAot.class, StaticClassPresenceIsAround.class, OnlyIfPresent.class })
+final class Target_ClassUtils {
+
+	@Substitute
+	public static boolean isPresent(String className, @Nullable ClassLoader classLoader) {
+		if (Target_StaticClassPresence.absent.contains(className)) {
+			return false;
+		}
+		try {
+			forName(className, classLoader);
+			return true;
+		}
+		catch (IllegalAccessError err) {
+			throw new IllegalStateException("Readability mismatch in inheritance hierarchy of class [" +
+					className + "]: " + err.getMessage(), err);
+		}
+		catch (Throwable ex) {
+			// Typically ClassNotFoundException or NoClassDefFoundError...
+			return false;
+		}
+	}
+
+	@Alias
+	public static Class<?> forName(String name, @Nullable ClassLoader classLoader) throws ClassNotFoundException, LinkageError {
+		return null;
+	}
+
+}
@@ -36,16 +36,17 @@ final class Target_SpringApplication {
 	@Substitute
 	private <T> Collection<T> getSpringFactoriesInstances(Class<T> type, Class<?>[] parameterTypes, Object... args) {
 		ClassLoader classLoader = getClassLoader();
-		// Use names and ensure unique to protect against duplicates
-		Set<String> names = new LinkedHashSet<>(SpringFactoriesLoader.loadFactoryNames(type, classLoader));
 		List<T> instances;
 		if (args.length == 0) {
+			// Already sorted, at build time or by the loader
 			instances = SpringFactoriesLoader.loadFactories(type, classLoader);
 		} else {
+			// Use names and ensure unique to protect against duplicates
+			Set<String> names = new LinkedHashSet<>(SpringFactoriesLoader.loadFactoryNames(type, classLoader));
 			// TODO generate reflection data when args are passed
 			instances = createSpringFactoriesInstances(type, parameterTypes, classLoader, args, names);
+			AnnotationAwareOrderComparator.sort(instances);
 		}
-		AnnotationAwareOrderComparator.sort(instances);
 		return instances;
 	}
 
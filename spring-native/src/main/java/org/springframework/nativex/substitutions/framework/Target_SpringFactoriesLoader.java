@@ -60,6 +60,10 @@ final class Target_SpringFactoriesLoader {
 					logger.trace("Could not instantiate factory for " + factoryType, throwable);
 				}
 			}
+			// Factories are registered in order, unless some implement Ordered
+			if (Target_StaticSpringFactories.dynamicallyOrdered.contains(factoryType)) {
+				AnnotationAwareOrderComparator.sort(factories);
+			}
 			return factories;
 		}
 		else {
@@ -88,16 +92,10 @@ final class Target_SpringFactoriesLoader {
 			if (names != null) {
 				result.addAll(names);
 			}
-			List<Supplier<Object>> stored = Target_StaticSpringFactories.factories.get(factoryType);
-			if (stored != null) {
-				for (Supplier<Object> supplier : stored) {
-					try {
-						result.add(supplier.get().getClass().getName());
-					}
-					catch (Throwable throwable) {
-						logger.trace("Could not get factory name for " + factoryType, throwable);
-					}
-				}
+			// Names recorded at build time, so the factories do not have to be created to list them
+			List<String> factoryNames = Target_StaticSpringFactories.factoryNames.get(factoryType);
+			if (factoryNames != null) {
+				result.addAll(factoryNames);
 			}
 			return result;
 		}
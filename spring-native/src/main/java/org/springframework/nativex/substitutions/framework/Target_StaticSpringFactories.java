@@ -16,6 +16,7 @@
 
 package org.springframework.nativex.substitutions.framework;
 
+import java.util.Set;
 import java.util.function.Supplier;
 
 import com.oracle.svm.core.annotate.Alias;
@@ -31,6 +32,12 @@ final class Target_StaticSpringFactories {
 	@Alias
 	public static MultiValueMap<Class, Supplier<Object>> factories;
 
+	@Alias
+	public static MultiValueMap<Class, String> factoryNames;
+
 	@Alias
 	public static MultiValueMap<Class, String> names;
+
+	@Alias
+	public static Set<Class> dynamicallyOrdered;
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019-2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.nativex.substitutions.logback;
+
+import java.net.URL;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.joran.spi.JoranException;
+import com.oracle.svm.core.annotate.Substitute;
+import com.oracle.svm.core.annotate.TargetClass;
+
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.nativex.substitutions.LogbackIsAround;
+import org.springframework.nativex.substitutions.OnlyIfPresent;
+import org.springframework.nativex.substitutions.StaticLogbackConfigurationIsAround;
+
+/**
+ * Configure logback from the XML configurations compiled at build time when Spring Boot's
+ * logging system loads them, rather than with Joran. Configurations that were not compiled,
+ * such as {@code logback-spring.xml}, are still read by {@code SpringBootJoranConfigurator}.
+ */
+@TargetClass(className = "org.springframework.boot.logging.logback.LogbackLoggingSystem", onlyWith = { OnlyIfPresent.class, LogbackIsAround.class, StaticLogbackConfigurationIsAround.class })
+final class Target_LogbackLoggingSystem {
+
+	@Substitute
+	private void configureByResourceUrl(LoggingInitializationContext initializationContext, LoggerContext loggerContext,
+			URL url) throws JoranException {
+		if (url.toString().endsWith("xml")) {
+			if (Target_StaticLogbackConfiguration.configure(loggerContext, url.toString())) {
+				return;
+			}
+			JoranConfigurator configurator = (JoranConfigurator) (Object) new Target_SpringBootJoranConfigurator(initializationContext);
+			configurator.setContext(loggerContext);
+			configurator.doConfigure(url);
+		}
+		else {
+			new ContextInitializer(loggerContext).configureByResource(url);
+		}
+	}
+}